@@ -7,9 +7,13 @@ import com.relix.servicebooking.audit.entity.AuditLog;
 import com.relix.servicebooking.audit.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -19,8 +23,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuditService {
 
+    public enum Mode {
+        /** Insert through JPA inside the caller's transaction */
+        SYNC,
+        /** Hand off to {@link AuditWriter} once the caller's transaction commits */
+        ASYNC
+    }
+
     private final AuditLogRepository auditLogRepository;
     private final ObjectMapper objectMapper;
+    private final AuditWriter auditWriter;
+
+    @Value("${booking.audit.mode:ASYNC}")
+    private Mode mode;
 
     @Transactional
     public void log(String entityType, Long entityId, String action,
@@ -34,6 +49,13 @@ public class AuditService {
             }
         }
 
+        if (mode == Mode.ASYNC) {
+            AuditWriter.Event event = new AuditWriter.Event(
+                    entityType, entityId, action, actorType, actorId, detailsJson, Instant.now());
+            afterCommit(() -> auditWriter.enqueue(event));
+            return;
+        }
+
         AuditLog auditLog = AuditLog.builder()
                 .entityType(entityType)
                 .entityId(entityId)
@@ -47,6 +69,22 @@ public class AuditService {
         log.debug("Audit logged: {} {} {} by {}:{}", entityType, entityId, action, actorType, actorId);
     }
 
+    /**
+     * Rolled-back work leaves no audit trail, same as the synchronous insert.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     @Transactional(readOnly = true)
     public List<AuditLogResponse> getByEntity(String entityType, Long entityId) {
         return auditLogRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDesc(entityType, entityId)
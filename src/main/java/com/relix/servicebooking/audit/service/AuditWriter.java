@@ -0,0 +1,348 @@
+package com.relix.servicebooking.audit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer for audit events.
+ *
+ * Events are queued in a bounded buffer and flushed by a single thread as multi-row
+ * INSERTs, so request transactions never pay for the audit round trip. When the buffer
+ * is full the configured {@link Backpressure} applies. On shutdown the writer stops after
+ * the web server and drains whatever is left before the DataSource closes.
+ *
+ * Every insert runs in its own transaction: callers enqueue from afterCommit, where the
+ * finished request transaction's connection is still bound with auto-commit off, so a
+ * fallback write on the caller's thread would otherwise never be committed. A batch the
+ * database rejects is retried row by row, so one bad event does not take the rest with it.
+ * A batch that fails because the database is unavailable (no connection or transaction,
+ * lost connection, lock or serialization failure) is kept: the writer thread retries it with
+ * backoff doubling from {@code retry-base-ms} up to {@code retry-max-ms}, the buffer fills
+ * behind it and the configured {@link Backpressure} pushes back on producers. Only events that
+ * still cannot be written 30 seconds into shutdown, or in a caller-thread write, are dropped and counted.
+ *
+ * The buffer is an {@link ArrayBlockingQueue} rather than a lock-free ring buffer. Producers
+ * hold its lock only for an array store, the single consumer drains up to a whole batch per
+ * acquisition, and BLOCK needs a blocking put, which a lock-free MPSC ring would have to
+ * rebuild with parking on top of a hand-rolled or third-party queue.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_logs (entity_type, entity_id, action, actor_type, actor_id, details, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+    private static final int COLUMNS = 7;
+
+    // Stop after the web server (DEFAULT_PHASE - 2048) so in-flight requests can still enqueue
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long SHUTDOWN_RETRY_MS = TimeUnit.SECONDS.toMillis(30);
+
+    public enum Backpressure {
+        /** Caller waits for space in the buffer */
+        BLOCK,
+        /** Event is discarded and counted */
+        DROP,
+        /** Caller writes the event itself */
+        SYNC
+    }
+
+    public record Event(String entityType, Long entityId, String action,
+                        String actorType, Long actorId, String details, Instant createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final BlockingQueue<Event> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Backpressure backpressure;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter fallbackCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+
+    private volatile boolean running;
+    private volatile long giveUpAtNanos;
+    private Thread worker;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.audit.buffer-capacity:8192}") int bufferCapacity,
+                       @Value("${booking.audit.batch-size:500}") int batchSize,
+                       @Value("${booking.audit.flush-interval-ms:200}") long flushIntervalMs,
+                       @Value("${booking.audit.backpressure:SYNC}") Backpressure backpressure,
+                       @Value("${booking.audit.retry-base-ms:100}") long retryBaseMs,
+                       @Value("${booking.audit.retry-max-ms:10000}") long retryMaxMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.backpressure = backpressure;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Latency of one audit batch insert")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("audit.events.written");
+        this.droppedCounter = meterRegistry.counter("audit.events.dropped");
+        this.fallbackCounter = meterRegistry.counter("audit.events.sync_fallback");
+        this.failedCounter = meterRegistry.counter("audit.events.failed");
+        this.retriedCounter = meterRegistry.counter("audit.batches.retried");
+    }
+
+    /**
+     * Hand an event to the writer. Never throws; failures are logged and counted.
+     */
+    public void enqueue(Event event) {
+        if (!running) {
+            writeNow(List.of(event));
+            return;
+        }
+
+        if (!queue.offer(event)) {
+            switch (backpressure) {
+                case BLOCK -> put(event);
+                case DROP -> {
+                    droppedCounter.increment();
+                    log.warn("Audit buffer full, event dropped: {} {} {}", event.entityType(), event.entityId(), event.action());
+                }
+                case SYNC -> {
+                    fallbackCounter.increment();
+                    writeNow(List.of(event));
+                }
+            }
+        }
+
+        // Lost the race with stop(): the worker may already have drained, so flush here
+        if (!running) {
+            drain();
+        }
+    }
+
+    private void put(Event event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fallbackCounter.increment();
+            writeNow(List.of(event));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        giveUpAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_RETRY_MS);
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(SHUTDOWN_RETRY_MS + retryMaxMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+        log.info("Audit writer stopped, buffer drained");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runLoop() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Event first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write everything currently buffered on the calling thread.
+     */
+    void drain() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeNow(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Write a batch on the writer thread, retrying with backoff while the database is unavailable.
+     * Gives up only once the writer has been stopping for {@value #SHUTDOWN_RETRY_MS}ms.
+     */
+    private void writeWithRetry(List<Event> batch) throws InterruptedException {
+        List<Event> pending = write(batch);
+        long delay = retryBaseMs;
+        while (!pending.isEmpty()) {
+            if (!running && System.nanoTime() - giveUpAtNanos > 0) {
+                giveUp(pending);
+                return;
+            }
+            retriedCounter.increment();
+            log.warn("Database unavailable, retrying {} audit events in {}ms", pending.size(), delay);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                giveUp(pending);
+                throw e;
+            }
+            delay = Math.min(delay * 2, retryMaxMs);
+            pending = write(pending);
+        }
+    }
+
+    /**
+     * Write a batch on the calling thread, which cannot wait out an outage.
+     */
+    private void writeNow(List<Event> batch) {
+        List<Event> pending = write(batch);
+        if (!pending.isEmpty()) {
+            giveUp(pending);
+        }
+    }
+
+    private void giveUp(List<Event> events) {
+        failedCounter.increment(events.size());
+        log.error("Database unavailable, {} audit events dropped", events.size());
+    }
+
+    /**
+     * @return the events left unwritten because the database was unavailable, in order
+     */
+    private List<Event> write(List<Event> batch) {
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            writtenCounter.increment(batch.size());
+            return List.of();
+        } catch (RuntimeException e) {
+            if (isUnavailable(e)) {
+                log.debug("Audit batch of {} not written: {}", batch.size(), e.getMessage());
+                return List.copyOf(batch);
+            }
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                log.error("Failed to write audit event {} {} {}",
+                        batch.get(0).entityType(), batch.get(0).entityId(), batch.get(0).action(), e);
+                return List.of();
+            }
+            log.warn("Audit batch of {} rejected, retrying row by row: {}", batch.size(), e.getMessage());
+            return writeEach(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Event> writeEach(List<Event> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Event event = batch.get(i);
+            try {
+                insert(List.of(event));
+                writtenCounter.increment();
+            } catch (RuntimeException e) {
+                if (isUnavailable(e)) {
+                    return List.copyOf(batch.subList(i, batch.size()));
+                }
+                failedCounter.increment();
+                log.error("Failed to write audit event {} {} {}", event.entityType(), event.entityId(), event.action(), e);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Failures of the database rather than of the rows: no transaction, a lost or exhausted
+     * connection, a lock timeout or a serialization failure.
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransactionException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void insert(List<Event> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        Object[] args = new Object[batch.size() * COLUMNS];
+        int i = 0;
+        for (Event event : batch) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[i++] = event.entityType();
+            args[i++] = event.entityId();
+            args[i++] = event.action();
+            args[i++] = event.actorType();
+            args[i++] = event.actorId();
+            args[i++] = event.details();
+            args[i++] = Timestamp.from(event.createdAt());
+        }
+
+        requiresNew.executeWithoutResult(status -> jdbcTemplate.update(sql.toString(), args));
+    }
+}
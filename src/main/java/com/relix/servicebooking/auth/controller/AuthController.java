@@ -5,12 +5,14 @@ import com.relix.servicebooking.auth.dto.LoginRequest;
 import com.relix.servicebooking.auth.dto.RefreshRequest;
 import com.relix.servicebooking.auth.dto.RegisterRequest;
 import com.relix.servicebooking.auth.service.AuthService;
+import com.relix.servicebooking.auth.service.AuthThrottle;
 import com.relix.servicebooking.common.dto.ApiResponse;
 import com.relix.servicebooking.user.dto.UserResponse;
 import com.relix.servicebooking.user.entity.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -29,11 +31,14 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthThrottle authThrottle;
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
-            @Valid @RequestBody RegisterRequest request) {
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        authThrottle.acquire(httpRequest.getRemoteAddr(), request.getEmail());
         AuthResponse response = authService.register(request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(response, "Registration successful"));
@@ -42,7 +47,9 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "Login")
     public ResponseEntity<ApiResponse<AuthResponse>> login(
-            @Valid @RequestBody LoginRequest request) {
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        authThrottle.acquire(httpRequest.getRemoteAddr(), request.getEmail());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(ApiResponse.success(response, "Login successful"));
     }
@@ -18,6 +18,7 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_tokens")
@@ -39,6 +40,18 @@ public class RefreshToken {
     @Column(name = "token_hash", nullable = false, length = 64)
     private String tokenHash;
 
+    /**
+     * Shared by every token of one rotation chain, from login to the latest refresh.
+     */
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    /**
+     * The user's token generation when this token was issued.
+     */
+    @Column(nullable = false)
+    private Long generation;
+
     @Column(name = "expires_at", nullable = false)
     private Instant expiresAt;
 
@@ -0,0 +1,7 @@
+package com.relix.servicebooking.auth.event;
+
+/**
+ * Published when every refresh token of a user is revoked by moving to a new generation.
+ */
+public record RefreshTokensRevokedEvent(Long userId, long generation) {
+}
@@ -9,17 +9,37 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
 
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.user.id = :userId AND r.revoked = false")
-    void revokeAllByUserId(@Param("userId") Long userId);
+    /**
+     * @return 1 if this call revoked the token, 0 if it had already been rotated
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.id = :id AND r.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
 
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now OR (r.revoked = true AND r.createdAt < :revokedCutoff)")
-    int deleteExpiredOrOldRevokedTokens(@Param("now") Instant now, @Param("revokedCutoff") Instant revokedCutoff);
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE revoked = TRUE AND created_at < :cutoff LIMIT :limit)",
+            nativeQuery = true)
+    int deleteRevokedChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    long countByExpiresAtBefore(Instant now);
+
+    long countByRevokedTrueAndCreatedAtBefore(Instant cutoff);
 }
@@ -5,18 +5,23 @@ import com.relix.servicebooking.auth.dto.LoginRequest;
 import com.relix.servicebooking.auth.dto.RefreshRequest;
 import com.relix.servicebooking.auth.dto.RegisterRequest;
 import com.relix.servicebooking.auth.entity.RefreshToken;
+import com.relix.servicebooking.auth.event.RefreshTokensRevokedEvent;
 import com.relix.servicebooking.auth.repository.RefreshTokenRepository;
 import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
 import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.provider.service.ProviderIdCache;
 import com.relix.servicebooking.user.entity.User;
 import com.relix.servicebooking.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.Set;
@@ -33,10 +38,18 @@ public class AuthService {
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenGenerations refreshTokenGenerations;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
     private final ProviderRepository providerRepository;
-
-    @Transactional
+    private final ProviderIdCache providerIdCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The password is hashed before the transaction opens, so no pooled connection is held
+     * while the request waits for {@link PasswordHasher}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BusinessException("Email already registered", "EMAIL_EXISTS");
@@ -48,33 +61,39 @@ public class AuthService {
         }
 
         User.UserRole role = User.UserRole.valueOf(roleStr);
+        String passwordHash = passwordHasher.encode(request.getPassword());
 
-        User user = User.builder()
-                .name(request.getName())
-                .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
-                .phone(request.getPhone())
-                .role(role)
-                .status(User.UserStatus.ACTIVE)
-                .build();
+        return transactionTemplate.execute(status -> {
+            User user = User.builder()
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    .passwordHash(passwordHash)
+                    .phone(request.getPhone())
+                    .role(role)
+                    .status(User.UserStatus.ACTIVE)
+                    .build();
 
-        user = userRepository.save(user);
+            user = userRepository.save(user);
 
-        if (role == User.UserRole.PROVIDER) {
-            createProviderProfileIfMissing(user, request);
-        }
+            if (role == User.UserRole.PROVIDER) {
+                createProviderProfileIfMissing(user, request);
+            }
 
-        log.info("User registered: id={}, email={}", user.getId(), user.getEmail());
+            log.info("User registered: id={}, email={}", user.getId(), user.getEmail());
 
-        return generateAuthResponse(user);
+            return generateAuthResponse(user, user.getTokenGeneration(), UUID.randomUUID());
+        });
     }
 
-    @Transactional
+    /**
+     * Credentials are checked outside any transaction; only the token rotation runs in one.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BusinessException("Invalid email or password", "INVALID_CREDENTIALS"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             throw new BusinessException("Invalid email or password", "INVALID_CREDENTIALS");
         }
 
@@ -82,30 +101,55 @@ public class AuthService {
             throw new BusinessException("Account is not active", "ACCOUNT_INACTIVE");
         }
 
-        refreshTokenRepository.revokeAllByUserId(user.getId());
+        return transactionTemplate.execute(status -> {
+            long generation = revokeAllRefreshTokens(user.getId());
 
-        log.info("User logged in: id={}, email={}", user.getId(), user.getEmail());
-        return generateAuthResponse(user);
+            log.info("User logged in: id={}, email={}", user.getId(), user.getEmail());
+            return generateAuthResponse(user, generation, UUID.randomUUID());
+        });
     }
 
-    @Transactional
+    /**
+     * Rotates a refresh token within its family. Tokens from a revoked generation are turned
+     * away from memory when possible; presenting an already rotated token again revokes the
+     * whole family, since one of the two holders is not the legitimate client.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse refresh(RefreshRequest request) {
+        RefreshTokenGenerations.TokenClaims claims = RefreshTokenGenerations.parse(request.getRefreshToken());
+        if (claims != null && refreshTokenGenerations.isStale(claims)) {
+            throw new BusinessException("Refresh token expired or revoked", "TOKEN_EXPIRED");
+        }
+
         String tokenHash = jwtService.hashToken(request.getRefreshToken());
 
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new BusinessException("Invalid refresh token", "INVALID_TOKEN"));
+        AuthResponse response = transactionTemplate.execute(status -> {
+            RefreshToken refreshToken = refreshTokenRepository.findWithUserByTokenHash(tokenHash)
+                    .orElseThrow(() -> new BusinessException("Invalid refresh token", "INVALID_TOKEN"));
 
-        if (!refreshToken.isValid()) {
-            throw new BusinessException("Refresh token expired or revoked", "TOKEN_EXPIRED");
-        }
+            User user = refreshToken.getUser();
+            long generation = user.getTokenGeneration();
+            refreshTokenGenerations.observe(user.getId(), generation);
 
-        User user = refreshToken.getUser();
+            if (refreshToken.isExpired() || refreshToken.getGeneration() != generation) {
+                throw new BusinessException("Refresh token expired or revoked", "TOKEN_EXPIRED");
+            }
 
-        refreshToken.setRevoked(true);
-        refreshTokenRepository.save(refreshToken);
+            if (refreshToken.getRevoked() || refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 0) {
+                int revoked = refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+                log.warn("Rotated refresh token reused, family revoked: userId={}, familyId={}, revoked={}",
+                        user.getId(), refreshToken.getFamilyId(), revoked);
+                return null;
+            }
 
-        log.info("Token refreshed for user: id={}", user.getId());
-        return generateAuthResponse(user);
+            log.info("Token refreshed for user: id={}", user.getId());
+            return generateAuthResponse(user, generation, refreshToken.getFamilyId());
+        });
+
+        if (response == null) {
+            throw new BusinessException("Refresh token expired or revoked", "TOKEN_EXPIRED");
+        }
+        return response;
     }
 
     public User getCurrentUser(Long userId) {
@@ -115,10 +159,23 @@ public class AuthService {
 
     @Transactional
     public void logout(Long userId) {
-        refreshTokenRepository.revokeAllByUserId(userId);
+        revokeAllRefreshTokens(userId);
         log.info("User logged out: id={}", userId);
     }
 
+    /**
+     * Move the user to a new token generation, which invalidates every refresh token issued so far.
+     *
+     * @return the new generation
+     */
+    private long revokeAllRefreshTokens(Long userId) {
+        userRepository.incrementTokenGeneration(userId);
+        long generation = userRepository.findTokenGenerationById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        eventPublisher.publishEvent(new RefreshTokensRevokedEvent(userId, generation));
+        return generation;
+    }
+
 
     private void createProviderProfileIfMissing(User user, RegisterRequest request) {
         if (providerRepository.existsByUser_Id(user.getId())) {
@@ -139,12 +196,14 @@ public class AuthService {
                 .build();
 
         providerRepository.save(provider);
+        providerIdCache.evict(user.getId());
+        eventPublisher.publishEvent(new ProviderChangedEvent(provider.getId()));
         log.info("Provider profile created during registration: userId={}, businessName={}", user.getId(), businessName);
     }
 
-    private AuthResponse generateAuthResponse(User user) {
+    private AuthResponse generateAuthResponse(User user, long generation, UUID familyId) {
         String accessToken = jwtService.generateAccessToken(user);
-        String refreshTokenStr = generateRefreshToken(user);
+        String refreshTokenStr = generateRefreshToken(user, generation, familyId);
 
         return AuthResponse.builder()
                 .userId(user.getId())
@@ -158,14 +217,16 @@ public class AuthService {
                 .build();
     }
 
-    private String generateRefreshToken(User user) {
-        String tokenStr = UUID.randomUUID().toString();
+    private String generateRefreshToken(User user, long generation, UUID familyId) {
+        String tokenStr = RefreshTokenGenerations.format(user.getId(), generation);
         String tokenHash = jwtService.hashToken(tokenStr);
         Instant expiresAt = Instant.now().plusSeconds(jwtService.getRefreshTokenExpiration());
 
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
                 .tokenHash(tokenHash)
+                .familyId(familyId)
+                .generation(generation)
                 .expiresAt(expiresAt)
                 .revoked(false)
                 .build();
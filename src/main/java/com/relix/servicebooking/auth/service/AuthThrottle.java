@@ -0,0 +1,110 @@
+package com.relix.servicebooking.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relix.servicebooking.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket throttling of credential endpoints, per client IP and per email address.
+ *
+ * Checked before any password hashing is queued, so a single client or a credential-stuffing
+ * run against one account is turned away with 429 without spending BCrypt time. Buckets
+ * refill continuously and are dropped once idle long enough to have refilled completely.
+ */
+@Component
+public class AuthThrottle {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    private final int emailCapacity;
+    private final int emailRefillPerMinute;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public AuthThrottle(MeterRegistry meterRegistry,
+                        @Value("${booking.auth.throttle.ip-capacity:30}") int ipCapacity,
+                        @Value("${booking.auth.throttle.ip-refill-per-minute:30}") int ipRefillPerMinute,
+                        @Value("${booking.auth.throttle.email-capacity:5}") int emailCapacity,
+                        @Value("${booking.auth.throttle.email-refill-per-minute:5}") int emailRefillPerMinute,
+                        @Value("${booking.auth.throttle.max-keys:100000}") long maxKeys) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerMinute = emailRefillPerMinute;
+        long idleMinutes = Math.max(
+                ceilDiv(ipCapacity, ipRefillPerMinute), ceilDiv(emailCapacity, emailRefillPerMinute)) + 1;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        this.ipRejected = Counter.builder("auth.throttle.rejected").tag("scope", "ip").register(meterRegistry);
+        this.emailRejected = Counter.builder("auth.throttle.rejected").tag("scope", "email").register(meterRegistry);
+    }
+
+    /**
+     * Take one token from the client's bucket and, when given, the email's bucket.
+     *
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void acquire(String clientIp, String email) {
+        if (clientIp != null) {
+            take("ip:" + clientIp, ipCapacity, ipRefillPerMinute, ipRejected);
+        }
+        if (email != null) {
+            take("email:" + email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillPerMinute, emailRejected);
+        }
+    }
+
+    private void take(String key, int capacity, int refillPerMinute, Counter rejected) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPerMinute, System.nanoTime()));
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many attempts, please retry later", "RATE_LIMITED",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) refillPerMinute / NANOS_PER_MINUTE;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+         */
+        synchronized long tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
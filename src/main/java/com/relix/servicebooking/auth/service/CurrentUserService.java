@@ -2,8 +2,7 @@ package com.relix.servicebooking.auth.service;
 
 import com.relix.servicebooking.common.exception.ForbiddenException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
-import com.relix.servicebooking.provider.entity.Provider;
-import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.provider.service.ProviderIdCache;
 import com.relix.servicebooking.user.entity.User;
 import com.relix.servicebooking.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,25 +10,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.annotation.RequestScope;
 
 import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Resolves the caller from the SecurityContext. Stateless, so a single shared instance
+ * serves every request; role checks consult {@link UserStatusCache} instead of loading the user.
+ */
 @Service
-@RequestScope
 @RequiredArgsConstructor
 public class CurrentUserService {
 
     private final UserRepository userRepository;
-    private final ProviderRepository providerRepository;
-
-    // Request-scoped cache to avoid multiple DB queries
-    private User cachedUser;
-    private Provider cachedProvider;
-    private String cachedRole;
-    private Set<String> cachedRoles;
+    private final ProviderIdCache providerIdCache;
+    private final UserStatusCache userStatusCache;
 
     /**
      * Get current authenticated user ID.
@@ -68,73 +64,58 @@ public class CurrentUserService {
     }
 
     /**
-     * Get current authenticated user (cached per request).
+     * Load the current authenticated user entity.
      * Also validates user is not SUSPENDED.
      */
     public User getCurrentUser() {
-        if (cachedUser == null) {
-            Long userId = getCurrentUserId();
-            cachedUser = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
-
-            // Check if user is suspended
-            if (cachedUser.getStatus() == User.UserStatus.SUSPENDED) {
-                throw new ForbiddenException("Account is suspended");
-            }
+        Long userId = getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+
+        if (user.getStatus() == User.UserStatus.SUSPENDED) {
+            throw new ForbiddenException("Account is suspended");
         }
-        return cachedUser;
+        return user;
     }
 
     /**
      * Get current user's role from JWT authorities (not DB).
      * Uses priority: ADMIN > PROVIDER > CUSTOMER.
-     * Also triggers SUSPENDED check via getCurrentUser().
+     * Also rejects SUSPENDED users, using the shared status cache.
      */
     public String getCurrentUserRole() {
-        if (cachedRole != null) {
-            return cachedRole;
+        if (userStatusCache.isSuspended(getCurrentUserId())) {
+            throw new ForbiddenException("Account is suspended");
         }
 
-        // Ensure user is not suspended before any role-based operation
-        getCurrentUser();
-
         Set<String> roles = getRoles();
 
         // Priority: ADMIN > PROVIDER > CUSTOMER
         if (roles.contains("ADMIN")) {
-            cachedRole = "ADMIN";
+            return "ADMIN";
         } else if (roles.contains("PROVIDER")) {
-            cachedRole = "PROVIDER";
+            return "PROVIDER";
         } else if (roles.contains("CUSTOMER")) {
-            cachedRole = "CUSTOMER";
-        } else {
-            throw new ForbiddenException("No valid role found in token");
+            return "CUSTOMER";
         }
-
-        return cachedRole;
+        throw new ForbiddenException("No valid role found in token");
     }
 
     /**
-     * Get all roles from authorities (cached)
+     * Get all roles from authorities
      */
     private Set<String> getRoles() {
-        if (cachedRoles != null) {
-            return cachedRoles;
-        }
-
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null) {
             throw new ForbiddenException("Not authenticated");
         }
 
         Collection<? extends GrantedAuthority> authorities = auth.getAuthorities();
-        cachedRoles = authorities.stream()
+        return authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .filter(a -> a.startsWith("ROLE_"))
                 .map(a -> a.substring(5))
                 .collect(Collectors.toSet());
-
-        return cachedRoles;
     }
 
     public boolean isCustomer() {
@@ -160,15 +141,11 @@ public class CurrentUserService {
     }
 
     /**
-     * Get Provider entity for current user (cached per request)
+     * Get the provider id linked to the current user, from the shared ownership cache
      */
-    public Provider getCurrentProvider() {
-        if (cachedProvider == null) {
-            Long userId = getCurrentUserId();
-            cachedProvider = providerRepository.findByUser_Id(userId)
-                    .orElseThrow(() -> new ForbiddenException("No provider profile linked to this user"));
-        }
-        return cachedProvider;
+    public Long getCurrentProviderId() {
+        return providerIdCache.findProviderId(getCurrentUserId())
+                .orElseThrow(() -> new ForbiddenException("No provider profile linked to this user"));
     }
 
     /**
@@ -190,8 +167,7 @@ public class CurrentUserService {
         if (isAdmin()) {
             return;
         }
-        Provider provider = getCurrentProvider();
-        if (!provider.getId().equals(providerId)) {
+        if (!getCurrentProviderId().equals(providerId)) {
             throw new ForbiddenException("Access denied to this provider's resources");
         }
     }
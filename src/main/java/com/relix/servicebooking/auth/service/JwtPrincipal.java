@@ -0,0 +1,9 @@
+package com.relix.servicebooking.auth.service;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified access token.
+ */
+public record JwtPrincipal(Long userId, String email, String role, Instant expiresAt) {
+}
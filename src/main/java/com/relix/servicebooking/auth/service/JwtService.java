@@ -1,11 +1,17 @@
 package com.relix.servicebooking.auth.service;
 
 import com.relix.servicebooking.user.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -14,9 +20,11 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HexFormat;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -31,6 +39,24 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration:604800}")
     private Long refreshTokenExpiration;
 
+    @Value("${jwt.verified-cache-size:10000}")
+    private int maxCachedTokens;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private Cache<String, JwtPrincipal> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
     public String generateAccessToken(User user) {
         Instant now = Instant.now();
         Instant expiry = now.plusSeconds(accessTokenExpiration);
@@ -41,7 +67,7 @@ public class JwtService {
                 .claim("role", user.getRole().name())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiry))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -53,29 +79,32 @@ public class JwtService {
         return refreshTokenExpiration;
     }
 
-    public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return Long.parseLong(claims.getSubject());
-    }
-
-    public String extractEmail(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("email", String.class);
-    }
+    /**
+     * Verify the token once and return its principal, or empty if it is invalid or expired.
+     * Verified tokens are cached by hash until they expire, so repeat requests skip the HMAC and JSON parse.
+     */
+    public Optional<JwtPrincipal> authenticate(String token) {
+        String key = hashToken(token);
+        Instant now = Instant.now();
 
-    public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
-    }
+        JwtPrincipal cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached.expiresAt().isAfter(now) ? Optional.of(cached) : Optional.empty();
+        }
 
-    public boolean isTokenValid(String token) {
+        JwtPrincipal principal;
         try {
-            Claims claims = extractAllClaims(token);
-            return !claims.getExpiration().before(new Date());
+            principal = parse(token);
         } catch (JwtException | IllegalArgumentException e) {
             log.debug("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
+        }
+
+        if (!principal.expiresAt().isAfter(now)) {
+            return Optional.empty();
         }
+        verifiedTokens.put(key, principal);
+        return Optional.of(principal);
     }
 
     /**
@@ -91,16 +120,37 @@ public class JwtService {
         }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private JwtPrincipal parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            // Every issued token carries exp; one without it would otherwise never expire
+            throw new MalformedJwtException("JWT has no expiration claim");
+        }
+        return new JwtPrincipal(
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                claims.getExpiration().toInstant());
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Evicts each verified token from the cache when the token itself expires.
+     */
+    private static final class TokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,120 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt encode/matches on a dedicated, bounded pool instead of the request thread.
+ *
+ * The pool is sized below the core count by default, so a login storm can saturate at most
+ * that share of the CPU and the rest stays available to other traffic. Work beyond
+ * {@code queue-capacity} waiting hashes is rejected at once with 503 rather than queued
+ * behind seconds of BCrypt, and a caller never waits longer than {@code timeout-ms}.
+ * Queue wait and hash time are recorded per operation under {@value #METRIC_PREFIX}.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    static final String METRIC_PREFIX = "auth.password";
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${booking.auth.hash-threads:0}") int threads,
+                          @Value("${booking.auth.hash-queue-capacity:32}") int queueCapacity,
+                          @Value("${booking.auth.hash-timeout-ms:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder(METRIC_PREFIX + ".rejected").register(meterRegistry);
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hasher");
+        log.info("Password hasher started: threads={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return run("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run("matches", () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    private <T> T run(String operation, Supplier<T> work) {
+        Timer queueWait = Timer.builder(METRIC_PREFIX + ".queue.wait").tag("operation", operation).register(meterRegistry);
+        Timer hashTime = Timer.builder(METRIC_PREFIX + ".hash").tag("operation", operation).register(meterRegistry);
+        long submittedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTime.record(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("Authentication is busy, please retry shortly", "AUTH_BUSY",
+                RETRY_AFTER_SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
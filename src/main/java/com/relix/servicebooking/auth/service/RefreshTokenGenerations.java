@@ -0,0 +1,81 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.auth.event.RefreshTokensRevokedEvent;
+import com.relix.servicebooking.common.util.ConcurrentLongLongMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Process-wide lower bound of each user's refresh-token generation.
+ *
+ * Refresh tokens carry the user id and the generation they were issued under, so a token from
+ * an older generation than the one known here is rejected before any database read. Values are
+ * only ever taken from committed rows, through {@link RefreshTokensRevokedEvent} or what a
+ * refresh read, and only move up; a missing or lagging entry (e.g. a bump made by another
+ * instance) just means the database check decides.
+ */
+@Component
+public class RefreshTokenGenerations {
+
+    /**
+     * User id and generation carried by a refresh token.
+     */
+    public record TokenClaims(long userId, long generation) {}
+
+    private static final char SEPARATOR = '.';
+    private static final long UNKNOWN = 0L;
+
+    private final ConcurrentLongLongMap generationsByUserId = new ConcurrentLongLongMap();
+    private final Counter staleRejected;
+
+    public RefreshTokenGenerations(MeterRegistry meterRegistry) {
+        this.staleRejected = Counter.builder("auth.refresh.stale.rejected").register(meterRegistry);
+        Gauge.builder("auth.refresh.generations.size", generationsByUserId, ConcurrentLongLongMap::size)
+                .register(meterRegistry);
+    }
+
+    public static String format(long userId, long generation) {
+        return Long.toString(userId) + SEPARATOR + generation + SEPARATOR + UUID.randomUUID();
+    }
+
+    /**
+     * @return the claims, or null for a token not issued in this format
+     */
+    public static TokenClaims parse(String token) {
+        int first = token.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : token.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            return null;
+        }
+        try {
+            return new TokenClaims(Long.parseLong(token, 0, first, 10), Long.parseLong(token, first + 1, second, 10));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * True when the user has already moved past the token's generation.
+     */
+    public boolean isStale(TokenClaims claims) {
+        if (claims.userId() <= 0 || claims.generation() >= generationsByUserId.get(claims.userId(), UNKNOWN)) {
+            return false;
+        }
+        staleRejected.increment();
+        return true;
+    }
+
+    public void observe(Long userId, long generation) {
+        generationsByUserId.putIfGreater(userId, generation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRevoked(RefreshTokensRevokedEvent event) {
+        observe(event.userId(), event.generation());
+    }
+}
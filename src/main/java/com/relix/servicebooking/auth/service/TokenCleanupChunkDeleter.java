@@ -0,0 +1,29 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.auth.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Deletes one bounded chunk of refresh tokens per transaction, so row locks and the WAL
+ * produced by a cleanup run are released chunk by chunk rather than held to the end.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenCleanupChunkDeleter {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Transactional
+    public int deleteExpired(Instant now, int chunkSize) {
+        return refreshTokenRepository.deleteExpiredChunk(now, chunkSize);
+    }
+
+    @Transactional
+    public int deleteRevoked(Instant cutoff, int chunkSize) {
+        return refreshTokenRepository.deleteRevokedChunk(cutoff, chunkSize);
+    }
+}
@@ -0,0 +1,120 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.auth.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Removes expired refresh tokens, and revoked ones older than {@value #REVOKED_RETENTION_DAYS} days,
+ * in bounded chunks.
+ *
+ * Each chunk is a {@code DELETE ... WHERE id IN (SELECT ... LIMIT n)} in its own transaction,
+ * followed by a short pause so replication and concurrent logins keep up. A run stops once its
+ * time budget is spent; the predicates are stateless, so the next run simply picks up the rows
+ * that are still eligible. Deleted rows, the last run's rows/sec and the backlog left behind are
+ * published under {@value #METRIC_PREFIX}.
+ */
+@Slf4j
+@Service
+public class TokenCleanupService {
+
+    static final String METRIC_PREFIX = "auth.token.cleanup";
+    static final long REVOKED_RETENTION_DAYS = 7;
+
+    /**
+     * @param remaining eligible rows left for the next run; 0 when the run finished
+     */
+    public record CleanupResult(long deleted, long remaining, boolean completed, long elapsedMs) {}
+
+    private final TokenCleanupChunkDeleter chunkDeleter;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long timeBudgetMs;
+    private final Counter deletedRows;
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+    private final AtomicLong backlog = new AtomicLong();
+
+    public TokenCleanupService(TokenCleanupChunkDeleter chunkDeleter,
+                               RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.token-cleanup.chunk-size:5000}") int chunkSize,
+                               @Value("${booking.token-cleanup.pause-ms:50}") long pauseMs,
+                               @Value("${booking.token-cleanup.time-budget-ms:900000}") long timeBudgetMs) {
+        this.chunkDeleter = chunkDeleter;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.timeBudgetMs = timeBudgetMs;
+        this.deletedRows = Counter.builder(METRIC_PREFIX + ".deleted").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".rows.per.second", rowsPerSecond, AtomicLong::get).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".backlog", backlog, AtomicLong::get).register(meterRegistry);
+    }
+
+    public CleanupResult cleanup() {
+        Instant now = Instant.now();
+        Instant revokedCutoff = now.minus(REVOKED_RETENTION_DAYS, ChronoUnit.DAYS);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+
+        long deleted = 0;
+        boolean completed = false;
+        Phase expired = drain(chunkDeleter::deleteExpired, now, deadline);
+        deleted += expired.deleted();
+        if (expired.drained()) {
+            Phase revoked = drain(chunkDeleter::deleteRevoked, revokedCutoff, deadline);
+            deleted += revoked.deleted();
+            completed = revoked.drained();
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long remaining = completed ? 0
+                : refreshTokenRepository.countByExpiresAtBefore(now)
+                + refreshTokenRepository.countByRevokedTrueAndCreatedAtBefore(revokedCutoff);
+        rowsPerSecond.set(elapsedNanos > 0 ? deleted * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : deleted);
+        backlog.set(remaining);
+
+        return new CleanupResult(deleted, remaining, completed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private record Phase(long deleted, boolean drained) {}
+
+    private Phase drain(BiFunction<Instant, Integer, Integer> deleteChunk, Instant cutoff, long deadline) {
+        long deleted = 0;
+        while (true) {
+            int chunk = deleteChunk.apply(cutoff, chunkSize);
+            deleted += chunk;
+            deletedRows.increment(chunk);
+            if (chunk < chunkSize) {
+                return new Phase(deleted, true);
+            }
+            if (System.nanoTime() - deadline >= 0 || !pause()) {
+                return new Phase(deleted, false);
+            }
+        }
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Refresh token cleanup interrupted, resuming on next run");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.event.UserStatusChangedEvent;
+import com.relix.servicebooking.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared view of account status used by the authorization checks.
+ *
+ * Status changes made through this instance arrive as {@link UserStatusChangedEvent}s and
+ * take effect immediately; entries also expire after a TTL so changes made elsewhere are
+ * picked up. The suspension version is bumped by every event and guards loads: a database
+ * read that raced with an event is not allowed to overwrite the newer status.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${booking.user-status.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final AtomicLong suspensionVersion = new AtomicLong();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(User.UserStatus status, long loadedAtMs) {}
+
+    public User.UserStatus getStatus(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAtMs() < ttlMs) {
+            return entry.status();
+        }
+
+        long seen = suspensionVersion.get();
+        User.UserStatus status = userRepository.findStatusById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        entries.compute(userId, (id, current) ->
+                suspensionVersion.get() == seen ? new Entry(status, now) : current);
+        return status;
+    }
+
+    public boolean isSuspended(Long userId) {
+        return getStatus(userId) == User.UserStatus.SUSPENDED;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(UserStatusChangedEvent event) {
+        entries.compute(event.userId(), (id, current) -> {
+            suspensionVersion.incrementAndGet();
+            return new Entry(event.status(), System.currentTimeMillis());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${booking.user-status.ttl-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        entries.values().removeIf(entry -> entry.loadedAtMs() < cutoff);
+    }
+}
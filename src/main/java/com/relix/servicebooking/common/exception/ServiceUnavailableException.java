@@ -0,0 +1,16 @@
+package com.relix.servicebooking.common.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final String code;
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, String code, long retryAfterSeconds) {
+        super(message);
+        this.code = code;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
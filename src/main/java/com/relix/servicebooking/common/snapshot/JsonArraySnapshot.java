@@ -0,0 +1,132 @@
+package com.relix.servicebooking.common.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.relix.servicebooking.common.dto.ApiResponse;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * A serialized {@code ApiResponse<List<T>>} maintained one item at a time.
+ *
+ * Each item is kept as its own JSON fragment, ordered by id. A write re-serializes only the
+ * changed item; the envelope is spliced from the fragments and gzipped on the next read.
+ * The envelope carries no timestamp: {@link ApiResponse#getTimestamp()} means the response time,
+ * which bytes built once and served many times cannot state, so clients read the HTTP Date header
+ * instead. The strong ETag combines the newest item version, the item count and a checksum of the body.
+ *
+ * A snapshot built with {@code maxItems} holds at most that many items, the lowest ids: an item
+ * above the highest id held is ignored once the snapshot is full, and one below it evicts the highest.
+ */
+public final class JsonArraySnapshot<T> {
+
+    private record Fragment(String json, long version) {}
+
+    private final ObjectMapper objectMapper;
+    private final Function<T, Long> idOf;
+    private final Function<T, Instant> versionOf;
+    private final int maxItems;
+    private final TreeMap<Long, Fragment> fragments = new TreeMap<>();
+
+    private volatile JsonSnapshot snapshot;
+
+    public JsonArraySnapshot(ObjectMapper objectMapper, Function<T, Long> idOf, Function<T, Instant> versionOf) {
+        this(objectMapper, idOf, versionOf, Integer.MAX_VALUE);
+    }
+
+    public JsonArraySnapshot(ObjectMapper objectMapper, Function<T, Long> idOf, Function<T, Instant> versionOf,
+                             int maxItems) {
+        this.objectMapper = objectMapper;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+        this.maxItems = maxItems;
+    }
+
+    public synchronized JsonArraySnapshot<T> putAll(Collection<T> items) {
+        items.forEach(this::put);
+        return this;
+    }
+
+    public synchronized void put(T item) {
+        Long id = idOf.apply(item);
+        boolean full = !fragments.containsKey(id) && fragments.size() >= maxItems;
+        if (full && (fragments.isEmpty() || id > fragments.lastKey())) {
+            return;
+        }
+        Instant version = versionOf.apply(item);
+        fragments.put(id, new Fragment(write(item),
+                version != null ? version.toEpochMilli() : 0L));
+        if (full) {
+            fragments.pollLastEntry();
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Whether the snapshot holds {@code maxItems} items, so rows above the highest id may be missing.
+     */
+    public synchronized boolean isFull() {
+        return fragments.size() >= maxItems;
+    }
+
+    public synchronized void remove(Long id) {
+        if (fragments.remove(id) != null) {
+            snapshot = null;
+        }
+    }
+
+    public JsonSnapshot current() {
+        JsonSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = build();
+            }
+            return snapshot;
+        }
+    }
+
+    private JsonSnapshot build() {
+        StringBuilder array = new StringBuilder(fragments.size() * 256 + 2).append('[');
+        long maxVersion = 0L;
+        for (Fragment fragment : fragments.values()) {
+            if (array.length() > 1) {
+                array.append(',');
+            }
+            array.append(fragment.json());
+            maxVersion = Math.max(maxVersion, fragment.version());
+        }
+        array.append(']');
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ApiResponse.<RawValue>builder()
+                    .success(true)
+                    .data(new RawValue(array.toString()))
+                    .timestamp(null)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize snapshot", e);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(json, 0, json.length);
+        String etag = "\"" + Long.toHexString(maxVersion) + "-" + fragments.size() + "-"
+                + Long.toHexString(checksum.getValue()) + "\"";
+        return new JsonSnapshot(json, etag);
+    }
+
+    private String write(T item) {
+        try {
+            return objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize snapshot item", e);
+        }
+    }
+}
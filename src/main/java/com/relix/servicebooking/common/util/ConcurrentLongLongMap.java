@@ -0,0 +1,304 @@
+package com.relix.servicebooking.common.util;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent map from long keys to long values without boxing.
+ *
+ * Keys are spread over lock-striped segments, each an open-addressing table with linear
+ * probing and backward-shift deletion. Reads are optimistic and only fall back to the
+ * segment's read lock when they overlap a write. Key 0 is reserved as the empty marker,
+ * which suits database ids.
+ */
+public final class ConcurrentLongLongMap {
+
+    private static final long EMPTY = 0L;
+    private static final int SEGMENT_COUNT = 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public ConcurrentLongLongMap() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * @return the value for the key, or {@code missing} if absent
+     */
+    public long get(long key, long missing) {
+        checkKey(key);
+        return segmentFor(key).get(key, missing);
+    }
+
+    public void put(long key, long value) {
+        checkKey(key);
+        segmentFor(key).put(key, value);
+    }
+
+    /**
+     * Atomically add {@code delta} to the value for the key, treating an absent key as 0.
+     *
+     * @return the updated value
+     */
+    public long addAndGet(long key, long delta) {
+        checkKey(key);
+        return segmentFor(key).addAndGet(key, delta);
+    }
+
+    /**
+     * Atomically raise the value for the key to at least {@code value}; an absent key is inserted.
+     *
+     * @return the resulting value
+     */
+    public long putIfGreater(long key, long value) {
+        checkKey(key);
+        return segmentFor(key).putIfGreater(key, value);
+    }
+
+    public void remove(long key) {
+        checkKey(key);
+        segmentFor(key).remove(key);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) (mix(key) >>> 60)];
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+
+    // Murmur3 finalizer: sequential ids spread evenly over segments and slots
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final long[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+        }
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        // Written only under the write lock; a single reference so a resize is never seen half done
+        private Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private int size;
+
+        long get(long key, long missing) {
+            long stamp = lock.tryOptimisticRead();
+            long result = find(table, key, missing);
+            if (lock.validate(stamp)) {
+                return result;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, missing);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void put(long key, long value) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotFor(key);
+                if (table.keys[slot] == EMPTY) {
+                    insert(slot, key, value);
+                } else {
+                    table.values[slot] = value;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long addAndGet(long key, long delta) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotFor(key);
+                if (table.keys[slot] == EMPTY) {
+                    insert(slot, key, delta);
+                    return delta;
+                }
+                table.values[slot] += delta;
+                return table.values[slot];
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long putIfGreater(long key, long value) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotFor(key);
+                if (table.keys[slot] == EMPTY) {
+                    insert(slot, key, value);
+                    return value;
+                }
+                if (value > table.values[slot]) {
+                    table.values[slot] = value;
+                }
+                return table.values[slot];
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long key) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotFor(key);
+                if (table.keys[slot] == EMPTY) {
+                    return;
+                }
+                shiftBack(slot);
+                size--;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(INITIAL_SEGMENT_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Probe for the key. Bounded by the table length so a torn optimistic read cannot spin.
+         */
+        private static long find(Table table, long key, long missing) {
+            long[] keys = table.keys;
+            long[] values = table.values;
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return values[slot];
+                }
+                if (current == EMPTY) {
+                    return missing;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return missing;
+        }
+
+        /**
+         * Slot holding the key, or the empty slot where it would be inserted. Caller holds the write lock.
+         */
+        private int slotFor(long key) {
+            long[] keys = table.keys;
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void insert(int slot, long key, long value) {
+            table.keys[slot] = key;
+            table.values[slot] = value;
+            size++;
+            // Keep load factor at or below one half
+            if (size * 2 > table.keys.length) {
+                resize();
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = table.keys;
+            long[] oldValues = table.values;
+            Table resized = new Table(oldKeys.length * 2);
+            long[] newKeys = resized.keys;
+            long[] newValues = resized.values;
+            int mask = newKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (newKeys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            table = resized;
+        }
+
+        /**
+         * Backward-shift deletion: pull later entries of the probe run into the hole so
+         * lookups never need tombstones.
+         */
+        private void shiftBack(int hole) {
+            long[] keys = table.keys;
+            long[] values = table.values;
+            int mask = keys.length - 1;
+            int slot = hole;
+            while (true) {
+                slot = (slot + 1) & mask;
+                long key = keys[slot];
+                if (key == EMPTY) {
+                    break;
+                }
+                int home = (int) mix(key) & mask;
+                // Move the entry if its home is not in the cyclic range (hole, slot]
+                boolean movable = hole <= slot
+                        ? home <= hole || home > slot
+                        : home <= hole && home > slot;
+                if (movable) {
+                    keys[hole] = key;
+                    values[hole] = values[slot];
+                    hole = slot;
+                }
+            }
+            keys[hole] = EMPTY;
+            values[hole] = 0L;
+        }
+    }
+}
@@ -39,22 +39,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        if (SecurityContextHolder.getContext().getAuthentication() == null
-                && jwtService.isTokenValid(jwt)) {
-
-            Long userId = jwtService.extractUserId(jwt);
-            String role = jwtService.extractRole(jwt);
-
-            var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
-
-            var authToken = new UsernamePasswordAuthenticationToken(
-                    userId,
-                    null,
-                    authorities
-            );
-
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-            log.debug("Authenticated user: id={}, role={}", userId, role);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            jwtService.authenticate(jwt).ifPresent(principal -> {
+                var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + principal.role()));
+
+                var authToken = new UsernamePasswordAuthenticationToken(
+                        principal.userId(),
+                        null,
+                        authorities
+                );
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                log.debug("Authenticated user: id={}, role={}", principal.userId(), principal.role());
+            });
         }
 
         filterChain.doFilter(request, response);
@@ -2,8 +2,12 @@ package com.relix.servicebooking.order.controller;
 
 import com.relix.servicebooking.auth.service.CurrentUserService;
 import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.order.dto.BulkOrderCreateRequest;
+import com.relix.servicebooking.order.dto.BulkOrderResponse;
 import com.relix.servicebooking.order.dto.OrderCreateRequest;
+import com.relix.servicebooking.order.dto.OrderPageResponse;
 import com.relix.servicebooking.order.dto.OrderResponse;
+import com.relix.servicebooking.order.service.BulkOrderService;
 import com.relix.servicebooking.order.service.OrderService;
 import com.relix.servicebooking.payment.dto.PaymentRequest;
 import com.relix.servicebooking.payment.dto.PaymentResponse;
@@ -18,8 +22,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
@@ -28,15 +30,19 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
     private final PaymentService paymentService;
     private final CurrentUserService currentUserService;
 
     @GetMapping
-    @Operation(summary = "List orders for current customer")
+    @Operation(summary = "List orders for current customer, newest first, one keyset page at a time")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getMyOrders() {
+    public ResponseEntity<ApiResponse<OrderPageResponse>> getMyOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         Long customerUserId = currentUserService.getCurrentUserId();
-        return ResponseEntity.ok(ApiResponse.success(orderService.getOrdersByCustomerUserId(customerUserId)));
+        return ResponseEntity.ok(ApiResponse.success(
+                orderService.getOrderPageByCustomerUserId(customerUserId, cursor, limit)));
     }
 
     @GetMapping("/{id}")
@@ -64,6 +70,22 @@ public class OrderController {
         }
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Book a series of slots (explicit slot ids or a recurrence rule)")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ApiResponse<BulkOrderResponse>> createOrders(
+            @Valid @RequestBody BulkOrderCreateRequest request) {
+        request.setCustomerId(currentUserService.getCurrentUserId());
+
+        BulkOrderResponse result = bulkOrderService.createOrders(request);
+
+        if (result.getCreated() == 0) {
+            return ResponseEntity.ok(ApiResponse.success(result, "No new orders created"));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(result, "Orders created"));
+    }
+
     @PostMapping("/{id}/pay")
     @Operation(summary = "Pay for an order")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -0,0 +1,49 @@
+package com.relix.servicebooking.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Book a series of slots for one service: either an explicit list of slot ids
+ * or a recurrence rule resolved against the provider's slots.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderCreateRequest {
+
+    public enum Mode {
+        /** Any unbookable slot fails the whole series and nothing is booked */
+        ALL_OR_NOTHING,
+        /** Book what can be booked and report the rest per slot */
+        BEST_EFFORT
+    }
+
+    // Set by server from current authenticated user
+    private Long customerId;
+
+    @NotNull(message = "Service ID is required")
+    private Long serviceId;
+
+    private List<Long> timeSlotIds;
+
+    @Valid
+    private RecurrenceRule recurrence;
+
+    private String notes;
+
+    @Builder.Default
+    private Mode mode = Mode.ALL_OR_NOTHING;
+
+    // Each order in the series is stored under "<idempotencyKey>#<slotId>"
+    @Size(max = 40, message = "Idempotency key must be at most 40 characters")
+    private String idempotencyKey;
+}
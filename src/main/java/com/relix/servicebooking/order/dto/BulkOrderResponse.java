@@ -0,0 +1,40 @@
+package com.relix.servicebooking.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResponse {
+
+    private String mode;
+    private int created;
+    private int existing;
+    private int failed;
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        public enum Outcome {
+            CREATED, EXISTING, FAILED
+        }
+
+        private Long timeSlotId;
+        private Instant startTime;
+        private Outcome outcome;
+        private OrderResponse order;
+        private String errorCode;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.relix.servicebooking.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse {
+
+    private List<OrderResponse> items;
+
+    // Opaque token for the next page; null when there are no more rows
+    private String nextCursor;
+    private boolean hasMore;
+}
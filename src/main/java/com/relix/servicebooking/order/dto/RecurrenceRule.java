@@ -0,0 +1,38 @@
+package com.relix.servicebooking.order.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Occurrences start at firstStart and repeat every intervalDays at the same local time in timeZone,
+ * so a weekly 09:00 series stays at 09:00 across a daylight saving change.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurrenceRule {
+
+    @NotNull(message = "First start time is required")
+    private Instant firstStart;
+
+    @NotNull(message = "Interval is required")
+    @Min(value = 1, message = "Interval must be at least 1 day")
+    private Integer intervalDays;
+
+    @NotNull(message = "Occurrences is required")
+    @Min(value = 1, message = "Occurrences must be at least 1")
+    @Max(value = 52, message = "Occurrences must be at most 52")
+    private Integer occurrences;
+
+    // IANA zone the series keeps its local start time in
+    @Builder.Default
+    private String timeZone = "UTC";
+}
@@ -1,24 +1,52 @@
 package com.relix.servicebooking.order.repository;
 
+import com.relix.servicebooking.order.dto.OrderResponse;
 import com.relix.servicebooking.order.entity.Order;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByCustomer_Id(Long customerId);
+    /**
+     * Flat DTO projection read straight from the orders table.
+     * Association ids come from the foreign key columns, so no proxy is ever initialized.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.relix.servicebooking.order.dto.OrderResponse("
+            + "o.id, o.customer.id, o.provider.id, o.service.id, o.timeSlot.id, CAST(o.status AS String), "
+            + "o.totalPrice, o.notes, o.acceptedAt, o.startedAt, o.completedAt, o.cancelledAt, "
+            + "o.cancellationReason, o.createdAt, o.updatedAt) FROM Order o ";
+
+    /**
+     * Keyset predicate over (created_at, id), newest first.
+     */
+    String BEFORE_CURSOR = "(o.createdAt < :cursorCreatedAt OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) ";
 
-    List<Order> findByProvider_Id(Long providerId);
+    String NEWEST_FIRST = "ORDER BY o.createdAt DESC, o.id DESC";
 
-    List<Order> findByProvider_IdAndStatus(Long providerId, Order.OrderStatus status);
+    /**
+     * Compare-and-set guard for status transitions: the row only changes while it is still in
+     * one of the expected states (see {@code OrderStateValidator.allowedSources}).
+     */
+    String TRANSITION_GUARD = "WHERE o.id = :id AND o.status IN :expected";
+
+    String OWNED_BY_PROVIDER = " AND o.provider.id = :providerId";
 
     List<Order> findByStatus(Order.OrderStatus status);
 
@@ -26,10 +54,113 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     boolean existsByTimeSlot_Id(Long timeSlotId);
 
+    @Query(RESPONSE_PROJECTION + "WHERE o.customer.id = :customerId AND o.idempotencyKey IN :idempotencyKeys")
+    List<OrderResponse> findResponsesByCustomerIdAndIdempotencyKeys(
+            @Param("customerId") Long customerId,
+            @Param("idempotencyKeys") Collection<String> idempotencyKeys);
+
+    @Query(RESPONSE_PROJECTION + "WHERE o.customer.id = :customerId AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<OrderResponse> findResponsePageByCustomerId(
+            @Param("customerId") Long customerId,
+            @Param("cursorCreatedAt") Instant cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE o.provider.id = :providerId AND o.createdAt >= :createdFrom AND "
+            + BEFORE_CURSOR + NEWEST_FIRST)
+    List<OrderResponse> findResponsePageByProviderId(
+            @Param("providerId") Long providerId,
+            @Param("createdFrom") Instant createdFrom,
+            @Param("cursorCreatedAt") Instant cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE o.provider.id = :providerId AND o.status = :status "
+            + "AND o.createdAt >= :createdFrom AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<OrderResponse> findResponsePageByProviderIdAndStatus(
+            @Param("providerId") Long providerId,
+            @Param("status") Order.OrderStatus status,
+            @Param("createdFrom") Instant createdFrom,
+            @Param("cursorCreatedAt") Instant cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    /**
+     * Server-side cursor over a provider's orders for streaming exports.
+     * Must be consumed inside a transaction so PostgreSQL honours the fetch size.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE o.provider.id = :providerId AND o.createdAt >= :createdFrom "
+            + "AND o.createdAt < :createdTo " + NEWEST_FIRST)
+    Stream<OrderResponse> streamResponsesByProviderId(
+            @Param("providerId") Long providerId,
+            @Param("createdFrom") Instant createdFrom,
+            @Param("createdTo") Instant createdTo);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE o.provider.id = :providerId AND o.status = :status "
+            + "AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo " + NEWEST_FIRST)
+    Stream<OrderResponse> streamResponsesByProviderIdAndStatus(
+            @Param("providerId") Long providerId,
+            @Param("status") Order.OrderStatus status,
+            @Param("createdFrom") Instant createdFrom,
+            @Param("createdTo") Instant createdTo);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT o FROM Order o WHERE o.id = :id")
     Optional<Order> findByIdWithLock(@Param("id") Long id);
 
+    /*
+     * Status transitions as a single conditional UPDATE each. They return the number of rows
+     * changed (0 or 1) and clear the persistence context so the order is re-read afterwards.
+     */
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.acceptedAt = :now, o.updatedAt = :now "
+            + TRANSITION_GUARD + OWNED_BY_PROVIDER)
+    int acceptIfStatusIn(@Param("id") Long id,
+                         @Param("providerId") Long providerId,
+                         @Param("expected") Collection<Order.OrderStatus> expected,
+                         @Param("target") Order.OrderStatus target,
+                         @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.startedAt = :now, o.updatedAt = :now "
+            + TRANSITION_GUARD + OWNED_BY_PROVIDER)
+    int startIfStatusIn(@Param("id") Long id,
+                        @Param("providerId") Long providerId,
+                        @Param("expected") Collection<Order.OrderStatus> expected,
+                        @Param("target") Order.OrderStatus target,
+                        @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.completedAt = :now, o.updatedAt = :now "
+            + TRANSITION_GUARD + OWNED_BY_PROVIDER)
+    int completeIfStatusIn(@Param("id") Long id,
+                           @Param("providerId") Long providerId,
+                           @Param("expected") Collection<Order.OrderStatus> expected,
+                           @Param("target") Order.OrderStatus target,
+                           @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.cancelledAt = :now, o.cancellationReason = :reason, "
+            + "o.updatedAt = :now " + TRANSITION_GUARD)
+    int cancelIfStatusIn(@Param("id") Long id,
+                         @Param("expected") Collection<Order.OrderStatus> expected,
+                         @Param("target") Order.OrderStatus target,
+                         @Param("reason") String reason,
+                         @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.cancelledAt = :now, o.cancellationReason = :reason, "
+            + "o.updatedAt = :now " + TRANSITION_GUARD + OWNED_BY_PROVIDER)
+    int rejectIfStatusIn(@Param("id") Long id,
+                         @Param("providerId") Long providerId,
+                         @Param("expected") Collection<Order.OrderStatus> expected,
+                         @Param("target") Order.OrderStatus target,
+                         @Param("reason") String reason,
+                         @Param("now") Instant now);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.provider.id = :providerId AND o.status = :status")
     long countByProviderIdAndStatus(@Param("providerId") Long providerId, @Param("status") Order.OrderStatus status);
 }
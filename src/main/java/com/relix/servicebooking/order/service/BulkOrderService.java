@@ -0,0 +1,319 @@
+package com.relix.servicebooking.order.service;
+
+import com.relix.servicebooking.audit.service.AuditService;
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.order.dto.BulkOrderCreateRequest;
+import com.relix.servicebooking.order.dto.BulkOrderResponse;
+import com.relix.servicebooking.order.dto.OrderResponse;
+import com.relix.servicebooking.order.dto.RecurrenceRule;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.service.TimeSlotService;
+import com.relix.servicebooking.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Books a series of slots for one service in a single transaction.
+ *
+ * All target slots are locked with one ordered SELECT ... FOR UPDATE, flipped to BOOKED
+ * with one UPDATE, and the orders are written with a single JDBC batch. With an idempotency
+ * key every order of the series is stored under "key#slotId", so a retried series returns
+ * the orders that already exist and only books the slots that are still missing.
+ */
+@Slf4j
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BulkOrderService {
+
+    public static final int MAX_SERIES_SIZE = 52;
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (customer_id, provider_id, service_id, time_slot_id, status, total_price, "
+            + "notes, idempotency_key, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final ServiceRepository serviceRepository;
+    private final TimeSlotService timeSlotService;
+    private final AuditService auditService;
+    private final OrderOutbox orderOutbox;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * One requested occurrence of the series; slotId is null when a recurrence
+     * start time matched no slot.
+     */
+    private record Occurrence(Long slotId, Instant startTime) {}
+
+    @Transactional
+    public BulkOrderResponse createOrders(BulkOrderCreateRequest request) {
+        String seriesKey = request.getIdempotencyKey();
+        if (seriesKey != null && seriesKey.isBlank()) {
+            throw new BusinessException("Idempotency key cannot be blank", "INVALID_IDEMPOTENCY_KEY");
+        }
+
+        Long customerUserId = request.getCustomerId();
+        if (!userRepository.existsById(customerUserId)) {
+            throw new ResourceNotFoundException("User", customerUserId);
+        }
+
+        Service service = serviceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Service", request.getServiceId()));
+
+        if (service.getStatus() != Service.ServiceStatus.ACTIVE) {
+            throw new BusinessException("Service is not active", "SERVICE_INACTIVE");
+        }
+
+        Long providerId = service.getProvider().getId();
+        BulkOrderCreateRequest.Mode mode = request.getMode() == BulkOrderCreateRequest.Mode.BEST_EFFORT
+                ? BulkOrderCreateRequest.Mode.BEST_EFFORT
+                : BulkOrderCreateRequest.Mode.ALL_OR_NOTHING;
+
+        List<Occurrence> occurrences = resolveOccurrences(request, providerId);
+        List<Long> slotIds = occurrences.stream()
+                .map(Occurrence::slotId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // Lock first: a concurrent retry of the same series is serialized here and then sees our orders
+        Map<Long, TimeSlot> locked = timeSlotService.lockSlots(slotIds).stream()
+                .collect(Collectors.toMap(TimeSlot::getId, Function.identity()));
+        Map<Long, OrderResponse> existing = findExistingOrders(customerUserId, seriesKey, slotIds);
+
+        List<BulkOrderResponse.Item> items = new ArrayList<>(occurrences.size());
+        List<BulkOrderResponse.Item> toCreate = new ArrayList<>();
+        for (Occurrence occurrence : occurrences) {
+            TimeSlot slot = occurrence.slotId() != null ? locked.get(occurrence.slotId()) : null;
+            OrderResponse previous = occurrence.slotId() != null ? existing.get(occurrence.slotId()) : null;
+            if (previous != null) {
+                if (!previous.getServiceId().equals(service.getId())) {
+                    throw new ConflictException(
+                            "Idempotency key reused with different serviceId",
+                            "IDEMPOTENCY_KEY_CONFLICT"
+                    );
+                }
+                items.add(item(occurrence, slot, BulkOrderResponse.Item.Outcome.EXISTING)
+                        .order(previous)
+                        .build());
+                continue;
+            }
+
+            RuntimeException failure = checkBookable(occurrence, slot, providerId);
+            if (failure != null) {
+                if (mode == BulkOrderCreateRequest.Mode.ALL_OR_NOTHING) {
+                    throw failure;
+                }
+                items.add(item(occurrence, slot, BulkOrderResponse.Item.Outcome.FAILED)
+                        .errorCode(failure instanceof BusinessException business ? business.getCode() : "NOT_FOUND")
+                        .message(failure.getMessage())
+                        .build());
+                continue;
+            }
+
+            BulkOrderResponse.Item created = item(occurrence, slot, BulkOrderResponse.Item.Outcome.CREATED).build();
+            items.add(created);
+            toCreate.add(created);
+        }
+
+        if (!toCreate.isEmpty()) {
+            timeSlotService.bookLockedSlots(toCreate.stream().map(BulkOrderResponse.Item::getTimeSlotId).toList());
+            insertOrders(customerUserId, service, request.getNotes(), seriesKey, toCreate);
+
+            for (BulkOrderResponse.Item item : toCreate) {
+                auditService.log("ORDER", item.getOrder().getId(), "ORDER_CREATED",
+                        "CUSTOMER", customerUserId,
+                        Map.of("serviceId", service.getId(), "totalPrice", service.getPrice(), "series", true));
+                orderOutbox.record("ORDER_CREATED", item.getOrder(),
+                        Map.of("timeSlotId", item.getTimeSlotId(), "series", true));
+            }
+        }
+
+        int failed = count(items, BulkOrderResponse.Item.Outcome.FAILED);
+        int replayed = count(items, BulkOrderResponse.Item.Outcome.EXISTING);
+        log.info("Series booked: customerUserId={}, serviceId={}, mode={}, created={}, existing={}, failed={}",
+                customerUserId, service.getId(), mode, toCreate.size(), replayed, failed);
+
+        return BulkOrderResponse.builder()
+                .mode(mode.name())
+                .created(toCreate.size())
+                .existing(replayed)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+
+    private List<Occurrence> resolveOccurrences(BulkOrderCreateRequest request, Long providerId) {
+        List<Long> timeSlotIds = request.getTimeSlotIds();
+        RecurrenceRule recurrence = request.getRecurrence();
+        boolean hasSlotIds = timeSlotIds != null && !timeSlotIds.isEmpty();
+        if (hasSlotIds == (recurrence != null)) {
+            throw new BusinessException("Provide either timeSlotIds or a recurrence rule", "INVALID_SERIES");
+        }
+
+        if (hasSlotIds) {
+            if (timeSlotIds.size() > MAX_SERIES_SIZE) {
+                throw new BusinessException("A series can book at most " + MAX_SERIES_SIZE + " slots", "INVALID_SERIES");
+            }
+            Set<Long> seen = new HashSet<>();
+            List<Occurrence> occurrences = new ArrayList<>(timeSlotIds.size());
+            for (Long slotId : timeSlotIds) {
+                if (slotId == null || !seen.add(slotId)) {
+                    throw new BusinessException("Time slot ids must be present and distinct", "INVALID_SERIES");
+                }
+                occurrences.add(new Occurrence(slotId, null));
+            }
+            return occurrences;
+        }
+
+        ZonedDateTime firstStart = recurrence.getFirstStart().atZone(parseZone(recurrence.getTimeZone()));
+        List<Instant> starts = new ArrayList<>(recurrence.getOccurrences());
+        for (int i = 0; i < recurrence.getOccurrences(); i++) {
+            starts.add(firstStart.plusDays((long) i * recurrence.getIntervalDays()).toInstant());
+        }
+        Map<Instant, Long> slotIdsByStart = timeSlotService.findSlotIdsByStartTime(providerId, starts);
+        return starts.stream()
+                .map(start -> new Occurrence(slotIdsByStart.get(start), start))
+                .toList();
+    }
+
+    private static ZoneId parseZone(String timeZone) {
+        try {
+            return ZoneId.of(timeZone != null ? timeZone : "UTC");
+        } catch (DateTimeException e) {
+            throw new BusinessException("Invalid time zone: " + timeZone, "INVALID_TIME_ZONE");
+        }
+    }
+
+    private Map<Long, OrderResponse> findExistingOrders(Long customerUserId, String seriesKey, List<Long> slotIds) {
+        if (seriesKey == null || slotIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> keys = slotIds.stream().map(slotId -> orderKey(seriesKey, slotId)).toList();
+        return orderRepository.findResponsesByCustomerIdAndIdempotencyKeys(customerUserId, keys).stream()
+                .collect(Collectors.toMap(OrderResponse::getTimeSlotId, Function.identity(), (a, b) -> a,
+                        LinkedHashMap::new));
+    }
+
+    /**
+     * @return the exception a single-slot booking would raise for this occurrence, or null if it can be booked
+     */
+    private RuntimeException checkBookable(Occurrence occurrence, TimeSlot slot, Long providerId) {
+        if (occurrence.slotId() == null) {
+            return new BusinessException("No time slot starts at " + occurrence.startTime(), "SLOT_NOT_AVAILABLE");
+        }
+        if (slot == null) {
+            return new ResourceNotFoundException("TimeSlot", occurrence.slotId());
+        }
+        if (!slot.getProvider().getId().equals(providerId)) {
+            return new BusinessException("Time slot does not belong to service provider", "INVALID_TIME_SLOT");
+        }
+        if (slot.getStatus() != TimeSlot.SlotStatus.AVAILABLE) {
+            return new BusinessException("Time slot is not available", "SLOT_NOT_AVAILABLE");
+        }
+        return null;
+    }
+
+    /**
+     * Insert all new orders with one JDBC batch and attach the resulting responses to their items.
+     */
+    private void insertOrders(Long customerUserId, Service service, String notes, String seriesKey,
+                              List<BulkOrderResponse.Item> items) {
+        // Truncated to what the column stores, so the response matches a later read
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp timestamp = Timestamp.from(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ORDER_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Long slotId = items.get(i).getTimeSlotId();
+                        ps.setLong(1, customerUserId);
+                        ps.setLong(2, service.getProvider().getId());
+                        ps.setLong(3, service.getId());
+                        ps.setLong(4, slotId);
+                        ps.setString(5, Order.OrderStatus.PENDING.name());
+                        ps.setBigDecimal(6, service.getPrice());
+                        ps.setString(7, notes);
+                        if (seriesKey != null) {
+                            ps.setString(8, orderKey(seriesKey, slotId));
+                        } else {
+                            ps.setNull(8, Types.VARCHAR);
+                        }
+                        ps.setTimestamp(9, timestamp);
+                        ps.setTimestamp(10, timestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < items.size(); i++) {
+            BulkOrderResponse.Item item = items.get(i);
+            item.setOrder(OrderResponse.builder()
+                    .id(((Number) keys.get(i).get("id")).longValue())
+                    .customerId(customerUserId)
+                    .providerId(service.getProvider().getId())
+                    .serviceId(service.getId())
+                    .timeSlotId(item.getTimeSlotId())
+                    .status(Order.OrderStatus.PENDING.name())
+                    .totalPrice(service.getPrice())
+                    .notes(notes)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    private static BulkOrderResponse.Item.ItemBuilder item(Occurrence occurrence, TimeSlot slot,
+                                                            BulkOrderResponse.Item.Outcome outcome) {
+        return BulkOrderResponse.Item.builder()
+                .timeSlotId(occurrence.slotId())
+                .startTime(slot != null ? slot.getStartTime() : occurrence.startTime())
+                .outcome(outcome);
+    }
+
+    private static int count(List<BulkOrderResponse.Item> items, BulkOrderResponse.Item.Outcome outcome) {
+        return (int) items.stream().filter(item -> item.getOutcome() == outcome).count();
+    }
+
+    static String orderKey(String seriesKey, Long slotId) {
+        return seriesKey + "#" + slotId;
+    }
+}
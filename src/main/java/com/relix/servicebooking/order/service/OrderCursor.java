@@ -0,0 +1,37 @@
+package com.relix.servicebooking.order.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (created_at, id).
+ * Clients must treat the encoded value as a token and pass it back unchanged.
+ */
+public record OrderCursor(Instant createdAt, Long id) {
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            int dot = raw.indexOf('.');
+            if (dot < 0 || colon < dot) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Instant createdAt = Instant.ofEpochSecond(
+                    Long.parseLong(raw.substring(0, dot)),
+                    Long.parseLong(raw.substring(dot + 1, colon)));
+            return new OrderCursor(createdAt, Long.parseLong(raw.substring(colon + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BusinessException("Invalid cursor", "INVALID_CURSOR");
+        }
+    }
+}
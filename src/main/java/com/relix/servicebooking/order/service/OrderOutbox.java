@@ -0,0 +1,50 @@
+package com.relix.servicebooking.order.service;
+
+import com.relix.servicebooking.order.dto.OrderResponse;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.outbox.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends order lifecycle events to the outbox in the transaction that made the change.
+ * Every payload carries the order's parties, status and price after the transition, plus
+ * the event-specific details.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    static final String AGGREGATE_TYPE = "ORDER";
+
+    private final OutboxService outboxService;
+
+    public void record(String eventType, Order order, Map<String, Object> details) {
+        append(eventType, order.getId(), order.getCustomer().getId(), order.getProvider().getId(),
+                order.getService().getId(), order.getStatus().name(), order.getTotalPrice(), details);
+    }
+
+    public void record(String eventType, OrderResponse order, Map<String, Object> details) {
+        append(eventType, order.getId(), order.getCustomerId(), order.getProviderId(),
+                order.getServiceId(), order.getStatus(), order.getTotalPrice(), details);
+    }
+
+    private void append(String eventType, Long orderId, Long customerId, Long providerId, Long serviceId,
+                        String status, BigDecimal totalPrice, Map<String, Object> details) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("customerId", customerId);
+        payload.put("providerId", providerId);
+        payload.put("serviceId", serviceId);
+        payload.put("status", status);
+        payload.put("totalPrice", totalPrice);
+        if (details != null) {
+            payload.putAll(details);
+        }
+        outboxService.append(AGGREGATE_TYPE, orderId, eventType, payload);
+    }
+}
@@ -7,6 +7,7 @@ import com.relix.servicebooking.common.exception.ConflictException;
 import com.relix.servicebooking.common.exception.ForbiddenException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.dto.OrderCreateRequest;
+import com.relix.servicebooking.order.dto.OrderPageResponse;
 import com.relix.servicebooking.order.dto.OrderRejectRequest;
 import com.relix.servicebooking.order.dto.OrderResponse;
 import com.relix.servicebooking.order.entity.Order;
@@ -26,13 +27,15 @@ import com.relix.servicebooking.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @org.springframework.stereotype.Service
@@ -41,6 +44,12 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private static final int MAX_CANCELLATION_REASON_LENGTH = 500;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Upper bound for the first keyset page; later than any order we will ever store
+    private static final OrderCursor FIRST_PAGE_CURSOR =
+            new OrderCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
 
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
@@ -51,30 +60,59 @@ public class OrderService {
     private final RefundService refundService;
     private final PaymentRepository paymentRepository;
     private final AuditService auditService;
+    private final OrderOutbox orderOutbox;
     private final CurrentUserService currentUserService;
 
-    public List<OrderResponse> getOrdersByCustomerUserId(Long customerUserId) {
-        return orderRepository.findByCustomer_Id(customerUserId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    /**
+     * Keyset page of a customer's orders, newest first.
+     * Pass a null cursor for the first page, then the nextCursor of the previous page.
+     */
+    public OrderPageResponse getOrderPageByCustomerUserId(Long customerUserId, String cursor, int limit) {
+        OrderCursor before = cursor != null ? OrderCursor.decode(cursor) : FIRST_PAGE_CURSOR;
+        int pageSize = clampPageSize(limit);
+
+        List<OrderResponse> rows = orderRepository.findResponsePageByCustomerId(customerUserId,
+                before.createdAt(), before.id(), Limit.of(pageSize + 1));
+        return toPage(rows, pageSize);
     }
 
-    public List<OrderResponse> getOrdersByProvider(Long providerId, String status) {
-        List<Order> orders;
-        if (status != null && !status.isBlank()) {
-            try {
-                Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status.toUpperCase());
-                orders = orderRepository.findByProvider_IdAndStatus(providerId, orderStatus);
-            } catch (IllegalArgumentException e) {
-                throw new BusinessException("Invalid status: " + status, "INVALID_STATUS");
-            }
-        } else {
-            orders = orderRepository.findByProvider_Id(providerId);
+    /**
+     * Keyset page of a provider's orders, newest first, optionally filtered by status
+     * and by a created_at window [createdFrom, createdTo).
+     */
+    public OrderPageResponse getOrderPageByProvider(Long providerId, String status,
+                                                    Instant createdFrom, Instant createdTo,
+                                                    String cursor, int limit) {
+        Order.OrderStatus orderStatus = parseStatus(status);
+        Instant from = lowerBound(createdFrom, createdTo);
+        OrderCursor before = upperBound(cursor, createdTo);
+        int pageSize = clampPageSize(limit);
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<OrderResponse> rows = orderStatus != null
+                ? orderRepository.findResponsePageByProviderIdAndStatus(
+                        providerId, orderStatus, from, before.createdAt(), before.id(), fetch)
+                : orderRepository.findResponsePageByProviderId(
+                        providerId, from, before.createdAt(), before.id(), fetch);
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Push every matching order to the sink using a server-side cursor,
+     * so memory stays flat regardless of how long the provider's history is.
+     */
+    public void streamOrdersByProvider(Long providerId, String status,
+                                       Instant createdFrom, Instant createdTo,
+                                       Consumer<OrderResponse> sink) {
+        Order.OrderStatus orderStatus = parseStatus(status);
+        Instant from = lowerBound(createdFrom, createdTo);
+        Instant to = createdTo != null ? createdTo : FIRST_PAGE_CURSOR.createdAt();
+
+        try (Stream<OrderResponse> rows = orderStatus != null
+                ? orderRepository.streamResponsesByProviderIdAndStatus(providerId, orderStatus, from, to)
+                : orderRepository.streamResponsesByProviderId(providerId, from, to)) {
+            rows.forEach(sink);
         }
-        return orders.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
     }
 
     public OrderResponse getOrderById(Long id) {
@@ -182,6 +220,8 @@ public class OrderService {
             auditService.log("ORDER", order.getId(), "ORDER_CREATED",
                     "CUSTOMER", customer.getId(),
                     Map.of("serviceId", service.getId(), "totalPrice", order.getTotalPrice()));
+            orderOutbox.record("ORDER_CREATED", order,
+                    order.getTimeSlot() != null ? Map.of("timeSlotId", order.getTimeSlot().getId()) : null);
 
             log.info("Order created: id={}, customerUserId={}, serviceId={}", order.getId(), customer.getId(), service.getId());
             return new OrderCreateResult(toResponse(order), false);
@@ -228,21 +268,23 @@ public class OrderService {
     }
 
     // ==================== Provider Operations ====================
+    //
+    // Transitions are a conditional UPDATE guarded by the states OrderStateValidator allows
+    // into the target, instead of SELECT ... FOR UPDATE + validate + save. The losing side of
+    // a race sees 0 rows and is told why from a plain re-read. Anything that depends on the
+    // order's prior state (payment, slot, refund) is read after the UPDATE, which holds the
+    // row lock from then until commit.
 
     @Transactional
     public OrderResponse acceptOrder(Long orderId, Long providerId) {
-        Order order = orderRepository.findByIdWithLock(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
-
-        validateProviderOwnership(order, providerId);
-        OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.CONFIRMED, "accept");
-
-        order.setStatus(Order.OrderStatus.CONFIRMED);
-        order.setAcceptedAt(Instant.now());
-        order = orderRepository.save(order);
+        int updated = orderRepository.acceptIfStatusIn(orderId, providerId,
+                OrderStateValidator.allowedSources(Order.OrderStatus.CONFIRMED), Order.OrderStatus.CONFIRMED,
+                Instant.now());
+        Order order = loadTransitioned(orderId, providerId, updated, Order.OrderStatus.CONFIRMED, "accept");
 
         auditService.log("ORDER", orderId, "ORDER_ACCEPTED",
                 "PROVIDER", providerId, null);
+        orderOutbox.record("ORDER_ACCEPTED", order, null);
 
         log.info("Order accepted: id={}, providerId={}", orderId, providerId);
         return toResponse(order);
@@ -250,27 +292,18 @@ public class OrderService {
 
     @Transactional
     public OrderResponse rejectOrder(Long orderId, Long providerId, OrderRejectRequest request) {
-        Order order = orderRepository.findByIdWithLock(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
-
-        validateProviderOwnership(order, providerId);
-
-        // Check if the order was paid before rejecting (for refund trigger)
-        boolean wasPaid = paymentRepository.findByOrder_Id(orderId)
-                .map(payment -> payment.getStatus() == Payment.PaymentStatus.SUCCEEDED)
-                .orElse(false);
+        int updated = orderRepository.rejectIfStatusIn(orderId, providerId,
+                OrderStateValidator.allowedSources(Order.OrderStatus.CANCELLED), Order.OrderStatus.CANCELLED,
+                truncateReason("Provider rejected: " + request.getReason()), Instant.now());
+        Order order = loadTransitioned(orderId, providerId, updated, Order.OrderStatus.CANCELLED, "reject");
 
-        OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.CANCELLED, "reject");
+        // Read after the transition: a concurrent payment has either committed or will see CANCELLED
+        boolean wasPaid = isPaid(orderId);
 
         if (order.getTimeSlot() != null) {
             timeSlotService.releaseSlotSafely(order.getTimeSlot().getId());
         }
 
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        order.setCancelledAt(Instant.now());
-        order.setCancellationReason(truncateReason("Provider rejected: " + request.getReason()));
-        order = orderRepository.save(order);
-
         // Trigger refund if the order was paid
         if (wasPaid) {
             refundService.createRefund(order, "Provider rejected: " + request.getReason());
@@ -280,6 +313,8 @@ public class OrderService {
         auditService.log("ORDER", orderId, "ORDER_REJECTED",
                 "PROVIDER", providerId,
                 Map.of("reason", request.getReason()));
+        orderOutbox.record("ORDER_REJECTED", order,
+                Map.of("reason", order.getCancellationReason(), "refunded", wasPaid));
 
         log.info("Order rejected: id={}, providerId={}, reason={}", orderId, providerId, request.getReason());
         return toResponse(order);
@@ -287,18 +322,14 @@ public class OrderService {
 
     @Transactional
     public OrderResponse startOrder(Long orderId, Long providerId) {
-        Order order = orderRepository.findByIdWithLock(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
-
-        validateProviderOwnership(order, providerId);
-        OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.IN_PROGRESS, "start");
-
-        order.setStatus(Order.OrderStatus.IN_PROGRESS);
-        order.setStartedAt(Instant.now());
-        order = orderRepository.save(order);
+        int updated = orderRepository.startIfStatusIn(orderId, providerId,
+                OrderStateValidator.allowedSources(Order.OrderStatus.IN_PROGRESS), Order.OrderStatus.IN_PROGRESS,
+                Instant.now());
+        Order order = loadTransitioned(orderId, providerId, updated, Order.OrderStatus.IN_PROGRESS, "start");
 
         auditService.log("ORDER", orderId, "ORDER_STARTED",
                 "PROVIDER", providerId, null);
+        orderOutbox.record("ORDER_STARTED", order, null);
 
         log.info("Order started: id={}, providerId={}", orderId, providerId);
         return toResponse(order);
@@ -306,20 +337,16 @@ public class OrderService {
 
     @Transactional
     public OrderResponse completeOrder(Long orderId, Long providerId) {
-        Order order = orderRepository.findByIdWithLock(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
-
-        validateProviderOwnership(order, providerId);
-        OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.COMPLETED, "complete");
-
-        order.setStatus(Order.OrderStatus.COMPLETED);
-        order.setCompletedAt(Instant.now());
-        order = orderRepository.save(order);
+        int updated = orderRepository.completeIfStatusIn(orderId, providerId,
+                OrderStateValidator.allowedSources(Order.OrderStatus.COMPLETED), Order.OrderStatus.COMPLETED,
+                Instant.now());
+        Order order = loadTransitioned(orderId, providerId, updated, Order.OrderStatus.COMPLETED, "complete");
 
         settlementService.createSettlement(order);
 
         auditService.log("ORDER", orderId, "ORDER_COMPLETED",
                 "PROVIDER", providerId, null);
+        orderOutbox.record("ORDER_COMPLETED", order, null);
 
         log.info("Order completed: id={}, providerId={}", orderId, providerId);
         return toResponse(order);
@@ -327,31 +354,28 @@ public class OrderService {
 
     @Transactional
     public OrderResponse cancelOrder(Long orderId, String reason) {
-        Order order = orderRepository.findByIdWithLock(orderId)
+        int updated = orderRepository.cancelIfStatusIn(orderId,
+                OrderStateValidator.allowedSources(Order.OrderStatus.CANCELLED), Order.OrderStatus.CANCELLED,
+                truncateReason(reason != null ? reason : "Customer cancelled"), Instant.now());
+        Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
 
-        // Idempotent: already cancelled
-        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
-            log.info("Order already cancelled (idempotent): id={}", orderId);
-            return toResponse(order);
+        if (updated == 0) {
+            // Idempotent: already cancelled
+            if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                log.info("Order already cancelled (idempotent): id={}", orderId);
+                return toResponse(order);
+            }
+            rejectTransition(order, null, Order.OrderStatus.CANCELLED, "cancel");
         }
 
-        // Check if the order was paid before cancelling (for auto-refund)
-        boolean wasPaid = paymentRepository.findByOrder_Id(orderId)
-                .map(payment -> payment.getStatus() == Payment.PaymentStatus.SUCCEEDED)
-                .orElse(false);
-
-        OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.CANCELLED, "cancel");
+        // Read after the transition: a concurrent payment has either committed or will see CANCELLED
+        boolean wasPaid = isPaid(orderId);
 
         if (order.getTimeSlot() != null) {
             timeSlotService.releaseSlotSafely(order.getTimeSlot().getId());
         }
 
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        order.setCancelledAt(Instant.now());
-        order.setCancellationReason(truncateReason(reason != null ? reason : "Customer cancelled"));
-        order = orderRepository.save(order);
-
         // Trigger auto-refund if the order was paid
         if (wasPaid) {
             refundService.createRefund(order, reason != null ? reason : "Customer cancelled");
@@ -361,17 +385,99 @@ public class OrderService {
         auditService.log("ORDER", orderId, "ORDER_CANCELLED",
                 "CUSTOMER", order.getCustomer().getId(),
                 reason != null ? Map.of("reason", reason) : null);
+        orderOutbox.record("ORDER_CANCELLED", order,
+                Map.of("reason", order.getCancellationReason(), "refunded", wasPaid));
 
         log.info("Order cancelled: id={}", orderId);
         return toResponse(order);
     }
 
+    /**
+     * Re-read the order after a conditional transition; when no row changed, report why.
+     */
+    private Order loadTransitioned(Long orderId, Long providerId, int updated,
+                                   Order.OrderStatus target, String operation) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
+        if (updated == 0) {
+            rejectTransition(order, providerId, target, operation);
+        }
+        return order;
+    }
+
+    private void rejectTransition(Order order, Long providerId, Order.OrderStatus target, String operation) {
+        if (providerId != null) {
+            validateProviderOwnership(order, providerId);
+        }
+        OrderStateValidator.validateForOperation(order.getStatus(), target, operation);
+        // The guard and the re-read disagree only if the order moved on in between
+        throw new ConflictException("Order was modified concurrently, please retry", "ORDER_CONFLICT");
+    }
+
+    private boolean isPaid(Long orderId) {
+        return paymentRepository.findByOrder_Id(orderId)
+                .map(payment -> payment.getStatus() == Payment.PaymentStatus.SUCCEEDED)
+                .orElse(false);
+    }
+
     private void validateProviderOwnership(Order order, Long providerId) {
         if (!order.getProvider().getId().equals(providerId)) {
             throw new ForbiddenException("Order does not belong to this provider");
         }
     }
 
+    private Order.OrderStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return Order.OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid status: " + status, "INVALID_STATUS");
+        }
+    }
+
+    private Instant lowerBound(Instant createdFrom, Instant createdTo) {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new BusinessException("'from' must be before 'to'", "INVALID_DATE_RANGE");
+        }
+        return createdFrom != null ? createdFrom : Instant.EPOCH;
+    }
+
+    /**
+     * The exclusive upper keyset bound: the client cursor, tightened by createdTo when that is earlier.
+     */
+    private OrderCursor upperBound(String cursor, Instant createdTo) {
+        OrderCursor before = cursor != null ? OrderCursor.decode(cursor) : FIRST_PAGE_CURSOR;
+        if (createdTo != null && !createdTo.isAfter(before.createdAt())) {
+            // Long.MIN_VALUE turns the keyset predicate into a plain created_at < createdTo
+            return new OrderCursor(createdTo, Long.MIN_VALUE);
+        }
+        return before;
+    }
+
+    private OrderPageResponse toPage(List<OrderResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderResponse last = items.get(items.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return OrderPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     private String truncateReason(String reason) {
         if (reason == null) {
             return null;
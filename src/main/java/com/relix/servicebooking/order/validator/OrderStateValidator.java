@@ -3,6 +3,8 @@ package com.relix.servicebooking.order.validator;
 import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.order.entity.Order.OrderStatus;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,6 +28,29 @@ public class OrderStateValidator {
             OrderStatus.CANCELLED, Set.of()
     );
 
+    /**
+     * The same rules indexed by target: which states may move into a given state.
+     */
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_SOURCES = invert(ALLOWED_TRANSITIONS);
+
+    /**
+     * States an order may be in for a transition to {@code to}, i.e. the guard of a
+     * compare-and-set {@code UPDATE ... WHERE status IN (...)}.
+     */
+    public static Set<OrderStatus> allowedSources(OrderStatus to) {
+        return ALLOWED_SOURCES.get(to);
+    }
+
+    private static Map<OrderStatus, Set<OrderStatus>> invert(Map<OrderStatus, Set<OrderStatus>> transitions) {
+        Map<OrderStatus, Set<OrderStatus>> sources = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            sources.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        transitions.forEach((from, targets) -> targets.forEach(to -> sources.get(to).add(from)));
+        sources.replaceAll((to, from) -> Set.copyOf(from));
+        return Map.copyOf(sources);
+    }
+
     /**
      * Generic state transition validation (single source of truth)
      */
@@ -0,0 +1,29 @@
+package com.relix.servicebooking.outbox.controller;
+
+import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.outbox.service.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/outbox")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminOutboxController {
+
+    private final OutboxRelay outboxRelay;
+
+    @PostMapping("/{id}/requeue")
+    public ResponseEntity<ApiResponse<Void>> requeue(@PathVariable Long id) {
+        outboxRelay.requeue(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "Outbox event queued for retry"));
+    }
+
+    @PostMapping("/parked/requeue")
+    public ResponseEntity<ApiResponse<Integer>> requeueParked() {
+        int requeued = outboxRelay.requeueParked();
+        return ResponseEntity.ok(ApiResponse.success(requeued, "Parked outbox events queued for retry"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.relix.servicebooking.outbox.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * One outbox row as handed to in-process listeners and the configured sink.
+ *
+ * Delivery is at least once: a message can arrive again after a relay crash or a failed
+ * sink call, always with the same {@code id}, which consumers use to deduplicate.
+ */
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId,
+                            String eventType, String payload, Instant createdAt) {
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+
+    /**
+     * The wire form used by external sinks, with the payload embedded as JSON rather than a string.
+     */
+    public String toJson(ObjectMapper objectMapper) throws JsonProcessingException {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("aggregateType", aggregateType)
+                .put("aggregateId", aggregateId)
+                .put("eventType", eventType)
+                .put("createdAt", createdAt != null ? createdAt.toString() : null);
+        node.set("payload", objectMapper.readTree(payload));
+        return objectMapper.writeValueAsString(node);
+    }
+}
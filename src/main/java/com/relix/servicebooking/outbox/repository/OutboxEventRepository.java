@@ -0,0 +1,73 @@
+package com.relix.servicebooking.outbox.repository;
+
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /** Advisory lock key held by the relay that currently drains the outbox. */
+    long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    /**
+     * Try to become the relay leader for this transaction. Returns false at once if another
+     * relay holds the lock; the lock is released when the transaction ends.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(" + RELAY_LOCK_KEY + ")", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * The oldest undelivered rows, locked for this transaction.
+     */
+    @Query(value = "SELECT * FROM outbox WHERE published_at IS NULL AND attempts < :maxAttempts " +
+            "ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.publishedAt = :publishedAt WHERE o.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Modifying
+    @Query(value = "UPDATE outbox SET attempts = attempts + 1, last_error = :error, next_attempt_at = :nextAttemptAt " +
+            "WHERE id = :id", nativeQuery = true)
+    int recordFailure(@Param("id") Long id, @Param("error") String error,
+                      @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    /**
+     * Give one parked row a fresh attempt budget, due at once.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox SET attempts = 0, next_attempt_at = :now " +
+            "WHERE id = :id AND published_at IS NULL AND attempts >= :maxAttempts", nativeQuery = true)
+    int requeueParked(@Param("id") Long id, @Param("maxAttempts") int maxAttempts, @Param("now") Instant now);
+
+    /**
+     * Give every parked row a fresh attempt budget, due at once.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox SET attempts = 0, next_attempt_at = :now " +
+            "WHERE published_at IS NULL AND attempts >= :maxAttempts", nativeQuery = true)
+    int requeueAllParked(@Param("maxAttempts") int maxAttempts, @Param("now") Instant now);
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullAndAttemptsLessThanOrderByIdAsc(int maxAttempts);
+
+    long countByPublishedAtIsNullAndAttemptsLessThan(int maxAttempts);
+
+    long countByPublishedAtIsNullAndAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox WHERE id IN (" +
+            "SELECT id FROM outbox WHERE published_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deletePublishedChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    List<OutboxEvent> findByAggregateTypeAndAggregateIdOrderByIdAsc(String aggregateType, Long aggregateId);
+}
@@ -0,0 +1,35 @@
+package com.relix.servicebooking.outbox.scheduler;
+
+import com.relix.servicebooking.outbox.service.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelayScheduler {
+
+    private final OutboxRelay outboxRelay;
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${booking.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            outboxRelay.relayPending();
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${booking.outbox.purge-cron:0 15 4 * * ?}", zone = "America/Chicago")
+    public void purgePublished() {
+        try {
+            long deleted = outboxRelay.purgePublished();
+            log.info("Outbox purge completed: deleted={}", deleted);
+        } catch (Exception e) {
+            log.error("Outbox purge failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends each message as one JSON line to a local file, for development and replay.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          @Value("${booking.outbox.file.path:outbox-events.jsonl}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        log.info("Outbox file sink writing to {}", this.path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void deliver(OutboxMessage message) throws IOException {
+        Files.writeString(path, message.toJson(objectMapper) + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
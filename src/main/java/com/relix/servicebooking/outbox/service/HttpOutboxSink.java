@@ -0,0 +1,56 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * POSTs each message as JSON to a configured endpoint. Any non-2xx answer counts as a failed
+ * delivery. The {@code Idempotency-Key} header carries the outbox id so the receiver can
+ * drop redeliveries.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.outbox.sink", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI endpoint;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public HttpOutboxSink(ObjectMapper objectMapper,
+                          @Value("${booking.outbox.http.url}") String url,
+                          @Value("${booking.outbox.http.timeout-ms:5000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        log.info("Outbox HTTP sink posting to {}", endpoint);
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", "outbox-" + message.id())
+                .POST(HttpRequest.BodyPublishers.ofString(message.toJson(objectMapper)))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Outbox endpoint answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers one batch of outbox rows per transaction.
+ *
+ * Only one relay drains the outbox at a time: each batch transaction first takes a
+ * transaction-scoped advisory lock, and a relay on another instance that finds it held delivers
+ * nothing and tries again on its next poll. The leader claims the oldest undelivered rows and
+ * hands them to in-process listeners and then to the sink, in id order. The first failure ends
+ * the batch: that row's attempt is recorded, it is not tried again before its next_attempt_at,
+ * which backs off exponentially up to {@code backoff-max-ms}, and only the rows before it are
+ * marked published, so nothing overtakes an event that is still being retried. A row that
+ * reaches {@code maxAttempts} is parked and no longer claimed, and later events go ahead of it
+ * until an operator requeues it through {@link OutboxRelay#requeue}.
+ */
+@Slf4j
+@Component
+public class OutboxBatchRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OutboxSink> outboxSink;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public OutboxBatchRelay(OutboxEventRepository outboxEventRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectProvider<OutboxSink> outboxSink,
+                            @Value("${booking.outbox.backoff-base-ms:1000}") long backoffBaseMs,
+                            @Value("${booking.outbox.backoff-max-ms:300000}") long backoffMaxMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxSink = outboxSink;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    /**
+     * @param published delivered messages in id order
+     * @param failed    whether the batch stopped at a failed delivery
+     */
+    public record BatchResult(List<OutboxMessage> published, boolean failed) {}
+
+    @Transactional
+    public BatchResult relay(int batchSize, int maxAttempts) {
+        if (!outboxEventRepository.tryLockRelay()) {
+            log.debug("Outbox relay skipped: another relay is draining the outbox");
+            return new BatchResult(List.of(), false);
+        }
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(maxAttempts, batchSize);
+        OutboxSink sink = outboxSink.getIfAvailable();
+        Instant now = Instant.now();
+
+        List<OutboxMessage> published = new ArrayList<>(batch.size());
+        boolean failed = false;
+        for (OutboxEvent event : batch) {
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                // The head is backing off after a failure; everything behind it waits too
+                break;
+            }
+            OutboxMessage message = OutboxMessage.of(event);
+            try {
+                eventPublisher.publishEvent(message);
+                if (sink != null) {
+                    sink.deliver(message);
+                }
+                published.add(message);
+            } catch (Exception e) {
+                failed = true;
+                int attempt = event.getAttempts() + 1;
+                Duration delay = backoff(attempt);
+                outboxEventRepository.recordFailure(event.getId(), truncate(String.valueOf(e.getMessage())),
+                        now.plus(delay));
+                if (attempt >= maxAttempts) {
+                    log.error("Outbox event parked after {} attempts: id={}, type={}, error={}",
+                            maxAttempts, event.getId(), event.getEventType(), e.getMessage());
+                } else {
+                    log.warn("Outbox delivery failed, retrying in {}s: id={}, type={}, attempt={}, error={}",
+                            delay.toSeconds(), event.getId(), event.getEventType(), attempt, e.getMessage());
+                }
+                break;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published.stream().map(OutboxMessage::id).toList(), Instant.now());
+        }
+        return new BatchResult(published, failed);
+    }
+
+    @Transactional
+    public int purgePublished(Instant cutoff, int chunkSize) {
+        return outboxEventRepository.deletePublishedChunk(cutoff, chunkSize);
+    }
+
+    /**
+     * Exponential backoff capped at {@code backoff-max-ms}. Only the head row is ever waiting,
+     * so there is no herd to spread out with jitter.
+     */
+    Duration backoff(int attempt) {
+        long exponential = backoffBaseMs << Math.min(attempt - 1, 30);
+        return Duration.ofMillis(exponential > 0 ? Math.min(exponential, backoffMaxMs) : backoffMaxMs);
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
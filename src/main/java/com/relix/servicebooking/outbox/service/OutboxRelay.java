@@ -0,0 +1,184 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import com.relix.servicebooking.outbox.service.OutboxBatchRelay.BatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches of {@code batch-size}, up to {@code max-batches-per-run} per call.
+ *
+ * A run stops early at the first failed delivery and leaves the rest for the next poll.
+ * Published and failed deliveries, the time from append to delivery, the age of the oldest
+ * undelivered row and the pending and parked backlogs are published under {@value #METRIC_PREFIX}.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    static final String METRIC_PREFIX = "outbox";
+
+    /**
+     * @param published messages delivered by this run
+     * @param failed    whether the run stopped at a failed delivery
+     */
+    public record RelayResult(int published, boolean failed) {}
+
+    private final OutboxBatchRelay batchRelay;
+    private final OutboxEventRepository outboxEventRepository;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final int purgeChunkSize;
+    private final long retentionDays;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryLag;
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+
+    public OutboxRelay(OutboxBatchRelay batchRelay,
+                       OutboxEventRepository outboxEventRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${booking.outbox.max-attempts:16}") int maxAttempts,
+                       @Value("${booking.outbox.purge-chunk-size:5000}") int purgeChunkSize,
+                       @Value("${booking.outbox.retention-days:7}") long retentionDays) {
+        this.batchRelay = batchRelay;
+        this.outboxEventRepository = outboxEventRepository;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.purgeChunkSize = purgeChunkSize;
+        this.retentionDays = retentionDays;
+
+        this.publishedCounter = Counter.builder(METRIC_PREFIX + ".events.published").register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".events.failed").register(meterRegistry);
+        this.deliveryLag = Timer.builder(METRIC_PREFIX + ".delivery.lag")
+                .description("Time from outbox append to delivery")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".lag.seconds", oldestPendingAgeMs, age -> age.get() / 1000.0)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".backlog", backlog, AtomicLong::get).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".parked", parked, AtomicLong::get).register(meterRegistry);
+    }
+
+    public RelayResult relayPending() {
+        int published = 0;
+        boolean failed = false;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                BatchResult batch = batchRelay.relay(batchSize, maxAttempts);
+                record(batch);
+                published += batch.published().size();
+                if (batch.failed()) {
+                    failed = true;
+                    break;
+                }
+                if (batch.published().size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // The batch rolled back as a whole; its rows are claimed again on the next poll
+            failedCounter.increment();
+            log.error("Outbox batch rolled back: {}", e.getMessage(), e);
+            failed = true;
+        } finally {
+            refreshBacklog();
+        }
+
+        if (published > 0) {
+            log.debug("Outbox relay run: published={}, failed={}", published, failed);
+        }
+        return new RelayResult(published, failed);
+    }
+
+    /**
+     * Give a parked row a fresh attempt budget. It is delivered on the next poll, after any
+     * later events that went ahead of it while it was parked.
+     */
+    @Transactional
+    public void requeue(Long id) {
+        if (outboxEventRepository.requeueParked(id, maxAttempts, Instant.now()) == 0) {
+            OutboxEvent event = outboxEventRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Outbox event", id));
+            throw new ConflictException(event.getPublishedAt() != null
+                    ? "Outbox event " + id + " is already published"
+                    : "Outbox event " + id + " is not parked, attempts=" + event.getAttempts(),
+                    "OUTBOX_EVENT_NOT_PARKED");
+        }
+        log.info("Outbox event requeued: id={}", id);
+    }
+
+    /**
+     * Give every parked row a fresh attempt budget, e.g. once a sink outage is over.
+     *
+     * @return rows requeued
+     */
+    @Transactional
+    public int requeueParked() {
+        int requeued = outboxEventRepository.requeueAllParked(maxAttempts, Instant.now());
+        log.info("Outbox parked events requeued: count={}", requeued);
+        return requeued;
+    }
+
+    /**
+     * Delete published rows older than the retention period, one chunk per transaction.
+     */
+    public long purgePublished() {
+        Instant cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = batchRelay.purgePublished(cutoff, purgeChunkSize);
+            deleted += chunk;
+        } while (chunk == purgeChunkSize);
+        return deleted;
+    }
+
+    private void record(BatchResult batch) {
+        Instant now = Instant.now();
+        for (OutboxMessage message : batch.published()) {
+            if (message.createdAt() != null) {
+                deliveryLag.record(Duration.between(message.createdAt(), now));
+            }
+        }
+        publishedCounter.increment(batch.published().size());
+        if (batch.failed()) {
+            failedCounter.increment();
+        }
+    }
+
+    private void refreshBacklog() {
+        try {
+            oldestPendingAgeMs.set(outboxEventRepository
+                    .findFirstByPublishedAtIsNullAndAttemptsLessThanOrderByIdAsc(maxAttempts)
+                    .map(event -> Math.max(0, Duration.between(event.getCreatedAt(), Instant.now()).toMillis()))
+                    .orElse(0L));
+            backlog.set(outboxEventRepository.countByPublishedAtIsNullAndAttemptsLessThan(maxAttempts));
+            parked.set(outboxEventRepository.countByPublishedAtIsNullAndAttemptsGreaterThanEqual(maxAttempts));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Record an event in the caller's transaction. It commits or rolls back together with the
+     * state change it describes, and is delivered by {@link OutboxRelay} only once committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        String payloadJson;
+        try {
+            payloadJson = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            // Losing the event would leave consumers silently behind; fail the transition instead
+            throw new IllegalStateException("Failed to serialize outbox payload for " + eventType, e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(payloadJson)
+                .build());
+        log.debug("Outbox event appended: {} {} {}", aggregateType, aggregateId, eventType);
+    }
+}
@@ -0,0 +1,16 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+
+/**
+ * External destination for relayed outbox messages, selected by {@code booking.outbox.sink}.
+ * Without one, messages only reach in-process listeners.
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver one message. Throwing leaves it, and every later message, undelivered until
+     * the next attempt; the same message may therefore be delivered more than once.
+     */
+    void deliver(OutboxMessage message) throws Exception;
+}
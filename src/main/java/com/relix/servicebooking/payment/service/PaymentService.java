@@ -5,6 +5,7 @@ import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.entity.Order;
 import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.order.service.OrderOutbox;
 import com.relix.servicebooking.order.validator.OrderStateValidator;
 import com.relix.servicebooking.payment.dto.PaymentRequest;
 import com.relix.servicebooking.payment.dto.PaymentResponse;
@@ -28,6 +29,7 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final AuditService auditService;
+    private final OrderOutbox orderOutbox;
 
     @Transactional
     public PaymentResponse payOrder(Long orderId, PaymentRequest request) {
@@ -66,6 +68,8 @@ public class PaymentService {
             auditService.log("ORDER", orderId, "PAYMENT_CONFIRMED",
                     "CUSTOMER", order.getCustomer().getId(),
                     Map.of("paymentId", payment.getId(), "amount", payment.getAmount()));
+            orderOutbox.record("ORDER_PAID", order,
+                    Map.of("paymentId", payment.getId(), "amount", payment.getAmount()));
 
             log.info("Payment succeeded: orderId={} paymentId={}", orderId, payment.getId());
             return toResponse(payment, false, true);
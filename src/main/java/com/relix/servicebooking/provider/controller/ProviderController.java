@@ -1,11 +1,15 @@
 package com.relix.servicebooking.provider.controller;
 
 import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.provider.dto.NearbyProviderResponse;
+import com.relix.servicebooking.provider.dto.ProviderPageResponse;
 import com.relix.servicebooking.provider.dto.ProviderResponse;
+import com.relix.servicebooking.provider.service.ProviderDirectorySnapshots;
 import com.relix.servicebooking.provider.service.ProviderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,11 +22,34 @@ import java.util.List;
 public class ProviderController {
 
     private final ProviderService providerService;
+    private final ProviderDirectorySnapshots providerDirectorySnapshots;
 
     @GetMapping
-    @Operation(summary = "List all providers")
-    public ResponseEntity<ApiResponse<List<ProviderResponse>>> getAllProviders() {
-        return ResponseEntity.ok(ApiResponse.success(providerService.getAllProviders()));
+    @Operation(summary = "First providers by id, capped at booking.provider-directory.max-size (ETag and gzip aware)",
+            description = "Use /api/providers/directory to page through every provider", deprecated = true)
+    public ResponseEntity<byte[]> getAllProviders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return providerDirectorySnapshots.allProviders().respond(ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/directory")
+    @Operation(summary = "Provider directory, highest rated first, one keyset page at a time")
+    public ResponseEntity<ApiResponse<ProviderPageResponse>> getProviderDirectory(
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(providerService.getProviderDirectory(verified, cursor, limit)));
+    }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Providers within a radius of a point, nearest first")
+    public ResponseEntity<ApiResponse<List<NearbyProviderResponse>>> getNearbyProviders(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(ApiResponse.success(providerService.getNearbyProviders(lat, lon, radiusKm, limit)));
     }
 
     @GetMapping("/{id}")
@@ -32,8 +59,11 @@ public class ProviderController {
     }
 
     @GetMapping("/verified")
-    @Operation(summary = "List verified providers")
-    public ResponseEntity<ApiResponse<List<ProviderResponse>>> getVerifiedProviders() {
-        return ResponseEntity.ok(ApiResponse.success(providerService.getVerifiedProviders()));
+    @Operation(summary = "First verified providers by id, capped at booking.provider-directory.max-size (ETag and gzip aware)",
+            description = "Use /api/providers/directory?verified=true to page through every verified provider", deprecated = true)
+    public ResponseEntity<byte[]> getVerifiedProviders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return providerDirectorySnapshots.verifiedProviders().respond(ifNoneMatch, acceptEncoding);
     }
 }
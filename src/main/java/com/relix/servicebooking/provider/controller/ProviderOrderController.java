@@ -1,20 +1,29 @@
 package com.relix.servicebooking.provider.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.relix.servicebooking.auth.service.CurrentUserService;
 import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.order.dto.OrderPageResponse;
 import com.relix.servicebooking.order.dto.OrderRejectRequest;
 import com.relix.servicebooking.order.dto.OrderResponse;
 import com.relix.servicebooking.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/providers/{providerId}/orders")
@@ -24,16 +33,59 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('PROVIDER', 'ADMIN')")
 public class ProviderOrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int STREAM_FLUSH_EVERY = 500;
+
     private final OrderService orderService;
     private final CurrentUserService currentUserService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "List orders for provider")
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getProviderOrders(
+    @Operation(summary = "List orders for provider, newest first, one keyset page at a time")
+    public ResponseEntity<ApiResponse<OrderPageResponse>> getProviderOrders(
             @PathVariable Long providerId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         currentUserService.verifyProviderAccess(providerId);
-        return ResponseEntity.ok(ApiResponse.success(orderService.getOrdersByProvider(providerId, status)));
+        return ResponseEntity.ok(ApiResponse.success(
+                orderService.getOrderPageByProvider(providerId, status, from, to, cursor, limit)));
+    }
+
+    @GetMapping(produces = NDJSON)
+    @Operation(summary = "Stream all matching orders for provider as newline-delimited JSON")
+    public void streamProviderOrders(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response) throws IOException {
+        currentUserService.verifyProviderAccess(providerId);
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writerFor(OrderResponse.class);
+        int[] written = {0};
+
+        try {
+            orderService.streamOrdersByProvider(providerId, status, from, to, order -> {
+                try {
+                    out.write(writer.writeValueAsBytes(order));
+                    out.write('\n');
+                    if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
     }
 
     @PostMapping("/{orderId}/accept")
@@ -0,0 +1,18 @@
+package com.relix.servicebooking.provider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyProviderResponse {
+
+    private ProviderResponse provider;
+
+    // Great-circle distance from the search point
+    private double distanceKm;
+}
@@ -0,0 +1,21 @@
+package com.relix.servicebooking.provider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderPageResponse {
+
+    private List<ProviderResponse> items;
+
+    // Opaque token for the next page; null when there are no more rows
+    private String nextCursor;
+    private boolean hasMore;
+}
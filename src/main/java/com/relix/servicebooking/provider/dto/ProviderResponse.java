@@ -19,8 +19,11 @@ public class ProviderResponse {
     private String businessName;
     private String description;
     private String address;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
     private BigDecimal rating;
     private Integer reviewCount;
     private Boolean verified;
     private Instant createdAt;
+    private Instant updatedAt;
 }
@@ -35,14 +35,24 @@ public class Provider extends BaseEntity {
     @Column(precision = 11, scale = 8)
     private BigDecimal longitude;
 
-    @Column(precision = 3, scale = 2)
+    /*
+     * The rating totals are written only by the conditional UPDATEs in ProviderRepository and the
+     * reconciliation job. Saving a provider must never write back totals it loaded before a
+     * concurrent review landed, so they are excluded from JPA inserts and updates.
+     */
+    @Column(nullable = false, precision = 3, scale = 2, insertable = false, updatable = false)
     @Builder.Default
     private BigDecimal rating = BigDecimal.ZERO;
 
-    @Column(name = "review_count")
+    @Column(name = "review_count", nullable = false, insertable = false, updatable = false)
     @Builder.Default
     private Integer reviewCount = 0;
 
+    // Sum of all review ratings; rating is rating_sum / review_count rounded to two places
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
     @Builder.Default
     private Boolean verified = false;
 }
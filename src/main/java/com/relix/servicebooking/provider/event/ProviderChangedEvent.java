@@ -0,0 +1,7 @@
+package com.relix.servicebooking.provider.event;
+
+/**
+ * Published when a provider profile is created or edited, so serialized directory views can be patched.
+ */
+public record ProviderChangedEvent(Long providerId) {
+}
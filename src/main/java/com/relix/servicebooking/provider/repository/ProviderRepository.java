@@ -1,18 +1,119 @@
 package com.relix.servicebooking.provider.repository;
 
+import com.relix.servicebooking.provider.dto.ProviderResponse;
 import com.relix.servicebooking.provider.entity.Provider;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProviderRepository extends JpaRepository<Provider, Long> {
 
+    String RESPONSE_PROJECTION = "SELECT new com.relix.servicebooking.provider.dto.ProviderResponse("
+            + "p.id, p.user.id, p.businessName, p.description, p.address, p.latitude, p.longitude, "
+            + "p.rating, p.reviewCount, "
+            + "p.verified, p.createdAt, p.updatedAt) FROM Provider p ";
+
+    /**
+     * Keyset predicate over (rating, id), highest rated first.
+     */
+    String BELOW_CURSOR = "(p.rating < :cursorRating OR (p.rating = :cursorRating AND p.id < :cursorId)) ";
+
+    String HIGHEST_RATED_FIRST = "ORDER BY p.rating DESC, p.id DESC";
+
     List<Provider> findByVerifiedTrue();
 
+    @Query(RESPONSE_PROJECTION + "ORDER BY p.id")
+    List<ProviderResponse> findResponsesById(Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.verified = true ORDER BY p.id")
+    List<ProviderResponse> findVerifiedResponsesById(Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE " + BELOW_CURSOR + HIGHEST_RATED_FIRST)
+    List<ProviderResponse> findResponsePage(
+            @Param("cursorRating") BigDecimal cursorRating,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.verified = :verified AND " + BELOW_CURSOR + HIGHEST_RATED_FIRST)
+    List<ProviderResponse> findResponsePageByVerified(
+            @Param("verified") Boolean verified,
+            @Param("cursorRating") BigDecimal cursorRating,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id IN :ids")
+    List<ProviderResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Providers inside a latitude/longitude box, served by idx_providers_location.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE p.latitude BETWEEN :minLatitude AND :maxLatitude "
+            + "AND p.longitude BETWEEN :minLongitude AND :maxLongitude")
+    List<ProviderResponse> findResponsesInBox(
+            @Param("minLatitude") BigDecimal minLatitude,
+            @Param("maxLatitude") BigDecimal maxLatitude,
+            @Param("minLongitude") BigDecimal minLongitude,
+            @Param("maxLongitude") BigDecimal maxLongitude);
+
+    @Query("SELECT p.id AS id, p.latitude AS latitude, p.longitude AS longitude FROM Provider p "
+            + "WHERE p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<LocationView> findLocations();
+
+    @Query("SELECT p.id AS id, p.latitude AS latitude, p.longitude AS longitude FROM Provider p "
+            + "WHERE p.id = :id AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    Optional<LocationView> findLocationById(@Param("id") Long id);
+
     Optional<Provider> findByUser_Id(Long userId);
 
     boolean existsByUser_Id(Long userId);
+
+    @Query("SELECT p.id FROM Provider p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Provider p WHERE p.id = :id")
+    Optional<Provider> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Fold one new review into the running totals. The right-hand sides read the pre-update row,
+     * and the row lock taken by the UPDATE serializes concurrent reviews of the same provider.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE providers SET review_count = review_count + 1, rating_sum = rating_sum + :rating, "
+            + "rating = ROUND(CAST(rating_sum + :rating AS numeric) / (review_count + 1), 2) WHERE id = :id",
+            nativeQuery = true)
+    int addReviewRating(@Param("id") Long id, @Param("rating") int rating);
+
+    @Query("SELECT p.id AS id, p.reviewCount AS reviewCount, p.ratingSum AS ratingSum, p.rating AS rating "
+            + "FROM Provider p WHERE p.id > :afterId ORDER BY p.id")
+    List<RatingTotalsView> findRatingTotalsChunk(@Param("afterId") Long afterId, Limit limit);
+
+    interface RatingTotalsView {
+        Long getId();
+
+        Integer getReviewCount();
+
+        Long getRatingSum();
+
+        BigDecimal getRating();
+    }
+
+    interface LocationView {
+        Long getId();
+
+        BigDecimal getLatitude();
+
+        BigDecimal getLongitude();
+    }
 }
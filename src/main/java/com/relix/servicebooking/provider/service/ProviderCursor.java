@@ -0,0 +1,35 @@
+package com.relix.servicebooking.provider.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (rating, id), highest rated first.
+ * Clients must treat the encoded value as a token and pass it back unchanged.
+ */
+public record ProviderCursor(BigDecimal rating, Long id) {
+
+    // Upper bound for the first page; ratings are capped at 5.00 by chk_rating_range
+    public static final ProviderCursor FIRST_PAGE = new ProviderCursor(new BigDecimal("5.00"), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = rating.toPlainString() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProviderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ProviderCursor(new BigDecimal(raw.substring(0, colon)), Long.parseLong(raw.substring(colon + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor", "INVALID_CURSOR");
+        }
+    }
+}
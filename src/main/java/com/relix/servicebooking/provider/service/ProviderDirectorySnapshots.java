@@ -0,0 +1,100 @@
+package com.relix.servicebooking.provider.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relix.servicebooking.common.snapshot.JsonArraySnapshot;
+import com.relix.servicebooking.common.snapshot.JsonSnapshot;
+import com.relix.servicebooking.provider.dto.ProviderResponse;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Pre-serialized responses for the provider list endpoints, patched per provider after
+ * each committed {@link ProviderChangedEvent}. Same build and patch rules as the service catalog.
+ *
+ * Each list holds at most {@code max-size} providers, the lowest ids; clients that need the rest
+ * page through {@code /api/providers/directory}. Removing a provider from a full list drops the
+ * snapshot, so the next read refills it from the table instead of serving one row short.
+ */
+@Component
+public class ProviderDirectorySnapshots {
+
+    private static final Boolean ALL = Boolean.FALSE;
+    private static final Boolean VERIFIED = Boolean.TRUE;
+
+    private final ProviderRepository providerRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxSize;
+    private final Cache<Boolean, JsonArraySnapshot<ProviderResponse>> snapshots;
+
+    public ProviderDirectorySnapshots(ProviderRepository providerRepository,
+                                      ObjectMapper objectMapper,
+                                      @Value("${booking.provider-directory.ttl-ms:300000}") long ttlMs,
+                                      @Value("${booking.provider-directory.max-size:1000}") int maxSize) {
+        this.providerRepository = providerRepository;
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(2)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public JsonSnapshot allProviders() {
+        return snapshots.get(ALL, key -> newSnapshot()
+                .putAll(providerRepository.findResponsesById(Limit.of(maxSize))))
+                .current();
+    }
+
+    @Transactional(readOnly = true)
+    public JsonSnapshot verifiedProviders() {
+        return snapshots.get(VERIFIED, key -> newSnapshot()
+                .putAll(providerRepository.findVerifiedResponsesById(Limit.of(maxSize))))
+                .current();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProviderChanged(ProviderChangedEvent event) {
+        ProviderResponse provider = providerRepository.findById(event.providerId())
+                .map(ProviderService::toResponse)
+                .orElse(null);
+
+        snapshots.asMap().computeIfPresent(ALL, (key, snapshot) ->
+                provider != null ? put(snapshot, provider) : remove(snapshot, event.providerId()));
+        snapshots.asMap().computeIfPresent(VERIFIED, (key, snapshot) ->
+                provider != null && Boolean.TRUE.equals(provider.getVerified())
+                        ? put(snapshot, provider)
+                        : remove(snapshot, event.providerId()));
+    }
+
+    private static JsonArraySnapshot<ProviderResponse> put(JsonArraySnapshot<ProviderResponse> snapshot,
+                                                           ProviderResponse provider) {
+        snapshot.put(provider);
+        return snapshot;
+    }
+
+    /**
+     * @return the snapshot, or null to drop it when it was full and the next provider is not held
+     */
+    private static JsonArraySnapshot<ProviderResponse> remove(JsonArraySnapshot<ProviderResponse> snapshot,
+                                                              Long providerId) {
+        boolean full = snapshot.isFull();
+        snapshot.remove(providerId);
+        return full && !snapshot.isFull() ? null : snapshot;
+    }
+
+    private JsonArraySnapshot<ProviderResponse> newSnapshot() {
+        return new JsonArraySnapshot<>(objectMapper, ProviderResponse::getId, ProviderResponse::getUpdatedAt, maxSize);
+    }
+}
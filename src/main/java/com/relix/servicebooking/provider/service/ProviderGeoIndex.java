@@ -0,0 +1,250 @@
+package com.relix.servicebooking.provider.service;
+
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid of provider locations for proximity search.
+ *
+ * The globe is cut into square cells of {@code cellDegrees} on each side; a query only visits
+ * the cells covering the search circle's bounding box and computes the great-circle distance
+ * for the providers found there. Loaded on startup and refreshed periodically, and kept
+ * current in between from each committed {@link ProviderChangedEvent}. Writes that land while
+ * a reload is reading the table are logged and replayed onto the rebuilt grid under the same
+ * lock as the swap, so a reload never undoes them. Until the first load finishes
+ * {@link #isLoaded()} is false and callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class ProviderGeoIndex {
+
+    public record NearbyMatch(Long providerId, double distanceKm) {}
+
+    private record Point(double latitude, double longitude, long cell) {}
+
+    /** A put when {@code point} is set, a remove otherwise */
+    private record PendingWrite(Long providerId, Point point) {}
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final ProviderRepository providerRepository;
+    private final double cellDegrees;
+    private final int longitudeCells;
+
+    private volatile ConcurrentHashMap<Long, Point> points = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /** Writes made while {@link #reload} reads the table; guarded by {@code this} */
+    private List<PendingWrite> rebuildLog;
+    private final Object reloadLock = new Object();
+
+    public ProviderGeoIndex(ProviderRepository providerRepository,
+                            @Value("${booking.provider-geo.cell-degrees:0.1}") double cellDegrees) {
+        this.providerRepository = providerRepository;
+        this.cellDegrees = cellDegrees;
+        this.longitudeCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild the grid from every provider that has a location.
+     */
+    @Scheduled(fixedDelayString = "${booking.provider-geo.refresh-interval-ms:3600000}",
+            initialDelayString = "${booking.provider-geo.refresh-interval-ms:3600000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            List<PendingWrite> pending = new ArrayList<>();
+            synchronized (this) {
+                rebuildLog = pending;
+            }
+            try {
+                List<ProviderRepository.LocationView> locations = providerRepository.findLocations();
+
+                ConcurrentHashMap<Long, Point> rebuiltPoints = new ConcurrentHashMap<>();
+                ConcurrentHashMap<Long, Set<Long>> rebuiltCells = new ConcurrentHashMap<>();
+                for (ProviderRepository.LocationView location : locations) {
+                    Point point = point(location.getLatitude().doubleValue(), location.getLongitude().doubleValue());
+                    rebuiltPoints.put(location.getId(), point);
+                    rebuiltCells.computeIfAbsent(point.cell(), cell -> ConcurrentHashMap.newKeySet()).add(location.getId());
+                }
+                int replayed;
+                synchronized (this) {
+                    points = rebuiltPoints;
+                    cells = rebuiltCells;
+                    for (PendingWrite write : pending) {
+                        if (write.point() != null) {
+                            apply(write.providerId(), write.point());
+                        } else {
+                            applyRemove(write.providerId());
+                        }
+                    }
+                    replayed = pending.size();
+                    loaded = true;
+                }
+                log.info("Provider geo index loaded: providers={}, cells={}, replayed={}",
+                        rebuiltPoints.size(), rebuiltCells.size(), replayed);
+            } finally {
+                synchronized (this) {
+                    rebuildLog = null;
+                }
+            }
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void put(Long providerId, double latitude, double longitude) {
+        Point point = point(latitude, longitude);
+        if (rebuildLog != null) {
+            rebuildLog.add(new PendingWrite(providerId, point));
+        }
+        apply(providerId, point);
+    }
+
+    public synchronized void remove(Long providerId) {
+        if (rebuildLog != null) {
+            rebuildLog.add(new PendingWrite(providerId, null));
+        }
+        applyRemove(providerId);
+    }
+
+    private void apply(Long providerId, Point point) {
+        Point previous = points.put(providerId, point);
+        if (previous != null && previous.cell() != point.cell()) {
+            removeFromCell(previous.cell(), providerId);
+        }
+        cells.computeIfAbsent(point.cell(), cell -> ConcurrentHashMap.newKeySet()).add(providerId);
+    }
+
+    private void applyRemove(Long providerId) {
+        Point previous = points.remove(providerId);
+        if (previous != null) {
+            removeFromCell(previous.cell(), providerId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProviderChanged(ProviderChangedEvent event) {
+        providerRepository.findLocationById(event.providerId()).ifPresentOrElse(
+                location -> put(location.getId(),
+                        location.getLatitude().doubleValue(), location.getLongitude().doubleValue()),
+                () -> remove(event.providerId()));
+    }
+
+    /**
+     * Providers within {@code radiusKm} of the point, nearest first, ties by provider id.
+     */
+    public List<NearbyMatch> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        ConcurrentHashMap<Long, Point> currentPoints = points;
+        ConcurrentHashMap<Long, Set<Long>> currentCells = cells;
+
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double longitudeDelta = longitudeDelta(latitude, radiusKm);
+        int fromLatitudeCell = latitudeCell(Math.max(-90, latitude - latitudeDelta));
+        int toLatitudeCell = latitudeCell(Math.min(90, latitude + latitudeDelta));
+        int fromLongitudeCell;
+        int longitudeSpan;
+        if (longitudeDelta >= 180) {
+            fromLongitudeCell = 0;
+            longitudeSpan = longitudeCells;
+        } else {
+            fromLongitudeCell = longitudeCell(longitude - longitudeDelta);
+            longitudeSpan = Math.min(longitudeCells,
+                    Math.floorMod(longitudeCell(longitude + longitudeDelta) - fromLongitudeCell, longitudeCells) + 1);
+        }
+
+        List<NearbyMatch> matches = new ArrayList<>();
+        for (int latCell = fromLatitudeCell; latCell <= toLatitudeCell; latCell++) {
+            for (int i = 0; i < longitudeSpan; i++) {
+                Set<Long> providerIds = currentCells.get(cellKey(latCell, (fromLongitudeCell + i) % longitudeCells));
+                if (providerIds == null) {
+                    continue;
+                }
+                for (Long providerId : providerIds) {
+                    Point point = currentPoints.get(providerId);
+                    if (point == null) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                    if (distance <= radiusKm) {
+                        matches.add(new NearbyMatch(providerId, distance));
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(NearbyMatch::distanceKm).thenComparing(NearbyMatch::providerId));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Half-width in degrees of longitude of the box around a circle of {@code radiusKm};
+     * 180 or more once the circle reaches a pole.
+     */
+    static double longitudeDelta(double latitude, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        if (Math.abs(latitude) + latitudeDelta >= 90) {
+            return 180;
+        }
+        double widest = Math.cos(Math.toRadians(Math.abs(latitude) + latitudeDelta));
+        return Math.min(180, latitudeDelta / widest);
+    }
+
+    /**
+     * Great-circle distance by the haversine formula.
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void removeFromCell(long cell, Long providerId) {
+        cells.computeIfPresent(cell, (key, providerIds) -> {
+            providerIds.remove(providerId);
+            return providerIds.isEmpty() ? null : providerIds;
+        });
+    }
+
+    private Point point(double latitude, double longitude) {
+        return new Point(latitude, longitude, cellKey(latitudeCell(latitude), longitudeCell(longitude)));
+    }
+
+    private int latitudeCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), longitudeCells);
+    }
+
+    private static long cellKey(int latitudeCell, int longitudeCell) {
+        return ((long) latitudeCell << 32) | longitudeCell;
+    }
+}
@@ -0,0 +1,53 @@
+package com.relix.servicebooking.provider.service;
+
+import com.relix.servicebooking.common.util.ConcurrentLongLongMap;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Process-wide user id to provider id mapping for ownership checks.
+ *
+ * providers.user_id is unique and a provider row is never re-pointed, so a mapping once
+ * found stays valid; only positive lookups are cached. Warmed lazily on first use and
+ * evicted when a provider profile is created or upserted.
+ */
+@Component
+public class ProviderIdCache {
+
+    private static final long ABSENT = 0L;
+
+    private final ProviderRepository providerRepository;
+    private final ConcurrentLongLongMap providerIdsByUserId = new ConcurrentLongLongMap();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProviderIdCache(ProviderRepository providerRepository, MeterRegistry meterRegistry) {
+        this.providerRepository = providerRepository;
+        this.hits = Counter.builder("provider.id.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("provider.id.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("provider.id.cache.size", providerIdsByUserId, ConcurrentLongLongMap::size)
+                .register(meterRegistry);
+    }
+
+    public Optional<Long> findProviderId(Long userId) {
+        long cached = providerIdsByUserId.get(userId, ABSENT);
+        if (cached != ABSENT) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        Optional<Long> providerId = providerRepository.findIdByUserId(userId);
+        providerId.ifPresent(id -> providerIdsByUserId.put(userId, id));
+        return providerId;
+    }
+
+    public void evict(Long userId) {
+        providerIdsByUserId.remove(userId);
+    }
+}
@@ -1,29 +1,66 @@
 package com.relix.servicebooking.provider.service;
 
+import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.provider.dto.NearbyProviderResponse;
+import com.relix.servicebooking.provider.dto.ProviderPageResponse;
 import com.relix.servicebooking.provider.dto.ProviderProfileUpsertRequest;
 import com.relix.servicebooking.provider.dto.ProviderResponse;
 import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
 import com.relix.servicebooking.provider.repository.ProviderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
 import java.util.List;
-import com.relix.servicebooking.user.entity.User;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import com.relix.servicebooking.user.entity.User;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProviderService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final double DEFAULT_NEARBY_RADIUS_KM = 10;
+    public static final double MAX_NEARBY_RADIUS_KM = 200;
+    public static final int DEFAULT_NEARBY_LIMIT = 20;
+    public static final int MAX_NEARBY_LIMIT = 100;
+
     private final ProviderRepository providerRepository;
+    private final ProviderIdCache providerIdCache;
+    private final ProviderTopRatedCache providerTopRatedCache;
+    private final ProviderGeoIndex providerGeoIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Keyset page of the provider directory, highest rated first, optionally filtered by verified status.
+     * Pass a null cursor for the first page, then the nextCursor of the previous page.
+     * First pages come from {@link ProviderTopRatedCache}.
+     */
+    public ProviderPageResponse getProviderDirectory(Boolean verified, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        Limit fetch = Limit.of(pageSize + 1);
 
-    public List<ProviderResponse> getAllProviders() {
-        return providerRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        List<ProviderResponse> rows = cursor == null
+                ? providerTopRatedCache.getTopRated(verified, fetch.max())
+                : null;
+        if (rows == null) {
+            ProviderCursor below = cursor != null ? ProviderCursor.decode(cursor) : ProviderCursor.FIRST_PAGE;
+            rows = verified != null
+                    ? providerRepository.findResponsePageByVerified(verified, below.rating(), below.id(), fetch)
+                    : providerRepository.findResponsePage(below.rating(), below.id(), fetch);
+        }
+        return toPage(rows, pageSize);
     }
 
     public ProviderResponse getProviderById(Long id) {
@@ -32,12 +69,69 @@ public class ProviderService {
         return toResponse(provider);
     }
 
-    public List<ProviderResponse> getVerifiedProviders() {
-        return providerRepository.findByVerifiedTrue().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+
+    /**
+     * Providers within {@code radiusKm} of the point, nearest first. Served from {@link ProviderGeoIndex};
+     * until the index has loaded, candidates come from a bounding-box query on idx_providers_location.
+     */
+    public List<NearbyProviderResponse> getNearbyProviders(Double latitude, Double longitude,
+                                                           Double radiusKm, Integer limit) {
+        if (latitude == null || longitude == null || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new BusinessException("Latitude must be between -90 and 90 and longitude between -180 and 180",
+                    "INVALID_COORDINATES");
+        }
+        double radius = radiusKm != null ? radiusKm : DEFAULT_NEARBY_RADIUS_KM;
+        if (!(radius > 0 && radius <= MAX_NEARBY_RADIUS_KM)) {
+            throw new BusinessException("Radius must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM + " km",
+                    "INVALID_RADIUS");
+        }
+        int max = limit == null || limit <= 0 ? DEFAULT_NEARBY_LIMIT : Math.min(limit, MAX_NEARBY_LIMIT);
+
+        if (!providerGeoIndex.isLoaded()) {
+            return findNearbyInBox(latitude, longitude, radius, max);
+        }
+        List<ProviderGeoIndex.NearbyMatch> matches = providerGeoIndex.findNearby(latitude, longitude, radius, max);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProviderResponse> byId = providerRepository.findResponsesByIdIn(
+                        matches.stream().map(ProviderGeoIndex.NearbyMatch::providerId).toList()).stream()
+                .collect(Collectors.toMap(ProviderResponse::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> byId.containsKey(match.providerId()))
+                .map(match -> new NearbyProviderResponse(byId.get(match.providerId()), match.distanceKm()))
+                .toList();
     }
 
+    private List<NearbyProviderResponse> findNearbyInBox(double latitude, double longitude, double radiusKm, int limit) {
+        double latitudeDelta = radiusKm / ProviderGeoIndex.KM_PER_DEGREE_LATITUDE;
+        double longitudeDelta = ProviderGeoIndex.longitudeDelta(latitude, radiusKm);
+        double minLongitude = longitude - longitudeDelta;
+        double maxLongitude = longitude + longitudeDelta;
+        if (minLongitude < -180 || maxLongitude > 180) {
+            // The box wraps the antimeridian; widen it to every longitude rather than issue two queries
+            minLongitude = -180;
+            maxLongitude = 180;
+        }
+        List<ProviderResponse> candidates = providerRepository.findResponsesInBox(
+                degrees(Math.max(-90, latitude - latitudeDelta), RoundingMode.FLOOR),
+                degrees(Math.min(90, latitude + latitudeDelta), RoundingMode.CEILING),
+                degrees(minLongitude, RoundingMode.FLOOR),
+                degrees(maxLongitude, RoundingMode.CEILING));
+
+        return candidates.stream()
+                .map(provider -> new NearbyProviderResponse(provider, ProviderGeoIndex.distanceKm(latitude, longitude,
+                        provider.getLatitude().doubleValue(), provider.getLongitude().doubleValue())))
+                .filter(nearby -> nearby.getDistanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyProviderResponse::getDistanceKm)
+                        .thenComparing(nearby -> nearby.getProvider().getId()))
+                .limit(limit)
+                .toList();
+    }
+
+    private static BigDecimal degrees(double value, RoundingMode rounding) {
+        return BigDecimal.valueOf(value).setScale(8, rounding);
+    }
 
     @Transactional
     public ProviderResponse upsertProviderProfile(User user, ProviderProfileUpsertRequest request) {
@@ -47,22 +141,54 @@ public class ProviderService {
         provider.setBusinessName(request.getBusinessName());
         provider.setDescription(request.getDescription());
         provider.setAddress(request.getAddress());
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new BusinessException("Latitude and longitude must be set together", "INVALID_COORDINATES");
+        }
+        provider.setLatitude(request.getLatitude());
+        provider.setLongitude(request.getLongitude());
 
         provider = providerRepository.save(provider);
+        providerIdCache.evict(user.getId());
+        eventPublisher.publishEvent(new ProviderChangedEvent(provider.getId()));
         return toResponse(provider);
     }
 
-    private ProviderResponse toResponse(Provider provider) {
+    private ProviderPageResponse toPage(List<ProviderResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ProviderResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ProviderResponse last = items.get(items.size() - 1);
+            nextCursor = new ProviderCursor(last.getRating(), last.getId()).encode();
+        }
+        return ProviderPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    static ProviderResponse toResponse(Provider provider) {
         return ProviderResponse.builder()
                 .id(provider.getId())
                 .userId(provider.getUser().getId())
                 .businessName(provider.getBusinessName())
                 .description(provider.getDescription())
                 .address(provider.getAddress())
+                .latitude(provider.getLatitude())
+                .longitude(provider.getLongitude())
                 .rating(provider.getRating())
                 .reviewCount(provider.getReviewCount())
                 .verified(provider.getVerified())
                 .createdAt(provider.getCreatedAt())
+                .updatedAt(provider.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,70 @@
+package com.relix.servicebooking.provider.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.relix.servicebooking.provider.dto.ProviderResponse;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The highest rated providers per verified filter, i.e. the first directory page in the
+ * default sort. Holds {@value #TOP_N} rows, enough to answer any page size up to
+ * {@link ProviderService#MAX_PAGE_SIZE} and still tell whether a next page exists.
+ *
+ * A rating or profile change can move any provider into or out of the top rows, so every
+ * committed {@link ProviderChangedEvent} drops all entries; the next read reloads them from
+ * idx_providers_rating / idx_providers_verified_rating.
+ */
+@Component
+public class ProviderTopRatedCache {
+
+    static final String CACHE_NAME = "provider.directory.top";
+    static final int TOP_N = ProviderService.MAX_PAGE_SIZE + 1;
+
+    private enum Filter { ALL, VERIFIED, UNVERIFIED }
+
+    private final LoadingCache<Filter, List<ProviderResponse>> topRated;
+
+    public ProviderTopRatedCache(ProviderRepository providerRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${booking.provider-directory.ttl-ms:300000}") long ttlMs) {
+        ProviderCursor first = ProviderCursor.FIRST_PAGE;
+        this.topRated = Caffeine.newBuilder()
+                .maximumSize(Filter.values().length)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build(filter -> List.copyOf(filter == Filter.ALL
+                        ? providerRepository.findResponsePage(first.rating(), first.id(), Limit.of(TOP_N))
+                        : providerRepository.findResponsePageByVerified(
+                                filter == Filter.VERIFIED, first.rating(), first.id(), Limit.of(TOP_N))));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, topRated, CACHE_NAME);
+    }
+
+    /**
+     * @param verified null for every provider
+     * @return at most {@code count} highest rated providers, or null when {@code count} exceeds what is cached
+     */
+    public List<ProviderResponse> getTopRated(Boolean verified, int count) {
+        if (count > TOP_N) {
+            return null;
+        }
+        Filter filter = verified == null ? Filter.ALL : verified ? Filter.VERIFIED : Filter.UNVERIFIED;
+        List<ProviderResponse> rows = topRated.get(filter);
+        return rows.size() > count ? rows.subList(0, count) : rows;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProviderChanged(ProviderChangedEvent event) {
+        topRated.invalidateAll();
+    }
+}
@@ -0,0 +1,31 @@
+package com.relix.servicebooking.refund.controller;
+
+import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.refund.dto.RefundResponse;
+import com.relix.servicebooking.refund.service.RefundService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/refunds")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRefundController {
+
+    private final RefundService refundService;
+
+    @GetMapping("/failed")
+    public ResponseEntity<ApiResponse<List<RefundResponse>>> getFailedRefunds() {
+        return ResponseEntity.ok(ApiResponse.success(refundService.getFailedRefunds()));
+    }
+
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<ApiResponse<RefundResponse>> retryRefund(@PathVariable Long id) {
+        RefundResponse refund = refundService.retryRefund(id);
+        return ResponseEntity.ok(ApiResponse.success(refund, "Refund queued for retry"));
+    }
+}
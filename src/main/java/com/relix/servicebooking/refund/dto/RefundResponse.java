@@ -21,6 +21,10 @@ public class RefundResponse {
     private String reason;
     private String status;
     private Instant refundedAt;
+    private Integer attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+    private String gatewayReference;
     private Instant createdAt;
     private Instant updatedAt;
 }
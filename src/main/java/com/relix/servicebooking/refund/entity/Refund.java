@@ -25,6 +25,12 @@ public class Refund extends BaseEntity {
     @NotNull
     private Order order;
 
+    /**
+     * Copy of the order's customer id, so customer listings filter without joining orders.
+     */
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "payment_id", nullable = false)
     @NotNull
@@ -47,6 +53,23 @@ public class Refund extends BaseEntity {
     @Column(name = "refunded_at")
     private Instant refundedAt;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Builder.Default
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "gateway_reference", length = 100)
+    private String gatewayReference;
+
     public enum RefundStatus {
         PENDING, PROCESSING, COMPLETED, FAILED
     }
@@ -0,0 +1,6 @@
+package com.relix.servicebooking.refund.event;
+
+/**
+ * A refund was queued; once committed the processor is woken instead of waiting for its next poll.
+ */
+public record RefundRequestedEvent(Long refundId) {}
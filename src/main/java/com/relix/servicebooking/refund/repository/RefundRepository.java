@@ -13,12 +13,16 @@ public interface RefundRepository extends JpaRepository<Refund, Long> {
 
     List<Refund> findByOrderId(Long orderId);
 
-    @Query("SELECT r FROM Refund r WHERE r.order.customer.id = :customerId ORDER BY r.createdAt DESC")
+    @Query("SELECT r FROM Refund r WHERE r.customerId = :customerId ORDER BY r.createdAt DESC")
     List<Refund> findByCustomerId(@Param("customerId") Long customerId);
 
     List<Refund> findAllByOrderByCreatedAtDesc();
 
     List<Refund> findByStatus(Refund.RefundStatus status);
 
+    List<Refund> findByStatusOrderByUpdatedAtDesc(Refund.RefundStatus status);
+
+    long countByStatus(Refund.RefundStatus status);
+
     boolean existsByOrderId(Long orderId);
 }
@@ -0,0 +1,29 @@
+package com.relix.servicebooking.refund.scheduler;
+
+import com.relix.servicebooking.refund.service.RefundProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefundScheduler {
+
+    private final RefundProcessor refundProcessor;
+
+    /**
+     * Picks up retries whose backoff has elapsed, refunds queued while no wake-up reached a worker
+     * and refunds whose worker lease expired.
+     */
+    @Scheduled(fixedDelayString = "${booking.refund.poll-interval-ms:5000}",
+            initialDelayString = "${booking.refund.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            refundProcessor.poll();
+        } catch (Exception e) {
+            log.error("Refund poll failed: {}", e.getMessage(), e);
+        }
+    }
+}
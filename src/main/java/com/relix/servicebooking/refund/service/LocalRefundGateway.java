@@ -0,0 +1,37 @@
+package com.relix.servicebooking.refund.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in gateway for development and tests: approves every refund after an optional delay
+ * and derives the reference from the idempotency key, so a repeated call returns the same one.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.refund.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalRefundGateway implements RefundGateway {
+
+    private final long latencyMs;
+
+    public LocalRefundGateway(@Value("${booking.refund.local.latency-ms:0}") long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public String refund(RefundRequest request) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RefundGatewayException("Interrupted", true);
+            }
+        }
+        log.info("Local gateway refunded: refundId={}, paymentId={}, amount={}",
+                request.refundId(), request.paymentId(), request.amount());
+        return "local-" + request.idempotencyKey();
+    }
+}
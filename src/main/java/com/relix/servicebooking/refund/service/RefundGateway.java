@@ -0,0 +1,21 @@
+package com.relix.servicebooking.refund.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment provider side of a refund, selected by {@code booking.refund.gateway}.
+ *
+ * Called by {@link RefundProcessor} outside any transaction. A call can be repeated for the same
+ * refund after a timeout or a worker crash, so implementations must pass {@code idempotencyKey}
+ * through to the provider and return the original result for a key they have already seen.
+ */
+public interface RefundGateway {
+
+    record RefundRequest(Long refundId, Long paymentId, BigDecimal amount, String idempotencyKey) {}
+
+    /**
+     * @return the provider's reference for the refund
+     * @throws RefundGatewayException with {@code retryable = false} when the provider declined for good
+     */
+    String refund(RefundRequest request);
+}
@@ -0,0 +1,18 @@
+package com.relix.servicebooking.refund.service;
+
+import lombok.Getter;
+
+/**
+ * A refund the gateway did not perform. Retryable failures are attempted again with backoff;
+ * the others move the refund straight to FAILED.
+ */
+@Getter
+public class RefundGatewayException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public RefundGatewayException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+}
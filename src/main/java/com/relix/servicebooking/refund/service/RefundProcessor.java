@@ -0,0 +1,243 @@
+package com.relix.servicebooking.refund.service;
+
+import com.relix.servicebooking.refund.entity.Refund;
+import com.relix.servicebooking.refund.event.RefundRequestedEvent;
+import com.relix.servicebooking.refund.repository.RefundRepository;
+import com.relix.servicebooking.refund.service.RefundQueue.ClaimedRefund;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background refund worker pool.
+ *
+ * A dispatcher claims at most as many due refunds as there are idle workers, so a claimed
+ * refund never waits in a local queue while its lease runs. Each worker calls the
+ * {@link RefundGateway} with no transaction open and records the outcome:
+ * <ul>
+ *   <li>success: the refund is COMPLETED and its payment REFUNDED</li>
+ *   <li>retryable failure: back to PENDING with exponential backoff and jitter</li>
+ *   <li>permanent failure or attempts exhausted: FAILED, the dead-letter state</li>
+ * </ul>
+ * The dispatcher runs after every committed {@link RefundRequestedEvent}, whenever a worker frees
+ * up and on the scheduled {@link #poll()}. The poll alone returns refunds held past
+ * {@code lease-ms} by a dead worker to the queue and refreshes the dead-letter count, so
+ * neither query runs once per refund. Outcomes, gateway latency, busy workers and the dead-letter count are published
+ * under {@value #METRIC_PREFIX}.
+ */
+@Slf4j
+@Service
+public class RefundProcessor {
+
+    static final String METRIC_PREFIX = "refund";
+
+    private final RefundQueue refundQueue;
+    private final RefundGateway refundGateway;
+    private final RefundRepository refundRepository;
+    private final int workers;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    private final ExecutorService workerPool;
+    private final ExecutorService dispatcher;
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer gatewayTimer;
+
+    public RefundProcessor(RefundQueue refundQueue,
+                           RefundGateway refundGateway,
+                           RefundRepository refundRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${booking.refund.workers:4}") int workers,
+                           @Value("${booking.refund.lease-ms:300000}") long leaseMs,
+                           @Value("${booking.refund.max-attempts:6}") int maxAttempts,
+                           @Value("${booking.refund.backoff-base-ms:5000}") long backoffBaseMs,
+                           @Value("${booking.refund.backoff-max-ms:600000}") long backoffMaxMs) {
+        this.refundQueue = refundQueue;
+        this.refundGateway = refundGateway;
+        this.refundRepository = refundRepository;
+        this.workers = workers;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "refund-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refund-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.completed = Counter.builder(METRIC_PREFIX + ".processed").tag("outcome", "completed").register(meterRegistry);
+        this.retried = Counter.builder(METRIC_PREFIX + ".processed").tag("outcome", "retry").register(meterRegistry);
+        this.failed = Counter.builder(METRIC_PREFIX + ".processed").tag("outcome", "failed").register(meterRegistry);
+        this.gatewayTimer = Timer.builder(METRIC_PREFIX + ".gateway")
+                .description("Latency of one refund gateway call")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".workers.busy", busy, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".dead.letter", deadLetters, AtomicLong::get)
+                .description("Refunds that ended FAILED and wait for an operator")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRefundRequested(RefundRequestedEvent event) {
+        requestDispatch();
+    }
+
+    /**
+     * Queue one dispatch pass on the dispatcher thread; requests made while one is pending coalesce.
+     */
+    public void requestDispatch() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchRequested.set(false);
+                try {
+                    dispatch();
+                } catch (Exception e) {
+                    log.error("Refund dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Scheduled pass: reclaim expired leases, refresh the dead-letter gauge and dispatch.
+     */
+    public void poll() {
+        Instant now = Instant.now();
+        int reclaimed = refundQueue.reclaimExpired(now.minusMillis(leaseMs), now);
+        if (reclaimed > 0) {
+            log.warn("Reclaimed {} refunds with expired worker leases", reclaimed);
+        }
+        deadLetters.set(refundRepository.countByStatus(Refund.RefundStatus.FAILED));
+        requestDispatch();
+    }
+
+    /**
+     * Hand due refunds to idle workers.
+     *
+     * @return refunds claimed by this pass
+     */
+    synchronized int dispatch() {
+        Instant now = Instant.now();
+        int idle = workers - busy.get();
+        if (idle <= 0) {
+            return 0;
+        }
+        List<ClaimedRefund> claimed = refundQueue.claim(idle, now);
+        for (ClaimedRefund refund : claimed) {
+            busy.incrementAndGet();
+            workerPool.execute(() -> {
+                try {
+                    process(refund);
+                } finally {
+                    busy.decrementAndGet();
+                    requestDispatch();
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    void process(ClaimedRefund refund) {
+        String reference;
+        long started = System.nanoTime();
+        try {
+            reference = refundGateway.refund(new RefundGateway.RefundRequest(
+                    refund.id(), refund.paymentId(), refund.amount(), "refund-" + refund.id()));
+        } catch (RefundGatewayException e) {
+            if (e.isRetryable()) {
+                retryOrFail(refund, e.getMessage());
+            } else {
+                fail(refund, e.getMessage());
+            }
+            return;
+        } catch (Exception e) {
+            retryOrFail(refund, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            return;
+        } finally {
+            gatewayTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        if (refundQueue.complete(refund, reference, Instant.now())) {
+            completed.increment();
+            log.info("Refund completed: id={}, reference={}, attempts={}", refund.id(), reference, refund.attempts());
+        } else {
+            log.warn("Refund lease lost before completion was recorded: id={}, reference={}", refund.id(), reference);
+        }
+    }
+
+    private void retryOrFail(ClaimedRefund refund, String error) {
+        if (refund.attempts() >= maxAttempts) {
+            fail(refund, error);
+            return;
+        }
+        Duration delay = backoff(refund.attempts());
+        if (refundQueue.retry(refund, error, Instant.now().plus(delay))) {
+            retried.increment();
+            log.warn("Refund attempt {} failed, retrying in {}s: id={}, error={}",
+                    refund.attempts(), delay.toSeconds(), refund.id(), error);
+        } else {
+            log.warn("Refund lease lost before the retry was recorded: id={}, error={}", refund.id(), error);
+        }
+    }
+
+    private void fail(ClaimedRefund refund, String error) {
+        if (refundQueue.fail(refund, error)) {
+            failed.increment();
+            log.error("Refund failed after {} attempts: id={}, error={}", refund.attempts(), refund.id(), error);
+        } else {
+            log.warn("Refund lease lost before the failure was recorded: id={}, error={}", refund.id(), error);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at {@code backoff-max-ms}; the upper half of each delay is
+     * randomized so refunds that failed together do not retry together.
+     */
+    Duration backoff(int attempt) {
+        long exponential = backoffBaseMs << Math.min(attempt - 1, 30);
+        long capped = exponential > 0 ? Math.min(exponential, backoffMaxMs) : backoffMaxMs;
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        dispatcher.shutdownNow();
+        workerPool.shutdown();
+        // Unfinished refunds keep their lease and are reclaimed once it expires
+        workerPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
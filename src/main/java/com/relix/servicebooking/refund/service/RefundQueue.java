@@ -0,0 +1,120 @@
+package com.relix.servicebooking.refund.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The refunds table as a work queue. Every method is one short transaction; no lock is held
+ * while the gateway is called.
+ *
+ * {@link #claim} moves due PENDING rows to PROCESSING with {@code FOR UPDATE SKIP LOCKED}, so
+ * concurrent workers and instances never claim the same refund, and stamps claimed_at as the
+ * lease. Outcome updates only apply while the row is still PROCESSING under the same claimed_at
+ * the worker read back from its claim; a refund whose lease expired and was reclaimed in the
+ * meantime is left to its new owner.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefundQueue {
+
+    private static final String CLAIM_SQL =
+            "UPDATE refunds r SET status = 'PROCESSING', claimed_at = ?, attempts = r.attempts + 1 " +
+            "FROM (SELECT id FROM refunds WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+            "WHERE r.id = due.id " +
+            "RETURNING r.id, r.payment_id, r.amount, r.attempts, r.claimed_at";
+    private static final String RECLAIM_SQL =
+            "UPDATE refunds SET status = 'PENDING', claimed_at = NULL, next_attempt_at = ? " +
+            "WHERE status = 'PROCESSING' AND claimed_at < ?";
+    private static final String COMPLETE_SQL =
+            "UPDATE refunds SET status = 'COMPLETED', refunded_at = ?, gateway_reference = ?, " +
+            "claimed_at = NULL, last_error = NULL WHERE id = ? AND status = 'PROCESSING' AND claimed_at = ?";
+    private static final String PAYMENT_REFUNDED_SQL =
+            "UPDATE payments SET status = 'REFUNDED' WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE refunds SET status = 'PENDING', claimed_at = NULL, next_attempt_at = ?, last_error = ? " +
+            "WHERE id = ? AND status = 'PROCESSING' AND claimed_at = ?";
+    private static final String FAIL_SQL =
+            "UPDATE refunds SET status = 'FAILED', claimed_at = NULL, last_error = ? " +
+            "WHERE id = ? AND status = 'PROCESSING' AND claimed_at = ?";
+    private static final String REQUEUE_SQL =
+            "UPDATE refunds SET status = 'PENDING', attempts = 0, next_attempt_at = ? " +
+            "WHERE id = ? AND status = 'FAILED'";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * @param attempts  gateway calls including the one this claim is for
+     * @param claimedAt the lease as stored, which every outcome update must still match
+     */
+    public record ClaimedRefund(Long id, Long paymentId, BigDecimal amount, int attempts, Instant claimedAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public List<ClaimedRefund> claim(int limit, Instant now) {
+        Timestamp at = Timestamp.from(now);
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedRefund(rs.getLong("id"), rs.getLong("payment_id"),
+                        rs.getBigDecimal("amount"), rs.getInt("attempts"), rs.getTimestamp("claimed_at").toInstant()),
+                at, at, limit);
+    }
+
+    /**
+     * Return refunds whose worker has held them since before {@code leaseExpiredBefore} to the queue.
+     */
+    @Transactional
+    public int reclaimExpired(Instant leaseExpiredBefore, Instant now) {
+        return jdbcTemplate.update(RECLAIM_SQL, Timestamp.from(now), Timestamp.from(leaseExpiredBefore));
+    }
+
+    /**
+     * @return false if the lease was lost and the outcome was not recorded
+     */
+    @Transactional
+    public boolean complete(ClaimedRefund refund, String gatewayReference, Instant now) {
+        int updated = jdbcTemplate.update(COMPLETE_SQL, Timestamp.from(now), gatewayReference, refund.id(),
+                Timestamp.from(refund.claimedAt()));
+        if (updated == 0) {
+            return false;
+        }
+        jdbcTemplate.update(PAYMENT_REFUNDED_SQL, refund.paymentId());
+        return true;
+    }
+
+    @Transactional
+    public boolean retry(ClaimedRefund refund, String error, Instant nextAttemptAt) {
+        return jdbcTemplate.update(RETRY_SQL, Timestamp.from(nextAttemptAt), truncate(error), refund.id(),
+                Timestamp.from(refund.claimedAt())) > 0;
+    }
+
+    @Transactional
+    public boolean fail(ClaimedRefund refund, String error) {
+        return jdbcTemplate.update(FAIL_SQL, truncate(error), refund.id(), Timestamp.from(refund.claimedAt())) > 0;
+    }
+
+    /**
+     * Put a FAILED refund back in the queue with a fresh attempt budget.
+     *
+     * @return false if the refund is not FAILED
+     */
+    @Transactional
+    public boolean requeue(Long refundId, Instant now) {
+        return jdbcTemplate.update(REQUEUE_SQL, Timestamp.from(now), refundId) > 0;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
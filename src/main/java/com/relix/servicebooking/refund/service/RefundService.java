@@ -1,5 +1,6 @@
 package com.relix.servicebooking.refund.service;
 
+import com.relix.servicebooking.common.exception.ConflictException;
 import com.relix.servicebooking.common.exception.ForbiddenException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.entity.Order;
@@ -7,9 +8,11 @@ import com.relix.servicebooking.payment.entity.Payment;
 import com.relix.servicebooking.payment.repository.PaymentRepository;
 import com.relix.servicebooking.refund.dto.RefundResponse;
 import com.relix.servicebooking.refund.entity.Refund;
+import com.relix.servicebooking.refund.event.RefundRequestedEvent;
 import com.relix.servicebooking.refund.repository.RefundRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +30,13 @@ public class RefundService {
 
     private final RefundRepository refundRepository;
     private final PaymentRepository paymentRepository;
+    private final RefundQueue refundQueue;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Queue a refund of the order's payment. The refund is processed by {@link RefundProcessor}
+     * after the caller's transaction commits, so the order lock is never held across the gateway call.
+     */
     @Transactional
     public Refund createRefund(Order order, String reason) {
         Payment payment = paymentRepository.findByOrder_Id(order.getId())
@@ -40,6 +49,7 @@ public class RefundService {
 
         Refund refund = Refund.builder()
                 .order(order)
+                .customerId(order.getCustomer().getId())
                 .payment(payment)
                 .amount(payment.getAmount())
                 .reason(truncateReason(reason))
@@ -47,34 +57,41 @@ public class RefundService {
                 .build();
 
         refund = refundRepository.save(refund);
-        log.info("Refund created: id={}, orderId={}, amount={}, reason={}",
+        eventPublisher.publishEvent(new RefundRequestedEvent(refund.getId()));
+        log.info("Refund queued: id={}, orderId={}, amount={}, reason={}",
                 refund.getId(), order.getId(), payment.getAmount(), reason);
 
-        // Process refund inline to avoid @Transactional self-invocation issue
-        try {
-            refund.setStatus(Refund.RefundStatus.PROCESSING);
-            refundRepository.save(refund);
-
-            // Simulate external refund processing
-            refund.setStatus(Refund.RefundStatus.COMPLETED);
-            refund.setRefundedAt(Instant.now());
-            refundRepository.save(refund);
-
-            // Mark payment as refunded
-            payment.setStatus(Payment.PaymentStatus.REFUNDED);
-            paymentRepository.save(payment);
-
-            log.info("Refund completed: id={}, orderId={}", refund.getId(), refund.getOrder().getId());
-        } catch (Exception e) {
-            refund.setStatus(Refund.RefundStatus.FAILED);
-            refundRepository.save(refund);
-            log.error("Refund failed: id={}, orderId={}, error={}",
-                    refund.getId(), refund.getOrder().getId(), e.getMessage());
-        }
-
         return refund;
     }
 
+    /**
+     * Dead-letter view: refunds that exhausted their attempts or were declined, most recent first.
+     */
+    public List<RefundResponse> getFailedRefunds() {
+        return refundRepository.findByStatusOrderByUpdatedAtDesc(Refund.RefundStatus.FAILED)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Move a FAILED refund back to PENDING with a fresh attempt budget.
+     */
+    @Transactional
+    public RefundResponse retryRefund(Long id) {
+        boolean requeued = refundQueue.requeue(id, Instant.now());
+        Refund refund = refundRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Refund", id));
+
+        if (!requeued) {
+            throw new ConflictException("Only failed refunds can be retried, current status is " + refund.getStatus(),
+                    "REFUND_NOT_FAILED");
+        }
+        eventPublisher.publishEvent(new RefundRequestedEvent(id));
+        log.info("Refund requeued: id={}", id);
+        return toResponse(refund);
+    }
+
     public List<RefundResponse> getRefundsByCustomerId(Long customerId) {
         return refundRepository.findByCustomerId(customerId)
                 .stream()
@@ -118,6 +135,10 @@ public class RefundService {
                 .reason(refund.getReason())
                 .status(refund.getStatus().name())
                 .refundedAt(refund.getRefundedAt())
+                .attempts(refund.getAttempts())
+                .nextAttemptAt(refund.getNextAttemptAt())
+                .lastError(refund.getLastError())
+                .gatewayReference(refund.getGatewayReference())
                 .createdAt(refund.getCreatedAt())
                 .updatedAt(refund.getUpdatedAt())
                 .build();
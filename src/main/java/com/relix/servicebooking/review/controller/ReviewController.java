@@ -0,0 +1,45 @@
+package com.relix.servicebooking.review.controller;
+
+import com.relix.servicebooking.auth.service.CurrentUserService;
+import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.review.dto.ReviewCreateRequest;
+import com.relix.servicebooking.review.dto.ReviewResponse;
+import com.relix.servicebooking.review.service.ReviewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reviews")
+@RequiredArgsConstructor
+@Tag(name = "Reviews", description = "Reviews of completed orders")
+@SecurityRequirement(name = "bearerAuth")
+public class ReviewController {
+
+    private final ReviewService reviewService;
+    private final CurrentUserService currentUserService;
+
+    @PostMapping
+    @Operation(summary = "Review a completed order")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ApiResponse<ReviewResponse>> createReview(@Valid @RequestBody ReviewCreateRequest request) {
+        ReviewResponse review = reviewService.createReview(currentUserService.getCurrentUserId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(review, "Review created"));
+    }
+
+    @GetMapping("/provider/{providerId}")
+    @Operation(summary = "Latest reviews of a provider, newest first")
+    public ResponseEntity<ApiResponse<List<ReviewResponse>>> getProviderReviews(
+            @PathVariable Long providerId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(reviewService.getLatestReviewsByProvider(providerId, limit)));
+    }
+}
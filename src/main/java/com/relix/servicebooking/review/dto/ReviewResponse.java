@@ -0,0 +1,24 @@
+package com.relix.servicebooking.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResponse {
+
+    private Long id;
+    private Long orderId;
+    private Long customerId;
+    private Long providerId;
+    private Integer rating;
+    private String comment;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,39 @@
+package com.relix.servicebooking.review.repository;
+
+import com.relix.servicebooking.review.dto.ReviewResponse;
+import com.relix.servicebooking.review.entity.Review;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    boolean existsByOrder_Id(Long orderId);
+
+    @Query("SELECT new com.relix.servicebooking.review.dto.ReviewResponse("
+            + "r.id, r.order.id, r.customer.id, r.provider.id, r.rating, r.comment, r.createdAt, r.updatedAt) "
+            + "FROM Review r WHERE r.provider.id = :providerId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewResponse> findLatestByProviderId(@Param("providerId") Long providerId, Limit limit);
+
+    /**
+     * Review count and rating sum per provider, read from idx_reviews_provider_created.
+     * Providers without reviews are absent from the result.
+     */
+    @Query("SELECT r.provider.id AS providerId, COUNT(r) AS reviewCount, SUM(r.rating) AS ratingSum "
+            + "FROM Review r WHERE r.provider.id IN :providerIds GROUP BY r.provider.id")
+    List<RatingTotalsView> sumRatingsByProviderIds(@Param("providerIds") Collection<Long> providerIds);
+
+    interface RatingTotalsView {
+        Long getProviderId();
+
+        Long getReviewCount();
+
+        Long getRatingSum();
+    }
+}
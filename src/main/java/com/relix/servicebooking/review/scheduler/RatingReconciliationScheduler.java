@@ -0,0 +1,27 @@
+package com.relix.servicebooking.review.scheduler;
+
+import com.relix.servicebooking.review.service.RatingReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RatingReconciliationScheduler {
+
+    private final RatingReconciliationService ratingReconciliationService;
+
+    @Scheduled(cron = "${booking.rating-reconciliation.cron:0 30 3 * * ?}", zone = "America/Chicago")
+    public void reconcileRatings() {
+        log.info("Starting provider rating reconciliation...");
+        try {
+            RatingReconciliationService.ReconciliationResult result = ratingReconciliationService.reconcileAll();
+            log.info("Provider rating reconciliation completed: scanned={}, corrected={}",
+                    result.scanned(), result.corrected());
+        } catch (Exception e) {
+            log.error("Provider rating reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
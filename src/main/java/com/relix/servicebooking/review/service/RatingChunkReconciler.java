@@ -0,0 +1,96 @@
+package com.relix.servicebooking.review.service;
+
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.review.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles one keyset chunk of providers per transaction against the reviews table.
+ *
+ * Each correction is conditional on the totals read at the start of the chunk, so a review
+ * submitted meanwhile (which moves the totals itself) is never overwritten with stale sums;
+ * that provider is simply checked again on the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RatingChunkReconciler {
+
+    private static final String CORRECT_SQL =
+            "UPDATE providers SET review_count = ?, rating_sum = ?, rating = ? " +
+            "WHERE id = ? AND review_count = ? AND rating_sum = ?";
+
+    private final ProviderRepository providerRepository;
+    private final ReviewRepository reviewRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param lastId highest provider id in the chunk, or null when there were no providers after {@code afterId}
+     */
+    public record ChunkResult(Long lastId, int scanned, int corrected) {}
+
+    @Transactional
+    public ChunkResult reconcile(long afterId, int chunkSize) {
+        List<ProviderRepository.RatingTotalsView> providers =
+                providerRepository.findRatingTotalsChunk(afterId, Limit.of(chunkSize));
+        if (providers.isEmpty()) {
+            return new ChunkResult(null, 0, 0);
+        }
+
+        Map<Long, ReviewRepository.RatingTotalsView> actual = reviewRepository.sumRatingsByProviderIds(
+                        providers.stream().map(ProviderRepository.RatingTotalsView::getId).toList()).stream()
+                .collect(Collectors.toMap(ReviewRepository.RatingTotalsView::getProviderId, Function.identity()));
+
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        for (ProviderRepository.RatingTotalsView provider : providers) {
+            ReviewRepository.RatingTotalsView totals = actual.get(provider.getId());
+            long reviewCount = totals != null ? totals.getReviewCount() : 0;
+            long ratingSum = totals != null ? totals.getRatingSum() : 0;
+            BigDecimal rating = average(ratingSum, reviewCount);
+
+            if (provider.getReviewCount() != reviewCount || provider.getRatingSum() != ratingSum
+                    || provider.getRating().compareTo(rating) != 0) {
+                ids.add(provider.getId());
+                args.add(new Object[]{reviewCount, ratingSum, rating,
+                        provider.getId(), provider.getReviewCount(), provider.getRatingSum()});
+            }
+        }
+
+        int corrected = 0;
+        if (!args.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(CORRECT_SQL, args);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] > 0) {
+                    corrected++;
+                    log.warn("Provider rating drift corrected: providerId={}", ids.get(i));
+                    eventPublisher.publishEvent(new ProviderChangedEvent(ids.get(i)));
+                }
+            }
+        }
+        return new ChunkResult(providers.get(providers.size() - 1).getId(), providers.size(), corrected);
+    }
+
+    static BigDecimal average(long ratingSum, long reviewCount) {
+        if (reviewCount == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(reviewCount), 2, RoundingMode.HALF_UP);
+    }
+}
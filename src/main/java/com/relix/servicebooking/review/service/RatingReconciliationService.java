@@ -0,0 +1,58 @@
+package com.relix.servicebooking.review.service;
+
+import com.relix.servicebooking.common.exception.ConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodic check of the incrementally maintained provider ratings against the reviews table.
+ *
+ * Providers are walked in id order in chunks of {@code booking.rating-reconciliation.chunk-size},
+ * each reconciled in its own short transaction by {@link RatingChunkReconciler}, so the run never
+ * holds locks across the whole table and review submissions keep flowing while it runs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingReconciliationService {
+
+    public record ReconciliationResult(int scanned, int corrected) {}
+
+    private final RatingChunkReconciler ratingChunkReconciler;
+
+    @Value("${booking.rating-reconciliation.chunk-size:500}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReconciliationResult reconcileAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("Rating reconciliation is already running", "RECONCILIATION_IN_PROGRESS");
+        }
+        try {
+            long afterId = 0;
+            int scanned = 0;
+            int corrected = 0;
+            while (true) {
+                RatingChunkReconciler.ChunkResult chunk = ratingChunkReconciler.reconcile(afterId, chunkSize);
+                if (chunk.lastId() == null) {
+                    break;
+                }
+                scanned += chunk.scanned();
+                corrected += chunk.corrected();
+                afterId = chunk.lastId();
+                if (chunk.scanned() < chunkSize) {
+                    break;
+                }
+            }
+            log.info("Rating reconciliation completed: scanned={}, corrected={}", scanned, corrected);
+            return new ReconciliationResult(scanned, corrected);
+        } finally {
+            running.set(false);
+        }
+    }
+}
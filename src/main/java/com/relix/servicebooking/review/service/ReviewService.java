@@ -0,0 +1,98 @@
+package com.relix.servicebooking.review.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.common.exception.ForbiddenException;
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.review.dto.ReviewCreateRequest;
+import com.relix.servicebooking.review.dto.ReviewResponse;
+import com.relix.servicebooking.review.entity.Review;
+import com.relix.servicebooking.review.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReviewService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ReviewRepository reviewRepository;
+    private final OrderRepository orderRepository;
+    private final ProviderRepository providerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Review a completed order and fold the rating into the provider's running totals in the
+     * same transaction, so providers.rating is always current and listings never aggregate.
+     */
+    @Transactional
+    public ReviewResponse createReview(Long customerUserId, ReviewCreateRequest request) {
+        Order order = orderRepository.findById(request.getOrderId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order", request.getOrderId()));
+
+        if (!order.getCustomer().getId().equals(customerUserId)) {
+            throw new ForbiddenException("Order does not belong to this customer");
+        }
+        if (order.getStatus() != Order.OrderStatus.COMPLETED) {
+            throw new BusinessException("Only completed orders can be reviewed", "ORDER_NOT_COMPLETED");
+        }
+        if (reviewRepository.existsByOrder_Id(order.getId())) {
+            throw new ConflictException("Order has already been reviewed", "REVIEW_ALREADY_EXISTS");
+        }
+
+        Review review;
+        try {
+            review = reviewRepository.saveAndFlush(Review.builder()
+                    .order(order)
+                    .customer(order.getCustomer())
+                    .provider(order.getProvider())
+                    .rating(request.getRating())
+                    .comment(request.getComment())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent submission for the same order won the unique order_id constraint
+            throw new ConflictException("Order has already been reviewed", "REVIEW_ALREADY_EXISTS");
+        }
+
+        Long providerId = order.getProvider().getId();
+        providerRepository.addReviewRating(providerId, request.getRating());
+        eventPublisher.publishEvent(new ProviderChangedEvent(providerId));
+
+        log.info("Review created: reviewId={}, orderId={}, providerId={}, rating={}",
+                review.getId(), order.getId(), providerId, request.getRating());
+        return toResponse(review);
+    }
+
+    public List<ReviewResponse> getLatestReviewsByProvider(Long providerId, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        return reviewRepository.findLatestByProviderId(providerId, Limit.of(pageSize));
+    }
+
+    private ReviewResponse toResponse(Review review) {
+        return ReviewResponse.builder()
+                .id(review.getId())
+                .orderId(review.getOrder().getId())
+                .customerId(review.getCustomer().getId())
+                .providerId(review.getProvider().getId())
+                .rating(review.getRating())
+                .comment(review.getComment())
+                .createdAt(review.getCreatedAt())
+                .updatedAt(review.getUpdatedAt())
+                .build();
+    }
+}
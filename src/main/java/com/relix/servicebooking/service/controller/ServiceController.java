@@ -6,19 +6,19 @@ import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.service.dto.ServiceCreateRequest;
 import com.relix.servicebooking.service.dto.ServiceResponse;
 import com.relix.servicebooking.service.dto.ServiceUpdateRequest;
+import com.relix.servicebooking.service.service.ServiceCatalogSnapshots;
 import com.relix.servicebooking.service.service.ServiceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/services")
 @RequiredArgsConstructor
@@ -27,13 +27,16 @@ import java.util.List;
 public class ServiceController {
 
     private final ServiceService serviceService;
+    private final ServiceCatalogSnapshots serviceCatalogSnapshots;
     private final CurrentUserService currentUserService;
 
     @GetMapping
-    @Operation(summary = "List all active services")
+    @Operation(summary = "List all active services (ETag and gzip aware)")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<ServiceResponse>>> getAllServices() {
-        return ResponseEntity.ok(ApiResponse.success(serviceService.getAllActiveServices()));
+    public ResponseEntity<byte[]> getAllServices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serviceCatalogSnapshots.activeServices().respond(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{id}")
@@ -44,11 +47,13 @@ public class ServiceController {
     }
 
     @GetMapping("/provider/{providerId}")
-    @Operation(summary = "List services by provider")
+    @Operation(summary = "List services by provider (ETag and gzip aware)")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<ServiceResponse>>> getServicesByProvider(
-            @PathVariable Long providerId) {
-        return ResponseEntity.ok(ApiResponse.success(serviceService.getServicesByProvider(providerId)));
+    public ResponseEntity<byte[]> getServicesByProvider(
+            @PathVariable Long providerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serviceCatalogSnapshots.servicesByProvider(providerId).respond(ifNoneMatch, acceptEncoding);
     }
 
     @PostMapping
@@ -63,7 +68,7 @@ public class ServiceController {
                 throw new BusinessException("providerId is required for ADMIN", "PROVIDER_ID_REQUIRED");
             }
         } else {
-            providerId = currentUserService.getCurrentProvider().getId();
+            providerId = currentUserService.getCurrentProviderId();
         }
 
         request.setProviderId(providerId);
@@ -79,7 +84,7 @@ public class ServiceController {
             @PathVariable Long id,
             @Valid @RequestBody ServiceUpdateRequest request) {
         if (!currentUserService.isAdmin()) {
-            serviceService.verifyProviderOwnership(id, currentUserService.getCurrentProvider().getId());
+            serviceService.verifyProviderOwnership(id, currentUserService.getCurrentProviderId());
         }
 
         return ResponseEntity.ok(ApiResponse.success(serviceService.updateService(id, request), "Service updated"));
@@ -90,7 +95,7 @@ public class ServiceController {
     @PreAuthorize("hasAnyRole('PROVIDER', 'ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteService(@PathVariable Long id) {
         if (!currentUserService.isAdmin()) {
-            serviceService.verifyProviderOwnership(id, currentUserService.getCurrentProvider().getId());
+            serviceService.verifyProviderOwnership(id, currentUserService.getCurrentProviderId());
         }
 
         serviceService.deleteService(id);
@@ -0,0 +1,7 @@
+package com.relix.servicebooking.service.event;
+
+/**
+ * Published when a service is created, edited or deactivated, so cached catalog views can be dropped.
+ */
+public record ServiceChangedEvent(Long serviceId, Long providerId) {
+}
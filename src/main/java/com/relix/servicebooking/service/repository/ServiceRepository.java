@@ -15,4 +15,6 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
     List<Service> findByProvider_Id(Long providerId);
 
     List<Service> findByProvider_IdAndStatus(Long providerId, Service.ServiceStatus status);
+
+    List<Service> findByNameIgnoreCaseAndStatus(String name, Service.ServiceStatus status);
 }
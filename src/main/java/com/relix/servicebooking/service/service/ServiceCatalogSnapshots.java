@@ -0,0 +1,118 @@
+package com.relix.servicebooking.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relix.servicebooking.common.snapshot.JsonArraySnapshot;
+import com.relix.servicebooking.common.snapshot.JsonSnapshot;
+import com.relix.servicebooking.service.dto.ServiceResponse;
+import com.relix.servicebooking.service.entity.Service.ServiceStatus;
+import com.relix.servicebooking.service.event.ServiceChangedEvent;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Pre-serialized responses for the service catalog endpoints.
+ *
+ * A snapshot is built from the database on first use and then patched one service at a time:
+ * after a {@link ServiceChangedEvent} commits, only the changed row is re-read and re-serialized.
+ * Patches go through the cache map's compute, which waits for an in-flight build of the same
+ * key, so a build that read the old row is always followed by the patch. Snapshots also expire
+ * after the catalog TTL to pick up writes made by other instances. Gets, hit ratio and build
+ * times are published under the cache names {@value #ACTIVE_CACHE} and {@value #PROVIDER_CACHE}.
+ */
+@Component
+public class ServiceCatalogSnapshots {
+
+    static final String ACTIVE_CACHE = "service.catalog.active";
+    static final String PROVIDER_CACHE = "service.catalog.provider";
+
+    private static final Boolean ACTIVE_KEY = Boolean.TRUE;
+
+    private final ServiceRepository serviceRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Boolean, JsonArraySnapshot<ServiceResponse>> activeServices;
+    private final Cache<Long, JsonArraySnapshot<ServiceResponse>> servicesByProvider;
+
+    public ServiceCatalogSnapshots(ServiceRepository serviceRepository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${booking.service-catalog.ttl-ms:300000}") long ttlMs,
+                                   @Value("${booking.service-catalog.max-providers:10000}") long maxProviders) {
+        this.serviceRepository = serviceRepository;
+        this.objectMapper = objectMapper;
+        this.activeServices = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.servicesByProvider = Caffeine.newBuilder()
+                .maximumSize(maxProviders)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, activeServices, ACTIVE_CACHE);
+        CaffeineCacheMetrics.monitor(meterRegistry, servicesByProvider, PROVIDER_CACHE);
+        Gauge.builder("cache.hit.ratio", activeServices, cache -> cache.stats().hitRate())
+                .tag("cache", ACTIVE_CACHE).register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", servicesByProvider, cache -> cache.stats().hitRate())
+                .tag("cache", PROVIDER_CACHE).register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public JsonSnapshot activeServices() {
+        return activeServices.get(ACTIVE_KEY, key -> newSnapshot()
+                .putAll(serviceRepository.findByStatus(ServiceStatus.ACTIVE).stream()
+                        .map(ServiceService::toResponse)
+                        .toList()))
+                .current();
+    }
+
+    @Transactional(readOnly = true)
+    public JsonSnapshot servicesByProvider(Long providerId) {
+        return servicesByProvider.get(providerId, id -> newSnapshot()
+                .putAll(serviceRepository.findByProvider_Id(id).stream()
+                        .map(ServiceService::toResponse)
+                        .toList()))
+                .current();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onServiceChanged(ServiceChangedEvent event) {
+        ServiceResponse service = serviceRepository.findById(event.serviceId())
+                .map(ServiceService::toResponse)
+                .orElse(null);
+
+        activeServices.asMap().computeIfPresent(ACTIVE_KEY, (key, snapshot) -> {
+            if (service != null && ServiceStatus.ACTIVE.name().equals(service.getStatus())) {
+                snapshot.put(service);
+            } else {
+                snapshot.remove(event.serviceId());
+            }
+            return snapshot;
+        });
+        servicesByProvider.asMap().computeIfPresent(event.providerId(), (key, snapshot) -> {
+            if (service != null) {
+                snapshot.put(service);
+            } else {
+                snapshot.remove(event.serviceId());
+            }
+            return snapshot;
+        });
+    }
+
+    private JsonArraySnapshot<ServiceResponse> newSnapshot() {
+        return new JsonArraySnapshot<>(objectMapper, ServiceResponse::getId, ServiceResponse::getUpdatedAt);
+    }
+}
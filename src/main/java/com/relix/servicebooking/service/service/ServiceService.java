@@ -9,13 +9,13 @@ import com.relix.servicebooking.service.dto.ServiceResponse;
 import com.relix.servicebooking.service.dto.ServiceUpdateRequest;
 import com.relix.servicebooking.service.entity.Service;
 import com.relix.servicebooking.service.entity.Service.ServiceStatus;
+import com.relix.servicebooking.service.event.ServiceChangedEvent;
 import com.relix.servicebooking.service.repository.ServiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @org.springframework.stereotype.Service
@@ -25,13 +25,7 @@ public class ServiceService {
 
     private final ServiceRepository serviceRepository;
     private final ProviderRepository providerRepository;
-
-    public List<ServiceResponse> getAllActiveServices() {
-        return serviceRepository.findByStatus(ServiceStatus.ACTIVE)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-    }
+    private final ApplicationEventPublisher eventPublisher;
 
     public ServiceResponse getServiceById(Long id) {
         Service service = serviceRepository.findById(id)
@@ -39,13 +33,6 @@ public class ServiceService {
         return toResponse(service);
     }
 
-    public List<ServiceResponse> getServicesByProvider(Long providerId) {
-        return serviceRepository.findByProvider_Id(providerId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Verify that the service belongs to the given provider
      */
@@ -73,6 +60,7 @@ public class ServiceService {
                 .build();
 
         service = serviceRepository.save(service);
+        eventPublisher.publishEvent(new ServiceChangedEvent(service.getId(), provider.getId()));
         log.info("Service created: id={}, providerId={}", service.getId(), provider.getId());
 
         return toResponse(service);
@@ -100,6 +88,7 @@ public class ServiceService {
         }
 
         service = serviceRepository.save(service);
+        eventPublisher.publishEvent(new ServiceChangedEvent(service.getId(), service.getProvider().getId()));
         log.info("Service updated: id={}", service.getId());
 
         return toResponse(service);
@@ -112,10 +101,11 @@ public class ServiceService {
 
         service.setStatus(ServiceStatus.INACTIVE);
         serviceRepository.save(service);
+        eventPublisher.publishEvent(new ServiceChangedEvent(id, service.getProvider().getId()));
         log.info("Service deleted (soft): id={}", id);
     }
 
-    private ServiceResponse toResponse(Service service) {
+    static ServiceResponse toResponse(Service service) {
         return ServiceResponse.builder()
                 .id(service.getId())
                 .providerId(service.getProvider().getId())
@@ -27,7 +27,7 @@ public class SettlementController {
         if (currentUserService.isAdmin()) {
             settlements = settlementService.getAllSettlements();
         } else {
-            settlements = settlementService.getSettlementsByProviderId(currentUserService.getCurrentProvider().getId());
+            settlements = settlementService.getSettlementsByProviderId(currentUserService.getCurrentProviderId());
         }
         return ResponseEntity.ok(ApiResponse.success(settlements));
     }
@@ -38,7 +38,7 @@ public class SettlementController {
         if (currentUserService.isAdmin()) {
             summary = settlementService.getOverallSettlementSummary();
         } else {
-            summary = settlementService.getSettlementSummary(currentUserService.getCurrentProvider().getId());
+            summary = settlementService.getSettlementSummary(currentUserService.getCurrentProviderId());
         }
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
@@ -0,0 +1,50 @@
+package com.relix.servicebooking.settlement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Running settlement totals of one provider. Read-only here: every change is an atomic
+ * increment issued by {@code ProviderBalanceRepository} or {@code SettlementChunkProcessor}.
+ */
+@Entity
+@Immutable
+@Table(name = "provider_balances")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderBalance {
+
+    @Id
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Column(name = "pending_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal pendingAmount;
+
+    @Column(name = "completed_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal completedAmount;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
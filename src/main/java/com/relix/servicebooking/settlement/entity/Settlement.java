@@ -24,6 +24,12 @@ public class Settlement extends BaseEntity {
     @NotNull
     private Order order;
 
+    /**
+     * Copy of the order's provider id, so provider listings filter without joining orders.
+     */
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     @NotNull
     @PositiveOrZero
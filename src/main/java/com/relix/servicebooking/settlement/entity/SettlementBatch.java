@@ -54,6 +54,6 @@ public class SettlementBatch {
     private Instant createdAt = Instant.now();
 
     public enum BatchStatus {
-        PENDING, PROCESSING, COMPLETED, FAILED
+        PENDING, PROCESSING, COMPLETED, FAILED, PARTIAL
     }
 }
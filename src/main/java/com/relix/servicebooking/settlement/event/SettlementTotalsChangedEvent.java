@@ -0,0 +1,23 @@
+package com.relix.servicebooking.settlement.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Deltas applied to the settlement totals by one committed change, so in-memory totals can follow.
+ */
+public record SettlementTotalsChangedEvent(BigDecimal pendingAmount, long pendingCount,
+                                           BigDecimal completedAmount, long completedCount,
+                                           long failedCount) {
+
+    public static SettlementTotalsChangedEvent created(BigDecimal payout) {
+        return new SettlementTotalsChangedEvent(payout, 1, BigDecimal.ZERO, 0, 0);
+    }
+
+    public static SettlementTotalsChangedEvent settled(BigDecimal amount, long count) {
+        return new SettlementTotalsChangedEvent(amount.negate(), -count, amount, count, 0);
+    }
+
+    public static SettlementTotalsChangedEvent failed(BigDecimal amount, long count) {
+        return new SettlementTotalsChangedEvent(amount.negate(), -count, BigDecimal.ZERO, 0, count);
+    }
+}
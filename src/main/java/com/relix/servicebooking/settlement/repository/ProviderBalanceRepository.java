@@ -0,0 +1,38 @@
+package com.relix.servicebooking.settlement.repository;
+
+import com.relix.servicebooking.settlement.entity.ProviderBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface ProviderBalanceRepository extends JpaRepository<ProviderBalance, Long> {
+
+    interface TotalsView {
+        BigDecimal getPendingAmount();
+        BigDecimal getCompletedAmount();
+        Long getPendingCount();
+        Long getCompletedCount();
+        Long getFailedCount();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO provider_balances (provider_id, pending_amount, pending_count) " +
+            "VALUES (:providerId, :amount, 1) " +
+            "ON CONFLICT (provider_id) DO UPDATE SET " +
+            "pending_amount = provider_balances.pending_amount + EXCLUDED.pending_amount, " +
+            "pending_count = provider_balances.pending_count + 1", nativeQuery = true)
+    void addPending(@Param("providerId") Long providerId, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT COALESCE(SUM(b.pendingAmount), 0) AS pendingAmount, " +
+            "COALESCE(SUM(b.completedAmount), 0) AS completedAmount, " +
+            "COALESCE(SUM(b.pendingCount), 0) AS pendingCount, " +
+            "COALESCE(SUM(b.completedCount), 0) AS completedCount, " +
+            "COALESCE(SUM(b.failedCount), 0) AS failedCount " +
+            "FROM ProviderBalance b")
+    TotalsView sumTotals();
+}
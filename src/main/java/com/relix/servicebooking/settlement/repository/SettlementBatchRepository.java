@@ -2,8 +2,12 @@ package com.relix.servicebooking.settlement.repository;
 
 import com.relix.servicebooking.settlement.entity.SettlementBatch;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,18 @@ public interface SettlementBatchRepository extends JpaRepository<SettlementBatch
     boolean existsByBatchId(String batchId);
 
     List<SettlementBatch> findAllByOrderByCreatedAtDesc();
+
+    List<SettlementBatch> findByStatusAndBatchIdNot(SettlementBatch.BatchStatus status, String batchId);
+
+    /**
+     * Checkpoint one chunk's outcome. Runs in the chunk's transaction so the counters
+     * always agree with the settlement rows that were actually updated.
+     */
+    @Modifying
+    @Query("UPDATE SettlementBatch b SET b.successCount = b.successCount + :success, " +
+            "b.failedCount = b.failedCount + :failed, b.totalAmount = b.totalAmount + :amount WHERE b.id = :id")
+    int addProgress(@Param("id") Long id,
+                    @Param("success") int success,
+                    @Param("failed") int failed,
+                    @Param("amount") BigDecimal amount);
 }
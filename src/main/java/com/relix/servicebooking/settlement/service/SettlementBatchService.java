@@ -1,22 +1,54 @@
 package com.relix.servicebooking.settlement.service;
 
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
 import com.relix.servicebooking.settlement.dto.BatchResponse;
 import com.relix.servicebooking.settlement.entity.Settlement;
 import com.relix.servicebooking.settlement.entity.SettlementBatch;
 import com.relix.servicebooking.settlement.repository.SettlementBatchRepository;
 import com.relix.servicebooking.settlement.repository.SettlementRepository;
+import com.relix.servicebooking.settlement.service.SettlementChunkProcessor.ChunkResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+/**
+ * Daily settlement run.
+ *
+ * Pending settlements are scanned in keyset chunks and handed to a worker pool; each chunk
+ * is settled and checkpointed into settlement_batches in its own transaction by
+ * {@link SettlementChunkProcessor}. If a run dies half way, the batch stays PROCESSING and the
+ * next call for the same day resumes: settled rows are no longer PENDING, so only the
+ * remainder is scanned and the counters continue from the last committed chunk.
+ *
+ * A chunk that fails is not failed wholesale: transient database errors leave its rows PENDING
+ * and the batch PROCESSING so the next call retries them, and any other error is retried row by
+ * row so only the settlements that still fail on their own are marked FAILED.
+ *
+ * Deferred rows are not tied to the batch that deferred them. Once the run date changes, the next
+ * run closes any earlier batch still PROCESSING as PARTIAL with the counters it checkpointed, and
+ * today's batch settles its leftover rows along with the new ones.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -24,23 +56,42 @@ public class SettlementBatchService {
 
     private final SettlementRepository settlementRepository;
     private final SettlementBatchRepository settlementBatchRepository;
+    private final SettlementChunkProcessor settlementChunkProcessor;
+
+    @Value("${booking.settlement.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${booking.settlement.workers:4}")
+    private int workers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
 
-    @Transactional
     public BatchResponse processBatch() {
-        String batchId = "BATCH-" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("Settlement batch is already running", "BATCH_IN_PROGRESS");
+        }
+        try {
+            return runBatch("BATCH-" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BatchResponse runBatch(String batchId) {
+        closeEarlierBatches(batchId);
 
-        // Check if batch already processed today
-        if (settlementBatchRepository.existsByBatchId(batchId)) {
+        SettlementBatch batch = settlementBatchRepository.findByBatchId(batchId).orElse(null);
+
+        if (batch != null && batch.getStatus() != SettlementBatch.BatchStatus.PROCESSING) {
             log.info("Batch already exists for today: {}", batchId);
-            SettlementBatch existing = settlementBatchRepository.findByBatchId(batchId).orElseThrow();
-            return toBatchResponse(existing);
+            return toBatchResponse(batch);
         }
 
-        List<Settlement> pendingSettlements = settlementRepository.findByStatus(Settlement.SettlementStatus.PENDING);
+        long pending = settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING);
 
-        if (pendingSettlements.isEmpty()) {
+        if (batch == null && pending == 0) {
             log.info("No pending settlements to process for batch: {}", batchId);
-            SettlementBatch batch = SettlementBatch.builder()
+            batch = SettlementBatch.builder()
                     .batchId(batchId)
                     .status(SettlementBatch.BatchStatus.COMPLETED)
                     .totalCount(0)
@@ -54,60 +105,172 @@ public class SettlementBatchService {
             return toBatchResponse(batch);
         }
 
-        // Create batch record
-        SettlementBatch batch = SettlementBatch.builder()
-                .batchId(batchId)
-                .status(SettlementBatch.BatchStatus.PROCESSING)
-                .totalCount(pendingSettlements.size())
-                .startedAt(Instant.now())
-                .build();
-        batch = settlementBatchRepository.save(batch);
-
-        int successCount = 0;
-        int failedCount = 0;
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        for (Settlement settlement : pendingSettlements) {
-            try {
-                settlement.setStatus(Settlement.SettlementStatus.PROCESSING);
-                settlementRepository.save(settlement);
-
-                // Simulate payment processing
-                settlement.setStatus(Settlement.SettlementStatus.COMPLETED);
-                settlement.setBatchId(batchId);
-                settlement.setProcessedAt(Instant.now());
-                settlement.setSettledAt(Instant.now());
-                settlementRepository.save(settlement);
-
-                totalAmount = totalAmount.add(settlement.getProviderPayout());
-                successCount++;
-
-                log.info("Settlement processed: id={}, payout={}", settlement.getId(), settlement.getProviderPayout());
-            } catch (Exception e) {
-                settlement.setStatus(Settlement.SettlementStatus.FAILED);
-                settlement.setBatchId(batchId);
-                settlement.setFailureReason(e.getMessage());
-                settlementRepository.save(settlement);
-                failedCount++;
-
-                log.error("Settlement processing failed: id={}, error={}", settlement.getId(), e.getMessage());
-            }
+        if (batch == null) {
+            batch = settlementBatchRepository.save(SettlementBatch.builder()
+                    .batchId(batchId)
+                    .status(SettlementBatch.BatchStatus.PROCESSING)
+                    .totalCount((int) pending)
+                    .startedAt(Instant.now())
+                    .build());
+        } else {
+            log.info("Resuming batch {}: success={}, failed={}, remaining={}",
+                    batchId, batch.getSuccessCount(), batch.getFailedCount(), pending);
         }
 
-        // Update batch summary
+        ChunkResult result = settleChunks(batch.getId(), batchId);
+
+        // Counters were checkpointed chunk by chunk; mirror them onto the detached entity
+        int successCount = batch.getSuccessCount() + result.success();
+        int failedCount = batch.getFailedCount() + result.failed();
+        BigDecimal totalAmount = batch.getTotalAmount().add(result.amount());
+
         batch.setSuccessCount(successCount);
         batch.setFailedCount(failedCount);
         batch.setTotalAmount(totalAmount);
+
+        if (result.deferred() > 0) {
+            // Leave the batch PROCESSING so the next call resumes with the rows still PENDING
+            batch = settlementBatchRepository.save(batch);
+            log.warn("Batch {} left processing: success={}, failed={}, deferred={}",
+                    batchId, successCount, failedCount, result.deferred());
+            return toBatchResponse(batch);
+        }
+
+        batch.setTotalCount(successCount + failedCount);
         batch.setStatus(failedCount == 0 ? SettlementBatch.BatchStatus.COMPLETED : SettlementBatch.BatchStatus.FAILED);
         batch.setCompletedAt(Instant.now());
         batch = settlementBatchRepository.save(batch);
 
         log.info("Batch completed: batchId={}, total={}, success={}, failed={}, amount={}",
-                batchId, pendingSettlements.size(), successCount, failedCount, totalAmount);
+                batchId, batch.getTotalCount(), successCount, failedCount, totalAmount);
 
         return toBatchResponse(batch);
     }
 
+    /**
+     * Close batches from earlier run dates that were left PROCESSING by deferred chunks.
+     */
+    private void closeEarlierBatches(String batchId) {
+        for (SettlementBatch stale : settlementBatchRepository.findByStatusAndBatchIdNot(
+                SettlementBatch.BatchStatus.PROCESSING, batchId)) {
+            stale.setTotalCount(stale.getSuccessCount() + stale.getFailedCount());
+            stale.setStatus(SettlementBatch.BatchStatus.PARTIAL);
+            stale.setCompletedAt(Instant.now());
+            settlementBatchRepository.save(stale);
+            log.warn("Batch {} closed as partial, its pending settlements carry over to {}: success={}, failed={}",
+                    stale.getBatchId(), batchId, stale.getSuccessCount(), stale.getFailedCount());
+        }
+    }
+
+    /**
+     * Scan PENDING ids in keyset order and settle the chunks in parallel. At most
+     * two chunks per worker are in flight so the scan never runs far ahead of the pool.
+     */
+    private ChunkResult settleChunks(Long batchPk, String batchId) {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        Semaphore inFlight = new Semaphore(workers * 2);
+        List<Future<ChunkResult>> futures = new ArrayList<>();
+
+        try {
+            long afterId = 0;
+            while (true) {
+                List<SettlementRepository.PayoutView> chunk = settlementRepository.findPayoutChunk(
+                        Settlement.SettlementStatus.PENDING, afterId, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+
+                inFlight.acquireUninterruptibly();
+                futures.add(pool.submit(() -> {
+                    try {
+                        return settleChunk(batchPk, batchId, chunk);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            ChunkResult total = ChunkResult.EMPTY;
+            for (Future<ChunkResult> future : futures) {
+                total = total.plus(future.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Settlement batch interrupted", "BATCH_INTERRUPTED");
+        } catch (ExecutionException e) {
+            throw new BusinessException("Settlement batch failed: " + e.getCause().getMessage(), "BATCH_FAILED");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ChunkResult settleChunk(Long batchPk, String batchId, List<SettlementRepository.PayoutView> chunk) {
+        try {
+            ChunkResult result = settlementChunkProcessor.settle(batchPk, batchId, chunk);
+            log.info("Settlement chunk processed: batchId={}, ids={}..{}, success={}, payout={}",
+                    batchId, chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId(),
+                    result.success(), result.amount());
+            return result;
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                log.warn("Settlement chunk deferred: ids={}..{}, error={}",
+                        chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId(), e.getMessage());
+                return ChunkResult.deferred(chunk.size());
+            }
+            log.error("Settlement chunk failed: ids={}..{}, error={}",
+                    chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId(), e.getMessage());
+            if (chunk.size() == 1) {
+                return fail(batchPk, batchId, chunk, e);
+            }
+            ChunkResult total = ChunkResult.EMPTY;
+            for (SettlementRepository.PayoutView settlement : chunk) {
+                total = total.plus(settleOne(batchPk, batchId, settlement));
+            }
+            return total;
+        }
+    }
+
+    private ChunkResult settleOne(Long batchPk, String batchId, SettlementRepository.PayoutView settlement) {
+        List<SettlementRepository.PayoutView> row = List.of(settlement);
+        try {
+            return settlementChunkProcessor.settle(batchPk, batchId, row);
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                log.warn("Settlement {} deferred: {}", settlement.getId(), e.getMessage());
+                return ChunkResult.deferred(1);
+            }
+            log.error("Settlement {} failed: {}", settlement.getId(), e.getMessage());
+            return fail(batchPk, batchId, row, e);
+        }
+    }
+
+    private ChunkResult fail(Long batchPk, String batchId, List<SettlementRepository.PayoutView> rows, Exception cause) {
+        try {
+            return settlementChunkProcessor.fail(batchPk, batchId, rows, cause.getMessage());
+        } catch (Exception failure) {
+            // Rows stay PENDING and are picked up again when the batch resumes
+            log.error("Could not mark settlements failed: {}", failure.getMessage());
+            return ChunkResult.deferred(rows.size());
+        }
+    }
+
+    /**
+     * Errors worth retrying later rather than failing the settlement: lock timeouts,
+     * deadlocks, serialization failures and lost or exhausted connections.
+     */
+    private static boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
     public List<BatchResponse> getAllBatches() {
         return settlementBatchRepository.findAllByOrderByCreatedAtDesc()
                 .stream()
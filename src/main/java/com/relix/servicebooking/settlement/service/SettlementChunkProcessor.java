@@ -0,0 +1,149 @@
+package com.relix.servicebooking.settlement.service;
+
+import com.relix.servicebooking.settlement.event.SettlementTotalsChangedEvent;
+import com.relix.servicebooking.settlement.repository.SettlementBatchRepository;
+import com.relix.servicebooking.settlement.repository.SettlementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Settles one keyset chunk per transaction with JDBC batch updates.
+ *
+ * Every row update is conditional on status = 'PENDING', so a chunk that was already
+ * settled by an earlier (crashed) run or another worker is skipped rather than paid twice.
+ * Only the rows actually moved are applied to provider_balances, in the same transaction
+ * and in provider id order so concurrent workers lock balance rows in a consistent order.
+ */
+@Component
+@RequiredArgsConstructor
+public class SettlementChunkProcessor {
+
+    private static final String SETTLE_SQL =
+            "UPDATE settlements SET status = 'COMPLETED', batch_id = ?, processed_at = ?, settled_at = ? " +
+            "WHERE id = ? AND status = 'PENDING'";
+    private static final String FAIL_SQL =
+            "UPDATE settlements SET status = 'FAILED', batch_id = ?, processed_at = ?, failure_reason = ? " +
+            "WHERE id = ? AND status = 'PENDING'";
+    private static final String BALANCE_SETTLE_SQL =
+            "UPDATE provider_balances SET pending_amount = pending_amount - ?, pending_count = pending_count - ?, " +
+            "completed_amount = completed_amount + ?, completed_count = completed_count + ? WHERE provider_id = ?";
+    private static final String BALANCE_FAIL_SQL =
+            "UPDATE provider_balances SET pending_amount = pending_amount - ?, pending_count = pending_count - ?, " +
+            "failed_count = failed_count + ? WHERE provider_id = ?";
+    private static final int MAX_REASON_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SettlementBatchRepository settlementBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record BalanceDelta(BigDecimal amount, int count) {
+        BalanceDelta plus(BalanceDelta other) {
+            return new BalanceDelta(amount.add(other.amount), count + other.count);
+        }
+    }
+
+    /**
+     * Outcome of one chunk. {@code deferred} counts rows that were left PENDING after a
+     * transient failure; they are settled when the batch is resumed.
+     */
+    public record ChunkResult(int success, int failed, BigDecimal amount, int deferred) {
+        public static final ChunkResult EMPTY = new ChunkResult(0, 0, BigDecimal.ZERO);
+
+        public ChunkResult(int success, int failed, BigDecimal amount) {
+            this(success, failed, amount, 0);
+        }
+
+        public static ChunkResult deferred(int count) {
+            return new ChunkResult(0, 0, BigDecimal.ZERO, count);
+        }
+
+        public ChunkResult plus(ChunkResult other) {
+            return new ChunkResult(success + other.success, failed + other.failed,
+                    amount.add(other.amount), deferred + other.deferred);
+        }
+    }
+
+    @Transactional
+    public ChunkResult settle(Long batchPk, String batchId, List<SettlementRepository.PayoutView> chunk) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(chunk.size());
+        for (SettlementRepository.PayoutView settlement : chunk) {
+            args.add(new Object[]{batchId, now, now, settlement.getId()});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(SETTLE_SQL, args);
+
+        int success = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        Map<Long, BalanceDelta> deltas = new TreeMap<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                success++;
+                amount = amount.add(chunk.get(i).getProviderPayout());
+                addDelta(deltas, chunk.get(i));
+            }
+        }
+
+        List<Object[]> balanceArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((providerId, delta) -> balanceArgs.add(
+                new Object[]{delta.amount(), delta.count(), delta.amount(), delta.count(), providerId}));
+        jdbcTemplate.batchUpdate(BALANCE_SETTLE_SQL, balanceArgs);
+
+        settlementBatchRepository.addProgress(batchPk, success, 0, amount);
+        if (success > 0) {
+            eventPublisher.publishEvent(SettlementTotalsChangedEvent.settled(amount, success));
+        }
+        return new ChunkResult(success, 0, amount);
+    }
+
+    @Transactional
+    public ChunkResult fail(Long batchPk, String batchId, List<SettlementRepository.PayoutView> chunk, String reason) {
+        Timestamp now = Timestamp.from(Instant.now());
+        String failureReason = reason != null && reason.length() > MAX_REASON_LENGTH
+                ? reason.substring(0, MAX_REASON_LENGTH)
+                : reason;
+        List<Object[]> args = new ArrayList<>(chunk.size());
+        for (SettlementRepository.PayoutView settlement : chunk) {
+            args.add(new Object[]{batchId, now, failureReason, settlement.getId()});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(FAIL_SQL, args);
+
+        int failed = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        Map<Long, BalanceDelta> deltas = new TreeMap<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                failed++;
+                amount = amount.add(chunk.get(i).getProviderPayout());
+                addDelta(deltas, chunk.get(i));
+            }
+        }
+
+        List<Object[]> balanceArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((providerId, delta) -> balanceArgs.add(
+                new Object[]{delta.amount(), delta.count(), delta.count(), providerId}));
+        jdbcTemplate.batchUpdate(BALANCE_FAIL_SQL, balanceArgs);
+
+        settlementBatchRepository.addProgress(batchPk, 0, failed, BigDecimal.ZERO);
+        if (failed > 0) {
+            eventPublisher.publishEvent(SettlementTotalsChangedEvent.failed(amount, failed));
+        }
+        return new ChunkResult(0, failed, BigDecimal.ZERO);
+    }
+
+    private static void addDelta(Map<Long, BalanceDelta> deltas, SettlementRepository.PayoutView settlement) {
+        deltas.merge(settlement.getProviderId(), new BalanceDelta(settlement.getProviderPayout(), 1), BalanceDelta::plus);
+    }
+}
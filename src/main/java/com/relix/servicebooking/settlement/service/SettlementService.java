@@ -6,10 +6,14 @@ import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.entity.Order;
 import com.relix.servicebooking.settlement.dto.SettlementResponse;
 import com.relix.servicebooking.settlement.dto.SettlementSummaryResponse;
+import com.relix.servicebooking.settlement.entity.ProviderBalance;
 import com.relix.servicebooking.settlement.entity.Settlement;
+import com.relix.servicebooking.settlement.event.SettlementTotalsChangedEvent;
+import com.relix.servicebooking.settlement.repository.ProviderBalanceRepository;
 import com.relix.servicebooking.settlement.repository.SettlementRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +32,9 @@ public class SettlementService {
     private static final BigDecimal PLATFORM_FEE_RATE = new BigDecimal("0.10");
 
     private final SettlementRepository settlementRepository;
+    private final ProviderBalanceRepository providerBalanceRepository;
+    private final SettlementTotals settlementTotals;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SettlementResponse getSettlementByOrderId(Long orderId) {
         Settlement settlement = settlementRepository.findByOrderId(orderId)
@@ -56,49 +63,17 @@ public class SettlementService {
     }
 
     public SettlementSummaryResponse getSettlementSummary(Long providerId) {
-        BigDecimal completedAmount = settlementRepository.sumProviderPayoutByProviderIdAndStatus(
-                providerId, Settlement.SettlementStatus.COMPLETED);
-        BigDecimal pendingAmount = settlementRepository.sumProviderPayoutByProviderIdAndStatus(
-                providerId, Settlement.SettlementStatus.PENDING);
-
-        long completedCount = settlementRepository.countByProviderIdAndStatus(
-                providerId, Settlement.SettlementStatus.COMPLETED);
-        long pendingCount = settlementRepository.countByProviderIdAndStatus(
-                providerId, Settlement.SettlementStatus.PENDING);
-        long failedCount = settlementRepository.countByProviderIdAndStatus(
-                providerId, Settlement.SettlementStatus.FAILED);
-
-        long totalCount = completedCount + pendingCount + failedCount;
-        BigDecimal totalEarnings = completedAmount.add(pendingAmount);
-
-        return SettlementSummaryResponse.builder()
-                .totalEarnings(totalEarnings)
-                .completedAmount(completedAmount)
-                .pendingAmount(pendingAmount)
-                .totalCount(totalCount)
-                .completedCount(completedCount)
-                .pendingCount(pendingCount)
-                .failedCount(failedCount)
-                .build();
+        return providerBalanceRepository.findById(providerId)
+                .map(SettlementService::toSummary)
+                .orElseGet(() -> SettlementSummaryResponse.builder()
+                        .totalEarnings(BigDecimal.ZERO)
+                        .completedAmount(BigDecimal.ZERO)
+                        .pendingAmount(BigDecimal.ZERO)
+                        .build());
     }
 
     public SettlementSummaryResponse getOverallSettlementSummary() {
-        BigDecimal completedAmount = settlementRepository.sumProviderPayoutByStatus(Settlement.SettlementStatus.COMPLETED);
-        BigDecimal pendingAmount = settlementRepository.sumProviderPayoutByStatus(Settlement.SettlementStatus.PENDING);
-
-        long completedCount = settlementRepository.countByStatus(Settlement.SettlementStatus.COMPLETED);
-        long pendingCount = settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING);
-        long failedCount = settlementRepository.countByStatus(Settlement.SettlementStatus.FAILED);
-
-        return SettlementSummaryResponse.builder()
-                .totalEarnings(completedAmount.add(pendingAmount))
-                .completedAmount(completedAmount)
-                .pendingAmount(pendingAmount)
-                .totalCount(completedCount + pendingCount + failedCount)
-                .completedCount(completedCount)
-                .pendingCount(pendingCount)
-                .failedCount(failedCount)
-                .build();
+        return settlementTotals.getSummary();
     }
 
     public SettlementResponse getSettlementByIdWithAccess(Long id, Long currentUserId, boolean isAdmin) {
@@ -140,6 +115,7 @@ public class SettlementService {
 
         Settlement settlement = Settlement.builder()
                 .order(order)
+                .providerId(order.getProvider().getId())
                 .totalPrice(totalPrice)
                 .platformFee(platformFee)
                 .providerPayout(providerPayout)
@@ -147,12 +123,26 @@ public class SettlementService {
                 .build();
 
         settlement = settlementRepository.save(settlement);
+        providerBalanceRepository.addPending(settlement.getProviderId(), providerPayout);
+        eventPublisher.publishEvent(SettlementTotalsChangedEvent.created(providerPayout));
         log.info("Settlement created: id={}, orderId={}, total={}, fee={}, payout={}, status=PENDING",
                 settlement.getId(), order.getId(), totalPrice, platformFee, providerPayout);
 
         return settlement;
     }
 
+    private static SettlementSummaryResponse toSummary(ProviderBalance balance) {
+        return SettlementSummaryResponse.builder()
+                .totalEarnings(balance.getCompletedAmount().add(balance.getPendingAmount()))
+                .completedAmount(balance.getCompletedAmount())
+                .pendingAmount(balance.getPendingAmount())
+                .totalCount(balance.getCompletedCount() + balance.getPendingCount() + balance.getFailedCount())
+                .completedCount(balance.getCompletedCount())
+                .pendingCount(balance.getPendingCount())
+                .failedCount(balance.getFailedCount())
+                .build();
+    }
+
     public SettlementResponse toResponse(Settlement settlement) {
         return SettlementResponse.builder()
                 .id(settlement.getId())
@@ -0,0 +1,122 @@
+package com.relix.servicebooking.settlement.service;
+
+import com.relix.servicebooking.settlement.dto.SettlementSummaryResponse;
+import com.relix.servicebooking.settlement.event.SettlementTotalsChangedEvent;
+import com.relix.servicebooking.settlement.repository.ProviderBalanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Platform-wide settlement totals for the admin summary, held as one immutable snapshot.
+ *
+ * Every committed {@link SettlementTotalsChangedEvent} swaps in a new snapshot by compare-and-set,
+ * so readers always see all five totals from the same moment. On startup and then periodically the
+ * totals are checked against the sum of {@code provider_balances}, which also picks up changes made
+ * by other instances. Reconciliation adds the difference between the database sum and the snapshot
+ * it read beforehand, and only if no delta was applied while the database was read; otherwise it
+ * retries, and after a few busy attempts it leaves the totals to the next run. Amounts are kept in cents.
+ */
+@Slf4j
+@Component
+public class SettlementTotals {
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private record Totals(long pendingCents, long pendingCount, long completedCents, long completedCount,
+                          long failedCount) {
+
+        static final Totals ZERO = new Totals(0, 0, 0, 0, 0);
+
+        Totals plus(Totals delta) {
+            return new Totals(pendingCents + delta.pendingCents, pendingCount + delta.pendingCount,
+                    completedCents + delta.completedCents, completedCount + delta.completedCount,
+                    failedCount + delta.failedCount);
+        }
+
+        Totals minus(Totals other) {
+            return new Totals(pendingCents - other.pendingCents, pendingCount - other.pendingCount,
+                    completedCents - other.completedCents, completedCount - other.completedCount,
+                    failedCount - other.failedCount);
+        }
+    }
+
+    private final ProviderBalanceRepository providerBalanceRepository;
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.ZERO);
+    private final Counter corrections;
+
+    private volatile boolean loaded;
+
+    public SettlementTotals(ProviderBalanceRepository providerBalanceRepository, MeterRegistry meterRegistry) {
+        this.providerBalanceRepository = providerBalanceRepository;
+        this.corrections = Counter.builder("settlement.totals.corrections").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Correct the totals to the sum of {@code provider_balances}.
+     */
+    @Scheduled(fixedDelayString = "${booking.settlement-totals.reconcile-interval-ms:300000}",
+            initialDelayString = "${booking.settlement-totals.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            Totals read = totals.get();
+            Totals correction = fromDatabase(providerBalanceRepository.sumTotals()).minus(read);
+            if (totals.compareAndSet(read, read.plus(correction))) {
+                if (loaded && !correction.equals(Totals.ZERO)) {
+                    corrections.increment();
+                    log.info("Settlement totals corrected from provider balances: {}", correction);
+                }
+                loaded = true;
+                return;
+            }
+        }
+        log.info("Settlement totals not reconciled, deltas kept arriving during {} reads", RECONCILE_ATTEMPTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTotalsChanged(SettlementTotalsChangedEvent event) {
+        Totals delta = new Totals(toCents(event.pendingAmount()), event.pendingCount(),
+                toCents(event.completedAmount()), event.completedCount(), event.failedCount());
+        totals.accumulateAndGet(delta, Totals::plus);
+    }
+
+    public SettlementSummaryResponse getSummary() {
+        if (!loaded) {
+            reconcile();
+        }
+        Totals current = totals.get();
+        BigDecimal pending = BigDecimal.valueOf(current.pendingCents(), 2);
+        BigDecimal completed = BigDecimal.valueOf(current.completedCents(), 2);
+        return SettlementSummaryResponse.builder()
+                .totalEarnings(completed.add(pending))
+                .completedAmount(completed)
+                .pendingAmount(pending)
+                .totalCount(current.completedCount() + current.pendingCount() + current.failedCount())
+                .completedCount(current.completedCount())
+                .pendingCount(current.pendingCount())
+                .failedCount(current.failedCount())
+                .build();
+    }
+
+    private static Totals fromDatabase(ProviderBalanceRepository.TotalsView view) {
+        return new Totals(toCents(view.getPendingAmount()), view.getPendingCount(),
+                toCents(view.getCompletedAmount()), view.getCompletedCount(), view.getFailedCount());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+}
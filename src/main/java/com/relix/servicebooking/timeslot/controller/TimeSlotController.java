@@ -3,6 +3,9 @@ package com.relix.servicebooking.timeslot.controller;
 import com.relix.servicebooking.auth.service.CurrentUserService;
 import com.relix.servicebooking.common.dto.ApiResponse;
 import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.timeslot.dto.ScheduleTemplateRequest;
+import com.relix.servicebooking.timeslot.dto.SlotDiscoveryResponse;
+import com.relix.servicebooking.timeslot.dto.SlotGenerationResponse;
 import com.relix.servicebooking.timeslot.dto.TimeSlotCreateRequest;
 import com.relix.servicebooking.timeslot.dto.TimeSlotResponse;
 import com.relix.servicebooking.timeslot.service.TimeSlotService;
@@ -11,11 +14,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -29,11 +34,27 @@ public class TimeSlotController {
     private final CurrentUserService currentUserService;
 
     @GetMapping("/provider/{providerId}")
-    @Operation(summary = "List available time slots by provider")
+    @Operation(summary = "List available time slots by provider starting within a time window")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<List<TimeSlotResponse>>> getAvailableSlots(
-            @PathVariable Long providerId) {
-        return ResponseEntity.ok(ApiResponse.success(timeSlotService.getAvailableSlotsByProvider(providerId)));
+            @PathVariable Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(ApiResponse.success(
+                timeSlotService.getAvailableSlotsByProvider(providerId, from, to)));
+    }
+
+    @GetMapping("/discover")
+    @Operation(summary = "Find the earliest available slots for a service across all providers")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<SlotDiscoveryResponse>>> discoverSlots(
+            @RequestParam String serviceName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Integer minDurationMinutes,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(
+                timeSlotService.discoverSlots(serviceName, from, to, minDurationMinutes, limit)));
     }
 
     @PostMapping
@@ -41,31 +62,45 @@ public class TimeSlotController {
     @PreAuthorize("hasAnyRole('PROVIDER', 'ADMIN')")
     public ResponseEntity<ApiResponse<TimeSlotResponse>> createTimeSlot(
             @Valid @RequestBody TimeSlotCreateRequest request) {
-        Long providerId;
-        if (currentUserService.isAdmin()) {
-            providerId = request.getProviderId();
-            if (providerId == null) {
-                throw new BusinessException("providerId is required for ADMIN", "PROVIDER_ID_REQUIRED");
-            }
-        } else {
-            providerId = currentUserService.getCurrentProvider().getId();
-        }
-
-        request.setProviderId(providerId);
+        request.setProviderId(resolveProviderId(request.getProviderId()));
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(timeSlotService.createTimeSlot(request), "Time slot created"));
     }
 
+    @PostMapping("/generate")
+    @Operation(summary = "Generate time slots from weekly availability rules and exceptions")
+    @PreAuthorize("hasAnyRole('PROVIDER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<SlotGenerationResponse>> generateTimeSlots(
+            @Valid @RequestBody ScheduleTemplateRequest request) {
+        request.setProviderId(resolveProviderId(request.getProviderId()));
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(timeSlotService.generateTimeSlots(request), "Time slots generated"));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a time slot")
     @PreAuthorize("hasAnyRole('PROVIDER', 'ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteTimeSlot(@PathVariable Long id) {
         if (!currentUserService.isAdmin()) {
-            timeSlotService.verifyProviderOwnership(id, currentUserService.getCurrentProvider().getId());
+            timeSlotService.verifyProviderOwnership(id, currentUserService.getCurrentProviderId());
         }
 
         timeSlotService.deleteTimeSlot(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Time slot deleted"));
     }
+
+    /**
+     * Admins act on the provider named in the request; providers always act on their own profile.
+     */
+    private Long resolveProviderId(Long requestedProviderId) {
+        if (!currentUserService.isAdmin()) {
+            return currentUserService.getCurrentProviderId();
+        }
+        if (requestedProviderId == null) {
+            throw new BusinessException("providerId is required for ADMIN", "PROVIDER_ID_REQUIRED");
+        }
+        return requestedProviderId;
+    }
 }
@@ -0,0 +1,28 @@
+package com.relix.servicebooking.timeslot.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A date on which the weekly rules do not apply: the whole day when no times are given,
+ * otherwise only the [startTime, endTime) local window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleException {
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+}
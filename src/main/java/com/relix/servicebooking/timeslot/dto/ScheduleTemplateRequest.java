@@ -0,0 +1,41 @@
+package com.relix.servicebooking.timeslot.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Weekly availability rules plus exceptions, materialized into slots for [fromDate, toDate].
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleTemplateRequest {
+
+    private Long providerId;
+
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+
+    @NotNull(message = "To date is required")
+    private LocalDate toDate;
+
+    // IANA zone the rule times are expressed in
+    @Builder.Default
+    private String timeZone = "UTC";
+
+    @NotEmpty(message = "At least one rule is required")
+    @Valid
+    private List<WeeklyAvailabilityRule> rules;
+
+    @Valid
+    private List<ScheduleException> exceptions;
+}
@@ -0,0 +1,25 @@
+package com.relix.servicebooking.timeslot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotDiscoveryResponse {
+
+    private Long slotId;
+    private Long providerId;
+    private Long serviceId;
+    private String serviceName;
+    private Integer durationMinutes;
+    private BigDecimal price;
+    private Instant startTime;
+    private Instant endTime;
+}
@@ -0,0 +1,21 @@
+package com.relix.servicebooking.timeslot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotGenerationResponse {
+
+    private Long providerId;
+    private int created;
+    private int skippedOverlapping;
+    private Instant firstStartTime;
+    private Instant lastEndTime;
+}
@@ -0,0 +1,36 @@
+package com.relix.servicebooking.timeslot.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Every {@code dayOfWeek}, cut [startTime, endTime) local time into slots of {@code slotMinutes}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyAvailabilityRule {
+
+    @NotNull(message = "Day of week is required")
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+
+    @NotNull(message = "Slot length is required")
+    @Min(value = 5, message = "Slot length must be at least 5 minutes")
+    @Max(value = 1440, message = "Slot length must be at most 1440 minutes")
+    private Integer slotMinutes;
+}
@@ -0,0 +1,108 @@
+package com.relix.servicebooking.timeslot.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based time slot operations used when materializing a schedule, where per-row JPA
+ * saves and per-slot lookups would cost one round trip each.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TimeSlotJdbcRepository {
+
+    /**
+     * Ordinals (0-based) of candidate windows that overlap an existing slot of the provider.
+     * The candidates are shipped as two arrays and joined against time_slots in one statement.
+     */
+    private static final String OVERLAPS_SQL =
+            "SELECT c.ord - 1 FROM unnest(?::text[]::timestamptz[], ?::text[]::timestamptz[]) "
+            + "WITH ORDINALITY AS c(start_time, end_time, ord) WHERE EXISTS (SELECT 1 FROM time_slots t WHERE t.provider_id = ? "
+            + "AND t.start_time < c.end_time AND t.end_time > c.start_time)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO time_slots (provider_id, start_time, end_time, status, created_at, updated_at) "
+            + "VALUES (?, ?, ?, 'AVAILABLE', ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record SlotWindow(Instant startTime, Instant endTime) {}
+
+    public Set<Integer> findOverlapping(Long providerId, List<SlotWindow> windows) {
+        Set<Integer> overlapping = new HashSet<>();
+        if (windows.isEmpty()) {
+            return overlapping;
+        }
+        // ISO-8601 instants carry their offset, so the cast does not depend on the session time zone
+        String[] starts = new String[windows.size()];
+        String[] ends = new String[windows.size()];
+        for (int i = 0; i < windows.size(); i++) {
+            starts[i] = windows.get(i).startTime().toString();
+            ends[i] = windows.get(i).endTime().toString();
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(OVERLAPS_SQL);
+            Array startArray = connection.createArrayOf("text", starts);
+            Array endArray = connection.createArrayOf("text", ends);
+            ps.setArray(1, startArray);
+            ps.setArray(2, endArray);
+            ps.setLong(3, providerId);
+            return ps;
+        }, rs -> {
+            overlapping.add(rs.getInt(1));
+        });
+        return overlapping;
+    }
+
+    /**
+     * Insert AVAILABLE slots with one JDBC batch.
+     *
+     * @return generated ids, in the order of {@code windows}
+     */
+    public List<Long> insertAvailable(Long providerId, List<SlotWindow> windows) {
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        SlotWindow window = windows.get(i);
+                        ps.setLong(1, providerId);
+                        ps.setTimestamp(2, Timestamp.from(window.startTime()));
+                        ps.setTimestamp(3, Timestamp.from(window.endTime()));
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return windows.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+}
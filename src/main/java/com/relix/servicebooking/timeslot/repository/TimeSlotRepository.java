@@ -4,11 +4,13 @@ import com.relix.servicebooking.timeslot.entity.TimeSlot;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,13 +21,97 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
 
     List<TimeSlot> findByProvider_IdAndStatus(Long providerId, TimeSlot.SlotStatus status);
 
-    @Query("SELECT t FROM TimeSlot t WHERE t.provider.id = :providerId AND t.status = :status AND t.startTime >= :from")
-    List<TimeSlot> findAvailableSlots(
+    /**
+     * AVAILABLE slots of a provider starting in [from, to), read from the covering partial index
+     * idx_time_slots_availability only. The status is a literal rather than a parameter so the
+     * partial index predicate still matches once the driver switches to a generic plan.
+     */
+    @Query("SELECT t.id AS id, t.startTime AS startTime, t.endTime AS endTime, t.createdAt AS createdAt "
+            + "FROM TimeSlot t WHERE t.provider.id = :providerId "
+            + "AND t.status = com.relix.servicebooking.timeslot.entity.TimeSlot$SlotStatus.AVAILABLE "
+            + "AND t.startTime >= :from AND t.startTime < :to ORDER BY t.startTime, t.id")
+    List<AvailableSlotView> findAvailableSlots(
             @Param("providerId") Long providerId,
-            @Param("status") TimeSlot.SlotStatus status,
-            @Param("from") Instant from);
+            @Param("from") Instant from,
+            @Param("to") Instant to);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT t FROM TimeSlot t WHERE t.id = :id")
     Optional<TimeSlot> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Lock several slots in one statement. Rows are locked in id order, so two series
+     * that overlap queue behind each other instead of deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TimeSlot t WHERE t.id IN :ids ORDER BY t.id")
+    List<TimeSlot> findAllByIdInWithLock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Compare-and-set on slot status: only flips the row when it is still in the expected state.
+     * Returns the number of rows updated (0 or 1).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TimeSlot t SET t.status = :target WHERE t.id = :id AND t.status = :expected")
+    int updateStatusIfMatches(
+            @Param("id") Long id,
+            @Param("expected") TimeSlot.SlotStatus expected,
+            @Param("target") TimeSlot.SlotStatus target);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TimeSlot t SET t.status = :target WHERE t.id IN :ids AND t.status = :expected")
+    int updateStatusesIfMatch(
+            @Param("ids") Collection<Long> ids,
+            @Param("expected") TimeSlot.SlotStatus expected,
+            @Param("target") TimeSlot.SlotStatus target);
+
+    /**
+     * Lowest slot id per start time, so the same start always resolves to the same slot.
+     */
+    @Query("SELECT t.startTime AS startTime, MIN(t.id) AS id FROM TimeSlot t "
+            + "WHERE t.provider.id = :providerId AND t.startTime IN :startTimes GROUP BY t.startTime")
+    List<SlotStartView> findFirstSlotIdsByStartTime(
+            @Param("providerId") Long providerId,
+            @Param("startTimes") Collection<Instant> startTimes);
+
+    @Query("SELECT t.id AS id, t.status AS status FROM TimeSlot t WHERE t.endTime > :after")
+    List<SlotStatusView> findStatusesEndingAfter(@Param("after") Instant after);
+
+    @Query("SELECT t.id AS id, t.provider.id AS providerId, t.startTime AS startTime, t.endTime AS endTime "
+            + "FROM TimeSlot t WHERE t.status = :status AND t.endTime > :after")
+    List<SlotIntervalView> findIntervalsByStatusEndingAfter(
+            @Param("status") TimeSlot.SlotStatus status,
+            @Param("after") Instant after);
+
+    interface AvailableSlotView {
+        Long getId();
+
+        Instant getStartTime();
+
+        Instant getEndTime();
+
+        Instant getCreatedAt();
+    }
+
+    interface SlotStatusView {
+        Long getId();
+
+        TimeSlot.SlotStatus getStatus();
+    }
+
+    interface SlotIntervalView {
+        Long getId();
+
+        Long getProviderId();
+
+        Instant getStartTime();
+
+        Instant getEndTime();
+    }
+
+    interface SlotStartView {
+        Instant getStartTime();
+
+        Long getId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.relix.servicebooking.timeslot.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.timeslot.dto.ScheduleException;
+import com.relix.servicebooking.timeslot.dto.ScheduleTemplateRequest;
+import com.relix.servicebooking.timeslot.dto.WeeklyAvailabilityRule;
+import com.relix.servicebooking.timeslot.repository.TimeSlotJdbcRepository.SlotWindow;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands a schedule template into concrete slot windows, entirely in memory.
+ *
+ * Windows are returned sorted by start time. Windows that start before {@code notBefore},
+ * fall on an exception, or overlap an earlier window of the same template are dropped.
+ */
+final class ScheduleExpander {
+
+    static final int MAX_DAYS = 366;
+    static final int MAX_SLOTS = 5_000;
+
+    private ScheduleExpander() {
+    }
+
+    static List<SlotWindow> expand(ScheduleTemplateRequest template, Instant notBefore) {
+        ZoneId zone = parseZone(template.getTimeZone());
+        LocalDate from = template.getFromDate();
+        LocalDate to = template.getToDate();
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new BusinessException("Date range must be ascending and at most " + MAX_DAYS + " days",
+                    "INVALID_DATE_RANGE");
+        }
+
+        Map<DayOfWeek, List<WeeklyAvailabilityRule>> rulesByDay = new EnumMap<>(DayOfWeek.class);
+        for (WeeklyAvailabilityRule rule : template.getRules()) {
+            if (!rule.getEndTime().isAfter(rule.getStartTime())) {
+                throw new BusinessException("Rule end time must be after start time", "INVALID_TIME_RANGE");
+            }
+            rulesByDay.computeIfAbsent(rule.getDayOfWeek(), day -> new ArrayList<>()).add(rule);
+        }
+
+        Map<LocalDate, List<ScheduleException>> exceptionsByDate = new HashMap<>();
+        if (template.getExceptions() != null) {
+            for (ScheduleException exception : template.getExceptions()) {
+                validate(exception);
+                exceptionsByDate.computeIfAbsent(exception.getDate(), date -> new ArrayList<>()).add(exception);
+            }
+        }
+
+        List<SlotWindow> windows = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<ScheduleException> exceptions = exceptionsByDate.getOrDefault(date, List.of());
+            for (WeeklyAvailabilityRule rule : rulesByDay.getOrDefault(date.getDayOfWeek(), List.of())) {
+                int length = rule.getSlotMinutes() * 60;
+                int end = rule.getEndTime().toSecondOfDay();
+                for (int second = rule.getStartTime().toSecondOfDay(); second + length <= end; second += length) {
+                    if (isExcepted(exceptions, second, second + length)) {
+                        continue;
+                    }
+                    Instant start = date.atTime(LocalTime.ofSecondOfDay(second)).atZone(zone).toInstant();
+                    if (start.isBefore(notBefore)) {
+                        continue;
+                    }
+                    windows.add(new SlotWindow(start,
+                            date.atTime(LocalTime.ofSecondOfDay(second + length)).atZone(zone).toInstant()));
+                    if (windows.size() > MAX_SLOTS) {
+                        throw new BusinessException("A template can generate at most " + MAX_SLOTS + " slots",
+                                "TOO_MANY_SLOTS");
+                    }
+                }
+            }
+        }
+
+        windows.sort(Comparator.comparing(SlotWindow::startTime));
+        List<SlotWindow> distinct = new ArrayList<>(windows.size());
+        Instant lastEnd = Instant.MIN;
+        for (SlotWindow window : windows) {
+            if (!window.startTime().isBefore(lastEnd) && window.endTime().isAfter(window.startTime())) {
+                distinct.add(window);
+                lastEnd = window.endTime();
+            }
+        }
+        return distinct;
+    }
+
+    private static ZoneId parseZone(String timeZone) {
+        try {
+            return ZoneId.of(timeZone != null ? timeZone : "UTC");
+        } catch (DateTimeException e) {
+            throw new BusinessException("Invalid time zone: " + timeZone, "INVALID_TIME_ZONE");
+        }
+    }
+
+    private static void validate(ScheduleException exception) {
+        if ((exception.getStartTime() == null) != (exception.getEndTime() == null)) {
+            throw new BusinessException("Exception needs both start and end time, or neither", "INVALID_TIME_RANGE");
+        }
+        if (exception.getStartTime() != null && !exception.getEndTime().isAfter(exception.getStartTime())) {
+            throw new BusinessException("Exception end time must be after start time", "INVALID_TIME_RANGE");
+        }
+    }
+
+    private static boolean isExcepted(List<ScheduleException> exceptions, int start, int end) {
+        for (ScheduleException exception : exceptions) {
+            if (exception.getStartTime() == null) {
+                return true;
+            }
+            if (exception.getStartTime().toSecondOfDay() < end && exception.getEndTime().toSecondOfDay() > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,187 @@
+package com.relix.servicebooking.timeslot.service;
+
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory availability index for time slots.
+ *
+ * Each slot id maps to a 2-bit state packed into segmented AtomicLongArrays, so a
+ * booking can be claimed (or rejected) with a single CAS before touching the database.
+ * A slot is AVAILABLE, HELD by a booking transaction on this instance that has not finished
+ * yet, or BOOKED: unavailable according to the last reload or a booking committed here since.
+ * BOOKED slots are refused without a database round trip. A release committed on another
+ * instance is therefore not seen until the next reload, which bounds how long such a slot
+ * can be refused to {@code booking.slot-index.refresh-interval-ms}. HELD slots are not refused,
+ * since the holder may still roll back; their bookers wait on the row instead. The conditional
+ * UPDATE in {@link TimeSlotService#bookSlot} remains the authoritative write for everything
+ * that gets past the index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotAvailabilityIndex {
+
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SLOTS_PER_SEGMENT = 1 << SEGMENT_SHIFT;
+    private static final int SLOTS_PER_WORD = 32;
+    private static final int WORDS_PER_SEGMENT = SLOTS_PER_SEGMENT / SLOTS_PER_WORD;
+
+    private static final long UNKNOWN = 0b00;
+    private static final long BOOKED = 0b01;
+    private static final long HELD = 0b10;
+    private static final long AVAILABLE = 0b11;
+    private static final long STATE_MASK = 0b11;
+
+    public enum Reservation {
+        /** Slot was AVAILABLE in the index and is now held by the caller */
+        RESERVED,
+        /** Slot is booked; refuse without touching the database */
+        REJECTED,
+        /** Slot is held by another booking in flight here; the database decides */
+        CONTENDED,
+        /** Slot is not tracked; caller must rely on the database alone */
+        UNKNOWN
+    }
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    private volatile ConcurrentHashMap<Long, AtomicLongArray> segments = new ConcurrentHashMap<>();
+
+    /** Writes made while {@link #reload} runs, replayed onto the rebuilt index after the swap */
+    private volatile Queue<PendingWrite> rebuildLog;
+
+    private record PendingWrite(long slotId, long state) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild the index from slots that can still be booked. Runs periodically so that
+     * writes made by other instances are eventually reflected.
+     */
+    @Scheduled(fixedDelayString = "${booking.slot-index.refresh-interval-ms:300000}",
+            initialDelayString = "${booking.slot-index.refresh-interval-ms:300000}")
+    public synchronized void reload() {
+        Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>();
+        rebuildLog = pending;
+        try {
+            List<TimeSlotRepository.SlotStatusView> slots = timeSlotRepository.findStatusesEndingAfter(Instant.now());
+
+            ConcurrentHashMap<Long, AtomicLongArray> rebuilt = new ConcurrentHashMap<>();
+            for (TimeSlotRepository.SlotStatusView slot : slots) {
+                set(rebuilt, slot.getId(), slot.getStatus() == TimeSlot.SlotStatus.AVAILABLE ? AVAILABLE : BOOKED);
+            }
+            segments = rebuilt;
+
+            // Writers log before they read segments, so anything applied to the old map is in the log
+            int replayed = 0;
+            for (PendingWrite write; (write = pending.poll()) != null; replayed++) {
+                set(rebuilt, write.slotId(), write.state());
+            }
+            log.info("Slot availability index loaded: slots={}, segments={}, replayed={}",
+                    slots.size(), rebuilt.size(), replayed);
+        } finally {
+            rebuildLog = null;
+        }
+    }
+
+    /**
+     * Atomically hold an AVAILABLE slot. The caller must end the hold with
+     * {@link #markBooked} or {@link #markAvailable} once its transaction completes.
+     */
+    public Reservation tryReserve(Long slotId) {
+        Queue<PendingWrite> pending = rebuildLog;
+        AtomicLongArray segment = segments.get(segmentKey(slotId));
+        if (segment == null) {
+            return Reservation.UNKNOWN;
+        }
+
+        int word = wordIndex(slotId);
+        int shift = bitShift(slotId);
+        while (true) {
+            long current = segment.get(word);
+            long state = (current >>> shift) & STATE_MASK;
+            if (state == UNKNOWN) {
+                return Reservation.UNKNOWN;
+            }
+            if (state == HELD) {
+                return Reservation.CONTENDED;
+            }
+            if (state != AVAILABLE) {
+                return Reservation.REJECTED;
+            }
+            long updated = (current & ~(STATE_MASK << shift)) | (HELD << shift);
+            if (segment.compareAndSet(word, current, updated)) {
+                if (pending != null) {
+                    pending.add(new PendingWrite(slotId, HELD));
+                }
+                return Reservation.RESERVED;
+            }
+        }
+    }
+
+    public void markAvailable(Long slotId) {
+        logPending(slotId, AVAILABLE);
+        set(segments, slotId, AVAILABLE);
+    }
+
+    public void markBooked(Long slotId) {
+        logPending(slotId, BOOKED);
+        set(segments, slotId, BOOKED);
+    }
+
+    public void remove(Long slotId) {
+        logPending(slotId, UNKNOWN);
+        AtomicLongArray segment = segments.get(segmentKey(slotId));
+        if (segment != null) {
+            update(segment, slotId, UNKNOWN);
+        }
+    }
+
+    private void logPending(long slotId, long state) {
+        Queue<PendingWrite> pending = rebuildLog;
+        if (pending != null) {
+            pending.add(new PendingWrite(slotId, state));
+        }
+    }
+
+    private static void set(ConcurrentHashMap<Long, AtomicLongArray> target, Long slotId, long state) {
+        AtomicLongArray segment = target.computeIfAbsent(segmentKey(slotId),
+                key -> new AtomicLongArray(WORDS_PER_SEGMENT));
+        update(segment, slotId, state);
+    }
+
+    private static void update(AtomicLongArray segment, Long slotId, long state) {
+        int word = wordIndex(slotId);
+        int shift = bitShift(slotId);
+        segment.getAndUpdate(word, current -> (current & ~(STATE_MASK << shift)) | (state << shift));
+    }
+
+    private static long segmentKey(long slotId) {
+        return slotId >>> SEGMENT_SHIFT;
+    }
+
+    private static int wordIndex(long slotId) {
+        return (int) (slotId & (SLOTS_PER_SEGMENT - 1)) / SLOTS_PER_WORD;
+    }
+
+    private static int bitShift(long slotId) {
+        return (int) (slotId % SLOTS_PER_WORD) * 2;
+    }
+}
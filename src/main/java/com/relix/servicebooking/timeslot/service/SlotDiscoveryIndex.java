@@ -0,0 +1,225 @@
+package com.relix.servicebooking.timeslot.service;
+
+import com.relix.servicebooking.common.util.ConcurrentLongLongMap;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotJdbcRepository.SlotWindow;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory index of AVAILABLE slots, one {@link SlotTimeline} per provider.
+ *
+ * Serves cross-provider discovery without touching the database: each provider's timeline yields
+ * the slots starting inside the window in start order, and the per-provider streams are merged
+ * through a heap so only the first {@code limit} matches are ever materialized. Like
+ * {@link SlotAvailabilityIndex} it is a read model only: it is updated after commit by
+ * {@link TimeSlotService} and rebuilt periodically, so a slot it still lists may already be taken
+ * and booking re-checks the row. Writes made while a rebuild is reading the database are logged
+ * and replayed onto the rebuilt index, so a reload never drops them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotDiscoveryIndex {
+
+    public record SlotMatch(Long slotId, Long providerId, Instant startTime, Instant endTime) {}
+
+    private static final long NO_PROVIDER = 0L;
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    private volatile Timelines current = new Timelines();
+    private volatile Queue<PendingWrite> rebuildLog;
+
+    /**
+     * A write seen during a rebuild; {@code interval} is null for a removal.
+     */
+    private record PendingWrite(long providerId, long slotId, SlotTimeline.Interval interval) {}
+
+    private static final class Timelines {
+
+        private final ConcurrentHashMap<Long, SlotTimeline> byProvider = new ConcurrentHashMap<>();
+        private final ConcurrentLongLongMap providerBySlot = new ConcurrentLongLongMap();
+
+        private void put(long providerId, SlotTimeline.Interval interval) {
+            providerBySlot.put(interval.slotId(), providerId);
+            byProvider.computeIfAbsent(providerId, id -> new SlotTimeline()).put(interval);
+        }
+
+        private void remove(long slotId) {
+            long providerId = providerBySlot.get(slotId, NO_PROVIDER);
+            if (providerId == NO_PROVIDER) {
+                return;
+            }
+            SlotTimeline timeline = byProvider.get(providerId);
+            if (timeline != null) {
+                timeline.remove(slotId);
+            }
+            providerBySlot.remove(slotId);
+        }
+
+        private void apply(PendingWrite write) {
+            if (write.interval() != null) {
+                put(write.providerId(), write.interval());
+            } else {
+                remove(write.slotId());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild every timeline from slots that are still AVAILABLE and not yet over.
+     */
+    @Scheduled(fixedDelayString = "${booking.slot-discovery.refresh-interval-ms:300000}",
+            initialDelayString = "${booking.slot-discovery.refresh-interval-ms:300000}")
+    public synchronized void reload() {
+        Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>();
+        rebuildLog = pending;
+        try {
+            List<TimeSlotRepository.SlotIntervalView> slots = timeSlotRepository.findIntervalsByStatusEndingAfter(
+                    TimeSlot.SlotStatus.AVAILABLE, Instant.now());
+
+            Timelines rebuilt = new Timelines();
+            for (TimeSlotRepository.SlotIntervalView slot : slots) {
+                rebuilt.put(slot.getProviderId(), interval(slot.getId(), slot.getStartTime(), slot.getEndTime()));
+            }
+            current = rebuilt;
+
+            // Writes that raced the query may be missing from it; they are applied again in order
+            int replayed = 0;
+            for (PendingWrite write; (write = pending.poll()) != null; replayed++) {
+                rebuilt.apply(write);
+            }
+            log.info("Slot discovery index loaded: slots={}, providers={}, replayed={}",
+                    slots.size(), rebuilt.byProvider.size(), replayed);
+        } finally {
+            rebuildLog = null;
+        }
+    }
+
+    public void add(Long providerId, Long slotId, Instant startTime, Instant endTime) {
+        addAll(providerId, List.of(slotId), List.of(new SlotWindow(startTime, endTime)));
+    }
+
+    /**
+     * @param slotIds ids of {@code windows}, in the same order
+     */
+    public void addAll(Long providerId, List<Long> slotIds, List<SlotWindow> windows) {
+        for (int i = 0; i < slotIds.size(); i++) {
+            SlotTimeline.Interval interval =
+                    interval(slotIds.get(i), windows.get(i).startTime(), windows.get(i).endTime());
+            logPending(new PendingWrite(providerId, interval.slotId(), interval));
+            current.put(providerId, interval);
+        }
+    }
+
+    public void remove(Long slotId) {
+        logPending(new PendingWrite(NO_PROVIDER, slotId, null));
+        current.remove(slotId);
+    }
+
+    private void logPending(PendingWrite write) {
+        Queue<PendingWrite> pending = rebuildLog;
+        if (pending != null) {
+            pending.add(write);
+        }
+    }
+
+    /**
+     * Earliest slots across the given providers that lie entirely within [from, to) and are at
+     * least as long as the provider's minimum length, ordered by start time then slot id.
+     */
+    public List<SlotMatch> findEarliest(Map<Long, Duration> minLengthByProvider, Instant from, Instant to, int limit) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        Timelines timelines = current;
+
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, minLengthByProvider.size()),
+                Comparator.comparingLong((Head head) -> head.match.start())
+                        .thenComparingLong(head -> head.match.slotId()));
+        minLengthByProvider.forEach((providerId, minLength) -> {
+            SlotTimeline timeline = timelines.byProvider.get(providerId);
+            if (timeline != null) {
+                Head head = new Head(providerId, timeline.startingWithin(fromMicros, toMicros),
+                        minLength.toNanos() / 1_000);
+                if (head.advanceToMatch(toMicros)) {
+                    heads.add(head);
+                }
+            }
+        });
+
+        List<SlotMatch> matches = new ArrayList<>(Math.min(limit, 64));
+        while (matches.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            SlotTimeline.Interval match = head.match;
+            matches.add(new SlotMatch(match.slotId(), head.providerId,
+                    fromMicros(match.start()), fromMicros(match.end())));
+            if (head.advanceToMatch(toMicros)) {
+                heads.add(head);
+            }
+        }
+        return matches;
+    }
+
+    private static final class Head {
+
+        private final Long providerId;
+        private final Iterator<SlotTimeline.Interval> intervals;
+        private final long minLengthMicros;
+        private SlotTimeline.Interval match;
+
+        private Head(Long providerId, Iterator<SlotTimeline.Interval> intervals, long minLengthMicros) {
+            this.providerId = providerId;
+            this.intervals = intervals;
+            this.minLengthMicros = minLengthMicros;
+        }
+
+        /**
+         * Advance past slots that end too late or are too short.
+         */
+        private boolean advanceToMatch(long to) {
+            while (intervals.hasNext()) {
+                SlotTimeline.Interval next = intervals.next();
+                if (next.end() <= to && next.end() - next.start() >= minLengthMicros) {
+                    match = next;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static SlotTimeline.Interval interval(Long slotId, Instant startTime, Instant endTime) {
+        return new SlotTimeline.Interval(slotId, toMicros(startTime), toMicros(endTime));
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000);
+    }
+}
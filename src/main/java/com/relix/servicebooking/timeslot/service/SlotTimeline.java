@@ -0,0 +1,67 @@
+package com.relix.servicebooking.timeslot.service;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * One provider's available slots, ordered by (start, id).
+ *
+ * Discovery only returns slots that lie entirely inside the query window, so every match
+ * starts within [from, to) and a range scan over the start order finds them all, earliest
+ * first. Slots are added and removed one at a time in O(log n) on a concurrent skip list;
+ * readers iterate without locking and see each update as soon as it is applied.
+ * Times are epoch microseconds, the precision the database stores.
+ */
+final class SlotTimeline {
+
+    record Interval(long slotId, long start, long end) {}
+
+    private static final Comparator<Interval> START_ORDER =
+            Comparator.comparingLong(Interval::start).thenComparingLong(Interval::slotId);
+
+    private final ConcurrentSkipListSet<Interval> byStart = new ConcurrentSkipListSet<>(START_ORDER);
+    private final ConcurrentHashMap<Long, Interval> bySlot = new ConcurrentHashMap<>();
+
+    int size() {
+        return bySlot.size();
+    }
+
+    /**
+     * Add the interval, replacing any existing one with the same slot id.
+     */
+    void put(Interval interval) {
+        bySlot.compute(interval.slotId(), (id, current) -> {
+            if (current != null) {
+                byStart.remove(current);
+            }
+            byStart.add(interval);
+            return interval;
+        });
+    }
+
+    /**
+     * @return whether the slot was held
+     */
+    boolean remove(long slotId) {
+        boolean[] removed = new boolean[1];
+        bySlot.computeIfPresent(slotId, (id, current) -> {
+            byStart.remove(current);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Lazily walk the intervals starting in [from, to) in ascending start order.
+     */
+    Iterator<Interval> startingWithin(long from, long to) {
+        if (from >= to) {
+            return Collections.emptyIterator();
+        }
+        return byStart.subSet(new Interval(Long.MIN_VALUE, from, 0), new Interval(Long.MIN_VALUE, to, 0)).iterator();
+    }
+}
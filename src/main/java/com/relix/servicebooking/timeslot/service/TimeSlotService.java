@@ -6,35 +6,138 @@ import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.repository.OrderRepository;
 import com.relix.servicebooking.provider.entity.Provider;
 import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.timeslot.dto.ScheduleTemplateRequest;
+import com.relix.servicebooking.timeslot.dto.SlotDiscoveryResponse;
+import com.relix.servicebooking.timeslot.dto.SlotGenerationResponse;
 import com.relix.servicebooking.timeslot.dto.TimeSlotCreateRequest;
 import com.relix.servicebooking.timeslot.dto.TimeSlotResponse;
 import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotJdbcRepository;
 import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
-@Service
+@org.springframework.stereotype.Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TimeSlotService {
 
+    public static final int DEFAULT_DISCOVERY_LIMIT = 20;
+    public static final int MAX_DISCOVERY_LIMIT = 100;
+    public static final Duration DEFAULT_SLOT_WINDOW = Duration.ofDays(31);
+    public static final Duration MAX_SLOT_WINDOW = Duration.ofDays(92);
+
     private final TimeSlotRepository timeSlotRepository;
+    private final TimeSlotJdbcRepository timeSlotJdbcRepository;
     private final ProviderRepository providerRepository;
     private final OrderRepository orderRepository;
+    private final ServiceRepository serviceRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final SlotDiscoveryIndex slotDiscoveryIndex;
+
+    /**
+     * AVAILABLE slots of a provider starting within [from, to).
+     * The window defaults to the next {@link #DEFAULT_SLOT_WINDOW} and never reaches into the past,
+     * where AVAILABLE slots can no longer be booked.
+     */
+    public List<TimeSlotResponse> getAvailableSlotsByProvider(Long providerId, Instant from, Instant to) {
+        Instant now = Instant.now();
+        Instant start = from == null || from.isBefore(now) ? now : from;
+        Instant end = to != null ? to : start.plus(DEFAULT_SLOT_WINDOW);
+        if (!end.isAfter(start)) {
+            return List.of();
+        }
+        if (Duration.between(start, end).compareTo(MAX_SLOT_WINDOW) > 0) {
+            throw new BusinessException("Time window must be at most " + MAX_SLOT_WINDOW.toDays() + " days",
+                    "INVALID_TIME_RANGE");
+        }
 
-    public List<TimeSlotResponse> getAvailableSlotsByProvider(Long providerId) {
-        return timeSlotRepository.findByProvider_IdAndStatus(providerId, TimeSlot.SlotStatus.AVAILABLE)
+        return timeSlotRepository.findAvailableSlots(providerId, start, end)
                 .stream()
-                .map(this::toResponse)
+                .map(slot -> TimeSlotResponse.builder()
+                        .id(slot.getId())
+                        .providerId(providerId)
+                        .startTime(slot.getStartTime())
+                        .endTime(slot.getEndTime())
+                        .status(TimeSlot.SlotStatus.AVAILABLE.name())
+                        .createdAt(slot.getCreatedAt())
+                        .build())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Earliest AVAILABLE slots across every provider offering an active service with this name.
+     *
+     * Served from {@link SlotDiscoveryIndex}; the database is only asked which providers offer
+     * the service. A slot matches when it lies within [from, to) and is long enough for both the
+     * provider's service duration and {@code minDurationMinutes}.
+     */
+    public List<SlotDiscoveryResponse> discoverSlots(String serviceName, Instant from, Instant to,
+                                                     Integer minDurationMinutes, int limit) {
+        if (serviceName == null || serviceName.isBlank()) {
+            throw new BusinessException("serviceName is required", "SERVICE_NAME_REQUIRED");
+        }
+        if (!to.isAfter(from)) {
+            throw new BusinessException("End time must be after start time", "INVALID_TIME_RANGE");
+        }
+        Instant now = Instant.now();
+        if (!to.isAfter(now)) {
+            return List.of();
+        }
+
+        // One service per provider: the shortest, as it fits the most slots
+        Map<Long, Service> serviceByProvider = new HashMap<>();
+        for (Service service : serviceRepository.findByNameIgnoreCaseAndStatus(
+                serviceName.trim(), Service.ServiceStatus.ACTIVE)) {
+            serviceByProvider.merge(service.getProvider().getId(), service,
+                    (current, candidate) -> candidate.getDurationMinutes() < current.getDurationMinutes()
+                            ? candidate : current);
+        }
+        if (serviceByProvider.isEmpty()) {
+            return List.of();
+        }
+
+        int minimum = minDurationMinutes != null ? minDurationMinutes : 0;
+        Map<Long, Duration> minLengthByProvider = new HashMap<>();
+        serviceByProvider.forEach((providerId, service) -> minLengthByProvider.put(providerId,
+                Duration.ofMinutes(Math.max(minimum, service.getDurationMinutes()))));
+
+        return slotDiscoveryIndex.findEarliest(minLengthByProvider, from.isBefore(now) ? now : from, to,
+                        clampDiscoveryLimit(limit))
+                .stream()
+                .map(match -> {
+                    Service service = serviceByProvider.get(match.providerId());
+                    return SlotDiscoveryResponse.builder()
+                            .slotId(match.slotId())
+                            .providerId(match.providerId())
+                            .serviceId(service.getId())
+                            .serviceName(service.getName())
+                            .durationMinutes(service.getDurationMinutes())
+                            .price(service.getPrice())
+                            .startTime(match.startTime())
+                            .endTime(match.endTime())
+                            .build();
+                })
+                .toList();
+    }
+
     /**
      * Verify that the time slot belongs to the given provider
      */
@@ -65,22 +168,140 @@ public class TimeSlotService {
                 .build();
 
         slot = timeSlotRepository.save(slot);
+        Long slotId = slot.getId();
+        Instant startTime = slot.getStartTime();
+        Instant endTime = slot.getEndTime();
+        onCompletion(() -> {
+            slotAvailabilityIndex.markAvailable(slotId);
+            slotDiscoveryIndex.add(provider.getId(), slotId, startTime, endTime);
+        }, () -> {});
         log.info("Time slot created: id={}, providerId={}", slot.getId(), provider.getId());
 
         return toResponse(slot);
     }
 
+    /**
+     * Materialize a schedule template into AVAILABLE slots.
+     *
+     * The provider row is locked so concurrent generations for one provider cannot both pass
+     * the overlap check. Candidates that overlap an existing slot are found with one set-based
+     * query and skipped; the rest are inserted with one JDBC batch.
+     */
+    @Transactional
+    public SlotGenerationResponse generateTimeSlots(ScheduleTemplateRequest request) {
+        Provider provider = providerRepository.findByIdWithLock(request.getProviderId())
+                .orElseThrow(() -> new ResourceNotFoundException("Provider", request.getProviderId()));
+
+        List<TimeSlotJdbcRepository.SlotWindow> candidates = ScheduleExpander.expand(request, Instant.now());
+        Set<Integer> overlapping = timeSlotJdbcRepository.findOverlapping(provider.getId(), candidates);
+        List<TimeSlotJdbcRepository.SlotWindow> windows = IntStream.range(0, candidates.size())
+                .filter(i -> !overlapping.contains(i))
+                .mapToObj(candidates::get)
+                .toList();
+
+        List<Long> slotIds = timeSlotJdbcRepository.insertAvailable(provider.getId(), windows);
+        onCompletion(() -> {
+            slotIds.forEach(slotAvailabilityIndex::markAvailable);
+            slotDiscoveryIndex.addAll(provider.getId(), slotIds, windows);
+        }, () -> {});
+        log.info("Time slots generated: providerId={}, created={}, skippedOverlapping={}",
+                provider.getId(), slotIds.size(), overlapping.size());
+
+        return SlotGenerationResponse.builder()
+                .providerId(provider.getId())
+                .created(slotIds.size())
+                .skippedOverlapping(overlapping.size())
+                .firstStartTime(windows.isEmpty() ? null : windows.get(0).startTime())
+                .lastEndTime(windows.isEmpty() ? null : windows.get(windows.size() - 1).endTime())
+                .build();
+    }
+
+    /**
+     * Book a slot without taking a row lock up front.
+     * Slots the in-memory index knows to be booked are refused before touching the database;
+     * for everything else the conditional UPDATE decides the winner when several requests race
+     * for the same slot.
+     */
     @Transactional
     public TimeSlot bookSlot(Long slotId) {
-        TimeSlot slot = timeSlotRepository.findByIdWithLock(slotId)
-                .orElseThrow(() -> new ResourceNotFoundException("TimeSlot", slotId));
+        SlotAvailabilityIndex.Reservation reservation = slotAvailabilityIndex.tryReserve(slotId);
+        if (reservation == SlotAvailabilityIndex.Reservation.REJECTED) {
+            throw new BusinessException("Time slot is not available", "SLOT_NOT_AVAILABLE");
+        }
+
+        // Registered before the UPDATE so the hold is released even if the UPDATE throws
+        AtomicBoolean releaseHold = new AtomicBoolean(reservation == SlotAvailabilityIndex.Reservation.RESERVED);
+        onRollback(() -> {
+            if (releaseHold.get()) {
+                slotAvailabilityIndex.markAvailable(slotId);
+            }
+        });
 
-        if (slot.getStatus() != TimeSlot.SlotStatus.AVAILABLE) {
+        int updated = timeSlotRepository.updateStatusIfMatches(
+                slotId, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED);
+
+        if (updated == 0) {
+            releaseHold.set(false);
+            if (!timeSlotRepository.existsById(slotId)) {
+                slotAvailabilityIndex.remove(slotId);
+                slotDiscoveryIndex.remove(slotId);
+                throw new ResourceNotFoundException("TimeSlot", slotId);
+            }
+            slotAvailabilityIndex.markBooked(slotId);
+            slotDiscoveryIndex.remove(slotId);
             throw new BusinessException("Time slot is not available", "SLOT_NOT_AVAILABLE");
         }
 
+        onCompletion(() -> {
+            slotAvailabilityIndex.markBooked(slotId);
+            slotDiscoveryIndex.remove(slotId);
+        }, () -> {});
+
+        TimeSlot slot = timeSlotRepository.findById(slotId)
+                .orElseThrow(() -> new ResourceNotFoundException("TimeSlot", slotId));
+        // Keep the managed entity in sync with the row we just updated
         slot.setStatus(TimeSlot.SlotStatus.BOOKED);
-        return timeSlotRepository.save(slot);
+        return slot;
+    }
+
+    /**
+     * Resolve start times to slot ids for one provider; start times with no slot are absent from the map.
+     */
+    public Map<Instant, Long> findSlotIdsByStartTime(Long providerId, Collection<Instant> startTimes) {
+        return timeSlotRepository.findFirstSlotIdsByStartTime(providerId, startTimes).stream()
+                .collect(Collectors.toMap(TimeSlotRepository.SlotStartView::getStartTime,
+                        TimeSlotRepository.SlotStartView::getId));
+    }
+
+    /**
+     * Lock a set of slots for a multi-slot booking with one ordered SELECT ... FOR UPDATE.
+     * Ids that do not exist are simply missing from the result.
+     */
+    @Transactional
+    public List<TimeSlot> lockSlots(Collection<Long> slotIds) {
+        if (slotIds.isEmpty()) {
+            return List.of();
+        }
+        return timeSlotRepository.findAllByIdInWithLock(slotIds);
+    }
+
+    /**
+     * Book slots the caller has locked through {@link #lockSlots} and found AVAILABLE.
+     */
+    @Transactional
+    public void bookLockedSlots(List<Long> slotIds) {
+        if (slotIds.isEmpty()) {
+            return;
+        }
+        int updated = timeSlotRepository.updateStatusesIfMatch(
+                slotIds, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED);
+        if (updated != slotIds.size()) {
+            throw new BusinessException("Time slot is not available", "SLOT_NOT_AVAILABLE");
+        }
+        onCompletion(() -> slotIds.forEach(slotId -> {
+            slotAvailabilityIndex.markBooked(slotId);
+            slotDiscoveryIndex.remove(slotId);
+        }), () -> {});
     }
 
     @Transactional
@@ -101,6 +322,13 @@ public class TimeSlotService {
 
         slot.setStatus(TimeSlot.SlotStatus.AVAILABLE);
         timeSlotRepository.save(slot);
+        Long providerId = slot.getProvider().getId();
+        Instant startTime = slot.getStartTime();
+        Instant endTime = slot.getEndTime();
+        onCompletion(() -> {
+            slotAvailabilityIndex.markAvailable(slotId);
+            slotDiscoveryIndex.add(providerId, slotId, startTime, endTime);
+        }, () -> {});
         log.info("Time slot released: id={}", slotId);
     }
 
@@ -114,9 +342,55 @@ public class TimeSlotService {
         }
 
         timeSlotRepository.delete(slot);
+        onCompletion(() -> {
+            slotAvailabilityIndex.remove(id);
+            slotDiscoveryIndex.remove(id);
+        }, () -> {});
         log.info("Time slot deleted: id={}", id);
     }
 
+    /**
+     * Apply index changes only once the surrounding transaction has settled,
+     * so the index never advertises state the database rolled back.
+     */
+    private void onCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private void onRollback(Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private int clampDiscoveryLimit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_DISCOVERY_LIMIT;
+        }
+        return Math.min(limit, MAX_DISCOVERY_LIMIT);
+    }
+
     private TimeSlotResponse toResponse(TimeSlot slot) {
         return TimeSlotResponse.builder()
                 .id(slot.getId())
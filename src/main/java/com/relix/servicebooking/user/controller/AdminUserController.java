@@ -0,0 +1,28 @@
+package com.relix.servicebooking.user.controller;
+
+import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.user.dto.UserResponse;
+import com.relix.servicebooking.user.dto.UserStatusUpdateRequest;
+import com.relix.servicebooking.user.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    private final UserService userService;
+
+    @PatchMapping("/{userId}/status")
+    public ResponseEntity<ApiResponse<UserResponse>> updateStatus(
+            @PathVariable Long userId,
+            @Valid @RequestBody UserStatusUpdateRequest request) {
+        UserResponse response = userService.updateStatus(userId, request.getStatus());
+        return ResponseEntity.ok(ApiResponse.success(response, "User status updated"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.relix.servicebooking.user.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatusUpdateRequest {
+
+    @NotBlank(message = "Status is required")
+    private String status;
+}
@@ -35,6 +35,14 @@ public class User extends BaseEntity {
     @Builder.Default
     private UserStatus status = UserStatus.ACTIVE;
 
+    /**
+     * Bumped to revoke every refresh token of the user; only ever written by
+     * {@code UserRepository.incrementTokenGeneration}.
+     */
+    @Column(name = "token_generation", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Long tokenGeneration = 0L;
+
     public enum UserRole {
         CUSTOMER, PROVIDER, ADMIN
     }
@@ -0,0 +1,9 @@
+package com.relix.servicebooking.user.event;
+
+import com.relix.servicebooking.user.entity.User;
+
+/**
+ * Published when an account's status changes, so in-memory views of it can be refreshed.
+ */
+public record UserStatusChangedEvent(Long userId, User.UserStatus status) {
+}
@@ -2,6 +2,9 @@ package com.relix.servicebooking.user.repository;
 
 import com.relix.servicebooking.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.status FROM User u WHERE u.id = :id")
+    Optional<User.UserStatus> findStatusById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenGeneration = u.tokenGeneration + 1 WHERE u.id = :id")
+    int incrementTokenGeneration(@Param("id") Long id);
+
+    @Query("SELECT u.tokenGeneration FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenGenerationById(@Param("id") Long id);
 }
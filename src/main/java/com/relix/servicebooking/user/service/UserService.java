@@ -0,0 +1,57 @@
+package com.relix.servicebooking.user.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.user.dto.UserResponse;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.event.UserStatusChangedEvent;
+import com.relix.servicebooking.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public UserResponse updateStatus(Long userId, String status) {
+        User.UserStatus newStatus;
+        try {
+            newStatus = User.UserStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid status: " + status, "INVALID_STATUS");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+
+        if (user.getStatus() != newStatus) {
+            user.setStatus(newStatus);
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserStatusChangedEvent(userId, newStatus));
+            log.info("User status changed: userId={}, status={}", userId, newStatus);
+        }
+
+        return toResponse(user);
+    }
+
+    private UserResponse toResponse(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .role(user.getRole().name())
+                .status(user.getStatus().name())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,4 @@
+-- V10: Keyset pagination indexes for order listings, ordered by (created_at, id) newest first
+CREATE INDEX idx_orders_provider_created ON orders(provider_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_provider_status_created ON orders(provider_id, status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_customer_created ON orders(customer_id, created_at DESC, id DESC);
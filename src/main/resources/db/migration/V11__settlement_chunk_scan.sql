@@ -0,0 +1,3 @@
+-- V11: Keyset scan over pending settlements for the chunked batch engine.
+-- Settled rows leave the partial index, so a resumed run starts at the first unsettled id.
+CREATE INDEX idx_settlements_pending_id ON settlements(id) INCLUDE (provider_payout) WHERE status = 'PENDING';
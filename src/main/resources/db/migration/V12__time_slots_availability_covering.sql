@@ -0,0 +1,18 @@
+-- V12: Covering partial index for windowed availability reads.
+-- Keyed by (provider_id, start_time, id) to match the ORDER BY, with the remaining response
+-- columns included so a provider's calendar window is served by an index-only scan.
+-- Status is implied by the predicate and no longer needs to be a key column.
+--
+-- Runs outside a transaction (see the .conf file next to this script) so the replacement is
+-- built concurrently under a temporary name while the old index keeps serving reads, then
+-- swapped in by name. Slot writes are not blocked for the duration of either build.
+--
+-- Every statement is safe to repeat: after a failure, run flyway repair and migrate again.
+-- A CREATE INDEX CONCURRENTLY that failed leaves an INVALID idx_time_slots_availability_new
+-- that IF NOT EXISTS would keep, so drop it first (\di+ shows it as INVALID).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_time_slots_availability_new
+    ON time_slots(provider_id, start_time, id)
+    INCLUDE (end_time, created_at)
+    WHERE status = 'AVAILABLE';
+DROP INDEX CONCURRENTLY IF EXISTS idx_time_slots_availability;
+ALTER INDEX idx_time_slots_availability_new RENAME TO idx_time_slots_availability;
@@ -0,0 +1,8 @@
+-- V13: Keyset pagination indexes for the provider directory, ordered by (rating, id) highest first
+UPDATE providers SET rating = 0.00 WHERE rating IS NULL;
+ALTER TABLE providers ALTER COLUMN rating SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_providers_rating;
+DROP INDEX IF EXISTS idx_providers_verified;
+CREATE INDEX idx_providers_rating ON providers(rating DESC, id DESC);
+CREATE INDEX idx_providers_verified_rating ON providers(verified, rating DESC, id DESC);
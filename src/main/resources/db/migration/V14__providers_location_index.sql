@@ -0,0 +1,3 @@
+-- V14: Bounding-box index for proximity search over providers that have a location
+CREATE INDEX idx_providers_location ON providers(latitude, longitude)
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
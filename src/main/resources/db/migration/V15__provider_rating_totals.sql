@@ -0,0 +1,18 @@
+-- V15: Running rating totals on providers, maintained incrementally on review submission.
+-- rating is derived from rating_sum / review_count so it never accumulates rounding drift.
+ALTER TABLE providers ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0;
+
+UPDATE providers SET review_count = 0 WHERE review_count IS NULL;
+ALTER TABLE providers ALTER COLUMN review_count SET NOT NULL;
+
+UPDATE providers p
+SET rating_sum = t.rating_sum,
+    review_count = t.review_count,
+    rating = ROUND(CAST(t.rating_sum AS numeric) / t.review_count, 2)
+FROM (SELECT provider_id, SUM(rating) AS rating_sum, COUNT(*) AS review_count
+      FROM reviews GROUP BY provider_id) t
+WHERE p.id = t.provider_id;
+
+-- Per-provider review listing, newest first; rating is included so reconciliation sums are index-only
+DROP INDEX IF EXISTS idx_reviews_provider_id;
+CREATE INDEX idx_reviews_provider_created ON reviews(provider_id, created_at DESC, id DESC) INCLUDE (rating);
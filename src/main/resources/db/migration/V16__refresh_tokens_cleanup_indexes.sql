@@ -0,0 +1,4 @@
+-- V16: Index the refresh-token cleanup predicates so the chunked deleter can pick
+-- each batch of victims with an index range scan instead of a sequential scan.
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+CREATE INDEX idx_refresh_tokens_revoked_created ON refresh_tokens(created_at) WHERE revoked = TRUE;
@@ -0,0 +1,27 @@
+-- V18: Per-provider settlement balances, maintained in the same transaction as every
+-- settlement insert and status change, so a summary is a single primary-key lookup.
+CREATE TABLE provider_balances (
+    provider_id BIGINT PRIMARY KEY REFERENCES providers(id) ON DELETE CASCADE,
+    pending_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    completed_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    pending_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO provider_balances (provider_id, pending_amount, completed_amount, pending_count, completed_count, failed_count)
+SELECT o.provider_id,
+       COALESCE(SUM(s.provider_payout) FILTER (WHERE s.status = 'PENDING'), 0),
+       COALESCE(SUM(s.provider_payout) FILTER (WHERE s.status = 'COMPLETED'), 0),
+       COUNT(*) FILTER (WHERE s.status = 'PENDING'),
+       COUNT(*) FILTER (WHERE s.status = 'COMPLETED'),
+       COUNT(*) FILTER (WHERE s.status = 'FAILED')
+FROM settlements s
+JOIN orders o ON o.id = s.order_id
+GROUP BY o.provider_id;
+
+CREATE OR REPLACE TRIGGER set_provider_balances_updated_at
+    BEFORE UPDATE ON provider_balances
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,106 @@
+-- V19: Denormalize the owning provider onto settlements and the customer onto refunds,
+-- so provider and customer listings filter on an indexed column instead of joining orders.
+--
+-- Runs outside a transaction (see the .conf file next to this script) so it can be applied
+-- online: the columns are added without a table rewrite, filled in committed chunks, made
+-- NOT NULL via a validated CHECK (no exclusive scan), and indexed concurrently. Inserts that
+-- do not set the new column yet are filled in from orders by a trigger.
+--
+-- Without a transaction a failure leaves the earlier statements applied, so every statement
+-- is safe to repeat: after fixing the cause, run flyway repair and migrate again. The one
+-- manual step: a CREATE INDEX CONCURRENTLY that failed leaves an INVALID index that
+-- IF NOT EXISTS would keep, so drop it first (\di+ shows it as INVALID).
+
+ALTER TABLE settlements ADD COLUMN IF NOT EXISTS provider_id BIGINT;
+ALTER TABLE refunds ADD COLUMN IF NOT EXISTS customer_id BIGINT;
+
+CREATE OR REPLACE FUNCTION fill_settlement_provider_id() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.provider_id IS NULL THEN
+        SELECT provider_id INTO NEW.provider_id FROM orders WHERE id = NEW.order_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER set_settlements_provider_id
+    BEFORE INSERT ON settlements
+    FOR EACH ROW
+    EXECUTE FUNCTION fill_settlement_provider_id();
+
+CREATE OR REPLACE FUNCTION fill_refund_customer_id() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.customer_id IS NULL THEN
+        SELECT customer_id INTO NEW.customer_id FROM orders WHERE id = NEW.order_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER set_refunds_customer_id
+    BEFORE INSERT ON refunds
+    FOR EACH ROW
+    EXECUTE FUNCTION fill_refund_customer_id();
+
+-- Backfill in id ranges, committing each chunk; rows inserted meanwhile are covered by the triggers
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    max_id BIGINT;
+BEGIN
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM settlements;
+    WHILE last_id < max_id LOOP
+        UPDATE settlements s SET provider_id = o.provider_id
+        FROM orders o
+        WHERE o.id = s.order_id AND s.id > last_id AND s.id <= last_id + 5000 AND s.provider_id IS NULL;
+        last_id := last_id + 5000;
+        COMMIT;
+    END LOOP;
+END $$;
+
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    max_id BIGINT;
+BEGIN
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM refunds;
+    WHILE last_id < max_id LOOP
+        UPDATE refunds r SET customer_id = o.customer_id
+        FROM orders o
+        WHERE o.id = r.order_id AND r.id > last_id AND r.id <= last_id + 5000 AND r.customer_id IS NULL;
+        last_id := last_id + 5000;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- NOT NULL without holding an exclusive lock for a full scan: SET NOT NULL reuses the validated CHECK
+ALTER TABLE settlements DROP CONSTRAINT IF EXISTS chk_settlements_provider_id;
+ALTER TABLE settlements ADD CONSTRAINT chk_settlements_provider_id CHECK (provider_id IS NOT NULL) NOT VALID;
+ALTER TABLE settlements VALIDATE CONSTRAINT chk_settlements_provider_id;
+ALTER TABLE settlements ALTER COLUMN provider_id SET NOT NULL;
+ALTER TABLE settlements DROP CONSTRAINT chk_settlements_provider_id;
+
+ALTER TABLE refunds DROP CONSTRAINT IF EXISTS chk_refunds_customer_id;
+ALTER TABLE refunds ADD CONSTRAINT chk_refunds_customer_id CHECK (customer_id IS NOT NULL) NOT VALID;
+ALTER TABLE refunds VALIDATE CONSTRAINT chk_refunds_customer_id;
+ALTER TABLE refunds ALTER COLUMN customer_id SET NOT NULL;
+ALTER TABLE refunds DROP CONSTRAINT chk_refunds_customer_id;
+
+ALTER TABLE settlements DROP CONSTRAINT IF EXISTS fk_settlements_provider;
+ALTER TABLE settlements ADD CONSTRAINT fk_settlements_provider
+    FOREIGN KEY (provider_id) REFERENCES providers(id) NOT VALID;
+ALTER TABLE settlements VALIDATE CONSTRAINT fk_settlements_provider;
+ALTER TABLE refunds DROP CONSTRAINT IF EXISTS fk_refunds_customer;
+ALTER TABLE refunds ADD CONSTRAINT fk_refunds_customer
+    FOREIGN KEY (customer_id) REFERENCES users(id) NOT VALID;
+ALTER TABLE refunds VALIDATE CONSTRAINT fk_refunds_customer;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_settlements_provider_status_created
+    ON settlements(provider_id, status, created_at DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refunds_customer_created
+    ON refunds(customer_id, created_at DESC);
+
+-- Carry provider_id in the pending scan so the batch engine's chunk query stays index-only
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_settlements_pending_id_provider
+    ON settlements(id) INCLUDE (provider_id, provider_payout) WHERE status = 'PENDING';
+DROP INDEX CONCURRENTLY IF EXISTS idx_settlements_pending_id;
@@ -0,0 +1,21 @@
+-- V20: Transactional outbox. Rows are inserted in the same transaction as the state change
+-- they describe and drained in id order by the relay, which stamps published_at.
+CREATE TABLE outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP WITH TIME ZONE,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500)
+);
+
+-- Relay scan: only undelivered rows, in id order
+CREATE INDEX idx_outbox_unpublished ON outbox(id) WHERE published_at IS NULL;
+
+-- Retention purge of delivered rows
+CREATE INDEX idx_outbox_published_at ON outbox(published_at) WHERE published_at IS NOT NULL;
+
+CREATE INDEX idx_outbox_aggregate ON outbox(aggregate_type, aggregate_id, id);
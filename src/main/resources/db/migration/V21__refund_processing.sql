@@ -0,0 +1,14 @@
+-- V21: Refunds are queued as PENDING and processed by background workers.
+-- attempts counts gateway calls, next_attempt_at holds the retry backoff and claimed_at is
+-- the worker lease, so a refund abandoned by a crashed worker can be reclaimed.
+ALTER TABLE refunds ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE refunds ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE refunds ADD COLUMN claimed_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE refunds ADD COLUMN last_error VARCHAR(500);
+ALTER TABLE refunds ADD COLUMN gateway_reference VARCHAR(100);
+
+-- Worker claim: due PENDING refunds in due-time order
+CREATE INDEX idx_refunds_pending_due ON refunds(next_attempt_at, id) WHERE status = 'PENDING';
+
+-- Lease expiry scan
+CREATE INDEX idx_refunds_processing_claimed ON refunds(claimed_at) WHERE status = 'PROCESSING';
@@ -0,0 +1,3 @@
+-- V22: Failed outbox deliveries back off instead of retrying on every poll.
+-- next_attempt_at is when the relay may next try the head row; rows behind it wait in id order.
+ALTER TABLE outbox ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,4 @@
+-- V23: PARTIAL marks a batch closed on a later run date with some of its rows carried over
+ALTER TABLE settlement_batches DROP CONSTRAINT IF EXISTS chk_batch_status;
+ALTER TABLE settlement_batches ADD CONSTRAINT chk_batch_status
+    CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED', 'PARTIAL'));
@@ -0,0 +1,76 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.audit.dto.AuditLogResponse;
+import com.relix.servicebooking.audit.service.AuditService;
+import com.relix.servicebooking.audit.service.AuditWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditPipelineIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private AuditService auditService;
+    @Autowired private AuditWriter auditWriter;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private List<AuditLogResponse> awaitLogs(long entityId, int expected) throws InterruptedException {
+        List<AuditLogResponse> logs = List.of();
+        for (int i = 0; i < 50 && logs.size() < expected; i++) {
+            Thread.sleep(100);
+            logs = auditService.getByEntity("ORDER", entityId);
+        }
+        return logs;
+    }
+
+    @Test
+    @DisplayName("committed audit events reach audit_logs via the background writer")
+    void committedEvents_areWritten() throws InterruptedException {
+        long entityId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            auditService.log("ORDER", entityId, "ORDER_CREATED", "CUSTOMER", 7L, Map.of("totalPrice", "25.00"));
+            auditService.log("ORDER", entityId, "PAYMENT_CONFIRMED", "CUSTOMER", 7L, null);
+        });
+
+        List<AuditLogResponse> logs = awaitLogs(entityId, 2);
+        assertEquals(2, logs.size());
+        assertTrue(logs.stream().anyMatch(l -> l.getDetails() != null && l.getDetails().contains("25.00")));
+    }
+
+    @Test
+    @DisplayName("rolled-back transactions leave no audit trail")
+    void rolledBackEvents_areDiscarded() throws InterruptedException {
+        long entityId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            auditService.log("ORDER", entityId, "ORDER_CREATED", "CUSTOMER", 7L, null);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(awaitLogs(entityId, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("events written on the caller's thread after commit are committed too")
+    void callerThreadFallback_isCommitted() {
+        long entityId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+
+        // A stopped writer writes from afterCommit, like the SYNC fallback on a full buffer
+        auditWriter.stop();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    auditService.log("ORDER", entityId, "ORDER_CREATED", "CUSTOMER", 7L, null));
+        } finally {
+            auditWriter.start();
+        }
+
+        assertEquals(1, auditService.getByEntity("ORDER", entityId).size());
+    }
+}
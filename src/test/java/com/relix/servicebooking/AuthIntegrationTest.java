@@ -137,6 +137,51 @@ class AuthIntegrationTest extends BaseIntegrationTest {
         assertEquals(HttpStatus.BAD_REQUEST, reuseResp.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Reusing a rotated refresh token revokes the tokens rotated from it")
+    void tokenRefresh_reuseRevokesFamily() {
+        String email = "reuse-" + System.currentTimeMillis() + "@test.com";
+        RegisterRequest regReq = RegisterRequest.builder()
+                .name("Reuse Test").email(email).password("password123").role("CUSTOMER").build();
+        String original = restTemplate.exchange(
+                baseUrl + "/api/auth/register", HttpMethod.POST,
+                new HttpEntity<>(regReq), new ParameterizedTypeReference<ApiResponse<AuthResponse>>() {})
+                .getBody().getData().getRefreshToken();
+
+        String rotated = refresh(original).getBody().getData().getRefreshToken();
+
+        assertEquals(HttpStatus.BAD_REQUEST, refresh(original).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, refresh(rotated).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Login revokes refresh tokens issued by earlier sessions")
+    void login_revokesEarlierRefreshTokens() {
+        String email = "relogin-" + System.currentTimeMillis() + "@test.com";
+        RegisterRequest regReq = RegisterRequest.builder()
+                .name("Relogin Test").email(email).password("password123").role("CUSTOMER").build();
+        String earlier = restTemplate.exchange(
+                baseUrl + "/api/auth/register", HttpMethod.POST,
+                new HttpEntity<>(regReq), new ParameterizedTypeReference<ApiResponse<AuthResponse>>() {})
+                .getBody().getData().getRefreshToken();
+
+        LoginRequest loginReq = LoginRequest.builder().email(email).password("password123").build();
+        String current = restTemplate.exchange(
+                baseUrl + "/api/auth/login", HttpMethod.POST,
+                new HttpEntity<>(loginReq), new ParameterizedTypeReference<ApiResponse<AuthResponse>>() {})
+                .getBody().getData().getRefreshToken();
+
+        assertEquals(HttpStatus.BAD_REQUEST, refresh(earlier).getStatusCode());
+        assertEquals(HttpStatus.OK, refresh(current).getStatusCode());
+    }
+
+    private ResponseEntity<ApiResponse<AuthResponse>> refresh(String refreshToken) {
+        return restTemplate.exchange(
+                baseUrl + "/api/auth/refresh", HttpMethod.POST,
+                new HttpEntity<>(RefreshRequest.builder().refreshToken(refreshToken).build()),
+                new ParameterizedTypeReference<>() {});
+    }
+
     @Test
     @DisplayName("Unauthenticated access to protected endpoints returns 401")
     void unauthenticatedAccess_returns401() {
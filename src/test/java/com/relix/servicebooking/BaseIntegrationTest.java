@@ -1,5 +1,12 @@
 package com.relix.servicebooking;
 
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -8,11 +15,19 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.math.BigDecimal;
+import java.util.UUID;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
 @ActiveProfiles("test")
 public abstract class BaseIntegrationTest {
 
+    /**
+     * A customer and a provider offering one active service.
+     */
+    protected record Fixture(User customer, Provider provider, Service service) {}
+
     @Container
     static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
             .withDatabaseName("booking_test")
@@ -26,4 +41,28 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("jwt.secret", () -> "dGhpcyBpcyBhIHZlcnkgbG9uZyBzZWNyZXQga2V5IGZvciBqd3QgdG9rZW4gZ2VuZXJhdGlvbiB0aGF0IGlzIGF0IGxlYXN0IDI1NiBiaXRz");
     }
+
+    @Autowired protected UserRepository userRepository;
+    @Autowired protected ProviderRepository providerRepository;
+    @Autowired protected ServiceRepository serviceRepository;
+
+    /**
+     * Save a fresh customer, provider and service straight through the repositories, for tests
+     * that seed more orders than the API can create quickly. Emails are unique per call.
+     */
+    protected Fixture createFixture(String businessName, BigDecimal price) {
+        String ts = UUID.randomUUID().toString();
+        User customer = userRepository.save(User.builder()
+                .email("cust-" + ts + "@test.com").passwordHash("h").name("Customer")
+                .role(User.UserRole.CUSTOMER).status(User.UserStatus.ACTIVE).build());
+        User providerUser = userRepository.save(User.builder()
+                .email("prov-" + ts + "@test.com").passwordHash("h").name("Provider")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+        Provider provider = providerRepository.save(Provider.builder()
+                .user(providerUser).businessName(businessName).build());
+        Service service = serviceRepository.save(Service.builder()
+                .provider(provider).name("Cut").durationMinutes(30)
+                .price(price).status(Service.ServiceStatus.ACTIVE).build());
+        return new Fixture(customer, provider, service);
+    }
 }
@@ -0,0 +1,208 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.order.dto.BulkOrderCreateRequest;
+import com.relix.servicebooking.order.dto.BulkOrderResponse;
+import com.relix.servicebooking.order.dto.RecurrenceRule;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.order.service.BulkOrderService;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkOrderIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private BulkOrderService bulkOrderService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private TimeSlotRepository timeSlotRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private ProviderRepository providerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long serviceId;
+    private Provider provider;
+    private Instant firstStart;
+
+    @BeforeEach
+    void setUp() {
+        customerId = user(User.UserRole.CUSTOMER).getId();
+        provider = providerRepository.save(Provider.builder()
+                .user(user(User.UserRole.PROVIDER)).businessName("Series Provider").build());
+        serviceId = serviceRepository.save(Service.builder()
+                .provider(provider).name("Weekly cleaning").durationMinutes(60)
+                .price(new BigDecimal("80.00")).status(Service.ServiceStatus.ACTIVE).build()).getId();
+        firstStart = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private User user(User.UserRole role) {
+        return userRepository.save(User.builder()
+                .email("series-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Series")
+                .role(role).status(User.UserStatus.ACTIVE).build());
+    }
+
+    private List<Long> weeklySlots(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Instant start = firstStart.plus(7L * i, ChronoUnit.DAYS);
+            ids.add(timeSlotRepository.save(TimeSlot.builder()
+                    .provider(provider).startTime(start).endTime(start.plus(1, ChronoUnit.HOURS))
+                    .status(TimeSlot.SlotStatus.AVAILABLE).build()).getId());
+        }
+        return ids;
+    }
+
+    private BulkOrderCreateRequest request(BulkOrderCreateRequest.Mode mode, List<Long> slotIds) {
+        return BulkOrderCreateRequest.builder()
+                .customerId(customerId).serviceId(serviceId)
+                .timeSlotIds(slotIds).mode(mode)
+                .build();
+    }
+
+    private TimeSlot.SlotStatus status(Long slotId) {
+        return timeSlotRepository.findById(slotId).orElseThrow().getStatus();
+    }
+
+    private long orderCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE customer_id = ?", Long.class, customerId);
+    }
+
+    @Test
+    @DisplayName("books every slot of the series and the orders read back through JPA")
+    void createOrders_booksSeries() {
+        List<Long> slots = weeklySlots(4);
+
+        BulkOrderResponse response = bulkOrderService.createOrders(
+                request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, slots));
+
+        assertEquals(4, response.getCreated());
+        for (BulkOrderResponse.Item item : response.getItems()) {
+            Order order = orderRepository.findById(item.getOrder().getId()).orElseThrow();
+            assertEquals(Order.OrderStatus.PENDING, order.getStatus());
+            assertEquals(item.getTimeSlotId(), order.getTimeSlot().getId());
+            assertEquals(0, new BigDecimal("80.00").compareTo(order.getTotalPrice()));
+            assertEquals(TimeSlot.SlotStatus.BOOKED, status(item.getTimeSlotId()));
+        }
+    }
+
+    @Test
+    @DisplayName("all-or-nothing leaves no order and no booked slot behind when one slot is taken")
+    void createOrders_allOrNothingRollsBack() {
+        List<Long> slots = weeklySlots(3);
+        bulkOrderService.createOrders(request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, List.of(slots.get(2))));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(
+                request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, slots)));
+
+        assertEquals("SLOT_NOT_AVAILABLE", ex.getCode());
+        assertEquals(1, orderCount());
+        assertEquals(TimeSlot.SlotStatus.AVAILABLE, status(slots.get(0)));
+        assertEquals(TimeSlot.SlotStatus.AVAILABLE, status(slots.get(1)));
+    }
+
+    @Test
+    @DisplayName("best-effort books the free slots and reports the taken one")
+    void createOrders_bestEffortPartial() {
+        List<Long> slots = weeklySlots(3);
+        bulkOrderService.createOrders(request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, List.of(slots.get(1))));
+
+        BulkOrderResponse response = bulkOrderService.createOrders(
+                request(BulkOrderCreateRequest.Mode.BEST_EFFORT, slots));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals("SLOT_NOT_AVAILABLE", response.getItems().get(1).getErrorCode());
+        assertEquals(3, orderCount());
+    }
+
+    @Test
+    @DisplayName("retrying a series with the same key returns the existing orders")
+    void createOrders_idempotentSeries() {
+        List<Long> slots = weeklySlots(3);
+        BulkOrderCreateRequest request = request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, slots);
+        request.setIdempotencyKey("series-" + UUID.randomUUID().toString().substring(0, 8));
+
+        BulkOrderResponse first = bulkOrderService.createOrders(request);
+        BulkOrderResponse retry = bulkOrderService.createOrders(request);
+
+        assertEquals(3, first.getCreated());
+        assertEquals(0, retry.getCreated());
+        assertEquals(3, retry.getExisting());
+        assertEquals(first.getItems().stream().map(item -> item.getOrder().getId()).toList(),
+                retry.getItems().stream().map(item -> item.getOrder().getId()).toList());
+        assertEquals(3, orderCount());
+    }
+
+    @Test
+    @DisplayName("a weekly recurrence books the slots that start on each occurrence")
+    void createOrders_recurrence() {
+        List<Long> slots = weeklySlots(3);
+
+        BulkOrderResponse response = bulkOrderService.createOrders(BulkOrderCreateRequest.builder()
+                .customerId(customerId).serviceId(serviceId)
+                .recurrence(RecurrenceRule.builder().firstStart(firstStart).intervalDays(7).occurrences(4).build())
+                .mode(BulkOrderCreateRequest.Mode.BEST_EFFORT)
+                .build());
+
+        assertEquals(3, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(slots, response.getItems().subList(0, 3).stream()
+                .map(BulkOrderResponse.Item::getTimeSlotId).toList());
+    }
+
+    @Test
+    @DisplayName("overlapping series submitted in opposite orders do not deadlock")
+    void createOrders_overlappingSeriesNoDeadlock() throws Exception {
+        List<Long> slots = weeklySlots(6);
+        List<Long> reversed = new ArrayList<>(slots);
+        Collections.reverse(reversed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<BulkOrderResponse> forward = pool.submit(() -> {
+                start.await();
+                return bulkOrderService.createOrders(request(BulkOrderCreateRequest.Mode.BEST_EFFORT, slots));
+            });
+            Future<BulkOrderResponse> backward = pool.submit(() -> {
+                start.await();
+                return bulkOrderService.createOrders(request(BulkOrderCreateRequest.Mode.BEST_EFFORT, reversed));
+            });
+            start.countDown();
+
+            int created = forward.get(30, TimeUnit.SECONDS).getCreated()
+                    + backward.get(30, TimeUnit.SECONDS).getCreated();
+            assertEquals(slots.size(), created);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(slots.size(), orderCount());
+    }
+}
@@ -0,0 +1,127 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.auth.dto.AuthResponse;
+import com.relix.servicebooking.auth.dto.RegisterRequest;
+import com.relix.servicebooking.common.dto.ApiResponse;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.service.dto.ServiceCreateRequest;
+import com.relix.servicebooking.service.dto.ServiceResponse;
+import com.relix.servicebooking.service.dto.ServiceUpdateRequest;
+import com.relix.servicebooking.service.service.ServiceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotIntegrationTest extends BaseIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServiceService serviceService;
+
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    private String baseUrl;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = "http://localhost:" + port;
+        token = register("CUSTOMER", null).getAccessToken();
+    }
+
+    private AuthResponse register(String role, String businessName) {
+        RegisterRequest request = RegisterRequest.builder()
+                .name("Snapshot " + role).email("snapshot-" + UUID.randomUUID() + "@test.com")
+                .password("password123").role(role).businessName(businessName).build();
+        ResponseEntity<ApiResponse<AuthResponse>> response = restTemplate.exchange(
+                baseUrl + "/api/auth/register", HttpMethod.POST,
+                new HttpEntity<>(request), new ParameterizedTypeReference<>() {});
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return response.getBody().getData();
+    }
+
+    private <T> ResponseEntity<T> get(String path, String ifNoneMatch, String acceptEncoding, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return restTemplate.exchange(baseUrl + path, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    @Test
+    @DisplayName("provider directory revalidates with 304 until a registration patches the snapshot")
+    void providers_etagLifecycle() throws IOException {
+        ResponseEntity<String> first = get("/api/providers", null, null, String.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        ResponseEntity<String> unchanged = get("/api/providers", etag, null, String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+
+        String businessName = "Snapshot Biz " + UUID.randomUUID();
+        register("PROVIDER", businessName);
+
+        ResponseEntity<String> changed = get("/api/providers", etag, null, String.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains(businessName));
+
+        ResponseEntity<byte[]> gzipped = get("/api/providers", null, "gzip", byte[].class);
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertEquals(changed.getBody(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("service catalog and provider list pick up create, update and delete once committed")
+    void services_patchedByWrites() {
+        AuthResponse providerAuth = register("PROVIDER", "Snapshot Services " + UUID.randomUUID());
+        Long providerId = providerRepository.findByUser_Id(providerAuth.getUserId()).orElseThrow().getId();
+        String etag = get("/api/services", null, null, String.class).getHeaders().getETag();
+        get("/api/services/provider/" + providerId, null, null, String.class);
+
+        String name = "Snapshot Cut " + UUID.randomUUID();
+        ServiceResponse created = serviceService.createService(ServiceCreateRequest.builder()
+                .providerId(providerId).name(name).durationMinutes(30).price(new BigDecimal("10.00")).build());
+        ResponseEntity<String> afterCreate = get("/api/services", etag, null, String.class);
+        assertEquals(HttpStatus.OK, afterCreate.getStatusCode());
+        assertTrue(afterCreate.getBody().contains(name));
+
+        serviceService.updateService(created.getId(), ServiceUpdateRequest.builder().name(name + " v2").build());
+        assertTrue(get("/api/services/provider/" + providerId, null, null, String.class).getBody().contains(name + " v2"));
+
+        serviceService.deleteService(created.getId());
+        assertFalse(get("/api/services", null, null, String.class).getBody().contains(name));
+        assertTrue(get("/api/services/provider/" + providerId, null, null, String.class).getBody().contains("INACTIVE"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.dto.OrderPageResponse;
+import com.relix.servicebooking.order.dto.OrderResponse;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.order.service.OrderService;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.user.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderListingQueryCountIntegrationTest extends BaseIntegrationTest {
+
+    private static final int ORDER_COUNT = 120;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired private OrderService orderService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+    private Long providerId;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(entityManagerFactory);
+
+        Fixture fixture = createFixture("QueryCount Salon", new BigDecimal("25.00"));
+        User customer = fixture.customer();
+        Provider provider = fixture.provider();
+        Service service = fixture.service();
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.builder()
+                    .customer(customer).provider(provider).service(service)
+                    .totalPrice(service.getPrice())
+                    .status(i % 2 == 0 ? Order.OrderStatus.PENDING : Order.OrderStatus.PAID)
+                    .build());
+        }
+        orderRepository.saveAll(orders);
+
+        providerId = provider.getId();
+        customerId = customer.getId();
+    }
+
+    @Test
+    @DisplayName("provider listing walks every page with one statement per page")
+    void providerPages_oneStatementPerPage() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            String current = cursor;
+            QueryCounter.Counted<OrderPageResponse> page = queryCounter.count(() ->
+                    orderService.getOrderPageByProvider(providerId, null, null, null, current, PAGE_SIZE));
+
+            assertEquals(1, page.statements());
+            page.result().getItems().forEach(o -> assertTrue(seen.add(o.getId()), "duplicate order across pages"));
+            assertEquals(page.result().isHasMore(), page.result().getNextCursor() != null);
+            cursor = page.result().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(ORDER_COUNT, seen.size());
+        assertEquals((ORDER_COUNT + PAGE_SIZE - 1) / PAGE_SIZE, pages);
+    }
+
+    @Test
+    @DisplayName("status-filtered provider page issues a single statement")
+    void providerStatusPage_singleStatement() {
+        QueryCounter.Counted<OrderPageResponse> page = queryCounter.count(() ->
+                orderService.getOrderPageByProvider(providerId, "PAID", null, null, null, PAGE_SIZE));
+
+        List<OrderResponse> items = page.result().getItems();
+        assertEquals(1, page.statements());
+        assertEquals(PAGE_SIZE, items.size());
+        assertTrue(page.result().isHasMore());
+        assertTrue(items.stream().allMatch(o -> "PAID".equals(o.getStatus())));
+        assertTrue(items.stream().allMatch(o -> providerId.equals(o.getProviderId())));
+    }
+
+    @Test
+    @DisplayName("date window excludes orders outside [from, to)")
+    void providerPage_dateWindow() {
+        Instant future = Instant.now().plus(1, ChronoUnit.DAYS);
+
+        OrderPageResponse none = orderService.getOrderPageByProvider(
+                providerId, null, future, null, null, PAGE_SIZE);
+        OrderPageResponse all = orderService.getOrderPageByProvider(
+                providerId, null, Instant.EPOCH, future, null, ORDER_COUNT);
+
+        assertTrue(none.getItems().isEmpty());
+        assertFalse(none.isHasMore());
+        assertEquals(ORDER_COUNT, all.getItems().size());
+        assertFalse(all.isHasMore());
+    }
+
+    @Test
+    @DisplayName("streaming listing visits every order once in newest-first order")
+    void providerStream_visitsEveryOrder() {
+        List<OrderResponse> streamed = new ArrayList<>();
+        orderService.streamOrdersByProvider(providerId, null, null, null, streamed::add);
+
+        assertEquals(ORDER_COUNT, streamed.size());
+        for (int i = 1; i < streamed.size(); i++) {
+            assertFalse(streamed.get(i).getCreatedAt().isAfter(streamed.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    @DisplayName("customer listing walks every page with one statement per page, newest first")
+    void customerPages_oneStatementPerPage() {
+        List<OrderResponse> seen = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            String current = cursor;
+            QueryCounter.Counted<OrderPageResponse> page = queryCounter.count(() ->
+                    orderService.getOrderPageByCustomerUserId(customerId, current, PAGE_SIZE));
+
+            assertEquals(1, page.statements());
+            assertTrue(page.result().getItems().size() <= PAGE_SIZE);
+            seen.addAll(page.result().getItems());
+            cursor = page.result().getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(ORDER_COUNT, seen.stream().map(OrderResponse::getId).distinct().count());
+        assertTrue(seen.stream().allMatch(o -> o.getServiceId() != null && o.getTimeSlotId() == null));
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+    }
+}
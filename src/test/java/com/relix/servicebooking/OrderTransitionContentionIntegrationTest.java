@@ -0,0 +1,199 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.audit.service.AuditService;
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.order.dto.OrderCreateRequest;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.order.service.OrderOutbox;
+import com.relix.servicebooking.order.service.OrderService;
+import com.relix.servicebooking.order.validator.OrderStateValidator;
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import com.relix.servicebooking.payment.dto.PaymentRequest;
+import com.relix.servicebooking.payment.repository.PaymentRepository;
+import com.relix.servicebooking.payment.service.PaymentService;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.refund.repository.RefundRepository;
+import com.relix.servicebooking.refund.service.RefundService;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark: providers accepting and customers cancelling the same paid orders at once.
+ * Compares the legacy SELECT ... FOR UPDATE path with the conditional UPDATE transitions and
+ * asserts both leave every order cancelled exactly once, with at most one accept before it.
+ */
+class OrderTransitionContentionIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderTransitionContentionIntegrationTest.class);
+
+    private static final int ORDERS = 20;
+    private static final int THREADS = 8;
+
+    @Autowired private OrderService orderService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private RefundService refundService;
+    @Autowired private AuditService auditService;
+    @Autowired private OrderOutbox orderOutbox;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private RefundRepository refundRepository;
+    @Autowired private OutboxEventRepository outboxEventRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Provider provider;
+
+    private List<Long> paidOrders() {
+        Fixture fixture = createFixture("Race Salon", new BigDecimal("45.00"));
+        User customer = fixture.customer();
+        provider = fixture.provider();
+        Service service = fixture.service();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Long orderId = orderService.createOrder(OrderCreateRequest.builder()
+                    .customerId(customer.getId()).serviceId(service.getId()).build()).order().getId();
+            paymentService.payOrder(orderId, PaymentRequest.builder().requestId(UUID.randomUUID().toString()).build());
+            ids.add(orderId);
+        }
+        return ids;
+    }
+
+    /**
+     * Half the threads accept and half cancel every order. Returns the mean time per attempt
+     * in milliseconds, which is dominated by waiting for the row lock held by the other side.
+     * Any failure other than losing the race fails the test.
+     */
+    private double race(List<Long> orderIds, LongConsumer accept, LongConsumer cancel) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder attempts = new LongAdder();
+        LongAdder totalNanos = new LongAdder();
+        AtomicLong maxNanos = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            LongConsumer transition = t % 2 == 0 ? accept : cancel;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (Long orderId : orderIds) {
+                    long begin = System.nanoTime();
+                    try {
+                        transition.accept(orderId);
+                    } catch (BusinessException | ConflictException e) {
+                        // Lost the race: the order had already moved past the transition
+                    }
+                    long elapsed = System.nanoTime() - begin;
+                    attempts.increment();
+                    totalNanos.add(elapsed);
+                    maxNanos.accumulateAndGet(elapsed, Math::max);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        long attempted = attempts.sum();
+        assertEquals(ORDERS * THREADS, attempted);
+        double meanMs = totalNanos.sum() / 1_000_000.0 / attempted;
+        log.info("  {} attempts in {}s, mean={}ms, max={}ms", attempted, String.format("%.2f", seconds),
+                String.format("%.2f", meanMs), String.format("%.2f", maxNanos.get() / 1_000_000.0));
+        assertConsistent(orderIds);
+        return meanMs;
+    }
+
+    private void assertConsistent(List<Long> orderIds) {
+        for (Long orderId : orderIds) {
+            List<String> events = outboxEventRepository.findByAggregateTypeAndAggregateIdOrderByIdAsc("ORDER", orderId)
+                    .stream().map(OutboxEvent::getEventType).toList();
+            List<String> transitions = events.subList(2, events.size());
+
+            assertEquals(Order.OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+            assertTrue(transitions.equals(List.of("ORDER_CANCELLED"))
+                    || transitions.equals(List.of("ORDER_ACCEPTED", "ORDER_CANCELLED")),
+                    "order " + orderId + ": " + events);
+            assertEquals(1, refundRepository.findByOrderId(orderId).size());
+        }
+    }
+
+    private void acceptWithRowLock(long orderId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderRepository.findByIdWithLock(orderId).orElseThrow();
+            OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.CONFIRMED, "accept");
+            order.setStatus(Order.OrderStatus.CONFIRMED);
+            order.setAcceptedAt(Instant.now());
+            orderRepository.save(order);
+            auditService.log("ORDER", orderId, "ORDER_ACCEPTED", "PROVIDER", provider.getId(), null);
+            orderOutbox.record("ORDER_ACCEPTED", order, null);
+        });
+    }
+
+    private void cancelWithRowLock(long orderId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderRepository.findByIdWithLock(orderId).orElseThrow();
+            if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                return;
+            }
+            boolean wasPaid = paymentRepository.findByOrder_Id(orderId).isPresent();
+            OrderStateValidator.validateForOperation(order.getStatus(), Order.OrderStatus.CANCELLED, "cancel");
+            order.setStatus(Order.OrderStatus.CANCELLED);
+            order.setCancelledAt(Instant.now());
+            order.setCancellationReason("race");
+            orderRepository.save(order);
+            if (wasPaid) {
+                refundService.createRefund(order, "race");
+            }
+            auditService.log("ORDER", orderId, "ORDER_CANCELLED", "CUSTOMER", order.getCustomer().getId(), null);
+            orderOutbox.record("ORDER_CANCELLED", order, null);
+        });
+    }
+
+    @Test
+    @DisplayName("row-lock and conditional-update transitions each cancel every order exactly once under contention")
+    void contention_lockVsConditionalUpdate() throws Exception {
+        log.info("Row-lock transitions ({} orders x {} threads):", ORDERS, THREADS);
+        double lockMean = race(paidOrders(), this::acceptWithRowLock, this::cancelWithRowLock);
+
+        log.info("Conditional-update transitions ({} orders x {} threads):", ORDERS, THREADS);
+        List<Long> orderIds = paidOrders();
+        Long providerId = provider.getId();
+        double casMean = race(orderIds,
+                orderId -> orderService.acceptOrder(orderId, providerId),
+                orderId -> orderService.cancelOrder(orderId, "race"));
+
+        log.info("Accept/cancel race: row-lock mean={}ms, conditional-update mean={}ms",
+                String.format("%.2f", lockMean), String.format("%.2f", casMean));
+    }
+}
@@ -0,0 +1,107 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.dto.OrderCreateRequest;
+import com.relix.servicebooking.order.service.OrderService;
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import com.relix.servicebooking.outbox.service.OutboxRelay;
+import com.relix.servicebooking.payment.dto.PaymentRequest;
+import com.relix.servicebooking.payment.service.PaymentService;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private OrderService orderService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private OutboxRelay outboxRelay;
+    @Autowired private OutboxEventRepository outboxEventRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private User customer;
+    private Provider provider;
+    private Service service;
+
+    private void seed() {
+        Fixture fixture = createFixture("Outbox Salon", new BigDecimal("45.00"));
+        customer = fixture.customer();
+        provider = fixture.provider();
+        service = fixture.service();
+    }
+
+    private Long createOrder() {
+        return orderService.createOrder(OrderCreateRequest.builder()
+                .customerId(customer.getId()).serviceId(service.getId()).build()).order().getId();
+    }
+
+    private List<OutboxEvent> eventsFor(Long orderId) {
+        return outboxEventRepository.findByAggregateTypeAndAggregateIdOrderByIdAsc("ORDER", orderId);
+    }
+
+    /**
+     * The scheduled relay may be draining the same rows; poll until they are all stamped.
+     */
+    private void awaitPublished(Long orderId) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            outboxRelay.relayPending();
+            if (eventsFor(orderId).stream().allMatch(event -> event.getPublishedAt() != null)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Outbox events for order " + orderId + " were not published");
+    }
+
+    @Test
+    @DisplayName("every lifecycle transition appends one event, in order, and the relay publishes them")
+    void lifecycle_appendsOrderedEvents() throws InterruptedException {
+        seed();
+        Long orderId = createOrder();
+        paymentService.payOrder(orderId, PaymentRequest.builder().requestId(UUID.randomUUID().toString()).build());
+        orderService.acceptOrder(orderId, provider.getId());
+        orderService.startOrder(orderId, provider.getId());
+        orderService.completeOrder(orderId, provider.getId());
+
+        List<OutboxEvent> events = eventsFor(orderId);
+        assertEquals(List.of("ORDER_CREATED", "ORDER_PAID", "ORDER_ACCEPTED", "ORDER_STARTED", "ORDER_COMPLETED"),
+                events.stream().map(OutboxEvent::getEventType).toList());
+
+        String status = jdbcTemplate.queryForObject(
+                "SELECT payload->>'status' FROM outbox WHERE id = ?", String.class, events.get(4).getId());
+        Long providerId = jdbcTemplate.queryForObject(
+                "SELECT CAST(payload->>'providerId' AS bigint) FROM outbox WHERE id = ?", Long.class, events.get(0).getId());
+        assertEquals("COMPLETED", status);
+        assertEquals(provider.getId(), providerId);
+
+        awaitPublished(orderId);
+        assertTrue(eventsFor(orderId).stream().allMatch(event -> event.getAttempts() == 0));
+    }
+
+    @Test
+    @DisplayName("a rejected transition leaves no event behind")
+    void invalidTransition_appendsNothing() {
+        seed();
+        Long orderId = createOrder();
+
+        assertThrows(RuntimeException.class, () -> orderService.startOrder(orderId, provider.getId()));
+        orderService.cancelOrder(orderId, "changed plans");
+
+        List<OutboxEvent> events = eventsFor(orderId);
+        assertEquals(List.of("ORDER_CREATED", "ORDER_CANCELLED"),
+                events.stream().map(OutboxEvent::getEventType).toList());
+        String refunded = jdbcTemplate.queryForObject(
+                "SELECT payload->>'refunded' FROM outbox WHERE id = ?", String.class, events.get(1).getId());
+        assertEquals("false", refunded);
+    }
+}
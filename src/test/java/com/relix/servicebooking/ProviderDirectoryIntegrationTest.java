@@ -0,0 +1,111 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.provider.dto.ProviderPageResponse;
+import com.relix.servicebooking.provider.dto.ProviderResponse;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.provider.service.ProviderService;
+import com.relix.servicebooking.provider.service.ProviderTopRatedCache;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderDirectoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ProviderService providerService;
+    @Autowired private ProviderTopRatedCache providerTopRatedCache;
+    @Autowired private ProviderRepository providerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long provider(String rating, boolean verified) {
+        User user = userRepository.save(User.builder()
+                .email("directory-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Directory")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+        Long id = providerRepository.save(Provider.builder().user(user).businessName("Directory Provider")
+                .verified(verified).build()).getId();
+        // Rating totals are not written through JPA
+        jdbcTemplate.update("UPDATE providers SET rating = ? WHERE id = ?", new BigDecimal(rating), id);
+        providerTopRatedCache.onProviderChanged(new ProviderChangedEvent(id));
+        return id;
+    }
+
+    private List<ProviderResponse> walk(Boolean verified, int limit) {
+        List<ProviderResponse> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProviderPageResponse page = providerService.getProviderDirectory(verified, cursor, limit);
+            assertTrue(page.getItems().size() <= limit);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasMore(), cursor != null);
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    @DisplayName("walking every page visits each provider once, highest rating then highest id first")
+    void directory_walksAllPagesInOrder() {
+        List<Long> seeded = List.of(provider("4.20", true), provider("4.20", false),
+                provider("3.10", true), provider("4.20", true), provider("1.00", false));
+
+        List<ProviderResponse> all = walk(null, 2);
+
+        assertEquals(providerRepository.count(), all.size());
+        Set<Long> ids = new HashSet<>();
+        all.forEach(p -> assertTrue(ids.add(p.getId())));
+        assertTrue(ids.containsAll(seeded));
+        assertEquals(all.stream().sorted(Comparator.comparing(ProviderResponse::getRating)
+                .thenComparing(ProviderResponse::getId).reversed()).toList(), all);
+
+        List<ProviderResponse> verified = walk(true, 3);
+        assertTrue(verified.stream().allMatch(ProviderResponse::getVerified));
+        assertTrue(verified.stream().map(ProviderResponse::getId).toList()
+                .containsAll(List.of(seeded.get(0), seeded.get(2), seeded.get(3))));
+    }
+
+    @Test
+    @DisplayName("a verified keyset page is an index scan of idx_providers_verified_rating without a sort")
+    void directory_usesRatingIndex() {
+        for (int i = 0; i < 20; i++) {
+            provider(i % 5 + ".00", i % 2 == 0);
+        }
+        String sql = "EXPLAIN SELECT id FROM providers WHERE verified = true "
+                + "AND (rating < 4.00 OR (rating = 4.00 AND id < 1000000)) ORDER BY rating DESC, id DESC LIMIT 21";
+
+        String plan = jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("ANALYZE providers");
+            statement.execute("SET enable_seqscan = off");
+            statement.execute("SET enable_bitmapscan = off");
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                StringBuilder lines = new StringBuilder();
+                while (rs.next()) {
+                    lines.append(rs.getString(1)).append('\n');
+                }
+                return lines.toString();
+            } finally {
+                statement.execute("RESET enable_seqscan");
+                statement.execute("RESET enable_bitmapscan");
+            }
+        });
+
+        assertTrue(plan.contains("idx_providers_verified_rating"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+}
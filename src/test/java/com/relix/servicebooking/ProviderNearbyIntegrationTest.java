@@ -0,0 +1,67 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.provider.dto.NearbyProviderResponse;
+import com.relix.servicebooking.provider.dto.ProviderProfileUpsertRequest;
+import com.relix.servicebooking.provider.service.ProviderService;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderNearbyIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ProviderService providerService;
+    @Autowired private UserRepository userRepository;
+
+    private User user() {
+        return userRepository.save(User.builder()
+                .email("nearby-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Nearby")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+    }
+
+    private Long upsert(String name, String latitude, String longitude) {
+        return upsert(user(), name, latitude, longitude);
+    }
+
+    private Long upsert(User user, String name, String latitude, String longitude) {
+        ProviderProfileUpsertRequest request = ProviderProfileUpsertRequest.builder().businessName(name)
+                .latitude(latitude != null ? new BigDecimal(latitude) : null)
+                .longitude(longitude != null ? new BigDecimal(longitude) : null)
+                .build();
+        return providerService.upsertProviderProfile(user, request).getId();
+    }
+
+    private List<Long> nearbyIds(double latitude, double longitude, double radiusKm) {
+        return providerService.getNearbyProviders(latitude, longitude, radiusKm, 10).stream()
+                .map(nearby -> nearby.getProvider().getId()).toList();
+    }
+
+    @Test
+    @DisplayName("profile upserts are searchable by distance as soon as they commit, and moves are tracked")
+    void nearby_followsProfileUpserts() {
+        Long close = upsert("Close", "-45.87000000", "170.50000000");
+        Long further = upsert("Further", "-45.90000000", "170.55000000");
+        upsert("Far", "-43.53000000", "172.63000000");
+        upsert("Nowhere", null, null);
+
+        List<NearbyProviderResponse> nearby = providerService.getNearbyProviders(-45.8700, 170.5010, 10.0, 10);
+        assertEquals(List.of(close, further), nearby.stream().map(n -> n.getProvider().getId()).toList());
+        assertTrue(nearby.get(0).getDistanceKm() < nearby.get(1).getDistanceKm());
+        assertEquals(new BigDecimal("-45.87000000"), nearby.get(0).getProvider().getLatitude());
+
+        User owner = user();
+        Long moving = upsert(owner, "Moving", "-45.88000000", "170.52000000");
+        assertTrue(nearbyIds(-45.8700, 170.5010, 10.0).contains(moving));
+
+        upsert(owner, "Moving", "-43.53100000", "172.63100000");
+        assertFalse(nearbyIds(-45.8700, 170.5010, 10.0).contains(moving));
+        assertTrue(nearbyIds(-43.5300, 172.6300, 1.0).contains(moving));
+    }
+}
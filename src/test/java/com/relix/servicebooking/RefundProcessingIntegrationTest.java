@@ -0,0 +1,134 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.dto.OrderCreateRequest;
+import com.relix.servicebooking.order.service.OrderService;
+import com.relix.servicebooking.payment.dto.PaymentRequest;
+import com.relix.servicebooking.payment.service.PaymentService;
+import com.relix.servicebooking.refund.dto.RefundResponse;
+import com.relix.servicebooking.refund.entity.Refund;
+import com.relix.servicebooking.refund.repository.RefundRepository;
+import com.relix.servicebooking.refund.service.RefundQueue;
+import com.relix.servicebooking.refund.service.RefundQueue.ClaimedRefund;
+import com.relix.servicebooking.refund.service.RefundService;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefundProcessingIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private OrderService orderService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private RefundService refundService;
+    @Autowired private RefundQueue refundQueue;
+    @Autowired private RefundRepository refundRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long paidOrder() {
+        Fixture fixture = createFixture("Refund Salon", new BigDecimal("45.00"));
+        User customer = fixture.customer();
+        Service service = fixture.service();
+
+        Long orderId = orderService.createOrder(OrderCreateRequest.builder()
+                .customerId(customer.getId()).serviceId(service.getId()).build()).order().getId();
+        paymentService.payOrder(orderId, PaymentRequest.builder().requestId(UUID.randomUUID().toString()).build());
+        return orderId;
+    }
+
+    private String paymentStatus(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM payments WHERE order_id = ?", String.class, orderId);
+    }
+
+    /**
+     * Workers pick the refund up after commit; poll until it leaves the queue.
+     */
+    private Refund awaitCompleted(Long refundId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Refund refund = refundRepository.findById(refundId).orElseThrow();
+            if (refund.getStatus() == Refund.RefundStatus.COMPLETED) {
+                return refund;
+            }
+            Thread.sleep(100);
+        }
+        fail("Refund " + refundId + " was not processed");
+        return null;
+    }
+
+    @Test
+    @DisplayName("cancelling a paid order queues a refund that the workers complete")
+    void cancelPaidOrder_refundCompletedAsynchronously() throws InterruptedException {
+        Long orderId = paidOrder();
+
+        orderService.cancelOrder(orderId, "changed plans");
+
+        Refund queued = refundRepository.findByOrderId(orderId).get(0);
+        Refund refund = awaitCompleted(queued.getId());
+        assertEquals(1, refund.getAttempts());
+        assertEquals("local-refund-" + refund.getId(), refund.getGatewayReference());
+        assertNotNull(refund.getRefundedAt());
+        assertNull(refund.getClaimedAt());
+        assertEquals("REFUNDED", paymentStatus(orderId));
+    }
+
+    @Test
+    @DisplayName("a failed refund is listed as dead-lettered and can be retried")
+    void failedRefund_retried() throws InterruptedException {
+        Long orderId = paidOrder();
+        Long refundId = jdbcTemplate.queryForObject("""
+                INSERT INTO refunds (order_id, payment_id, amount, reason, status, attempts, last_error)
+                SELECT o.id, p.id, p.amount, 'gateway down', 'FAILED', 6, 'gateway timeout'
+                FROM orders o JOIN payments p ON p.order_id = o.id
+                WHERE o.id = ?
+                RETURNING id
+                """, Long.class, orderId);
+
+        assertTrue(refundService.getFailedRefunds().stream()
+                .anyMatch(failed -> failed.getId().equals(refundId) && "gateway timeout".equals(failed.getLastError())));
+
+        RefundResponse requeued = refundService.retryRefund(refundId);
+        assertEquals("PENDING", requeued.getStatus());
+        assertEquals(0, requeued.getAttempts());
+
+        Refund refund = awaitCompleted(refundId);
+        assertEquals(1, refund.getAttempts());
+        assertNull(refund.getLastError());
+        assertEquals("REFUNDED", paymentStatus(orderId));
+        assertTrue(refundService.getFailedRefunds().stream().noneMatch(failed -> failed.getId().equals(refundId)));
+    }
+
+    @Test
+    @DisplayName("a worker whose lease was reclaimed cannot record an outcome over the new claim")
+    void staleLease_outcomeIgnored() {
+        Long orderId = paidOrder();
+        Long refundId = jdbcTemplate.queryForObject("""
+                INSERT INTO refunds (order_id, payment_id, amount, reason, status, attempts, claimed_at)
+                SELECT o.id, p.id, p.amount, 'reclaimed', 'PROCESSING', 2, CURRENT_TIMESTAMP
+                FROM orders o JOIN payments p ON p.order_id = o.id
+                WHERE o.id = ?
+                RETURNING id
+                """, Long.class, orderId);
+        Instant currentLease = jdbcTemplate.queryForObject(
+                "SELECT claimed_at FROM refunds WHERE id = ?", Timestamp.class, refundId).toInstant();
+        Long paymentId = jdbcTemplate.queryForObject(
+                "SELECT payment_id FROM refunds WHERE id = ?", Long.class, refundId);
+
+        ClaimedRefund stale = new ClaimedRefund(refundId, paymentId, new BigDecimal("45.00"), 1,
+                currentLease.minusSeconds(600));
+        assertFalse(refundQueue.retry(stale, "timeout", Instant.now()));
+        assertFalse(refundQueue.fail(stale, "declined"));
+        assertEquals(Refund.RefundStatus.PROCESSING, refundRepository.findById(refundId).orElseThrow().getStatus());
+
+        ClaimedRefund current = new ClaimedRefund(refundId, paymentId, new BigDecimal("45.00"), 2, currentLease);
+        assertTrue(refundQueue.complete(current, "ref-1", Instant.now()));
+        assertEquals(Refund.RefundStatus.COMPLETED, refundRepository.findById(refundId).orElseThrow().getStatus());
+    }
+}
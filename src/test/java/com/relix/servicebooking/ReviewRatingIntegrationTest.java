@@ -0,0 +1,129 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.dto.ProviderResponse;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.service.ProviderService;
+import com.relix.servicebooking.review.dto.ReviewCreateRequest;
+import com.relix.servicebooking.review.service.RatingReconciliationService;
+import com.relix.servicebooking.review.service.ReviewService;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "booking.rating-reconciliation.chunk-size=3")
+class ReviewRatingIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ReviewService reviewService;
+    @Autowired private RatingReconciliationService ratingReconciliationService;
+    @Autowired private ProviderService providerService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private User customer;
+    private Provider provider;
+    private Service service;
+
+    private void seed() {
+        Fixture fixture = createFixture("Review Salon", new BigDecimal("40.00"));
+        customer = fixture.customer();
+        provider = fixture.provider();
+        service = fixture.service();
+    }
+
+    private List<Long> completedOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(Order.builder().customer(customer).provider(provider).service(service)
+                    .totalPrice(service.getPrice()).status(Order.OrderStatus.COMPLETED).build());
+        }
+        return orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+    }
+
+    private void review(Long orderId, int rating) {
+        reviewService.createReview(customer.getId(),
+                ReviewCreateRequest.builder().orderId(orderId).rating(rating).build());
+    }
+
+    @Test
+    @DisplayName("concurrent reviews keep an exact running average without recomputing over the reviews")
+    void concurrentReviews_keepExactTotals() throws Exception {
+        seed();
+        List<Long> orderIds = completedOrders(12);
+        int[] ratings = {5, 4, 4, 3, 5, 5, 2, 4, 5, 3, 4, 1};
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < orderIds.size(); i++) {
+                Long orderId = orderIds.get(i);
+                int rating = ratings[i];
+                futures.add(pool.submit(() -> review(orderId, rating)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        ProviderResponse response = providerService.getProviderById(provider.getId());
+        assertEquals(12, response.getReviewCount());
+        assertEquals(new BigDecimal("3.75"), response.getRating());
+        assertEquals(45L, providerRepository.findById(provider.getId()).orElseThrow().getRatingSum());
+    }
+
+    @Test
+    @DisplayName("reconciliation walks every chunk and repairs drifted totals from the reviews table")
+    void reconciliation_repairsDrift() {
+        seed();
+        List<Long> orderIds = completedOrders(3);
+        review(orderIds.get(0), 5);
+        review(orderIds.get(1), 2);
+        review(orderIds.get(2), 4);
+
+        jdbcTemplate.update("UPDATE providers SET review_count = 9, rating_sum = 9, rating = 1.00 WHERE id = ?",
+                provider.getId());
+
+        RatingReconciliationService.ReconciliationResult result = ratingReconciliationService.reconcileAll();
+
+        assertEquals(providerRepository.count(), result.scanned());
+        assertTrue(result.corrected() >= 1);
+        ProviderResponse response = providerService.getProviderById(provider.getId());
+        assertEquals(3, response.getReviewCount());
+        assertEquals(new BigDecimal("3.67"), response.getRating());
+
+        assertEquals(0, ratingReconciliationService.reconcileAll().corrected());
+    }
+
+    @Test
+    @DisplayName("saving a provider loaded before a review does not write back its stale totals")
+    void staleProviderSave_keepsReviewTotals() {
+        seed();
+        List<Long> orderIds = completedOrders(1);
+        Provider stale = providerRepository.findById(provider.getId()).orElseThrow();
+
+        review(orderIds.get(0), 4);
+        stale.setBusinessName("Renamed Salon");
+        providerRepository.save(stale);
+
+        ProviderResponse response = providerService.getProviderById(provider.getId());
+        assertEquals("Renamed Salon", response.getBusinessName());
+        assertEquals(1, response.getReviewCount());
+        assertEquals(new BigDecimal("4.00"), response.getRating());
+    }
+}
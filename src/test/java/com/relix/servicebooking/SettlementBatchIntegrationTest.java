@@ -0,0 +1,108 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.settlement.dto.BatchResponse;
+import com.relix.servicebooking.settlement.entity.Settlement;
+import com.relix.servicebooking.settlement.entity.SettlementBatch;
+import com.relix.servicebooking.settlement.repository.SettlementBatchRepository;
+import com.relix.servicebooking.settlement.repository.SettlementRepository;
+import com.relix.servicebooking.settlement.service.SettlementBatchService;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {"booking.settlement.chunk-size=40", "booking.settlement.workers=3"})
+class SettlementBatchIntegrationTest extends BaseIntegrationTest {
+
+    private static final int SETTLEMENTS = 230;
+    private static final int SETTLED_BEFORE_CRASH = 70;
+
+    @Autowired private SettlementBatchService settlementBatchService;
+    @Autowired private SettlementRepository settlementRepository;
+    @Autowired private SettlementBatchRepository settlementBatchRepository;
+    @Autowired private OrderRepository orderRepository;
+
+    private List<Settlement> seedSettlements() {
+        Fixture fixture = createFixture("Batch Salon", new BigDecimal("100.00"));
+        User customer = fixture.customer();
+        Provider provider = fixture.provider();
+        Service service = fixture.service();
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < SETTLEMENTS; i++) {
+            orders.add(Order.builder()
+                    .customer(customer).provider(provider).service(service)
+                    .totalPrice(service.getPrice())
+                    .status(Order.OrderStatus.COMPLETED)
+                    .build());
+        }
+        orders = orderRepository.saveAll(orders);
+
+        List<Settlement> settlements = new ArrayList<>();
+        for (Order order : orders) {
+            settlements.add(Settlement.builder()
+                    .order(order)
+                    .providerId(provider.getId())
+                    .totalPrice(order.getTotalPrice())
+                    .platformFee(new BigDecimal("10.00"))
+                    .providerPayout(new BigDecimal("90.00"))
+                    .build());
+        }
+        return settlementRepository.saveAll(settlements);
+    }
+
+    @Test
+    @DisplayName("interrupted batch resumes from its checkpoint and settles every row exactly once")
+    void interruptedBatch_resumesFromCheckpoint() {
+        String batchId = "BATCH-" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        settlementBatchRepository.findByBatchId(batchId).ifPresent(settlementBatchRepository::delete);
+
+        List<Settlement> settlements = seedSettlements();
+
+        // Simulate a run that committed a few chunks and then died
+        int otherPending = (int) settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING) - SETTLEMENTS;
+        for (Settlement settlement : settlements.subList(0, SETTLED_BEFORE_CRASH)) {
+            settlement.setStatus(Settlement.SettlementStatus.COMPLETED);
+            settlement.setBatchId(batchId);
+            settlement.setProcessedAt(Instant.now());
+        }
+        settlementRepository.saveAll(settlements.subList(0, SETTLED_BEFORE_CRASH));
+        settlementBatchRepository.save(SettlementBatch.builder()
+                .batchId(batchId)
+                .status(SettlementBatch.BatchStatus.PROCESSING)
+                .successCount(SETTLED_BEFORE_CRASH)
+                .totalAmount(new BigDecimal("90.00").multiply(BigDecimal.valueOf(SETTLED_BEFORE_CRASH)))
+                .startedAt(Instant.now())
+                .build());
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(SETTLEMENTS + otherPending, response.getSuccessCount());
+        assertEquals(0, response.getFailedCount());
+        assertEquals(0, settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING));
+
+        List<Long> ids = settlements.stream().map(Settlement::getId).toList();
+        List<Settlement> reloaded = settlementRepository.findAllById(ids);
+        assertTrue(reloaded.stream().allMatch(s -> s.getStatus() == Settlement.SettlementStatus.COMPLETED));
+        assertTrue(reloaded.stream().allMatch(s -> batchId.equals(s.getBatchId()) && s.getProcessedAt() != null));
+
+        SettlementBatch stored = settlementBatchRepository.findByBatchId(batchId).orElseThrow();
+        assertEquals(response.getSuccessCount(), stored.getSuccessCount());
+        assertEquals(0, response.getTotalAmount().compareTo(stored.getTotalAmount()));
+    }
+}
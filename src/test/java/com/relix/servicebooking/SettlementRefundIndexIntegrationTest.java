@@ -0,0 +1,171 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.refund.entity.Refund;
+import com.relix.servicebooking.refund.repository.RefundRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.settlement.entity.Settlement;
+import com.relix.servicebooking.settlement.repository.SettlementRepository;
+import com.relix.servicebooking.user.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.SelectionQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementRefundIndexIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private SettlementRepository settlementRepository;
+    @Autowired private RefundRepository refundRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User customer;
+    private Provider provider;
+
+    /**
+     * Inserts settlements and refunds the way pre-V19 code did, without the denormalized columns.
+     */
+    private void seed(int count) {
+        Fixture fixture = createFixture("Index Salon", new BigDecimal("40.00"));
+        customer = fixture.customer();
+        provider = fixture.provider();
+        Service service = fixture.service();
+
+        for (int i = 0; i < count; i++) {
+            Order order = orderRepository.save(Order.builder().customer(customer).provider(provider).service(service)
+                    .totalPrice(service.getPrice()).status(Order.OrderStatus.COMPLETED).build());
+            jdbcTemplate.update("INSERT INTO settlements (order_id, total_price, platform_fee, provider_payout, status) "
+                    + "VALUES (?, 40.00, 4.00, 36.00, ?)", order.getId(), i % 2 == 0 ? "PENDING" : "COMPLETED");
+            Long paymentId = jdbcTemplate.queryForObject("INSERT INTO payments (order_id, request_id, amount) "
+                    + "VALUES (?, ?, 40.00) RETURNING id", Long.class, order.getId(), UUID.randomUUID().toString());
+            jdbcTemplate.update("INSERT INTO refunds (order_id, payment_id, amount, reason) VALUES (?, ?, 40.00, 'test')",
+                    order.getId(), paymentId);
+        }
+    }
+
+    /**
+     * Another provider and customer with a long, mostly settled history, so the planner sees realistic
+     * row counts and selectivity instead of a handful of rows that any plan would serve.
+     */
+    private void seedBusyHistory(int count) {
+        Fixture fixture = createFixture("Busy Salon", new BigDecimal("40.00"));
+        User busyCustomer = fixture.customer();
+        Provider busy = fixture.provider();
+        Service service = fixture.service();
+
+        jdbcTemplate.update("WITH o AS (INSERT INTO orders (customer_id, provider_id, service_id, total_price, status) "
+                        + "SELECT ?, ?, ?, 40.00, 'COMPLETED' FROM generate_series(1, ?) RETURNING id), "
+                        + "s AS (INSERT INTO settlements (order_id, provider_id, total_price, platform_fee, provider_payout, status) "
+                        + "SELECT id, ?, 40.00, 4.00, 36.00, CASE WHEN id % 10 = 0 THEN 'PENDING' ELSE 'COMPLETED' END FROM o), "
+                        + "p AS (INSERT INTO payments (order_id, request_id, amount) "
+                        + "SELECT id, 'ix-busy-' || id, 40.00 FROM o RETURNING id, order_id) "
+                        + "INSERT INTO refunds (order_id, payment_id, customer_id, amount, reason, status) "
+                        + "SELECT order_id, id, ?, 40.00, 'test', 'COMPLETED' FROM p",
+                busyCustomer.getId(), busy.getId(), service.getId(), count, busy.getId(), busyCustomer.getId());
+        jdbcTemplate.execute("VACUUM ANALYZE settlements");
+        jdbcTemplate.execute("VACUUM ANALYZE refunds");
+    }
+
+    private static String jpql(Class<?> repository, String method) {
+        return Arrays.stream(repository.getMethods())
+                .filter(m -> m.getName().equals(method))
+                .findFirst().orElseThrow()
+                .getAnnotation(Query.class).value();
+    }
+
+    /**
+     * Runs a repository method's JPQL in its own session and returns the SQL Hibernate sent.
+     */
+    private String generatedSql(String jpql, Map<String, Object> parameters, Integer maxResults) {
+        List<String> statements = new ArrayList<>();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (Session session = sessionFactory.withOptions()
+                .statementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .openSession()) {
+            SelectionQuery<Object> query = session.createSelectionQuery(jpql, Object.class);
+            parameters.forEach(query::setParameter);
+            if (maxResults != null) {
+                query.setMaxResults(maxResults);
+            }
+            query.getResultList();
+        }
+        assertEquals(1, statements.size(), statements.toString());
+        return statements.get(0);
+    }
+
+    /**
+     * EXPLAIN with the statement's parameters bound in order and the default planner settings.
+     */
+    private String explain(String sql, Object... args) {
+        assertEquals(args.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    @Test
+    @DisplayName("rows inserted without the new columns get them from the order")
+    void insertTriggers_fillDenormalizedColumns() {
+        seed(4);
+
+        List<Settlement> settlements = settlementRepository.findByProviderId(provider.getId());
+        assertEquals(4, settlements.size());
+        assertEquals(2, settlementRepository.findByProviderIdAndStatus(
+                provider.getId(), Settlement.SettlementStatus.PENDING).size());
+
+        List<Refund> refunds = refundRepository.findByCustomerId(customer.getId());
+        assertEquals(4, refunds.size());
+        assertTrue(refunds.stream().allMatch(r -> customer.getId().equals(r.getCustomerId())));
+    }
+
+    @Test
+    @DisplayName("provider and customer listings use the composite indexes without joining orders")
+    void listings_useCompositeIndexes() {
+        seed(3);
+        seedBusyHistory(20_000);
+
+        String byProviderAndStatus = explain(generatedSql(
+                        jpql(SettlementRepository.class, "findByProviderIdAndStatus"),
+                        Map.of("providerId", provider.getId(), "status", Settlement.SettlementStatus.PENDING), null),
+                provider.getId(), Settlement.SettlementStatus.PENDING.name());
+        assertTrue(byProviderAndStatus.contains("idx_settlements_provider_status_created"), byProviderAndStatus);
+        assertFalse(byProviderAndStatus.contains("Sort"), byProviderAndStatus);
+
+        String byProvider = explain(generatedSql(
+                        jpql(SettlementRepository.class, "findByProviderId"),
+                        Map.of("providerId", provider.getId()), null),
+                provider.getId());
+        assertTrue(byProvider.contains("idx_settlements_provider_status_created"), byProvider);
+
+        String byCustomer = explain(generatedSql(
+                        jpql(RefundRepository.class, "findByCustomerId"),
+                        Map.of("customerId", customer.getId()), null),
+                customer.getId());
+        assertTrue(byCustomer.contains("idx_refunds_customer_created"), byCustomer);
+        assertFalse(byCustomer.contains("Sort"), byCustomer);
+
+        String pendingChunk = explain(generatedSql(
+                        jpql(SettlementRepository.class, "findPayoutChunk"),
+                        Map.of("status", Settlement.SettlementStatus.PENDING, "afterId", 0L), 40),
+                Settlement.SettlementStatus.PENDING.name(), 0L, 40);
+        assertTrue(pendingChunk.contains("idx_settlements_pending_id_provider"), pendingChunk);
+    }
+}
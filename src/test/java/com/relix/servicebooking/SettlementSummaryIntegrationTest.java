@@ -0,0 +1,100 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.settlement.dto.SettlementSummaryResponse;
+import com.relix.servicebooking.settlement.repository.ProviderBalanceRepository;
+import com.relix.servicebooking.settlement.repository.SettlementBatchRepository;
+import com.relix.servicebooking.settlement.service.SettlementBatchService;
+import com.relix.servicebooking.settlement.service.SettlementService;
+import com.relix.servicebooking.settlement.service.SettlementTotals;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementSummaryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private SettlementService settlementService;
+    @Autowired private SettlementBatchService settlementBatchService;
+    @Autowired private SettlementTotals settlementTotals;
+    @Autowired private ProviderBalanceRepository providerBalanceRepository;
+    @Autowired private SettlementBatchRepository settlementBatchRepository;
+    @Autowired private OrderRepository orderRepository;
+
+    private User customer;
+    private Provider provider;
+    private Service service;
+
+    private void seed() {
+        Fixture fixture = createFixture("Summary Salon", new BigDecimal("50.00"));
+        customer = fixture.customer();
+        provider = fixture.provider();
+        service = fixture.service();
+    }
+
+    private void settleOrder() {
+        Order order = orderRepository.save(Order.builder()
+                .customer(customer).provider(provider).service(service)
+                .totalPrice(service.getPrice()).status(Order.OrderStatus.COMPLETED).build());
+        settlementService.createSettlement(order);
+    }
+
+    private void assertOverallMatchesBalances() {
+        ProviderBalanceRepository.TotalsView expected = providerBalanceRepository.sumTotals();
+        SettlementSummaryResponse overall = settlementService.getOverallSettlementSummary();
+        assertEquals(0, expected.getPendingAmount().compareTo(overall.getPendingAmount()));
+        assertEquals(0, expected.getCompletedAmount().compareTo(overall.getCompletedAmount()));
+        assertEquals(expected.getPendingCount(), overall.getPendingCount());
+        assertEquals(expected.getCompletedCount(), overall.getCompletedCount());
+        assertEquals(expected.getFailedCount(), overall.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("provider balance and overall totals follow settlement creation and batch settlement")
+    void balances_followSettlementLifecycle() {
+        seed();
+        settlementTotals.reconcile();
+        settleOrder();
+        settleOrder();
+        settleOrder();
+
+        SettlementSummaryResponse pending = settlementService.getSettlementSummary(provider.getId());
+        assertEquals(3, pending.getPendingCount());
+        assertEquals(0, new BigDecimal("135.00").compareTo(pending.getPendingAmount()));
+        assertEquals(0, pending.getCompletedCount());
+        assertOverallMatchesBalances();
+
+        String batchId = "BATCH-" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        settlementBatchRepository.findByBatchId(batchId).ifPresent(settlementBatchRepository::delete);
+        settlementBatchService.processBatch();
+
+        SettlementSummaryResponse settled = settlementService.getSettlementSummary(provider.getId());
+        assertEquals(0, settled.getPendingCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(settled.getPendingAmount()));
+        assertEquals(3, settled.getCompletedCount());
+        assertEquals(0, new BigDecimal("135.00").compareTo(settled.getCompletedAmount()));
+        assertEquals(0, new BigDecimal("135.00").compareTo(settled.getTotalEarnings()));
+        assertEquals(3, settled.getTotalCount());
+        assertOverallMatchesBalances();
+    }
+
+    @Test
+    @DisplayName("provider without settlements gets an all-zero summary")
+    void noSettlements_zeroSummary() {
+        seed();
+
+        SettlementSummaryResponse summary = settlementService.getSettlementSummary(provider.getId());
+
+        assertEquals(0, summary.getTotalCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getTotalEarnings()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import com.relix.servicebooking.timeslot.service.SlotAvailabilityIndex;
+import com.relix.servicebooking.timeslot.service.TimeSlotService;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark: many threads race for the same batch of freshly released slots.
+ * Compares the legacy SELECT ... FOR UPDATE path with the index + conditional UPDATE path
+ * and asserts both produce exactly one booking per slot.
+ */
+class SlotBookingContentionIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotBookingContentionIntegrationTest.class);
+
+    private static final int SLOTS = 50;
+    private static final int THREADS = 16;
+
+    @Autowired private TimeSlotService timeSlotService;
+    @Autowired private TimeSlotRepository timeSlotRepository;
+    @Autowired private SlotAvailabilityIndex slotAvailabilityIndex;
+    @Autowired private ProviderRepository providerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private List<Long> releaseSlots() {
+        User user = userRepository.save(User.builder()
+                .email("bench-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Bench")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+        Provider provider = providerRepository.save(Provider.builder()
+                .user(user).businessName("Bench Provider").build());
+
+        Instant base = Instant.now().plus(1, ChronoUnit.DAYS);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            TimeSlot slot = timeSlotRepository.save(TimeSlot.builder()
+                    .provider(provider)
+                    .startTime(base.plus(i, ChronoUnit.HOURS))
+                    .endTime(base.plus(i + 1, ChronoUnit.HOURS))
+                    .status(TimeSlot.SlotStatus.AVAILABLE)
+                    .build());
+            ids.add(slot.getId());
+            slotAvailabilityIndex.markAvailable(slot.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Every thread tries every slot; returns bookings/second and asserts a single winner per slot.
+     */
+    private double race(List<Long> slotIds, LongPredicate book) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (Long slotId : slotIds) {
+                    if (book.test(slotId)) {
+                        successes.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        assertEquals(SLOTS, successes.get());
+        return (SLOTS * THREADS) / seconds;
+    }
+
+    private boolean bookWithRowLock(long slotId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            TimeSlot slot = timeSlotRepository.findByIdWithLock(slotId).orElseThrow();
+            if (slot.getStatus() != TimeSlot.SlotStatus.AVAILABLE) {
+                return false;
+            }
+            slot.setStatus(TimeSlot.SlotStatus.BOOKED);
+            timeSlotRepository.save(slot);
+            return true;
+        }));
+    }
+
+    private boolean bookWithIndex(long slotId) {
+        try {
+            timeSlotService.bookSlot(slotId);
+            return true;
+        } catch (BusinessException e) {
+            return false;
+        }
+    }
+
+    @Test
+    @DisplayName("row-lock and index paths each book every slot exactly once under contention")
+    void contention_lockVsIndex() throws InterruptedException {
+        double lockThroughput = race(releaseSlots(), this::bookWithRowLock);
+        double indexThroughput = race(releaseSlots(), this::bookWithIndex);
+
+        log.info("Slot booking contention ({} slots x {} threads): row-lock={} attempts/s, index={} attempts/s",
+                SLOTS, THREADS, String.format("%.0f", lockThroughput), String.format("%.0f", indexThroughput));
+    }
+}
@@ -0,0 +1,82 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.timeslot.dto.SlotDiscoveryResponse;
+import com.relix.servicebooking.timeslot.dto.TimeSlotCreateRequest;
+import com.relix.servicebooking.timeslot.service.TimeSlotService;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSlotDiscoveryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private TimeSlotService timeSlotService;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private ProviderRepository providerRepository;
+    @Autowired private UserRepository userRepository;
+
+    private String serviceName;
+    private Instant saturday;
+
+    @BeforeEach
+    void setUp() {
+        serviceName = "Discovery " + UUID.randomUUID();
+        saturday = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS);
+    }
+
+    private Long provider(int durationMinutes) {
+        User user = userRepository.save(User.builder()
+                .email("discovery-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Discovery")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+        Provider provider = providerRepository.save(Provider.builder().user(user).businessName("Discovery").build());
+        serviceRepository.save(Service.builder().provider(provider).name(serviceName)
+                .durationMinutes(durationMinutes).price(new BigDecimal("25.00")).build());
+        return provider.getId();
+    }
+
+    private Long slot(Long providerId, int offsetMinutes, int lengthMinutes) {
+        Instant start = saturday.plus(offsetMinutes, ChronoUnit.MINUTES);
+        return timeSlotService.createTimeSlot(TimeSlotCreateRequest.builder().providerId(providerId)
+                .startTime(start).endTime(start.plus(lengthMinutes, ChronoUnit.MINUTES)).build()).getId();
+    }
+
+    private List<Long> discover() {
+        return timeSlotService.discoverSlots(serviceName.toUpperCase(), saturday, saturday.plus(3, ChronoUnit.HOURS),
+                        null, 10)
+                .stream().map(SlotDiscoveryResponse::getSlotId).toList();
+    }
+
+    @Test
+    @DisplayName("finds the earliest long-enough slots across providers and drops booked ones")
+    void discover_acrossProviders() {
+        Long first = provider(30);
+        Long second = provider(60);
+        Long a = slot(first, 60, 30);
+        Long b = slot(second, 0, 60);
+        slot(second, 90, 30);
+        Long c = slot(first, 120, 30);
+        slot(first, 170, 30);
+
+        assertEquals(List.of(b, a, c), discover());
+
+        timeSlotService.bookSlot(a);
+        assertEquals(List.of(b, c), discover());
+
+        timeSlotService.deleteTimeSlot(c);
+        assertEquals(List.of(b), discover());
+    }
+}
@@ -0,0 +1,102 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.timeslot.dto.ScheduleException;
+import com.relix.servicebooking.timeslot.dto.ScheduleTemplateRequest;
+import com.relix.servicebooking.timeslot.dto.SlotGenerationResponse;
+import com.relix.servicebooking.timeslot.dto.WeeklyAvailabilityRule;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import com.relix.servicebooking.timeslot.service.SlotAvailabilityIndex;
+import com.relix.servicebooking.timeslot.service.TimeSlotService;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSlotGenerationIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private TimeSlotService timeSlotService;
+    @Autowired private TimeSlotRepository timeSlotRepository;
+    @Autowired private SlotAvailabilityIndex slotAvailabilityIndex;
+    @Autowired private ProviderRepository providerRepository;
+    @Autowired private UserRepository userRepository;
+
+    private Provider provider;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .email("schedule-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Schedule")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+        provider = providerRepository.save(Provider.builder().user(user).businessName("Schedule Provider").build());
+        monday = LocalDate.now(ZoneOffset.UTC).plusWeeks(1).with(DayOfWeek.MONDAY);
+    }
+
+    /**
+     * Weekdays 09:00-17:00 in 30 minute slots for 13 weeks, UTC.
+     */
+    private ScheduleTemplateRequest quarter(List<ScheduleException> exceptions) {
+        List<WeeklyAvailabilityRule> rules = Arrays.stream(DayOfWeek.values())
+                .filter(day -> day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY)
+                .map(day -> WeeklyAvailabilityRule.builder().dayOfWeek(day)
+                        .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(17, 0)).slotMinutes(30).build())
+                .toList();
+        return ScheduleTemplateRequest.builder()
+                .providerId(provider.getId())
+                .fromDate(monday).toDate(monday.plusWeeks(13).minusDays(1))
+                .rules(rules).exceptions(exceptions)
+                .build();
+    }
+
+    @Test
+    @DisplayName("materializes a quarter of weekday slots in one call")
+    void generate_quarter() {
+        SlotGenerationResponse response = timeSlotService.generateTimeSlots(quarter(
+                List.of(ScheduleException.builder().date(monday).build())));
+
+        // 13 weeks x 5 days x 16 slots, minus the excepted Monday
+        assertEquals(13 * 5 * 16 - 16, response.getCreated());
+        List<TimeSlot> slots = timeSlotRepository.findByProvider_Id(provider.getId());
+        assertEquals(response.getCreated(), slots.size());
+        assertTrue(slots.stream().allMatch(TimeSlot::isAvailable));
+
+        TimeSlot first = slots.stream().min(Comparator.comparing(TimeSlot::getStartTime)).orElseThrow();
+        assertEquals(monday.plusDays(1).atTime(9, 0).toInstant(ZoneOffset.UTC), first.getStartTime());
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, slotAvailabilityIndex.tryReserve(first.getId()));
+    }
+
+    @Test
+    @DisplayName("skips candidates that overlap existing slots and is idempotent on re-run")
+    void generate_skipsOverlaps() {
+        Instant start = monday.atTime(9, 15).toInstant(ZoneOffset.UTC);
+        timeSlotRepository.save(TimeSlot.builder().provider(provider)
+                .startTime(start).endTime(start.plusSeconds(3600)).status(TimeSlot.SlotStatus.AVAILABLE).build());
+
+        SlotGenerationResponse first = timeSlotService.generateTimeSlots(quarter(null));
+        SlotGenerationResponse rerun = timeSlotService.generateTimeSlots(quarter(null));
+
+        // 09:00, 09:30 and 10:00 all overlap 09:15-10:15
+        assertEquals(3, first.getSkippedOverlapping());
+        assertEquals(13 * 5 * 16 - 3, first.getCreated());
+        assertEquals(0, rerun.getCreated());
+        assertEquals(13 * 5 * 16, rerun.getSkippedOverlapping());
+        assertEquals(13 * 5 * 16 - 3 + 1, timeSlotRepository.findByProvider_Id(provider.getId()).size());
+    }
+}
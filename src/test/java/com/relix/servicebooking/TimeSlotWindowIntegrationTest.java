@@ -0,0 +1,98 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.timeslot.dto.TimeSlotResponse;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import com.relix.servicebooking.timeslot.service.TimeSlotService;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSlotWindowIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private TimeSlotService timeSlotService;
+    @Autowired private TimeSlotRepository timeSlotRepository;
+    @Autowired private ProviderRepository providerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Provider provider;
+    private Instant tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .email("window-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Window")
+                .role(User.UserRole.PROVIDER).status(User.UserStatus.ACTIVE).build());
+        provider = providerRepository.save(Provider.builder().user(user).businessName("Window Provider").build());
+        tomorrow = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private Long slot(Instant start, TimeSlot.SlotStatus status) {
+        return timeSlotRepository.save(TimeSlot.builder().provider(provider)
+                .startTime(start).endTime(start.plus(1, ChronoUnit.HOURS)).status(status).build()).getId();
+    }
+
+    @Test
+    @DisplayName("returns only future AVAILABLE slots starting inside the window, in start order")
+    void getAvailableSlots_window() {
+        slot(tomorrow.minus(3, ChronoUnit.DAYS), TimeSlot.SlotStatus.AVAILABLE);
+        Long second = slot(tomorrow.plus(2, ChronoUnit.HOURS), TimeSlot.SlotStatus.AVAILABLE);
+        Long first = slot(tomorrow, TimeSlot.SlotStatus.AVAILABLE);
+        slot(tomorrow.plus(1, ChronoUnit.HOURS), TimeSlot.SlotStatus.BOOKED);
+        slot(tomorrow.plus(10, ChronoUnit.DAYS), TimeSlot.SlotStatus.AVAILABLE);
+
+        List<TimeSlotResponse> slots = timeSlotService.getAvailableSlotsByProvider(
+                provider.getId(), tomorrow.minus(5, ChronoUnit.DAYS), tomorrow.plus(1, ChronoUnit.DAYS));
+
+        assertEquals(List.of(first, second), slots.stream().map(TimeSlotResponse::getId).toList());
+        assertEquals(provider.getId(), slots.get(0).getProviderId());
+        assertNotNull(slots.get(0).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("the window query is answered by an index-only scan of the covering partial index")
+    void getAvailableSlots_indexOnlyScan() {
+        for (int i = 0; i < 50; i++) {
+            slot(tomorrow.plus(i, ChronoUnit.HOURS), i % 3 == 0 ? TimeSlot.SlotStatus.BOOKED : TimeSlot.SlotStatus.AVAILABLE);
+        }
+        String sql = "EXPLAIN SELECT id, start_time, end_time, created_at FROM time_slots "
+                + "WHERE provider_id = " + provider.getId() + " AND status = 'AVAILABLE' "
+                + "AND start_time >= now() AND start_time < now() + interval '7 days' ORDER BY start_time, id";
+
+        String plan = jdbcTemplate.execute((Statement statement) -> {
+            // Keep the visibility map current and steer the planner away from plans it prefers on tiny tables
+            statement.execute("VACUUM ANALYZE time_slots");
+            statement.execute("SET enable_seqscan = off");
+            statement.execute("SET enable_bitmapscan = off");
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                StringBuilder lines = new StringBuilder();
+                while (rs.next()) {
+                    lines.append(rs.getString(1)).append('\n');
+                }
+                return lines.toString();
+            } finally {
+                statement.execute("RESET enable_seqscan");
+                statement.execute("RESET enable_bitmapscan");
+            }
+        });
+
+        assertTrue(plan.contains("Index Only Scan using idx_time_slots_availability"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+}
@@ -0,0 +1,89 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.auth.repository.RefreshTokenRepository;
+import com.relix.servicebooking.auth.service.TokenCleanupChunkDeleter;
+import com.relix.servicebooking.auth.service.TokenCleanupService;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "booking.token-cleanup.chunk-size=2",
+        "booking.token-cleanup.pause-ms=0"
+})
+class TokenCleanupIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private TokenCleanupService tokenCleanupService;
+    @Autowired private TokenCleanupChunkDeleter tokenCleanupChunkDeleter;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long seedTokens() {
+        User user = userRepository.save(User.builder()
+                .email("tc-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Token User")
+                .role(User.UserRole.CUSTOMER).status(User.UserStatus.ACTIVE).build());
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            token(user.getId(), now.minus(1 + i, ChronoUnit.HOURS), false, now.minus(8, ChronoUnit.DAYS));
+        }
+        for (int i = 0; i < 3; i++) {
+            token(user.getId(), now.plus(1, ChronoUnit.DAYS), true, now.minus(10 + i, ChronoUnit.DAYS));
+        }
+        token(user.getId(), now.plus(1, ChronoUnit.DAYS), false, now.minus(10, ChronoUnit.DAYS));
+        token(user.getId(), now.plus(1, ChronoUnit.DAYS), true, now.minus(1, ChronoUnit.DAYS));
+        return user.getId();
+    }
+
+    private void token(Long userId, Instant expiresAt, boolean revoked, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO refresh_tokens (user_id, token_hash, family_id, expires_at, revoked, created_at) "
+                        + "VALUES (?, ?, gen_random_uuid(), ?, ?, ?)",
+                userId, UUID.randomUUID().toString().replace("-", ""),
+                Timestamp.from(expiresAt), revoked, Timestamp.from(createdAt));
+    }
+
+    private int tokensOf(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Integer.class, userId);
+    }
+
+    @Test
+    @DisplayName("deletes expired and old revoked tokens in chunks and keeps live ones")
+    void cleanup_deletesInChunks() {
+        Long userId = seedTokens();
+
+        TokenCleanupService.CleanupResult result = tokenCleanupService.cleanup();
+
+        assertTrue(result.completed());
+        assertTrue(result.deleted() >= 8);
+        assertEquals(0, result.remaining());
+        assertEquals(2, tokensOf(userId));
+    }
+
+    @Test
+    @DisplayName("run that exhausts its time budget reports the backlog and the next run resumes")
+    void cleanup_resumesAfterBudget() {
+        Long userId = seedTokens();
+        TokenCleanupService budgeted = new TokenCleanupService(
+                tokenCleanupChunkDeleter, refreshTokenRepository, new SimpleMeterRegistry(), 2, 0, 0);
+
+        TokenCleanupService.CleanupResult first = budgeted.cleanup();
+        assertFalse(first.completed());
+        assertEquals(2, first.deleted());
+        assertTrue(first.remaining() >= 6);
+
+        tokenCleanupService.cleanup();
+        assertEquals(2, tokensOf(userId));
+    }
+}
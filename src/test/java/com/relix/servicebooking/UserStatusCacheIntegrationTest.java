@@ -0,0 +1,77 @@
+package com.relix.servicebooking;
+
+import com.relix.servicebooking.auth.service.CurrentUserService;
+import com.relix.servicebooking.common.exception.ForbiddenException;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.repository.UserRepository;
+import com.relix.servicebooking.user.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStatusCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private CurrentUserService currentUserService;
+    @Autowired private UserService userService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(entityManagerFactory);
+        User user = userRepository.save(User.builder()
+                .email("status-" + UUID.randomUUID() + "@test.com").passwordHash("h").name("Status")
+                .role(User.UserRole.CUSTOMER).status(User.UserStatus.ACTIVE).build());
+        userId = user.getId();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userId, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("role checks after the first one issue no statements")
+    void roleChecks_zeroStatementsWhenWarm() {
+        currentUserService.isCustomer();
+
+        QueryCounter.Counted<Boolean> warm = queryCounter.count(() -> {
+            currentUserService.verifyCustomerAccess(userId);
+            return currentUserService.isCustomer() && !currentUserService.isAdmin();
+        });
+
+        assertTrue(warm.result());
+        assertEquals(0, warm.statements());
+    }
+
+    @Test
+    @DisplayName("suspension takes effect on the next role check without waiting for the TTL")
+    void suspension_appliesImmediately() {
+        assertTrue(currentUserService.isCustomer());
+
+        userService.updateStatus(userId, "SUSPENDED");
+
+        assertThrows(ForbiddenException.class, () -> currentUserService.isCustomer());
+
+        userService.updateStatus(userId, "ACTIVE");
+
+        assertTrue(currentUserService.isCustomer());
+    }
+}
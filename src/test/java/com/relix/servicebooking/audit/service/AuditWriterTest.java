@@ -0,0 +1,225 @@
+package com.relix.servicebooking.audit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AuditWriter writer(int capacity, AuditWriter.Backpressure backpressure) {
+        return new AuditWriter(jdbcTemplate, transactionManager, meterRegistry, capacity, 1, 10, backpressure, 1, 10);
+    }
+
+    private AuditWriter.Event event(long id) {
+        return new AuditWriter.Event("ORDER", id, "CREATED", "CUSTOMER", 1L, null, Instant.now());
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    /**
+     * Park the worker inside its first insert so the buffer can be filled deterministically.
+     */
+    private CountDownLatch blockFirstWrite(CountDownLatch entered) {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        }).doReturn(1).when(jdbcTemplate).update(anyString(), any(Object[].class));
+        return release;
+    }
+
+    @Test
+    @DisplayName("buffered events are written as one multi-row insert on shutdown")
+    void drainsOnStop() {
+        AuditWriter writer = new AuditWriter(jdbcTemplate, transactionManager, meterRegistry, 100, 500, 60_000, AuditWriter.Backpressure.BLOCK, 1, 10);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3);
+
+        writer.start();
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+        writer.stop();
+
+        assertEquals(3, count("audit.events.written"));
+        assertEquals(0, meterRegistry.get("audit.queue.depth").gauge().value());
+        verify(jdbcTemplate, atMost(3)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("DROP discards and counts events when the buffer is full")
+    void dropWhenFull() throws InterruptedException {
+        AuditWriter writer = writer(1, AuditWriter.Backpressure.DROP);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = blockFirstWrite(entered);
+
+        writer.start();
+        writer.enqueue(event(1));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+        release.countDown();
+        writer.stop();
+
+        assertEquals(1, count("audit.events.dropped"));
+        assertEquals(2, count("audit.events.written"));
+    }
+
+    @Test
+    @DisplayName("SYNC writes on the caller thread when the buffer is full")
+    void syncFallbackWhenFull() throws InterruptedException {
+        AuditWriter writer = writer(1, AuditWriter.Backpressure.SYNC);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = blockFirstWrite(entered);
+
+        writer.start();
+        writer.enqueue(event(1));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+        release.countDown();
+        writer.stop();
+
+        assertEquals(1, count("audit.events.sync_fallback"));
+        assertEquals(0, count("audit.events.dropped"));
+        assertEquals(3, count("audit.events.written"));
+    }
+
+    @Test
+    @DisplayName("events after shutdown are written synchronously instead of being lost")
+    void writesDirectlyWhenStopped() {
+        AuditWriter writer = writer(10, AuditWriter.Backpressure.DROP);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        writer.enqueue(event(1));
+
+        assertEquals(1, count("audit.events.written"));
+    }
+
+    @Test
+    @DisplayName("caller-thread writes run in their own transaction, not the finished request's")
+    void callerThreadWrite_requiresNewTransaction() {
+        AuditWriter writer = writer(10, AuditWriter.Backpressure.SYNC);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        writer.enqueue(event(1));
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("a rejected batch is retried row by row and only the bad row is lost")
+    void failedBatch_retriedRowByRow() {
+        AuditWriter writer = new AuditWriter(jdbcTemplate, transactionManager, meterRegistry, 100, 500, 60_000,
+                AuditWriter.Backpressure.BLOCK, 1, 10);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            if (sql.contains("), (") || inv.getArgument(2, Object.class).equals(2L)) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            return 1;
+        });
+
+        writer.start();
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+        writer.stop();
+
+        assertEquals(2, count("audit.events.written"));
+        assertEquals(1, count("audit.events.failed"));
+    }
+
+    @Test
+    @DisplayName("a batch that cannot get a transaction is kept and retried until the database is back")
+    void noTransaction_batchRetried() {
+        AuditWriter writer = writer(100, AuditWriter.Backpressure.BLOCK);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("pool exhausted"))
+                .thenThrow(new CannotCreateTransactionException("pool exhausted"))
+                .thenReturn(null);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        writer.start();
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+        writer.stop();
+
+        assertEquals(0, count("audit.events.failed"));
+        assertEquals(2, count("audit.events.written"));
+        assertEquals(2, count("audit.batches.retried"));
+    }
+
+    @Test
+    @DisplayName("a lock timeout mid-way through a row-by-row retry keeps the rows not yet written")
+    void rowByRow_unavailableKeepsRemainder() {
+        AuditWriter writer = new AuditWriter(jdbcTemplate, transactionManager, meterRegistry, 100, 500, 60_000,
+                AuditWriter.Backpressure.BLOCK, 1, 10);
+        AtomicBoolean lockTimedOut = new AtomicBoolean();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            if (sql.contains("), (")) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            if (inv.getArgument(2, Object.class).equals(2L) && lockTimedOut.compareAndSet(false, true)) {
+                throw new CannotAcquireLockException("lock timeout");
+            }
+            return 1;
+        });
+
+        writer.start();
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+        writer.stop();
+
+        assertEquals(0, count("audit.events.failed"));
+        assertEquals(3, count("audit.events.written"));
+    }
+
+    @Test
+    @DisplayName("a caller-thread write that cannot get a transaction does not throw")
+    void noTransaction_enqueueNeverThrows() {
+        AuditWriter writer = writer(10, AuditWriter.Backpressure.SYNC);
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("db down"));
+
+        assertDoesNotThrow(() -> writer.enqueue(event(1)));
+        assertEquals(1, count("audit.events.failed"));
+    }
+}
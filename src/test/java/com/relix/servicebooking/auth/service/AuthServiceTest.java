@@ -2,13 +2,17 @@ package com.relix.servicebooking.auth.service;
 
 import com.relix.servicebooking.auth.dto.AuthResponse;
 import com.relix.servicebooking.auth.dto.LoginRequest;
+import com.relix.servicebooking.auth.dto.RefreshRequest;
 import com.relix.servicebooking.auth.dto.RegisterRequest;
 import com.relix.servicebooking.auth.entity.RefreshToken;
+import com.relix.servicebooking.auth.event.RefreshTokensRevokedEvent;
 import com.relix.servicebooking.auth.repository.RefreshTokenRepository;
 import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.provider.service.ProviderIdCache;
 import com.relix.servicebooking.user.entity.User;
 import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -17,10 +21,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,11 +39,21 @@ class AuthServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private RefreshTokenRepository refreshTokenRepository;
     @Mock private JwtService jwtService;
-    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private RefreshTokenGenerations refreshTokenGenerations;
+    @Mock private PasswordHasher passwordHasher;
+    @Mock private TransactionTemplate transactionTemplate;
     @Mock private ProviderRepository providerRepository;
+    @Mock private ProviderIdCache providerIdCache;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private AuthService authService;
 
+    @BeforeEach
+    void runTransactionCallbacksInline() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Nested
     @DisplayName("register")
     class Register {
@@ -48,7 +65,7 @@ class AuthServiceTest {
                     .name("Alice").email("alice@test.com").password("secret123").role("CUSTOMER").build();
 
             when(userRepository.existsByEmail("alice@test.com")).thenReturn(false);
-            when(passwordEncoder.encode("secret123")).thenReturn("hashed");
+            when(passwordHasher.encode("secret123")).thenReturn("hashed");
             when(userRepository.save(any(User.class))).thenAnswer(inv -> {
                 User u = inv.getArgument(0);
                 u.setId(1L);
@@ -77,7 +94,7 @@ class AuthServiceTest {
                     .role("PROVIDER").businessName("Bob's Plumbing").build();
 
             when(userRepository.existsByEmail("bob@test.com")).thenReturn(false);
-            when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+            when(passwordHasher.encode(anyString())).thenReturn("hashed");
             when(userRepository.save(any(User.class))).thenAnswer(inv -> {
                 User u = inv.getArgument(0);
                 u.setId(2L);
@@ -135,17 +152,24 @@ class AuthServiceTest {
             user.setId(1L);
 
             when(userRepository.findByEmail("a@test.com")).thenReturn(Optional.of(user));
-            when(passwordEncoder.matches("pass", "hashed")).thenReturn(true);
+            when(passwordHasher.matches("pass", "hashed")).thenReturn(true);
             when(jwtService.generateAccessToken(user)).thenReturn("tok");
             when(jwtService.hashToken(anyString())).thenReturn("h");
             when(jwtService.getAccessTokenExpiration()).thenReturn(7200L);
             when(jwtService.getRefreshTokenExpiration()).thenReturn(604800L);
             when(refreshTokenRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(userRepository.findTokenGenerationById(1L)).thenReturn(Optional.of(4L));
 
             AuthResponse resp = authService.login(LoginRequest.builder().email("a@test.com").password("pass").build());
 
             assertEquals("a@test.com", resp.getEmail());
-            verify(refreshTokenRepository).revokeAllByUserId(1L);
+            assertTrue(resp.getRefreshToken().startsWith("1.4."));
+            verify(userRepository).incrementTokenGeneration(1L);
+            verify(eventPublisher).publishEvent(new RefreshTokensRevokedEvent(1L, 4L));
+            ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+            verify(refreshTokenRepository).save(saved.capture());
+            assertEquals(4L, saved.getValue().getGeneration());
+            assertNotNull(saved.getValue().getFamilyId());
         }
 
         @Test
@@ -157,7 +181,7 @@ class AuthServiceTest {
             user.setId(1L);
 
             when(userRepository.findByEmail("a@test.com")).thenReturn(Optional.of(user));
-            when(passwordEncoder.matches("wrong", "hashed")).thenReturn(false);
+            when(passwordHasher.matches("wrong", "hashed")).thenReturn(false);
 
             BusinessException ex = assertThrows(BusinessException.class,
                     () -> authService.login(LoginRequest.builder().email("a@test.com").password("wrong").build()));
@@ -182,11 +206,102 @@ class AuthServiceTest {
             user.setId(1L);
 
             when(userRepository.findByEmail("a@test.com")).thenReturn(Optional.of(user));
-            when(passwordEncoder.matches("pass", "hashed")).thenReturn(true);
+            when(passwordHasher.matches("pass", "hashed")).thenReturn(true);
 
             BusinessException ex = assertThrows(BusinessException.class,
                     () -> authService.login(LoginRequest.builder().email("a@test.com").password("pass").build()));
             assertEquals("ACCOUNT_INACTIVE", ex.getCode());
         }
     }
+
+    @Nested
+    @DisplayName("refresh")
+    class Refresh {
+
+        private final UUID familyId = UUID.randomUUID();
+        private User user;
+
+        private RefreshToken stored(long generation, boolean revoked) {
+            user = User.builder()
+                    .email("a@test.com").passwordHash("hashed").name("A")
+                    .role(User.UserRole.CUSTOMER).status(User.UserStatus.ACTIVE).tokenGeneration(2L).build();
+            user.setId(1L);
+            RefreshToken token = RefreshToken.builder()
+                    .id(10L).user(user).tokenHash("h").familyId(familyId).generation(generation)
+                    .expiresAt(Instant.now().plusSeconds(3600)).revoked(revoked).build();
+            when(jwtService.hashToken("1.2.old")).thenReturn("h");
+            when(refreshTokenRepository.findWithUserByTokenHash("h")).thenReturn(Optional.of(token));
+            return token;
+        }
+
+        private RefreshRequest request() {
+            return RefreshRequest.builder().refreshToken("1.2.old").build();
+        }
+
+        @Test
+        @DisplayName("rejects a token from a revoked generation without reading the database")
+        void refresh_staleGeneration_rejectedInMemory() {
+            when(refreshTokenGenerations.isStale(new RefreshTokenGenerations.TokenClaims(1L, 2L))).thenReturn(true);
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> authService.refresh(request()));
+
+            assertEquals("TOKEN_EXPIRED", ex.getCode());
+            verifyNoInteractions(refreshTokenRepository, transactionTemplate);
+        }
+
+        @Test
+        @DisplayName("rotates the token within its family and generation")
+        void refresh_rotatesWithinFamily() {
+            stored(2L, false);
+            when(refreshTokenRepository.revokeIfActive(10L)).thenReturn(1);
+            when(jwtService.generateAccessToken(any(User.class))).thenReturn("access");
+            when(jwtService.hashToken(argThat(token -> !token.equals("1.2.old")))).thenReturn("new-h");
+            when(jwtService.getRefreshTokenExpiration()).thenReturn(604800L);
+            when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            AuthResponse resp = authService.refresh(request());
+
+            assertTrue(resp.getRefreshToken().startsWith("1.2."));
+            ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+            verify(refreshTokenRepository).save(saved.capture());
+            assertEquals(familyId, saved.getValue().getFamilyId());
+            assertEquals(2L, saved.getValue().getGeneration());
+            verify(refreshTokenGenerations).observe(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("rejects a token issued before the user's current generation")
+        void refresh_olderGenerationInDatabase_rejected() {
+            stored(1L, false);
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> authService.refresh(request()));
+
+            assertEquals("TOKEN_EXPIRED", ex.getCode());
+            verify(refreshTokenRepository, never()).revokeIfActive(anyLong());
+            verify(refreshTokenRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("revokes the whole family when a rotated token is reused")
+        void refresh_reusedToken_revokesFamily() {
+            stored(2L, true);
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> authService.refresh(request()));
+
+            assertEquals("TOKEN_EXPIRED", ex.getCode());
+            verify(refreshTokenRepository).revokeFamily(familyId);
+            verify(refreshTokenRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("revokes the family when a concurrent refresh rotated the token first")
+        void refresh_lostRotationRace_revokesFamily() {
+            stored(2L, false);
+            when(refreshTokenRepository.revokeIfActive(10L)).thenReturn(0);
+
+            assertThrows(BusinessException.class, () -> authService.refresh(request()));
+
+            verify(refreshTokenRepository).revokeFamily(familyId);
+        }
+    }
 }
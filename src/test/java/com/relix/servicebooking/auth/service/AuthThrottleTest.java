@@ -0,0 +1,74 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("bucket allows its capacity, then reports the wait until the next token")
+    void bucket_exhaustsThenWaits() {
+        AuthThrottle.TokenBucket bucket = new AuthThrottle.TokenBucket(3, 60, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+
+        long wait = bucket.tryAcquire(0);
+        assertTrue(wait > 0 && wait <= SECOND, "one token per second at 60/min, got " + wait);
+    }
+
+    @Test
+    @DisplayName("bucket refills continuously but never above capacity")
+    void bucket_refillsUpToCapacity() {
+        AuthThrottle.TokenBucket bucket = new AuthThrottle.TokenBucket(2, 60, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+        assertEquals(0, bucket.tryAcquire(SECOND));
+
+        long later = 10 * 60 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    @DisplayName("email bucket is shared across case and whitespace variants")
+    void acquire_emailLimitIgnoresCase() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthThrottle throttle = new AuthThrottle(registry, 100, 100, 2, 1, 1000);
+
+        throttle.acquire("10.0.0.1", "user@test.com");
+        throttle.acquire("10.0.0.2", " USER@test.com");
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("10.0.0.3", "User@Test.com"));
+        assertEquals("RATE_LIMITED", ex.getCode());
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(1.0, registry.get("auth.throttle.rejected").tag("scope", "email").counter().count());
+    }
+
+    @Test
+    @DisplayName("IP bucket limits a client across different emails")
+    void acquire_ipLimitSpansEmails() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthThrottle throttle = new AuthThrottle(registry, 2, 1, 100, 100, 1000);
+
+        throttle.acquire("10.0.0.1", "a@test.com");
+        throttle.acquire("10.0.0.1", "b@test.com");
+
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("10.0.0.1", "c@test.com"));
+        assertDoesNotThrow(() -> throttle.acquire("10.0.0.2", "c@test.com"));
+        assertEquals(1.0, registry.get("auth.throttle.rejected").tag("scope", "ip").counter().count());
+    }
+}
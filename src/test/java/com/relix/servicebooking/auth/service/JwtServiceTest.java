@@ -0,0 +1,106 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.user.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET =
+            "dGhpcyBpcyBhIHZlcnkgbG9uZyBzZWNyZXQga2V5IGZvciBqd3QgdG9rZW4gZ2VuZXJhdGlvbiB0aGF0IGlzIGF0IGxlYXN0IDI1NiBiaXRz";
+
+    private JwtService jwtService;
+    private User user;
+
+    static JwtService jwtService(long accessTokenExpiration, int cacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(service, "refreshTokenExpiration", 604800L);
+        ReflectionTestUtils.setField(service, "maxCachedTokens", cacheSize);
+        service.init();
+        return service;
+    }
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService(7200L, 100);
+        user = User.builder().email("alice@test.com").role(User.UserRole.PROVIDER).build();
+        user.setId(42L);
+    }
+
+    @Nested
+    @DisplayName("authenticate")
+    class Authenticate {
+
+        @Test
+        @DisplayName("returns the principal carried by a valid token")
+        void authenticate_validToken() {
+            Optional<JwtPrincipal> principal = jwtService.authenticate(jwtService.generateAccessToken(user));
+
+            assertTrue(principal.isPresent());
+            assertEquals(42L, principal.get().userId());
+            assertEquals("alice@test.com", principal.get().email());
+            assertEquals("PROVIDER", principal.get().role());
+        }
+
+        @Test
+        @DisplayName("serves repeat requests for the same token from the verified cache")
+        void authenticate_cachesVerifiedToken() {
+            String token = jwtService.generateAccessToken(user);
+
+            assertSame(jwtService.authenticate(token).orElseThrow(), jwtService.authenticate(token).orElseThrow());
+        }
+
+        @Test
+        @DisplayName("rejects a token whose signature does not match")
+        void authenticate_tamperedToken() {
+            String token = jwtService.generateAccessToken(user);
+            String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertTrue(jwtService.authenticate(tampered).isEmpty());
+            assertTrue(jwtService.authenticate("not-a-jwt").isEmpty());
+        }
+
+        @Test
+        @DisplayName("rejects an expired token")
+        void authenticate_expiredToken() {
+            JwtService expiring = jwtService(-60L, 100);
+
+            assertTrue(expiring.authenticate(expiring.generateAccessToken(user)).isEmpty());
+        }
+
+        @Test
+        @DisplayName("rejects a signed token without an expiration claim")
+        void authenticate_tokenWithoutExpiration() {
+            String token = Jwts.builder()
+                    .subject("42")
+                    .claim("role", "PROVIDER")
+                    .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), Jwts.SIG.HS256)
+                    .compact();
+
+            assertTrue(jwtService.authenticate(token).isEmpty());
+        }
+
+        @Test
+        @DisplayName("keeps verifying tokens once the cache is full")
+        void authenticate_boundedCache() {
+            JwtService small = jwtService(7200L, 2);
+
+            for (long id = 1; id <= 5; id++) {
+                user.setId(id);
+                assertEquals(id, small.authenticate(small.generateAccessToken(user)).orElseThrow().userId());
+            }
+        }
+    }
+}
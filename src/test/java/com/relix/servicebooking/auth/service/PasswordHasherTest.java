@@ -0,0 +1,97 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("runs encode and matches on the pool and records timings")
+    void encodeAndMatches() {
+        release.countDown();
+        hasher = new PasswordHasher(blockingEncoder, registry, 1, 1, 5000);
+
+        assertEquals("hashed:secret", hasher.encode("secret"));
+        assertTrue(hasher.matches("secret", "hashed:secret"));
+        assertFalse(hasher.matches("other", "hashed:secret"));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.password.queue.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("rejects with AUTH_BUSY once the worker and queue are full")
+    void saturated_rejectsImmediately() throws Exception {
+        hasher = new PasswordHasher(blockingEncoder, registry, 1, 1, 5000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        waitForQueued();
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> hasher.encode("c"));
+        assertEquals("AUTH_BUSY", ex.getCode());
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("gives up with AUTH_BUSY when the hash does not finish within the timeout")
+    void slowHash_timesOut() throws Exception {
+        hasher = new PasswordHasher(blockingEncoder, registry, 1, 1, 50);
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> hasher.encode("a"));
+        assertEquals("AUTH_BUSY", ex.getCode());
+    }
+
+    private void waitForQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("executor.queued").tag("name", "password-hasher").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "second task never queued");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.auth.event.RefreshTokensRevokedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenGenerationsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RefreshTokenGenerations generations = new RefreshTokenGenerations(registry);
+
+    @Test
+    @DisplayName("formatted tokens parse back to their user and generation")
+    void format_parse_roundTrip() {
+        String token = RefreshTokenGenerations.format(42L, 7L);
+
+        assertEquals(new RefreshTokenGenerations.TokenClaims(42L, 7L), RefreshTokenGenerations.parse(token));
+    }
+
+    @Test
+    @DisplayName("tokens in another format carry no claims")
+    void parse_legacyOrMalformed() {
+        assertNull(RefreshTokenGenerations.parse("3f2b7c1e-8a9d-4e5f-b6a7-c8d9e0f1a2b3"));
+        assertNull(RefreshTokenGenerations.parse("1.x.abc"));
+        assertNull(RefreshTokenGenerations.parse("1.2"));
+    }
+
+    @Test
+    @DisplayName("only generations below the known one are stale")
+    void isStale() {
+        generations.onRevoked(new RefreshTokensRevokedEvent(5L, 3L));
+
+        assertTrue(generations.isStale(new RefreshTokenGenerations.TokenClaims(5L, 2L)));
+        assertFalse(generations.isStale(new RefreshTokenGenerations.TokenClaims(5L, 3L)));
+        assertFalse(generations.isStale(new RefreshTokenGenerations.TokenClaims(6L, 0L)));
+        assertEquals(1.0, registry.get("auth.refresh.stale.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("an older observation never lowers the known generation")
+    void observe_neverLowers() {
+        generations.observe(5L, 4L);
+        generations.observe(5L, 1L);
+
+        assertTrue(generations.isStale(new RefreshTokenGenerations.TokenClaims(5L, 3L)));
+    }
+}
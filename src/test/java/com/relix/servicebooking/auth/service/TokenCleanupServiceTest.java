@@ -0,0 +1,77 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.auth.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenCleanupServiceTest {
+
+    @Mock private TokenCleanupChunkDeleter chunkDeleter;
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private TokenCleanupService service(long timeBudgetMs) {
+        return new TokenCleanupService(chunkDeleter, refreshTokenRepository, registry, 100, 0, timeBudgetMs);
+    }
+
+    @Test
+    @DisplayName("drains expired then revoked tokens chunk by chunk")
+    void cleanup_drainsBothPhases() {
+        when(chunkDeleter.deleteExpired(any(Instant.class), eq(100))).thenReturn(100, 100, 30);
+        when(chunkDeleter.deleteRevoked(any(Instant.class), eq(100))).thenReturn(100, 0);
+
+        TokenCleanupService.CleanupResult result = service(60_000).cleanup();
+
+        assertTrue(result.completed());
+        assertEquals(330, result.deleted());
+        assertEquals(0, result.remaining());
+        verify(chunkDeleter, times(3)).deleteExpired(any(Instant.class), eq(100));
+        verify(chunkDeleter, times(2)).deleteRevoked(any(Instant.class), eq(100));
+        verifyNoInteractions(refreshTokenRepository);
+        assertEquals(330, registry.get("auth.token.cleanup.deleted").counter().count());
+        assertEquals(0, registry.get("auth.token.cleanup.backlog").gauge().value());
+    }
+
+    @Test
+    @DisplayName("revoked cutoff is seven days before the expiry cutoff")
+    void cleanup_revokedCutoff() {
+        when(chunkDeleter.deleteExpired(any(Instant.class), eq(100))).thenReturn(0);
+        when(chunkDeleter.deleteRevoked(any(Instant.class), eq(100))).thenReturn(0);
+
+        service(60_000).cleanup();
+
+        verify(chunkDeleter).deleteRevoked(argThat(cutoff ->
+                cutoff.isBefore(Instant.now().minusSeconds(7 * 86400 - 60))
+                        && cutoff.isAfter(Instant.now().minusSeconds(7 * 86400 + 60))), eq(100));
+    }
+
+    @Test
+    @DisplayName("stops when the time budget is spent and reports the backlog")
+    void cleanup_stopsAtBudget() {
+        when(chunkDeleter.deleteExpired(any(Instant.class), eq(100))).thenReturn(100);
+        when(refreshTokenRepository.countByExpiresAtBefore(any())).thenReturn(900L);
+        when(refreshTokenRepository.countByRevokedTrueAndCreatedAtBefore(any())).thenReturn(50L);
+
+        TokenCleanupService.CleanupResult result = service(0).cleanup();
+
+        assertFalse(result.completed());
+        assertEquals(100, result.deleted());
+        assertEquals(950, result.remaining());
+        verify(chunkDeleter, times(1)).deleteExpired(any(Instant.class), eq(100));
+        verify(chunkDeleter, never()).deleteRevoked(any(), anyInt());
+        assertEquals(950, registry.get("auth.token.cleanup.backlog").gauge().value());
+    }
+}
@@ -0,0 +1,88 @@
+package com.relix.servicebooking.auth.service;
+
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.event.UserStatusChangedEvent;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTest {
+
+    @Mock private UserRepository userRepository;
+
+    @InjectMocks private UserStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    @Test
+    @DisplayName("loads a status once and serves later checks from memory")
+    void getStatus_loadsOnce() {
+        when(userRepository.findStatusById(1L)).thenReturn(Optional.of(User.UserStatus.ACTIVE));
+
+        assertFalse(cache.isSuspended(1L));
+        assertFalse(cache.isSuspended(1L));
+
+        verify(userRepository, times(1)).findStatusById(1L);
+    }
+
+    @Test
+    @DisplayName("status change event takes effect without a reload")
+    void onStatusChanged_updatesEntry() {
+        when(userRepository.findStatusById(1L)).thenReturn(Optional.of(User.UserStatus.ACTIVE));
+        cache.getStatus(1L);
+
+        cache.onStatusChanged(new UserStatusChangedEvent(1L, User.UserStatus.SUSPENDED));
+
+        assertTrue(cache.isSuspended(1L));
+        verify(userRepository, times(1)).findStatusById(1L);
+    }
+
+    @Test
+    @DisplayName("a load that raced with a status change does not overwrite the newer status")
+    void getStatus_staleLoadDiscarded() {
+        when(userRepository.findStatusById(1L)).thenAnswer(inv -> {
+            cache.onStatusChanged(new UserStatusChangedEvent(1L, User.UserStatus.SUSPENDED));
+            return Optional.of(User.UserStatus.ACTIVE);
+        });
+
+        cache.getStatus(1L);
+
+        assertTrue(cache.isSuspended(1L));
+    }
+
+    @Test
+    @DisplayName("expired entries are reloaded")
+    void getStatus_reloadsAfterTtl() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        when(userRepository.findStatusById(1L))
+                .thenReturn(Optional.of(User.UserStatus.ACTIVE))
+                .thenReturn(Optional.of(User.UserStatus.SUSPENDED));
+
+        assertFalse(cache.isSuspended(1L));
+        assertTrue(cache.isSuspended(1L));
+    }
+
+    @Test
+    @DisplayName("unknown user is reported as not found")
+    void getStatus_unknownUser() {
+        when(userRepository.findStatusById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.getStatus(9L));
+    }
+}
@@ -0,0 +1,115 @@
+package com.relix.servicebooking.common.snapshot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArraySnapshotTest {
+
+    record Item(Long id, String name, Instant updatedAt) {}
+
+    private static final Instant T0 = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private JsonArraySnapshot<Item> snapshot() {
+        return new JsonArraySnapshot<>(objectMapper, Item::id, Item::updatedAt);
+    }
+
+    private JsonNode read(byte[] json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+    @Test
+    @DisplayName("serializes the ApiResponse envelope with items ordered by id")
+    void current_envelope() throws IOException {
+        JsonArraySnapshot<Item> snapshot = snapshot().putAll(List.of(
+                new Item(2L, "b", T0.plusSeconds(5)), new Item(1L, "a", T0)));
+
+        JsonNode body = read(snapshot.current().getJson());
+
+        assertTrue(body.get("success").asBoolean());
+        assertEquals("a", body.get("data").get(0).get("name").asText());
+        assertEquals("b", body.get("data").get(1).get("name").asText());
+        assertFalse(body.has("timestamp"));
+        assertFalse(body.has("message"));
+    }
+
+    @Test
+    @DisplayName("patches one item at a time and changes the ETag only when the body changes")
+    void put_remove_etag() throws IOException {
+        JsonArraySnapshot<Item> snapshot = snapshot().putAll(List.of(new Item(1L, "a", T0), new Item(2L, "b", T0)));
+        JsonSnapshot first = snapshot.current();
+        assertSame(first, snapshot.current());
+
+        snapshot.put(new Item(2L, "b2", T0.plusSeconds(1)));
+        JsonSnapshot patched = snapshot.current();
+        assertNotEquals(first.getEtag(), patched.getEtag());
+        assertEquals("b2", read(patched.getJson()).get("data").get(1).get("name").asText());
+
+        snapshot.remove(1L);
+        snapshot.remove(99L);
+        assertEquals(1, read(snapshot.current().getJson()).get("data").size());
+
+        JsonArraySnapshot<Item> rebuilt = snapshot().putAll(List.of(new Item(2L, "b2", T0.plusSeconds(1))));
+        assertEquals(snapshot.current().getEtag(), rebuilt.current().getEtag());
+        assertArrayEquals(snapshot.current().getJson(), rebuilt.current().getJson());
+    }
+
+    @Test
+    @DisplayName("a capped snapshot keeps the lowest ids")
+    void put_capped() throws IOException {
+        JsonArraySnapshot<Item> snapshot = new JsonArraySnapshot<>(objectMapper, Item::id, Item::updatedAt, 2)
+                .putAll(List.of(new Item(3L, "c", T0), new Item(1L, "a", T0), new Item(5L, "e", T0)));
+        assertTrue(snapshot.isFull());
+        assertEquals(List.of("a", "c"), read(snapshot.current().getJson()).get("data").findValuesAsText("name"));
+
+        snapshot.put(new Item(4L, "d", T0));
+        snapshot.put(new Item(3L, "c2", T0));
+        assertEquals(List.of("a", "c2"), read(snapshot.current().getJson()).get("data").findValuesAsText("name"));
+
+        snapshot.put(new Item(2L, "b", T0));
+        assertEquals(List.of("a", "b"), read(snapshot.current().getJson()).get("data").findValuesAsText("name"));
+
+        snapshot.remove(2L);
+        assertFalse(snapshot.isFull());
+    }
+
+    @Test
+    @DisplayName("answers a matching If-None-Match with 304 and serves gzip when accepted")
+    void respond_conditionalAndGzip() throws IOException {
+        JsonSnapshot snapshot = snapshot().putAll(List.of(new Item(1L, "a", T0))).current();
+
+        ResponseEntity<byte[]> notModified = snapshot.respond("\"other\", W/" + snapshot.getEtag(), null);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(snapshot.getEtag(), notModified.getHeaders().getETag());
+
+        ResponseEntity<byte[]> plain = snapshot.respond("\"other\"", "br;q=1, gzip;q=0");
+        assertEquals(HttpStatus.OK, plain.getStatusCode());
+        assertArrayEquals(snapshot.getJson(), plain.getBody());
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        ResponseEntity<byte[]> gzipped = snapshot.respond(null, "deflate, gzip");
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(snapshot.getJson(), in.readAllBytes());
+        }
+    }
+}
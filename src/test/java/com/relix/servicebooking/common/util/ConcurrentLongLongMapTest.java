@@ -0,0 +1,152 @@
+package com.relix.servicebooking.common.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongLongMapTest {
+
+    private static final long MISSING = -1L;
+
+    private ConcurrentLongLongMap map;
+
+    @BeforeEach
+    void setUp() {
+        map = new ConcurrentLongLongMap();
+    }
+
+    @Nested
+    @DisplayName("single-threaded")
+    class SingleThreaded {
+
+        @Test
+        @DisplayName("returns stored values across resizes")
+        void put_get_acrossResizes() {
+            for (long key = 1; key <= 10_000; key++) {
+                map.put(key, key * 10);
+            }
+
+            assertEquals(10_000, map.size());
+            for (long key = 1; key <= 10_000; key++) {
+                assertEquals(key * 10, map.get(key, MISSING));
+            }
+            assertEquals(MISSING, map.get(10_001, MISSING));
+        }
+
+        @Test
+        @DisplayName("overwrites an existing key without growing")
+        void put_overwrites() {
+            map.put(7, 1);
+            map.put(7, 2);
+
+            assertEquals(2, map.get(7, MISSING));
+            assertEquals(1, map.size());
+        }
+
+        @Test
+        @DisplayName("keeps every other key reachable after removals")
+        void remove_keepsProbeRunsIntact() {
+            for (long key = 1; key <= 5_000; key++) {
+                map.put(key, key);
+            }
+            for (long key = 1; key <= 5_000; key += 2) {
+                map.remove(key);
+            }
+
+            assertEquals(2_500, map.size());
+            for (long key = 1; key <= 5_000; key++) {
+                assertEquals(key % 2 == 0 ? key : MISSING, map.get(key, MISSING));
+            }
+        }
+
+        @Test
+        @DisplayName("treats removing an absent key as a no-op")
+        void remove_absent() {
+            map.put(1, 1);
+            map.remove(2);
+
+            assertEquals(1, map.size());
+        }
+
+        @Test
+        @DisplayName("addAndGet starts absent keys at zero")
+        void addAndGet() {
+            assertEquals(5, map.addAndGet(3, 5));
+            assertEquals(3, map.addAndGet(3, -2));
+            assertEquals(3, map.get(3, MISSING));
+        }
+
+        @Test
+        @DisplayName("putIfGreater only ever raises the stored value")
+        void putIfGreater() {
+            assertEquals(4, map.putIfGreater(3, 4));
+            assertEquals(4, map.putIfGreater(3, 2));
+            assertEquals(9, map.putIfGreater(3, 9));
+            assertEquals(9, map.get(3, MISSING));
+        }
+
+        @Test
+        @DisplayName("rejects the reserved key 0")
+        void reservedKey() {
+            assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+            assertThrows(IllegalArgumentException.class, () -> map.get(0, MISSING));
+        }
+
+        @Test
+        @DisplayName("clear empties every segment")
+        void clear() {
+            for (long key = 1; key <= 100; key++) {
+                map.put(key, key);
+            }
+            map.clear();
+
+            assertEquals(0, map.size());
+            assertEquals(MISSING, map.get(50, MISSING));
+        }
+    }
+
+    @Nested
+    @DisplayName("concurrent")
+    class Concurrent {
+
+        @Test
+        @DisplayName("loses no increments from parallel writers")
+        void addAndGet_parallel() throws Exception {
+            int threads = 8;
+            int keys = 1_000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int round = 0; round < 10; round++) {
+                            for (long key = 1; key <= keys; key++) {
+                                map.addAndGet(key, 1);
+                                map.get(key, MISSING);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(keys, map.size());
+            for (long key = 1; key <= keys; key++) {
+                assertEquals(threads * 10L, map.get(key, MISSING));
+            }
+        }
+    }
+}
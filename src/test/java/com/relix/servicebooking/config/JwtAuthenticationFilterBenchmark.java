@@ -0,0 +1,195 @@
+package com.relix.servicebooking.config;
+
+import com.relix.servicebooking.auth.service.JwtService;
+import com.relix.servicebooking.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.lang.NonNull;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication: the filter as it was before the verified-token cache,
+ * which parsed the token three times and rebuilt the key and parser on each parse, versus the
+ * current filter. Both run through {@code doFilter} on the same token stream.
+ *
+ * A {@code hitRatio} share of requests reuse one of {@value #ACTIVE_SESSIONS} warm tokens; the rest
+ * carry a token the cache has not seen, cycling through a pool much larger than the cache, so
+ * misses pay the full verification plus the cache insert.
+ *
+ * Not part of the test suite. Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.relix.servicebooking.config.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET =
+            "dGhpcyBpcyBhIHZlcnkgbG9uZyBzZWNyZXQga2V5IGZvciBqd3QgdG9rZW4gZ2VuZXJhdGlvbiB0aGF0IGlzIGF0IGxlYXN0IDI1NiBiaXRz";
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final int ACTIVE_SESSIONS = 1_000;
+    private static final int COLD_TOKENS = 5 * CACHE_SIZE;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"0.5", "0.9", "0.99"})
+    public double hitRatio;
+
+    private JwtAuthenticationFilter cachedFilter;
+    private LegacyJwtAuthenticationFilter legacyFilter;
+    private String[] warmTokens;
+    private String[] coldTokens;
+    private int nextCold;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 7200L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 604800L);
+        ReflectionTestUtils.setField(jwtService, "maxCachedTokens", CACHE_SIZE);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        warmTokens = new String[ACTIVE_SESSIONS];
+        for (int i = 0; i < warmTokens.length; i++) {
+            warmTokens[i] = jwtService.generateAccessToken(user(i));
+            jwtService.authenticate(warmTokens[i]);
+        }
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < coldTokens.length; i++) {
+            coldTokens[i] = jwtService.generateAccessToken(user(ACTIVE_SESSIONS + i));
+        }
+
+        cachedFilter = new JwtAuthenticationFilter(jwtService);
+        legacyFilter = new LegacyJwtAuthenticationFilter();
+    }
+
+    @Benchmark
+    public void legacyFilterRequest(Blackhole blackhole) throws Exception {
+        request(legacyFilter, blackhole);
+    }
+
+    @Benchmark
+    public void cachedFilterRequest(Blackhole blackhole) throws Exception {
+        request(cachedFilter, blackhole);
+    }
+
+    private void request(OncePerRequestFilter filter, Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + nextToken());
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private String nextToken() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < hitRatio) {
+            return warmTokens[random.nextInt(warmTokens.length)];
+        }
+        // Evicted long before the pool wraps, so every cold token is a miss
+        String token = coldTokens[nextCold];
+        nextCold = (nextCold + 1) % coldTokens.length;
+        return token;
+    }
+
+    private static User user(long id) {
+        User user = User.builder().email("bench-" + id + "@test.com").role(User.UserRole.CUSTOMER).build();
+        user.setId(id);
+        return user;
+    }
+
+    /**
+     * The filter before the verified-token cache: isTokenValid, extractUserId and extractRole
+     * each decoded the secret and built a new parser.
+     */
+    private static final class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                        @NonNull HttpServletResponse response,
+                                        @NonNull FilterChain filterChain) throws ServletException, IOException {
+            final String authHeader = request.getHeader("Authorization");
+
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            final String jwt = authHeader.substring(7);
+
+            if (SecurityContextHolder.getContext().getAuthentication() == null && isTokenValid(jwt)) {
+                Long userId = Long.parseLong(extractAllClaims(jwt).getSubject());
+                String role = extractAllClaims(jwt).get("role", String.class);
+
+                var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userId, null, authorities));
+            }
+
+            filterChain.doFilter(request, response);
+        }
+
+        private static boolean isTokenValid(String token) {
+            try {
+                return !extractAllClaims(token).getExpiration().before(new Date());
+            } catch (JwtException | IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private static Claims extractAllClaims(String token) {
+            return Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
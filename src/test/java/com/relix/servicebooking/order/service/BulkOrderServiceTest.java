@@ -0,0 +1,306 @@
+package com.relix.servicebooking.order.service;
+
+import com.relix.servicebooking.audit.service.AuditService;
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.order.dto.BulkOrderCreateRequest;
+import com.relix.servicebooking.order.dto.BulkOrderResponse;
+import com.relix.servicebooking.order.dto.OrderResponse;
+import com.relix.servicebooking.order.dto.RecurrenceRule;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.service.TimeSlotService;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderServiceTest {
+
+    private static final Instant MONDAY = Instant.parse("2030-01-07T09:00:00Z");
+
+    @Mock private OrderRepository orderRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ServiceRepository serviceRepository;
+    @Mock private TimeSlotService timeSlotService;
+    @Mock private AuditService auditService;
+    @Mock private OrderOutbox orderOutbox;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks private BulkOrderService bulkOrderService;
+
+    private Provider provider;
+    private final AtomicLong nextOrderId = new AtomicLong(500);
+
+    @BeforeEach
+    void setUp() {
+        provider = Provider.builder().businessName("Biz").build();
+        provider.setId(10L);
+        Service service = Service.builder().provider(provider).name("Svc")
+                .durationMinutes(60).price(new BigDecimal("100.00"))
+                .status(Service.ServiceStatus.ACTIVE).build();
+        service.setId(20L);
+
+        // Shared fixtures; validation tests stop before some of them are reached
+        lenient().when(userRepository.existsById(1L)).thenReturn(true);
+        lenient().when(serviceRepository.findById(20L)).thenReturn(Optional.of(service));
+        lenient().when(orderRepository.findResponsesByCustomerIdAndIdempotencyKeys(anyLong(), anyCollection()))
+                .thenReturn(List.of());
+        lenient().when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keyHolder = invocation.getArgument(2);
+                    int[] counts = new int[setter.getBatchSize()];
+                    for (int i = 0; i < counts.length; i++) {
+                        keyHolder.getKeyList().add(Map.of("id", nextOrderId.getAndIncrement()));
+                        counts[i] = 1;
+                    }
+                    return counts;
+                });
+    }
+
+    private TimeSlot slot(long id, TimeSlot.SlotStatus status) {
+        TimeSlot slot = TimeSlot.builder().provider(provider)
+                .startTime(MONDAY.plus(id, ChronoUnit.HOURS))
+                .endTime(MONDAY.plus(id + 1, ChronoUnit.HOURS))
+                .status(status).build();
+        slot.setId(id);
+        return slot;
+    }
+
+    private BulkOrderCreateRequest request(BulkOrderCreateRequest.Mode mode, Long... slotIds) {
+        return BulkOrderCreateRequest.builder()
+                .customerId(1L).serviceId(20L)
+                .timeSlotIds(new ArrayList<>(Arrays.asList(slotIds)))
+                .mode(mode)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("createOrders")
+    class CreateOrders {
+
+        @Test
+        @DisplayName("books every slot with one lock, one slot update and one insert batch")
+        void createOrders_allAvailable() {
+            when(timeSlotService.lockSlots(List.of(3L, 1L, 2L)))
+                    .thenReturn(List.of(slot(1, TimeSlot.SlotStatus.AVAILABLE),
+                            slot(2, TimeSlot.SlotStatus.AVAILABLE), slot(3, TimeSlot.SlotStatus.AVAILABLE)));
+
+            BulkOrderResponse response = bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 3L, 1L, 2L));
+
+            assertEquals(3, response.getCreated());
+            assertEquals(List.of(3L, 1L, 2L), response.getItems().stream()
+                    .map(item -> item.getOrder().getTimeSlotId()).toList());
+            assertEquals(List.of(500L, 501L, 502L), response.getItems().stream()
+                    .map(item -> item.getOrder().getId()).toList());
+            verify(timeSlotService).bookLockedSlots(List.of(3L, 1L, 2L));
+            verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+                    any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+            verify(auditService, times(3)).log(eq("ORDER"), anyLong(), eq("ORDER_CREATED"),
+                    eq("CUSTOMER"), eq(1L), any());
+        }
+
+        @Test
+        @DisplayName("all-or-nothing fails the series on the first unbookable slot")
+        void createOrders_allOrNothing_rejects() {
+            when(timeSlotService.lockSlots(anyCollection()))
+                    .thenReturn(List.of(slot(1, TimeSlot.SlotStatus.AVAILABLE), slot(2, TimeSlot.SlotStatus.BOOKED)));
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L, 2L)));
+
+            assertEquals("SLOT_NOT_AVAILABLE", ex.getCode());
+            verify(timeSlotService, never()).bookLockedSlots(any());
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("all-or-nothing reports a missing slot as not found")
+        void createOrders_allOrNothing_missingSlot() {
+            when(timeSlotService.lockSlots(anyCollection())).thenReturn(List.of(slot(1, TimeSlot.SlotStatus.AVAILABLE)));
+
+            assertThrows(ResourceNotFoundException.class, () -> bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L, 99L)));
+        }
+
+        @Test
+        @DisplayName("best-effort books what it can and reports the rest per slot")
+        void createOrders_bestEffort() {
+            when(timeSlotService.lockSlots(anyCollection()))
+                    .thenReturn(List.of(slot(1, TimeSlot.SlotStatus.AVAILABLE), slot(2, TimeSlot.SlotStatus.BOOKED)));
+
+            BulkOrderResponse response = bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.BEST_EFFORT, 1L, 2L, 99L));
+
+            assertEquals(1, response.getCreated());
+            assertEquals(2, response.getFailed());
+            List<BulkOrderResponse.Item> items = response.getItems();
+            assertEquals(BulkOrderResponse.Item.Outcome.CREATED, items.get(0).getOutcome());
+            assertEquals("SLOT_NOT_AVAILABLE", items.get(1).getErrorCode());
+            assertEquals("NOT_FOUND", items.get(2).getErrorCode());
+            verify(timeSlotService).bookLockedSlots(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("rejects slots that belong to another provider")
+        void createOrders_foreignSlot() {
+            Provider other = Provider.builder().businessName("Other").build();
+            other.setId(11L);
+            TimeSlot foreign = slot(1, TimeSlot.SlotStatus.AVAILABLE);
+            foreign.setProvider(other);
+            when(timeSlotService.lockSlots(anyCollection())).thenReturn(List.of(foreign));
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L)));
+
+            assertEquals("INVALID_TIME_SLOT", ex.getCode());
+        }
+
+        @Test
+        @DisplayName("resolves a weekly recurrence to slot ids by start time")
+        void createOrders_recurrence() {
+            Instant second = MONDAY.plus(7, ChronoUnit.DAYS);
+            when(timeSlotService.findSlotIdsByStartTime(eq(10L), anyCollection()))
+                    .thenReturn(Map.of(MONDAY, 1L, second, 2L));
+            when(timeSlotService.lockSlots(List.of(1L, 2L)))
+                    .thenReturn(List.of(slot(1, TimeSlot.SlotStatus.AVAILABLE), slot(2, TimeSlot.SlotStatus.AVAILABLE)));
+
+            BulkOrderResponse response = bulkOrderService.createOrders(BulkOrderCreateRequest.builder()
+                    .customerId(1L).serviceId(20L)
+                    .recurrence(RecurrenceRule.builder().firstStart(MONDAY).intervalDays(7).occurrences(3).build())
+                    .mode(BulkOrderCreateRequest.Mode.BEST_EFFORT)
+                    .build());
+
+            assertEquals(2, response.getCreated());
+            assertEquals(1, response.getFailed());
+            assertEquals(MONDAY.plus(14, ChronoUnit.DAYS), response.getItems().get(2).getStartTime());
+        }
+
+        @Test
+        @DisplayName("keeps a recurrence at the same local time across a daylight saving change")
+        void createOrders_recurrenceAcrossDst() {
+            // 09:00 in New York, one week before and one week after DST starts on 2030-03-10;
+            // the slot lookup only matches when the second start moved with the local clock
+            Instant before = Instant.parse("2030-03-04T14:00:00Z");
+            Instant after = Instant.parse("2030-03-11T13:00:00Z");
+            when(timeSlotService.findSlotIdsByStartTime(10L, List.of(before, after)))
+                    .thenReturn(Map.of(before, 1L, after, 2L));
+            when(timeSlotService.lockSlots(List.of(1L, 2L)))
+                    .thenReturn(List.of(slot(1, TimeSlot.SlotStatus.AVAILABLE), slot(2, TimeSlot.SlotStatus.AVAILABLE)));
+
+            BulkOrderResponse response = bulkOrderService.createOrders(BulkOrderCreateRequest.builder()
+                    .customerId(1L).serviceId(20L)
+                    .recurrence(RecurrenceRule.builder().firstStart(before).intervalDays(7).occurrences(2)
+                            .timeZone("America/New_York").build())
+                    .mode(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING)
+                    .build());
+
+            assertEquals(2, response.getCreated());
+        }
+    }
+
+    @Nested
+    @DisplayName("idempotency")
+    class Idempotency {
+
+        @Test
+        @DisplayName("returns existing orders of the series and books only the missing slots")
+        void createOrders_partialReplay() {
+            when(timeSlotService.lockSlots(anyCollection()))
+                    .thenReturn(List.of(slot(1, TimeSlot.SlotStatus.BOOKED), slot(2, TimeSlot.SlotStatus.AVAILABLE)));
+            when(orderRepository.findResponsesByCustomerIdAndIdempotencyKeys(1L, List.of("series-1#1", "series-1#2")))
+                    .thenReturn(List.of(OrderResponse.builder().id(77L).serviceId(20L).timeSlotId(1L).build()));
+
+            BulkOrderCreateRequest request = request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L, 2L);
+            request.setIdempotencyKey("series-1");
+            BulkOrderResponse response = bulkOrderService.createOrders(request);
+
+            assertEquals(1, response.getExisting());
+            assertEquals(1, response.getCreated());
+            assertEquals(77L, response.getItems().get(0).getOrder().getId());
+            verify(timeSlotService).bookLockedSlots(List.of(2L));
+        }
+
+        @Test
+        @DisplayName("rejects a series key reused for a different service")
+        void createOrders_keyConflict() {
+            when(timeSlotService.lockSlots(anyCollection())).thenReturn(List.of(slot(1, TimeSlot.SlotStatus.BOOKED)));
+            when(orderRepository.findResponsesByCustomerIdAndIdempotencyKeys(anyLong(), anyCollection()))
+                    .thenReturn(List.of(OrderResponse.builder().id(77L).serviceId(21L).timeSlotId(1L).build()));
+
+            BulkOrderCreateRequest request = request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L);
+            request.setIdempotencyKey("series-1");
+
+            assertThrows(ConflictException.class, () -> bulkOrderService.createOrders(request));
+        }
+    }
+
+    @Nested
+    @DisplayName("validation")
+    class Validation {
+
+        @Test
+        @DisplayName("requires exactly one of timeSlotIds and recurrence")
+        void createOrders_requiresOneSource() {
+            BulkOrderCreateRequest neither = BulkOrderCreateRequest.builder().customerId(1L).serviceId(20L).build();
+            BulkOrderCreateRequest both = request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L);
+            both.setRecurrence(RecurrenceRule.builder().firstStart(MONDAY).intervalDays(7).occurrences(2).build());
+
+            assertEquals("INVALID_SERIES",
+                    assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(neither)).getCode());
+            assertEquals("INVALID_SERIES",
+                    assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(both)).getCode());
+        }
+
+        @Test
+        @DisplayName("rejects duplicate slot ids")
+        void createOrders_duplicateSlots() {
+            BusinessException ex = assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L, 1L)));
+
+            assertEquals("INVALID_SERIES", ex.getCode());
+        }
+
+        @Test
+        @DisplayName("rejects an inactive service")
+        void createOrders_inactiveService() {
+            serviceRepository.findById(20L).orElseThrow().setStatus(Service.ServiceStatus.INACTIVE);
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> bulkOrderService.createOrders(
+                    request(BulkOrderCreateRequest.Mode.ALL_OR_NOTHING, 1L)));
+
+            assertEquals("SERVICE_INACTIVE", ex.getCode());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.relix.servicebooking.order.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCursorTest {
+
+    @Test
+    @DisplayName("encoded cursor decodes to the same position, including nanoseconds")
+    void roundTrip() {
+        OrderCursor cursor = new OrderCursor(Instant.parse("2024-03-01T10:15:30.123456789Z"), 42L);
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("tampered or malformed cursor is rejected as INVALID_CURSOR")
+    void malformed() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> OrderCursor.decode("not a cursor!"));
+        assertEquals("INVALID_CURSOR", ex.getCode());
+        assertThrows(BusinessException.class, () -> OrderCursor.decode("MTIzOmFiYw"));
+    }
+}
@@ -3,6 +3,7 @@ package com.relix.servicebooking.order.service;
 import com.relix.servicebooking.audit.service.AuditService;
 import com.relix.servicebooking.auth.service.CurrentUserService;
 import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
 import com.relix.servicebooking.common.exception.ForbiddenException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.dto.OrderCreateRequest;
@@ -10,6 +11,7 @@ import com.relix.servicebooking.order.dto.OrderRejectRequest;
 import com.relix.servicebooking.order.dto.OrderResponse;
 import com.relix.servicebooking.order.entity.Order;
 import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.order.validator.OrderStateValidator;
 import com.relix.servicebooking.payment.entity.Payment;
 import com.relix.servicebooking.payment.repository.PaymentRepository;
 import com.relix.servicebooking.provider.entity.Provider;
@@ -31,7 +33,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -49,6 +53,7 @@ class OrderServiceTest {
     @Mock private RefundService refundService;
     @Mock private PaymentRepository paymentRepository;
     @Mock private AuditService auditService;
+    @Mock private OrderOutbox orderOutbox;
     @Mock private CurrentUserService currentUserService;
 
     @InjectMocks private OrderService orderService;
@@ -172,42 +177,68 @@ class OrderServiceTest {
         }
     }
 
+    /**
+     * Stub the re-read after a conditional UPDATE: the order as the database now holds it.
+     */
+    private void storedAs(Order order) {
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(order));
+    }
+
     @Nested
     @DisplayName("acceptOrder")
     class AcceptOrder {
 
         @Test
-        @DisplayName("accepts a PAID order")
+        @DisplayName("accepts a PAID order with a conditional update guarded by its allowed sources")
         void accept_paidOrder_success() {
-            Order order = createOrder(Order.OrderStatus.PAID);
-
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
-            when(orderRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(orderRepository.acceptIfStatusIn(eq(100L), eq(10L), eq(Set.of(Order.OrderStatus.PAID)),
+                    eq(Order.OrderStatus.CONFIRMED), any(Instant.class))).thenReturn(1);
+            storedAs(createOrder(Order.OrderStatus.CONFIRMED));
 
             OrderResponse resp = orderService.acceptOrder(100L, 10L);
 
             assertEquals("CONFIRMED", resp.getStatus());
-            assertNotNull(order.getAcceptedAt());
+            verify(orderRepository, never()).findByIdWithLock(any());
+            verify(orderRepository, never()).save(any());
+            verify(orderOutbox).record(eq("ORDER_ACCEPTED"), any(Order.class), isNull());
         }
 
         @Test
         @DisplayName("rejects accept for wrong provider")
         void accept_wrongProvider_throws() {
-            Order order = createOrder(Order.OrderStatus.PAID);
-
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.acceptIfStatusIn(eq(100L), eq(999L), anySet(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.PAID));
 
             assertThrows(ForbiddenException.class, () -> orderService.acceptOrder(100L, 999L));
+            verifyNoInteractions(auditService, orderOutbox);
         }
 
         @Test
         @DisplayName("rejects accept from invalid state PENDING")
         void accept_pendingOrder_throws() {
-            Order order = createOrder(Order.OrderStatus.PENDING);
+            when(orderRepository.acceptIfStatusIn(eq(100L), eq(10L), anySet(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.PENDING));
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> orderService.acceptOrder(100L, 10L));
+            assertEquals("INVALID_OPERATION", ex.getCode());
+        }
 
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+        @Test
+        @DisplayName("reports a conflict when the order became acceptable after the guard missed")
+        void accept_raceLost_conflict() {
+            when(orderRepository.acceptIfStatusIn(eq(100L), eq(10L), anySet(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.PAID));
+
+            assertThrows(ConflictException.class, () -> orderService.acceptOrder(100L, 10L));
+        }
+
+        @Test
+        @DisplayName("404 when the order does not exist")
+        void accept_missing_throws() {
+            when(orderRepository.acceptIfStatusIn(eq(100L), eq(10L), anySet(), any(), any())).thenReturn(0);
+            when(orderRepository.findById(100L)).thenReturn(Optional.empty());
 
-            assertThrows(BusinessException.class, () -> orderService.acceptOrder(100L, 10L));
+            assertThrows(ResourceNotFoundException.class, () -> orderService.acceptOrder(100L, 10L));
         }
     }
 
@@ -218,16 +249,18 @@ class OrderServiceTest {
         @Test
         @DisplayName("rejects order and triggers refund when paid")
         void reject_paidOrder_triggersRefund() {
-            Order order = createOrder(Order.OrderStatus.PAID);
+            Order order = createOrder(Order.OrderStatus.CANCELLED);
+            order.setCancellationReason("Provider rejected: Too busy");
 
             Payment payment = Payment.builder().order(order)
                     .amount(new BigDecimal("100.00")).status(Payment.PaymentStatus.SUCCEEDED)
                     .requestId("req-1").build();
             payment.setId(50L);
 
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.rejectIfStatusIn(eq(100L), eq(10L), anySet(), eq(Order.OrderStatus.CANCELLED),
+                    eq("Provider rejected: Too busy"), any(Instant.class))).thenReturn(1);
+            storedAs(order);
             when(paymentRepository.findByOrder_Id(100L)).thenReturn(Optional.of(payment));
-            when(orderRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             OrderRejectRequest req = new OrderRejectRequest();
             req.setReason("Too busy");
@@ -240,11 +273,11 @@ class OrderServiceTest {
         @Test
         @DisplayName("rejects order without refund when not paid")
         void reject_unpaidOrder_noRefund() {
-            Order order = createOrder(Order.OrderStatus.PENDING);
-
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.rejectIfStatusIn(eq(100L), eq(10L), anySet(), any(), any(), any())).thenReturn(1);
+            Order order = createOrder(Order.OrderStatus.CANCELLED);
+            order.setCancellationReason("Provider rejected: Unavailable");
+            storedAs(order);
             when(paymentRepository.findByOrder_Id(100L)).thenReturn(Optional.empty());
-            when(orderRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             OrderRejectRequest req = new OrderRejectRequest();
             req.setReason("Unavailable");
@@ -253,6 +286,19 @@ class OrderServiceTest {
 
             verify(refundService, never()).createRefund(any(), any());
         }
+
+        @Test
+        @DisplayName("a lost race leaves slot, refund and payment untouched")
+        void reject_completedOrder_throws() {
+            when(orderRepository.rejectIfStatusIn(eq(100L), eq(10L), anySet(), any(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.COMPLETED));
+
+            OrderRejectRequest req = new OrderRejectRequest();
+            req.setReason("Too late");
+
+            assertThrows(BusinessException.class, () -> orderService.rejectOrder(100L, 10L, req));
+            verifyNoInteractions(paymentRepository, timeSlotService, refundService);
+        }
     }
 
     @Nested
@@ -262,10 +308,11 @@ class OrderServiceTest {
         @Test
         @DisplayName("completes order and creates settlement")
         void complete_success() {
-            Order order = createOrder(Order.OrderStatus.IN_PROGRESS);
+            Order order = createOrder(Order.OrderStatus.COMPLETED);
 
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
-            when(orderRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(orderRepository.completeIfStatusIn(eq(100L), eq(10L), eq(Set.of(Order.OrderStatus.IN_PROGRESS)),
+                    eq(Order.OrderStatus.COMPLETED), any(Instant.class))).thenReturn(1);
+            storedAs(order);
 
             OrderResponse resp = orderService.completeOrder(100L, 10L);
 
@@ -276,11 +323,11 @@ class OrderServiceTest {
         @Test
         @DisplayName("rejects complete from PENDING state")
         void complete_fromPending_throws() {
-            Order order = createOrder(Order.OrderStatus.PENDING);
-
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.completeIfStatusIn(eq(100L), eq(10L), anySet(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.PENDING));
 
             assertThrows(BusinessException.class, () -> orderService.completeOrder(100L, 10L));
+            verifyNoInteractions(settlementService);
         }
     }
 
@@ -291,15 +338,17 @@ class OrderServiceTest {
         @Test
         @DisplayName("cancels a PAID order and triggers auto-refund")
         void cancel_paidOrder_refund() {
-            Order order = createOrder(Order.OrderStatus.PAID);
+            Order order = createOrder(Order.OrderStatus.CANCELLED);
+            order.setCancellationReason("Changed mind");
 
             Payment payment = Payment.builder().order(order)
                     .amount(new BigDecimal("100.00")).status(Payment.PaymentStatus.SUCCEEDED)
                     .requestId("req-1").build();
 
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.cancelIfStatusIn(eq(100L), eq(OrderStateValidator.allowedSources(Order.OrderStatus.CANCELLED)),
+                    eq(Order.OrderStatus.CANCELLED), eq("Changed mind"), any(Instant.class))).thenReturn(1);
+            storedAs(order);
             when(paymentRepository.findByOrder_Id(100L)).thenReturn(Optional.of(payment));
-            when(orderRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             orderService.cancelOrder(100L, "Changed mind");
 
@@ -309,22 +358,20 @@ class OrderServiceTest {
         @Test
         @DisplayName("idempotent cancel for already-cancelled order")
         void cancel_alreadyCancelled_idempotent() {
-            Order order = createOrder(Order.OrderStatus.CANCELLED);
-
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.cancelIfStatusIn(eq(100L), anySet(), any(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.CANCELLED));
 
             OrderResponse resp = orderService.cancelOrder(100L, "reason");
 
             assertEquals("CANCELLED", resp.getStatus());
-            verify(orderRepository, never()).save(any());
+            verifyNoInteractions(refundService, auditService, orderOutbox);
         }
 
         @Test
         @DisplayName("rejects cancel from COMPLETED state")
         void cancel_completedOrder_throws() {
-            Order order = createOrder(Order.OrderStatus.COMPLETED);
-
-            when(orderRepository.findByIdWithLock(100L)).thenReturn(Optional.of(order));
+            when(orderRepository.cancelIfStatusIn(eq(100L), anySet(), any(), any(), any())).thenReturn(0);
+            storedAs(createOrder(Order.OrderStatus.COMPLETED));
 
             assertThrows(BusinessException.class, () -> orderService.cancelOrder(100L, "reason"));
         }
@@ -6,6 +6,8 @@ import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.order.entity.Order.OrderStatus;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class OrderStateValidatorTest {
@@ -67,4 +69,26 @@ class OrderStateValidatorTest {
         assertTrue(ex.getMessage().contains("Cannot accept order"));
         assertEquals("INVALID_OPERATION", ex.getCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAllowedSources() {
+        assertEquals(Set.of(OrderStatus.PENDING), OrderStateValidator.allowedSources(OrderStatus.PAID));
+        assertEquals(Set.of(OrderStatus.PAID), OrderStateValidator.allowedSources(OrderStatus.CONFIRMED));
+        assertEquals(Set.of(OrderStatus.CONFIRMED), OrderStateValidator.allowedSources(OrderStatus.IN_PROGRESS));
+        assertEquals(Set.of(OrderStatus.IN_PROGRESS), OrderStateValidator.allowedSources(OrderStatus.COMPLETED));
+        assertEquals(Set.of(OrderStatus.PENDING, OrderStatus.PAID, OrderStatus.CONFIRMED, OrderStatus.IN_PROGRESS),
+                OrderStateValidator.allowedSources(OrderStatus.CANCELLED));
+        assertEquals(Set.of(), OrderStateValidator.allowedSources(OrderStatus.PENDING));
+
+        // Every source agrees with validate()
+        for (OrderStatus to : OrderStatus.values()) {
+            for (OrderStatus from : OrderStatus.values()) {
+                if (OrderStateValidator.allowedSources(to).contains(from)) {
+                    assertDoesNotThrow(() -> OrderStateValidator.validate(from, to));
+                } else {
+                    assertThrows(BusinessException.class, () -> OrderStateValidator.validate(from, to));
+                }
+            }
+        }
+    }
+}
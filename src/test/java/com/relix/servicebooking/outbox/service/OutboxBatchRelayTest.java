@@ -0,0 +1,154 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxBatchRelayTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private ObjectProvider<OutboxSink> sinkProvider;
+    @Mock private OutboxSink sink;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+    }
+
+    private OutboxBatchRelay relay() {
+        return new OutboxBatchRelay(outboxEventRepository, eventPublisher, sinkProvider, 1000, 60000);
+    }
+
+    private static OutboxEvent event(long id, int attempts) {
+        return OutboxEvent.builder()
+                .id(id).aggregateType("ORDER").aggregateId(100 + id).eventType("ORDER_CREATED")
+                .payload("{\"orderId\":" + (100 + id) + "}").createdAt(Instant.now()).attempts(attempts)
+                .build();
+    }
+
+    @Test
+    @DisplayName("delivers the batch in id order to listeners and the sink, then marks it published")
+    void relay_deliversInOrder() throws Exception {
+        when(outboxEventRepository.lockNextBatch(10, 50)).thenReturn(List.of(event(1, 0), event(2, 0), event(3, 0)));
+        when(sinkProvider.getIfAvailable()).thenReturn(sink);
+
+        OutboxBatchRelay.BatchResult result = relay().relay(50, 10);
+
+        assertFalse(result.failed());
+        assertEquals(List.of(1L, 2L, 3L), result.published().stream().map(OutboxMessage::id).toList());
+        InOrder inOrder = inOrder(eventPublisher, sink);
+        for (long id = 1; id <= 3; id++) {
+            long expected = id;
+            inOrder.verify(eventPublisher).publishEvent(argThat((Object m) -> ((OutboxMessage) m).id() == expected));
+            inOrder.verify(sink).deliver(argThat(m -> m.id() == expected));
+        }
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L, 3L)), any(Instant.class));
+        verify(outboxEventRepository, never()).recordFailure(anyLong(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("a failed delivery stops the batch; only earlier rows are marked published")
+    void relay_stopsAtFirstFailure() throws Exception {
+        when(outboxEventRepository.lockNextBatch(10, 50)).thenReturn(List.of(event(1, 0), event(2, 3), event(3, 0)));
+        when(sinkProvider.getIfAvailable()).thenReturn(sink);
+        doNothing().when(sink).deliver(argThat(m -> m.id() == 1L));
+        doThrow(new IOException("connection refused")).when(sink).deliver(argThat(m -> m.id() == 2L));
+        Instant before = Instant.now();
+
+        OutboxBatchRelay.BatchResult result = relay().relay(50, 10);
+
+        assertTrue(result.failed());
+        assertEquals(List.of(1L), result.published().stream().map(OutboxMessage::id).toList());
+        // Fourth attempt: 1s << 3
+        verify(outboxEventRepository).recordFailure(eq(2L), eq("connection refused"),
+                argThat(next -> !next.isBefore(before.plusSeconds(8)) && next.isBefore(Instant.now().plusSeconds(9))));
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(Instant.class));
+        verify(sink, never()).deliver(argThat(m -> m.id() == 3L));
+    }
+
+    @Test
+    @DisplayName("a listener failure counts as a failed delivery")
+    void relay_listenerFailure() {
+        when(outboxEventRepository.lockNextBatch(10, 50)).thenReturn(List.of(event(1, 0)));
+        doThrow(new IllegalStateException("listener down")).when(eventPublisher).publishEvent(any(Object.class));
+
+        OutboxBatchRelay.BatchResult result = relay().relay(50, 10);
+
+        assertTrue(result.failed());
+        assertTrue(result.published().isEmpty());
+        verify(outboxEventRepository).recordFailure(eq(1L), eq("listener down"), any(Instant.class));
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("a head row still backing off holds back the whole batch")
+    void relay_headBackingOff() throws Exception {
+        OutboxEvent head = event(1, 2);
+        head.setNextAttemptAt(Instant.now().plusSeconds(30));
+        when(outboxEventRepository.lockNextBatch(10, 50)).thenReturn(List.of(head, event(2, 0)));
+        when(sinkProvider.getIfAvailable()).thenReturn(sink);
+
+        OutboxBatchRelay.BatchResult result = relay().relay(50, 10);
+
+        assertFalse(result.failed());
+        assertTrue(result.published().isEmpty());
+        verifyNoInteractions(eventPublisher, sink);
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("backoff doubles per attempt and is capped")
+    void backoff_exponentialAndCapped() {
+        OutboxBatchRelay relay = relay();
+
+        assertEquals(1000, relay.backoff(1).toMillis());
+        assertEquals(2000, relay.backoff(2).toMillis());
+        assertEquals(32000, relay.backoff(6).toMillis());
+        assertEquals(60000, relay.backoff(7).toMillis());
+        assertEquals(60000, relay.backoff(100).toMillis());
+    }
+
+    @Test
+    @DisplayName("without a sink messages only reach in-process listeners")
+    void relay_withoutSink() {
+        when(outboxEventRepository.lockNextBatch(10, 50)).thenReturn(List.of(event(1, 0)));
+
+        OutboxBatchRelay.BatchResult result = relay().relay(50, 10);
+
+        assertEquals(1, result.published().size());
+        verify(eventPublisher).publishEvent(any(Object.class));
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("claims nothing while another relay holds the leader lock")
+    void relay_notLeader() {
+        when(outboxEventRepository.tryLockRelay()).thenReturn(false);
+
+        OutboxBatchRelay.BatchResult result = relay().relay(50, 10);
+
+        assertFalse(result.failed());
+        assertTrue(result.published().isEmpty());
+        verify(outboxEventRepository, never()).lockNextBatch(anyInt(), anyInt());
+        verifyNoInteractions(eventPublisher, sinkProvider);
+    }
+}
@@ -0,0 +1,145 @@
+package com.relix.servicebooking.outbox.service;
+
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.outbox.entity.OutboxEvent;
+import com.relix.servicebooking.outbox.event.OutboxMessage;
+import com.relix.servicebooking.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock private OutboxBatchRelay batchRelay;
+    @Mock private OutboxEventRepository outboxEventRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(batchRelay, outboxEventRepository, registry, 2, 5, 10, 1000, 7);
+    }
+
+    private static OutboxBatchRelay.BatchResult batch(boolean failed, long... ids) {
+        List<OutboxMessage> published = new ArrayList<>();
+        for (long id : ids) {
+            published.add(new OutboxMessage(id, "ORDER", id, "ORDER_CREATED", "{}", Instant.now().minusSeconds(2)));
+        }
+        return new OutboxBatchRelay.BatchResult(published, failed);
+    }
+
+    @Test
+    @DisplayName("keeps relaying until a batch comes back short, then refreshes the backlog gauges")
+    void relayPending_drainsUntilShortBatch() {
+        when(batchRelay.relay(2, 10)).thenReturn(batch(false, 1, 2), batch(false, 3, 4), batch(false, 5));
+        OutboxEvent oldest = OutboxEvent.builder().id(6L).createdAt(Instant.now().minusSeconds(30)).build();
+        when(outboxEventRepository.findFirstByPublishedAtIsNullAndAttemptsLessThanOrderByIdAsc(10))
+                .thenReturn(Optional.of(oldest));
+        when(outboxEventRepository.countByPublishedAtIsNullAndAttemptsLessThan(10)).thenReturn(4L);
+        when(outboxEventRepository.countByPublishedAtIsNullAndAttemptsGreaterThanEqual(10)).thenReturn(1L);
+
+        OutboxRelay.RelayResult result = relay.relayPending();
+
+        assertEquals(5, result.published());
+        assertFalse(result.failed());
+        verify(batchRelay, times(3)).relay(2, 10);
+        assertEquals(5, registry.get("outbox.events.published").counter().count());
+        assertEquals(5, registry.get("outbox.delivery.lag").timer().count());
+        assertTrue(registry.get("outbox.lag.seconds").gauge().value() >= 30);
+        assertEquals(4, registry.get("outbox.backlog").gauge().value());
+        assertEquals(1, registry.get("outbox.parked").gauge().value());
+    }
+
+    @Test
+    @DisplayName("stops at a failed delivery and leaves the rest for the next poll")
+    void relayPending_stopsOnFailure() {
+        when(batchRelay.relay(2, 10)).thenReturn(batch(false, 1, 2), batch(true, 3));
+
+        OutboxRelay.RelayResult result = relay.relayPending();
+
+        assertEquals(3, result.published());
+        assertTrue(result.failed());
+        verify(batchRelay, times(2)).relay(2, 10);
+        assertEquals(1, registry.get("outbox.events.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("a run never takes more than max-batches-per-run batches")
+    void relayPending_boundedRun() {
+        when(batchRelay.relay(2, 10)).thenAnswer(invocation -> batch(false, 1, 2));
+
+        OutboxRelay.RelayResult result = relay.relayPending();
+
+        assertEquals(10, result.published());
+        verify(batchRelay, times(5)).relay(2, 10);
+    }
+
+    @Test
+    @DisplayName("a rolled-back batch is counted as failed and retried on the next poll")
+    void relayPending_rolledBackBatch() {
+        when(batchRelay.relay(2, 10)).thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        OutboxRelay.RelayResult result = relay.relayPending();
+
+        assertEquals(0, result.published());
+        assertTrue(result.failed());
+        assertEquals(1, registry.get("outbox.events.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("requeue gives a parked row a fresh attempt budget")
+    void requeue_parked() {
+        when(outboxEventRepository.requeueParked(eq(7L), eq(10), any(Instant.class))).thenReturn(1);
+
+        relay.requeue(7L);
+
+        verify(outboxEventRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("requeue rejects a row that is not parked")
+    void requeue_notParked() {
+        when(outboxEventRepository.requeueParked(eq(7L), eq(10), any(Instant.class))).thenReturn(0);
+        when(outboxEventRepository.findById(7L))
+                .thenReturn(Optional.of(OutboxEvent.builder().id(7L).attempts(3).build()));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> relay.requeue(7L));
+        assertEquals("OUTBOX_EVENT_NOT_PARKED", e.getCode());
+    }
+
+    @Test
+    @DisplayName("requeue of an unknown row is not found")
+    void requeue_unknown() {
+        when(outboxEventRepository.requeueParked(eq(7L), eq(10), any(Instant.class))).thenReturn(0);
+        when(outboxEventRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> relay.requeue(7L));
+    }
+
+    @Test
+    @DisplayName("purge deletes published rows chunk by chunk until a short chunk")
+    void purgePublished_chunks() {
+        when(batchRelay.purgePublished(any(Instant.class), eq(1000))).thenReturn(1000, 1000, 12);
+
+        assertEquals(2012, relay.purgePublished());
+        verify(batchRelay, times(3)).purgePublished(argThat(cutoff ->
+                cutoff.isBefore(Instant.now().minusSeconds(7 * 86400 - 60))), eq(1000));
+    }
+}
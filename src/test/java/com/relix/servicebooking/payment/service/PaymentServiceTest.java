@@ -4,6 +4,7 @@ import com.relix.servicebooking.audit.service.AuditService;
 import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.order.entity.Order;
 import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.order.service.OrderOutbox;
 import com.relix.servicebooking.payment.dto.PaymentRequest;
 import com.relix.servicebooking.payment.dto.PaymentResponse;
 import com.relix.servicebooking.payment.entity.Payment;
@@ -35,6 +36,9 @@ class PaymentServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private OrderOutbox orderOutbox;
+
     @InjectMocks
     private PaymentService paymentService;
 
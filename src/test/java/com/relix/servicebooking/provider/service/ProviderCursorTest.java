@@ -0,0 +1,28 @@
+package com.relix.servicebooking.provider.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderCursorTest {
+
+    @Test
+    @DisplayName("encoded cursor decodes to the same position, keeping the rating scale")
+    void roundTrip() {
+        ProviderCursor cursor = new ProviderCursor(new BigDecimal("4.50"), 42L);
+
+        assertEquals(cursor, ProviderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("tampered or malformed cursor is rejected as INVALID_CURSOR")
+    void malformed() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> ProviderCursor.decode("not a cursor!"));
+        assertEquals("INVALID_CURSOR", ex.getCode());
+        assertThrows(BusinessException.class, () -> ProviderCursor.decode("NC41MDphYmM"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.relix.servicebooking.provider.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.relix.servicebooking.common.snapshot.JsonSnapshot;
+import com.relix.servicebooking.provider.dto.ProviderResponse;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderDirectorySnapshotsTest {
+
+    @Mock private ProviderRepository providerRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ProviderDirectorySnapshots snapshots;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new ProviderDirectorySnapshots(providerRepository, objectMapper, 60_000, 2);
+    }
+
+    private ProviderResponse provider(Long id, String name) {
+        return ProviderResponse.builder().id(id).businessName(name).verified(true).build();
+    }
+
+    private Provider providerEntity(Long id, String name) {
+        User user = User.builder().email(name + "@test.com").build();
+        user.setId(10 + id);
+        Provider provider = Provider.builder().user(user).businessName(name).verified(true).build();
+        provider.setId(id);
+        return provider;
+    }
+
+    private List<String> names(JsonSnapshot snapshot) throws IOException {
+        return objectMapper.readTree(snapshot.getJson()).get("data").findValuesAsText("businessName");
+    }
+
+    @Test
+    @DisplayName("loads at most max-size providers and ignores new ones above the cap")
+    void allProviders_capped() throws IOException {
+        when(providerRepository.findResponsesById(Limit.of(2)))
+                .thenReturn(List.of(provider(1L, "A"), provider(2L, "B")));
+        snapshots.allProviders();
+
+        when(providerRepository.findById(3L)).thenReturn(Optional.of(providerEntity(3L, "C")));
+        snapshots.onProviderChanged(new ProviderChangedEvent(3L));
+
+        assertEquals(List.of("A", "B"), names(snapshots.allProviders()));
+        verify(providerRepository, times(1)).findResponsesById(Limit.of(2));
+    }
+
+    @Test
+    @DisplayName("removing a provider from a full list drops it so the next read refills from the table")
+    void onProviderChanged_removeFromFull_rebuilds() throws IOException {
+        when(providerRepository.findResponsesById(Limit.of(2)))
+                .thenReturn(List.of(provider(1L, "A"), provider(2L, "B")))
+                .thenReturn(List.of(provider(2L, "B"), provider(3L, "C")));
+        snapshots.allProviders();
+
+        when(providerRepository.findById(1L)).thenReturn(Optional.empty());
+        snapshots.onProviderChanged(new ProviderChangedEvent(1L));
+
+        assertEquals(List.of("B", "C"), names(snapshots.allProviders()));
+        verify(providerRepository, times(2)).findResponsesById(Limit.of(2));
+    }
+}
@@ -0,0 +1,99 @@
+package com.relix.servicebooking.provider.service;
+
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderGeoIndexTest {
+
+    private ProviderGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProviderGeoIndex(mock(ProviderRepository.class), 0.1);
+    }
+
+    private List<Long> ids(List<ProviderGeoIndex.NearbyMatch> matches) {
+        return matches.stream().map(ProviderGeoIndex.NearbyMatch::providerId).toList();
+    }
+
+    @Test
+    @DisplayName("haversine distance matches the known Paris to London great-circle distance")
+    void distanceKm() {
+        assertEquals(343.5, ProviderGeoIndex.distanceKm(48.8566, 2.3522, 51.5074, -0.1278), 1.0);
+    }
+
+    @Test
+    @DisplayName("returns providers inside the radius across neighbouring cells, nearest first")
+    void findNearby_ordersByDistance() {
+        index.put(1L, 52.5200, 13.4050);
+        index.put(2L, 52.5300, 13.4050);
+        index.put(3L, 52.6500, 13.4050);
+        index.put(4L, 52.5200, 13.6000);
+        index.put(5L, 53.5500, 9.9900);
+
+        List<ProviderGeoIndex.NearbyMatch> matches = index.findNearby(52.5210, 13.4050, 15, 10);
+
+        assertEquals(List.of(1L, 2L, 4L, 3L), ids(matches));
+        assertTrue(matches.get(0).distanceKm() < 0.2);
+        assertEquals(List.of(1L, 2L), ids(index.findNearby(52.5210, 13.4050, 15, 2)));
+    }
+
+    @Test
+    @DisplayName("moving or removing a provider updates the cell it is found in")
+    void putAndRemove_updateCells() {
+        index.put(1L, 40.0, -74.0);
+        index.put(1L, 34.0, -118.2);
+
+        assertTrue(index.findNearby(40.0, -74.0, 50, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.findNearby(34.0, -118.2, 50, 10)));
+
+        index.remove(1L);
+        assertTrue(index.findNearby(34.0, -118.2, 50, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("search circles that cross the antimeridian or reach a pole still find providers")
+    void findNearby_wrapsLongitude() {
+        index.put(1L, -16.5, 179.95);
+        index.put(2L, -16.5, -179.95);
+        index.put(3L, 89.95, 45.0);
+
+        assertEquals(List.of(1L, 2L), ids(index.findNearby(-16.5, 179.99, 30, 10)));
+        assertEquals(List.of(3L), ids(index.findNearby(89.9, -135.0, 50, 10)));
+    }
+
+    @Test
+    @DisplayName("moves and removals made while the grid is rebuilt survive the swap")
+    void reload_replaysConcurrentWrites() {
+        ProviderRepository repository = mock(ProviderRepository.class);
+        ProviderGeoIndex reloading = new ProviderGeoIndex(repository, 0.1);
+        when(repository.findLocations()).thenAnswer(invocation -> {
+            // Committed after the snapshot was read: 1 moved to Los Angeles, 2 lost its location
+            reloading.put(1L, 34.0, -118.2);
+            reloading.remove(2L);
+            return List.of(location(1L, 40.0, -74.0), location(2L, 40.01, -74.0));
+        });
+
+        reloading.reload();
+
+        assertTrue(reloading.findNearby(40.0, -74.0, 50, 10).isEmpty());
+        assertEquals(List.of(1L), ids(reloading.findNearby(34.0, -118.2, 50, 10)));
+    }
+
+    private static ProviderRepository.LocationView location(Long id, double latitude, double longitude) {
+        ProviderRepository.LocationView view = mock(ProviderRepository.LocationView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getLatitude()).thenReturn(BigDecimal.valueOf(latitude));
+        when(view.getLongitude()).thenReturn(BigDecimal.valueOf(longitude));
+        return view;
+    }
+}
@@ -0,0 +1,65 @@
+package com.relix.servicebooking.provider.service;
+
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderIdCacheTest {
+
+    @Mock private ProviderRepository providerRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProviderIdCache providerIdCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        providerIdCache = new ProviderIdCache(providerRepository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("loads a provider id once and serves repeats from memory")
+    void findProviderId_cachesHit() {
+        when(providerRepository.findIdByUserId(10L)).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of(3L), providerIdCache.findProviderId(10L));
+        assertEquals(Optional.of(3L), providerIdCache.findProviderId(10L));
+
+        verify(providerRepository, times(1)).findIdByUserId(10L);
+        assertEquals(1.0, meterRegistry.get("provider.id.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("provider.id.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("provider.id.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("does not cache users without a provider profile")
+    void findProviderId_negativeNotCached() {
+        when(providerRepository.findIdByUserId(10L)).thenReturn(Optional.empty(), Optional.of(3L));
+
+        assertTrue(providerIdCache.findProviderId(10L).isEmpty());
+        assertEquals(Optional.of(3L), providerIdCache.findProviderId(10L));
+    }
+
+    @Test
+    @DisplayName("reloads after eviction")
+    void evict_forcesReload() {
+        when(providerRepository.findIdByUserId(10L)).thenReturn(Optional.of(3L));
+
+        providerIdCache.findProviderId(10L);
+        providerIdCache.evict(10L);
+        providerIdCache.findProviderId(10L);
+
+        verify(providerRepository, times(2)).findIdByUserId(10L);
+    }
+}
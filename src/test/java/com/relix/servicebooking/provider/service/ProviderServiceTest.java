@@ -1,6 +1,9 @@
 package com.relix.servicebooking.provider.service;
 
+import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.common.exception.ResourceNotFoundException;
+import com.relix.servicebooking.provider.dto.NearbyProviderResponse;
+import com.relix.servicebooking.provider.dto.ProviderPageResponse;
 import com.relix.servicebooking.provider.dto.ProviderProfileUpsertRequest;
 import com.relix.servicebooking.provider.dto.ProviderResponse;
 import com.relix.servicebooking.provider.entity.Provider;
@@ -12,6 +15,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,12 +24,19 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ProviderServiceTest {
 
     @Mock private ProviderRepository providerRepository;
+    @Mock private ProviderIdCache providerIdCache;
+    @Mock private ProviderTopRatedCache providerTopRatedCache;
+    @Mock private ProviderGeoIndex providerGeoIndex;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private ProviderService providerService;
 
@@ -107,18 +119,107 @@ class ProviderServiceTest {
         assertEquals("Updated Desc", resp.getDescription());
     }
 
+    private ProviderResponse row(long id, String rating) {
+        return ProviderResponse.builder().id(id).rating(new BigDecimal(rating)).build();
+    }
+
     @Test
-    @DisplayName("getAllProviders returns list")
-    void getAll_returnsList() {
-        User u1 = createUser(1L);
-        User u2 = createUser(2L);
-        u2.setEmail("p2@test.com");
+    @DisplayName("getProviderDirectory serves the first page from the top-rated cache")
+    void directory_firstPageFromCache() {
+        when(providerTopRatedCache.getTopRated(null, 3)).thenReturn(
+                List.of(row(5L, "4.90"), row(9L, "4.50"), row(2L, "4.50")));
+
+        ProviderPageResponse page = providerService.getProviderDirectory(null, null, 2);
+
+        assertEquals(List.of(5L, 9L), page.getItems().stream().map(ProviderResponse::getId).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(new ProviderCursor(new BigDecimal("4.50"), 9L), ProviderCursor.decode(page.getNextCursor()));
+        verifyNoInteractions(providerRepository);
+    }
 
-        when(providerRepository.findAll()).thenReturn(List.of(
-                createProvider(10L, u1), createProvider(11L, u2)));
+    @Test
+    @DisplayName("getProviderDirectory reads later pages below the cursor with the verified filter")
+    void directory_nextPageFromRepository() {
+        String cursor = new ProviderCursor(new BigDecimal("4.50"), 9L).encode();
+        when(providerRepository.findResponsePageByVerified(eq(true), eq(new BigDecimal("4.50")), eq(9L), any(Limit.class)))
+                .thenReturn(List.of(row(2L, "4.50")));
+
+        ProviderPageResponse page = providerService.getProviderDirectory(true, cursor, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verifyNoInteractions(providerTopRatedCache);
+    }
 
-        List<ProviderResponse> result = providerService.getAllProviders();
+    @Test
+    @DisplayName("getProviderDirectory falls back to the index when the page is larger than the cache")
+    void directory_cacheMiss_readsFirstPage() {
+        when(providerTopRatedCache.getTopRated(null, 21)).thenReturn(null);
+        when(providerRepository.findResponsePage(eq(ProviderCursor.FIRST_PAGE.rating()), eq(Long.MAX_VALUE), eq(Limit.of(21))))
+                .thenReturn(List.of(row(5L, "4.90")));
+
+        ProviderPageResponse page = providerService.getProviderDirectory(null, null, 0);
+
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    @DisplayName("upsertProviderProfile stores coordinates and rejects only one of them")
+    void upsert_coordinates() {
+        User user = createUser(1L);
+        when(providerRepository.findByUser_Id(1L)).thenReturn(Optional.of(createProvider(10L, user)));
+        when(providerRepository.save(any(Provider.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        assertEquals(2, result.size());
+        ProviderProfileUpsertRequest request = ProviderProfileUpsertRequest.builder().businessName("Biz")
+                .latitude(new BigDecimal("52.52000000")).longitude(new BigDecimal("13.40500000")).build();
+        ProviderResponse resp = providerService.upsertProviderProfile(user, request);
+
+        assertEquals(new BigDecimal("52.52000000"), resp.getLatitude());
+        assertEquals(new BigDecimal("13.40500000"), resp.getLongitude());
+
+        request.setLongitude(null);
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> providerService.upsertProviderProfile(user, request));
+        assertEquals("INVALID_COORDINATES", ex.getCode());
+    }
+
+    @Test
+    @DisplayName("getNearbyProviders keeps the index's distance order when loading rows")
+    void nearby_fromIndex() {
+        when(providerGeoIndex.isLoaded()).thenReturn(true);
+        when(providerGeoIndex.findNearby(52.52, 13.405, 10, 20)).thenReturn(List.of(
+                new ProviderGeoIndex.NearbyMatch(7L, 0.4), new ProviderGeoIndex.NearbyMatch(3L, 2.5)));
+        when(providerRepository.findResponsesByIdIn(List.of(7L, 3L))).thenReturn(List.of(row(3L, "4.00"), row(7L, "3.00")));
+
+        List<NearbyProviderResponse> result = providerService.getNearbyProviders(52.52, 13.405, null, null);
+
+        assertEquals(List.of(7L, 3L), result.stream().map(nearby -> nearby.getProvider().getId()).toList());
+        assertEquals(0.4, result.get(0).getDistanceKm());
+    }
+
+    @Test
+    @DisplayName("getNearbyProviders falls back to the bounding-box query before the index loads")
+    void nearby_fallbackToBoundingBox() {
+        ProviderResponse near = ProviderResponse.builder().id(1L)
+                .latitude(new BigDecimal("52.53")).longitude(new BigDecimal("13.405")).build();
+        ProviderResponse corner = ProviderResponse.builder().id(2L)
+                .latitude(new BigDecimal("52.60")).longitude(new BigDecimal("13.55")).build();
+        when(providerGeoIndex.isLoaded()).thenReturn(false);
+        when(providerRepository.findResponsesInBox(any(), any(), any(), any())).thenReturn(List.of(corner, near));
+
+        List<NearbyProviderResponse> result = providerService.getNearbyProviders(52.52, 13.405, 10.0, 5);
+
+        assertEquals(List.of(1L), result.stream().map(nearby -> nearby.getProvider().getId()).toList());
+        verify(providerGeoIndex, never()).findNearby(anyDouble(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("getNearbyProviders rejects missing coordinates and out-of-range radius")
+    void nearby_invalidInput() {
+        assertEquals("INVALID_COORDINATES", assertThrows(BusinessException.class,
+                () -> providerService.getNearbyProviders(null, 13.4, 5.0, 10)).getCode());
+        assertEquals("INVALID_RADIUS", assertThrows(BusinessException.class,
+                () -> providerService.getNearbyProviders(52.5, 13.4, 500.0, 10)).getCode());
     }
 }
@@ -0,0 +1,176 @@
+package com.relix.servicebooking.refund.service;
+
+import com.relix.servicebooking.refund.entity.Refund;
+import com.relix.servicebooking.refund.repository.RefundRepository;
+import com.relix.servicebooking.refund.service.RefundQueue.ClaimedRefund;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefundProcessorTest {
+
+    @Mock private RefundQueue refundQueue;
+    @Mock private RefundGateway refundGateway;
+    @Mock private RefundRepository refundRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RefundProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new RefundProcessor(refundQueue, refundGateway, refundRepository, registry,
+                2, 60_000, 3, 1000, 8000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        processor.shutdown();
+    }
+
+    private static ClaimedRefund claimed(long id, int attempts) {
+        return new ClaimedRefund(id, 100 + id, new BigDecimal("25.00"), attempts, Instant.now());
+    }
+
+    private double processed(String outcome) {
+        return registry.get("refund.processed").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("a successful gateway call completes the refund with the gateway reference")
+    void process_success() {
+        ClaimedRefund refund = claimed(1, 1);
+        when(refundGateway.refund(any())).thenReturn("gw-1");
+        when(refundQueue.complete(eq(refund), eq("gw-1"), any(Instant.class))).thenReturn(true);
+
+        processor.process(refund);
+
+        verify(refundGateway).refund(new RefundGateway.RefundRequest(1L, 101L, new BigDecimal("25.00"), "refund-1"));
+        assertEquals(1, processed("completed"));
+        assertEquals(1, registry.get("refund.gateway").timer().count());
+    }
+
+    @Test
+    @DisplayName("a retryable failure goes back to the queue with backoff")
+    void process_retryableFailure() {
+        ClaimedRefund refund = claimed(1, 2);
+        when(refundGateway.refund(any())).thenThrow(new RefundGatewayException("gateway timeout", true));
+        when(refundQueue.retry(eq(refund), eq("gateway timeout"), any(Instant.class))).thenReturn(true);
+
+        Instant before = Instant.now();
+        processor.process(refund);
+
+        // Attempt 2 backs off between 1s and 2s
+        verify(refundQueue).retry(eq(refund), eq("gateway timeout"), argThat(next ->
+                !next.isBefore(before.plusMillis(1000)) && !next.isAfter(Instant.now().plusMillis(2000))));
+        verify(refundQueue, never()).fail(any(), any());
+        assertEquals(1, processed("retry"));
+    }
+
+    @Test
+    @DisplayName("unexpected exceptions are retried like transient gateway errors")
+    void process_unexpectedException() {
+        ClaimedRefund refund = claimed(1, 1);
+        when(refundGateway.refund(any())).thenThrow(new IllegalStateException("socket closed"));
+        when(refundQueue.retry(eq(refund), eq("socket closed"), any(Instant.class))).thenReturn(true);
+
+        processor.process(refund);
+
+        assertEquals(1, processed("retry"));
+    }
+
+    @Test
+    @DisplayName("the last allowed attempt moves the refund to FAILED")
+    void process_attemptsExhausted() {
+        ClaimedRefund refund = claimed(1, 3);
+        when(refundGateway.refund(any())).thenThrow(new RefundGatewayException("gateway timeout", true));
+        when(refundQueue.fail(refund, "gateway timeout")).thenReturn(true);
+
+        processor.process(refund);
+
+        verify(refundQueue, never()).retry(any(), any(), any());
+        assertEquals(1, processed("failed"));
+    }
+
+    @Test
+    @DisplayName("a declined refund fails at once")
+    void process_declined() {
+        ClaimedRefund refund = claimed(1, 1);
+        when(refundGateway.refund(any())).thenThrow(new RefundGatewayException("card closed", false));
+        when(refundQueue.fail(refund, "card closed")).thenReturn(true);
+
+        processor.process(refund);
+
+        verify(refundQueue, never()).retry(any(), any(), any());
+        assertEquals(1, processed("failed"));
+    }
+
+    @Test
+    @DisplayName("backoff doubles per attempt, stays within its jitter band and is capped")
+    void backoff_exponentialWithCap() {
+        for (int attempt = 1; attempt <= 6; attempt++) {
+            long ceiling = Math.min(1000L << (attempt - 1), 8000);
+            Duration delay = processor.backoff(attempt);
+            assertTrue(delay.toMillis() >= ceiling / 2 && delay.toMillis() <= ceiling,
+                    "attempt " + attempt + ": " + delay);
+        }
+    }
+
+    @Test
+    @DisplayName("dispatch claims no more refunds than there are idle workers and runs them off-thread")
+    void dispatch_boundedByIdleWorkers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        when(refundQueue.claim(eq(2), any(Instant.class)))
+                .thenReturn(List.of(claimed(1, 1), claimed(2, 1)))
+                .thenReturn(List.of());
+        when(refundGateway.refund(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "gw";
+        });
+        when(refundQueue.complete(any(), eq("gw"), any(Instant.class))).thenReturn(true);
+
+        assertEquals(2, processor.dispatch());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Both workers are busy: nothing more is claimed
+        assertEquals(0, processor.dispatch());
+        verify(refundQueue, times(1)).claim(anyInt(), any(Instant.class));
+        assertEquals(2, registry.get("refund.workers.busy").gauge().value());
+
+        release.countDown();
+        verify(refundQueue, timeout(5000).times(2)).complete(any(), eq("gw"), any(Instant.class));
+        verify(refundQueue, never()).reclaimExpired(any(), any());
+        verify(refundRepository, never()).countByStatus(any());
+    }
+
+    @Test
+    @DisplayName("the scheduled poll reclaims expired leases and refreshes the dead-letter gauge")
+    void poll_reclaimsAndCountsDeadLetters() {
+        when(refundQueue.reclaimExpired(any(Instant.class), any(Instant.class))).thenReturn(1);
+        when(refundRepository.countByStatus(Refund.RefundStatus.FAILED)).thenReturn(4L);
+
+        processor.poll();
+
+        verify(refundQueue).reclaimExpired(argThat(cutoff -> cutoff.isBefore(Instant.now().minusMillis(59_000))),
+                any(Instant.class));
+        assertEquals(4, registry.get("refund.dead.letter").gauge().value());
+    }
+}
@@ -1,10 +1,12 @@
 package com.relix.servicebooking.refund.service;
 
+import com.relix.servicebooking.common.exception.ConflictException;
 import com.relix.servicebooking.common.exception.ForbiddenException;
 import com.relix.servicebooking.order.entity.Order;
 import com.relix.servicebooking.payment.entity.Payment;
 import com.relix.servicebooking.payment.repository.PaymentRepository;
 import com.relix.servicebooking.refund.entity.Refund;
+import com.relix.servicebooking.refund.event.RefundRequestedEvent;
 import com.relix.servicebooking.refund.repository.RefundRepository;
 import com.relix.servicebooking.user.entity.User;
 import org.junit.jupiter.api.Test;
@@ -13,13 +15,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +35,12 @@ class RefundServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private RefundQueue refundQueue;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RefundService refundService;
 
@@ -50,7 +60,9 @@ class RefundServiceTest {
 
     @Test
     void createRefund_shouldTruncateReasonTo500() {
-        Order order = Order.builder().build();
+        User customer = User.builder().build();
+        customer.setId(200L);
+        Order order = Order.builder().customer(customer).build();
         order.setId(10L);
         Payment payment = Payment.builder()
                 .amount(new BigDecimal("99.99"))
@@ -67,10 +79,67 @@ class RefundServiceTest {
         refundService.createRefund(order, longReason);
 
         ArgumentCaptor<Refund> captor = ArgumentCaptor.forClass(Refund.class);
-        verify(refundRepository, atLeastOnce()).save(captor.capture());
+        verify(refundRepository).save(captor.capture());
+
+        Refund saved = captor.getValue();
+        assertEquals(500, saved.getReason().length());
+        assertEquals(200L, saved.getCustomerId());
+    }
+
+    @Test
+    void createRefund_shouldQueuePendingRefundWithoutTouchingPayment() {
+        User customer = User.builder().build();
+        customer.setId(200L);
+        Order order = Order.builder().customer(customer).build();
+        order.setId(10L);
+        Payment payment = Payment.builder()
+                .amount(new BigDecimal("99.99"))
+                .status(Payment.PaymentStatus.SUCCEEDED)
+                .order(order)
+                .build();
+        payment.setId(20L);
+
+        when(paymentRepository.findByOrder_Id(10L)).thenReturn(Optional.of(payment));
+        when(refundRepository.existsByOrderId(10L)).thenReturn(false);
+        when(refundRepository.save(any(Refund.class))).thenAnswer(invocation -> {
+            Refund refund = invocation.getArgument(0);
+            refund.setId(30L);
+            return refund;
+        });
+
+        Refund refund = refundService.createRefund(order, "Customer cancelled");
+
+        assertEquals(Refund.RefundStatus.PENDING, refund.getStatus());
+        assertEquals(0, refund.getAttempts());
+        assertNull(refund.getRefundedAt());
+        assertEquals(Payment.PaymentStatus.SUCCEEDED, payment.getStatus());
+        verify(paymentRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new RefundRequestedEvent(30L));
+    }
+
+    @Test
+    void retryRefund_shouldRequeueFailedRefund() {
+        Order order = Order.builder().build();
+        order.setId(10L);
+        Payment payment = Payment.builder().build();
+        payment.setId(20L);
+        Refund refund = Refund.builder().order(order).payment(payment).status(Refund.RefundStatus.PENDING).build();
+        refund.setId(30L);
+
+        when(refundQueue.requeue(eq(30L), any(Instant.class))).thenReturn(true);
+        when(refundRepository.findById(30L)).thenReturn(Optional.of(refund));
+
+        assertEquals("PENDING", refundService.retryRefund(30L).getStatus());
+        verify(eventPublisher).publishEvent(new RefundRequestedEvent(30L));
+    }
+
+    @Test
+    void retryRefund_shouldRejectRefundThatIsNotFailed() {
+        Refund refund = Refund.builder().status(Refund.RefundStatus.COMPLETED).build();
+        when(refundQueue.requeue(eq(30L), any(Instant.class))).thenReturn(false);
+        when(refundRepository.findById(30L)).thenReturn(Optional.of(refund));
 
-        List<Refund> saved = captor.getAllValues();
-        assertFalse(saved.isEmpty());
-        assertEquals(500, saved.get(0).getReason().length());
+        assertThrows(ConflictException.class, () -> refundService.retryRefund(30L));
+        verifyNoInteractions(eventPublisher);
     }
 }
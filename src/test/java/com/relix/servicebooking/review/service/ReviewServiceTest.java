@@ -0,0 +1,113 @@
+package com.relix.servicebooking.review.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.common.exception.ConflictException;
+import com.relix.servicebooking.common.exception.ForbiddenException;
+import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.order.repository.OrderRepository;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.provider.event.ProviderChangedEvent;
+import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.review.dto.ReviewCreateRequest;
+import com.relix.servicebooking.review.dto.ReviewResponse;
+import com.relix.servicebooking.review.entity.Review;
+import com.relix.servicebooking.review.repository.ReviewRepository;
+import com.relix.servicebooking.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTest {
+
+    @Mock private ReviewRepository reviewRepository;
+    @Mock private OrderRepository orderRepository;
+    @Mock private ProviderRepository providerRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks private ReviewService reviewService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        User customer = User.builder().build();
+        customer.setId(100L);
+        Provider provider = Provider.builder().build();
+        provider.setId(7L);
+        order = Order.builder().customer(customer).provider(provider)
+                .totalPrice(new BigDecimal("50.00")).status(Order.OrderStatus.COMPLETED).build();
+        order.setId(1L);
+    }
+
+    private ReviewCreateRequest request(int rating) {
+        return ReviewCreateRequest.builder().orderId(1L).rating(rating).comment("Great").build();
+    }
+
+    @Test
+    @DisplayName("createReview saves the review and folds the rating into the provider totals")
+    void createReview_updatesProviderTotals() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(reviewRepository.existsByOrder_Id(1L)).thenReturn(false);
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenAnswer(inv -> {
+            Review review = inv.getArgument(0);
+            review.setId(55L);
+            return review;
+        });
+
+        ReviewResponse response = reviewService.createReview(100L, request(4));
+
+        assertEquals(55L, response.getId());
+        assertEquals(7L, response.getProviderId());
+        assertEquals(4, response.getRating());
+        verify(providerRepository).addReviewRating(7L, 4);
+        verify(eventPublisher).publishEvent(new ProviderChangedEvent(7L));
+    }
+
+    @Test
+    @DisplayName("createReview rejects another customer's order")
+    void createReview_otherCustomer_forbidden() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThrows(ForbiddenException.class, () -> reviewService.createReview(999L, request(5)));
+        verify(providerRepository, never()).addReviewRating(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("createReview rejects orders that are not COMPLETED")
+    void createReview_notCompleted() {
+        order.setStatus(Order.OrderStatus.IN_PROGRESS);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> reviewService.createReview(100L, request(5)));
+        assertEquals("ORDER_NOT_COMPLETED", ex.getCode());
+    }
+
+    @Test
+    @DisplayName("createReview reports a second review of the same order as a conflict, including a lost race")
+    void createReview_duplicate() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(reviewRepository.existsByOrder_Id(1L)).thenReturn(true, false);
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenThrow(new DataIntegrityViolationException("uq"));
+
+        assertThrows(ConflictException.class, () -> reviewService.createReview(100L, request(5)));
+        assertThrows(ConflictException.class, () -> reviewService.createReview(100L, request(5)));
+        verify(providerRepository, never()).addReviewRating(anyLong(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+}
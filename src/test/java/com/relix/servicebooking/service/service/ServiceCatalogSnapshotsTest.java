@@ -0,0 +1,99 @@
+package com.relix.servicebooking.service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.relix.servicebooking.common.snapshot.JsonSnapshot;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.event.ServiceChangedEvent;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceCatalogSnapshotsTest {
+
+    @Mock private ServiceRepository serviceRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceCatalogSnapshots snapshots;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        snapshots = new ServiceCatalogSnapshots(serviceRepository, objectMapper, meterRegistry, 60_000, 100);
+    }
+
+    private Service service(Long id, Long providerId, String name) {
+        Provider provider = Provider.builder().businessName("Test").build();
+        provider.setId(providerId);
+        Service service = Service.builder().provider(provider).name(name)
+                .durationMinutes(60).price(new BigDecimal("50.00")).status(Service.ServiceStatus.ACTIVE).build();
+        service.setId(id);
+        return service;
+    }
+
+    private List<String> names(JsonSnapshot snapshot) throws IOException {
+        JsonNode data = objectMapper.readTree(snapshot.getJson()).get("data");
+        return data.findValuesAsText("name");
+    }
+
+    @Test
+    @DisplayName("builds the active catalog once and records hits and misses")
+    void activeServices_builtOnce() throws IOException {
+        when(serviceRepository.findByStatus(Service.ServiceStatus.ACTIVE))
+                .thenReturn(List.of(service(1L, 10L, "Cut"), service(2L, 20L, "Color")));
+
+        JsonSnapshot first = snapshots.activeServices();
+        JsonSnapshot second = snapshots.activeServices();
+
+        assertEquals(List.of("Cut", "Color"), names(first));
+        assertEquals(first.getEtag(), second.getEtag());
+        verify(serviceRepository, times(1)).findByStatus(Service.ServiceStatus.ACTIVE);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ServiceCatalogSnapshots.ACTIVE_CACHE)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("cache.hit.ratio").tag("cache", ServiceCatalogSnapshots.ACTIVE_CACHE)
+                .gauge().value());
+    }
+
+    @Test
+    @DisplayName("a service change patches the catalog and only the owning provider's list")
+    void onServiceChanged_patchesChangedRow() throws IOException {
+        when(serviceRepository.findByStatus(Service.ServiceStatus.ACTIVE))
+                .thenReturn(List.of(service(1L, 10L, "Cut"), service(2L, 20L, "Color")));
+        when(serviceRepository.findByProvider_Id(10L)).thenReturn(List.of(service(1L, 10L, "Cut")));
+        when(serviceRepository.findByProvider_Id(20L)).thenReturn(List.of(service(2L, 20L, "Color")));
+        snapshots.activeServices();
+        snapshots.servicesByProvider(10L);
+        snapshots.servicesByProvider(20L);
+
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service(1L, 10L, "Trim")));
+        snapshots.onServiceChanged(new ServiceChangedEvent(1L, 10L));
+
+        assertEquals(List.of("Trim", "Color"), names(snapshots.activeServices()));
+        assertEquals(List.of("Trim"), names(snapshots.servicesByProvider(10L)));
+        assertEquals(List.of("Color"), names(snapshots.servicesByProvider(20L)));
+        verify(serviceRepository, times(1)).findByStatus(Service.ServiceStatus.ACTIVE);
+        verify(serviceRepository, times(1)).findByProvider_Id(10L);
+        verify(serviceRepository, times(1)).findByProvider_Id(20L);
+    }
+}
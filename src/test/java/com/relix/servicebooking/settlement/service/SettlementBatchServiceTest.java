@@ -5,18 +5,31 @@ import com.relix.servicebooking.settlement.entity.Settlement;
 import com.relix.servicebooking.settlement.entity.SettlementBatch;
 import com.relix.servicebooking.settlement.repository.SettlementBatchRepository;
 import com.relix.servicebooking.settlement.repository.SettlementRepository;
+import com.relix.servicebooking.settlement.service.SettlementChunkProcessor.ChunkResult;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,29 +41,59 @@ class SettlementBatchServiceTest {
     @Mock
     private SettlementBatchRepository settlementBatchRepository;
 
+    @Mock
+    private SettlementChunkProcessor settlementChunkProcessor;
+
     @InjectMocks
     private SettlementBatchService settlementBatchService;
 
-    @Test
-    void processBatch_shouldMarkBatchFailed_whenAnySettlementFails() {
-        Settlement settlement = Settlement.builder()
-                .providerPayout(new BigDecimal("50.00"))
-                .status(Settlement.SettlementStatus.PENDING)
-                .build();
-        settlement.setId(1L);
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(settlementBatchService, "chunkSize", 2);
+        ReflectionTestUtils.setField(settlementBatchService, "workers", 2);
+    }
 
-        when(settlementBatchRepository.existsByBatchId(anyString())).thenReturn(false);
-        when(settlementRepository.findByStatus(Settlement.SettlementStatus.PENDING))
-                .thenReturn(List.of(settlement));
+    private SettlementRepository.PayoutView payout(Long id, String amount) {
+        return new SettlementRepository.PayoutView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
 
+            @Override
+            public Long getProviderId() {
+                return 1L;
+            }
+
+            @Override
+            public BigDecimal getProviderPayout() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+
+    private void stubNewBatch() {
+        when(settlementBatchRepository.findByBatchId(anyString())).thenReturn(Optional.empty());
         when(settlementBatchRepository.save(any(SettlementBatch.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenAnswer(invocation -> {
+                    SettlementBatch batch = invocation.getArgument(0);
+                    batch.setId(10L);
+                    return batch;
+                });
+    }
 
-        // 1st save(PROCESSING) succeeds, 2nd save(COMPLETED) fails, 3rd save(FAILED in catch) succeeds.
-        when(settlementRepository.save(any(Settlement.class)))
-                .thenReturn(settlement)
-                .thenThrow(new RuntimeException("mock payout failure"))
-                .thenReturn(settlement);
+    @Test
+    void processBatch_shouldMarkBatchFailed_whenAnySettlementFails() {
+        List<SettlementRepository.PayoutView> chunk = List.of(payout(1L, "50.00"));
+
+        stubNewBatch();
+        when(settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING)).thenReturn(1L);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 0L, Limit.of(2)))
+                .thenReturn(chunk);
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(chunk)))
+                .thenThrow(new RuntimeException("mock payout failure"));
+        when(settlementChunkProcessor.fail(eq(10L), anyString(), eq(chunk), eq("mock payout failure")))
+                .thenReturn(new ChunkResult(0, 1, BigDecimal.ZERO));
 
         BatchResponse response = settlementBatchService.processBatch();
 
@@ -58,4 +101,151 @@ class SettlementBatchServiceTest {
         assertEquals(0, response.getSuccessCount());
         assertEquals(1, response.getFailedCount());
     }
+
+    @Test
+    void processBatch_shouldRetryRowByRow_andFailOnlyTheFailingSettlement() {
+        SettlementRepository.PayoutView good = payout(1L, "50.00");
+        SettlementRepository.PayoutView bad = payout(2L, "30.00");
+        List<SettlementRepository.PayoutView> chunk = List.of(good, bad);
+
+        stubNewBatch();
+        when(settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING)).thenReturn(2L);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 0L, Limit.of(2)))
+                .thenReturn(chunk);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 2L, Limit.of(2)))
+                .thenReturn(List.of());
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(chunk)))
+                .thenThrow(new DataIntegrityViolationException("bad payout"));
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(List.of(good))))
+                .thenReturn(new ChunkResult(1, 0, new BigDecimal("50.00")));
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(List.of(bad))))
+                .thenThrow(new DataIntegrityViolationException("bad payout"));
+        when(settlementChunkProcessor.fail(eq(10L), anyString(), eq(List.of(bad)), eq("bad payout")))
+                .thenReturn(new ChunkResult(0, 1, BigDecimal.ZERO));
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals("FAILED", response.getStatus());
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(1, response.getFailedCount());
+        verify(settlementChunkProcessor, never()).fail(anyLong(), anyString(), eq(chunk), anyString());
+    }
+
+    @Test
+    void processBatch_shouldLeaveBatchProcessing_whenChunkFailsTransiently() {
+        List<SettlementRepository.PayoutView> chunk = List.of(payout(1L, "50.00"));
+
+        stubNewBatch();
+        when(settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING)).thenReturn(1L);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 0L, Limit.of(2)))
+                .thenReturn(chunk);
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(chunk)))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals("PROCESSING", response.getStatus());
+        assertEquals(0, response.getFailedCount());
+        verify(settlementChunkProcessor, never()).fail(anyLong(), anyString(), anyList(), anyString());
+    }
+
+    @Test
+    void processBatch_shouldSettleEveryKeysetChunk() {
+        List<SettlementRepository.PayoutView> first = List.of(payout(1L, "50.00"), payout(2L, "30.00"));
+        List<SettlementRepository.PayoutView> second = List.of(payout(5L, "20.00"));
+
+        stubNewBatch();
+        when(settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING)).thenReturn(3L);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 0L, Limit.of(2)))
+                .thenReturn(first);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 2L, Limit.of(2)))
+                .thenReturn(second);
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(first)))
+                .thenReturn(new ChunkResult(2, 0, new BigDecimal("80.00")));
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(second)))
+                .thenReturn(new ChunkResult(1, 0, new BigDecimal("20.00")));
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(3, response.getTotalCount());
+        assertEquals(3, response.getSuccessCount());
+        assertEquals(new BigDecimal("100.00"), response.getTotalAmount());
+    }
+
+    @Test
+    void processBatch_shouldResumeFromCheckpoint_whenBatchStillProcessing() {
+        SettlementBatch interrupted = SettlementBatch.builder()
+                .id(10L)
+                .batchId("BATCH-TODAY")
+                .status(SettlementBatch.BatchStatus.PROCESSING)
+                .successCount(4)
+                .failedCount(0)
+                .totalAmount(new BigDecimal("200.00"))
+                .build();
+        List<SettlementRepository.PayoutView> remaining = List.of(payout(9L, "25.00"));
+
+        when(settlementBatchRepository.findByBatchId(anyString())).thenReturn(Optional.of(interrupted));
+        when(settlementBatchRepository.save(any(SettlementBatch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING)).thenReturn(1L);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 0L, Limit.of(2)))
+                .thenReturn(remaining);
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(remaining)))
+                .thenReturn(new ChunkResult(1, 0, new BigDecimal("25.00")));
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(5, response.getSuccessCount());
+        assertEquals(new BigDecimal("225.00"), response.getTotalAmount());
+    }
+
+    @Test
+    void processBatch_shouldClosePartialBatch_whenRunDateChanged() {
+        SettlementBatch yesterday = SettlementBatch.builder()
+                .id(9L)
+                .batchId("BATCH-YESTERDAY")
+                .status(SettlementBatch.BatchStatus.PROCESSING)
+                .totalCount(5)
+                .successCount(3)
+                .failedCount(0)
+                .totalAmount(new BigDecimal("150.00"))
+                .build();
+        List<SettlementRepository.PayoutView> carriedOver = List.of(payout(4L, "50.00"), payout(5L, "50.00"));
+
+        stubNewBatch();
+        when(settlementBatchRepository.findByStatusAndBatchIdNot(eq(SettlementBatch.BatchStatus.PROCESSING), anyString()))
+                .thenReturn(List.of(yesterday));
+        when(settlementRepository.countByStatus(Settlement.SettlementStatus.PENDING)).thenReturn(2L);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 0L, Limit.of(2)))
+                .thenReturn(carriedOver);
+        when(settlementRepository.findPayoutChunk(Settlement.SettlementStatus.PENDING, 5L, Limit.of(2)))
+                .thenReturn(List.of());
+        when(settlementChunkProcessor.settle(eq(10L), anyString(), eq(carriedOver)))
+                .thenReturn(new ChunkResult(2, 0, new BigDecimal("100.00")));
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals(SettlementBatch.BatchStatus.PARTIAL, yesterday.getStatus());
+        assertEquals(3, yesterday.getTotalCount());
+        assertNotNull(yesterday.getCompletedAt());
+        verify(settlementBatchRepository).save(yesterday);
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(2, response.getSuccessCount());
+    }
+
+    @Test
+    void processBatch_shouldReturnExistingBatch_whenAlreadyFinished() {
+        SettlementBatch done = SettlementBatch.builder()
+                .id(10L)
+                .batchId("BATCH-TODAY")
+                .status(SettlementBatch.BatchStatus.COMPLETED)
+                .build();
+        when(settlementBatchRepository.findByBatchId(anyString())).thenReturn(Optional.of(done));
+
+        BatchResponse response = settlementBatchService.processBatch();
+
+        assertEquals("COMPLETED", response.getStatus());
+        verify(settlementChunkProcessor, never()).settle(anyLong(), anyString(), anyList());
+    }
 }
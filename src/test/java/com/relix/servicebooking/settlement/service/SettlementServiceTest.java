@@ -2,7 +2,12 @@ package com.relix.servicebooking.settlement.service;
 
 import com.relix.servicebooking.common.exception.BusinessException;
 import com.relix.servicebooking.order.entity.Order;
+import com.relix.servicebooking.provider.entity.Provider;
+import com.relix.servicebooking.settlement.dto.SettlementSummaryResponse;
+import com.relix.servicebooking.settlement.entity.ProviderBalance;
 import com.relix.servicebooking.settlement.entity.Settlement;
+import com.relix.servicebooking.settlement.event.SettlementTotalsChangedEvent;
+import com.relix.servicebooking.settlement.repository.ProviderBalanceRepository;
 import com.relix.servicebooking.settlement.repository.SettlementRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +16,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -25,6 +31,21 @@ class SettlementServiceTest {
     @Mock
     private SettlementRepository settlementRepository;
 
+    @Mock
+    private ProviderBalanceRepository providerBalanceRepository;
+
+    @Mock
+    private SettlementTotals settlementTotals;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private Provider provider() {
+        Provider provider = Provider.builder().businessName("Salon").build();
+        provider.setId(7L);
+        return provider;
+    }
+
     @InjectMocks
     private SettlementService settlementService;
 
@@ -32,6 +53,7 @@ class SettlementServiceTest {
     @DisplayName("createSettlement calculates correct 10% platform fee")
     void createSettlement_calculatesCorrectFee() {
         Order order = Order.builder()
+                .provider(provider())
                 .totalPrice(new BigDecimal("100.00"))
                 .status(Order.OrderStatus.COMPLETED)
                 .build();
@@ -47,12 +69,15 @@ class SettlementServiceTest {
         assertEquals(0, new BigDecimal("90.00").compareTo(result.getProviderPayout()));
         assertEquals(0, new BigDecimal("100.00").compareTo(result.getTotalPrice()));
         assertEquals(Settlement.SettlementStatus.PENDING, result.getStatus());
+        verify(providerBalanceRepository).addPending(7L, result.getProviderPayout());
+        verify(eventPublisher).publishEvent(SettlementTotalsChangedEvent.created(result.getProviderPayout()));
     }
 
     @Test
     @DisplayName("createSettlement with fractional fee rounds correctly")
     void createSettlement_roundsFeeCorrectly() {
         Order order = Order.builder()
+                .provider(provider())
                 .totalPrice(new BigDecimal("33.33"))
                 .status(Order.OrderStatus.COMPLETED)
                 .build();
@@ -108,5 +133,37 @@ class SettlementServiceTest {
 
         assertEquals(100L, result.getId());
         verify(settlementRepository, never()).save(any());
+        verifyNoInteractions(providerBalanceRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("getSettlementSummary reads the provider's balance row")
+    void getSettlementSummary_fromBalance() {
+        when(providerBalanceRepository.findById(7L)).thenReturn(Optional.of(ProviderBalance.builder()
+                .providerId(7L)
+                .pendingAmount(new BigDecimal("45.00")).pendingCount(1)
+                .completedAmount(new BigDecimal("180.00")).completedCount(2)
+                .failedCount(1)
+                .build()));
+
+        SettlementSummaryResponse summary = settlementService.getSettlementSummary(7L);
+
+        assertEquals(0, new BigDecimal("225.00").compareTo(summary.getTotalEarnings()));
+        assertEquals(4, summary.getTotalCount());
+        assertEquals(2, summary.getCompletedCount());
+        assertEquals(1, summary.getFailedCount());
+        verifyNoInteractions(settlementRepository);
+    }
+
+    @Test
+    @DisplayName("getSettlementSummary is all zero for a provider without settlements")
+    void getSettlementSummary_noBalance() {
+        when(providerBalanceRepository.findById(8L)).thenReturn(Optional.empty());
+
+        SettlementSummaryResponse summary = settlementService.getSettlementSummary(8L);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getTotalEarnings()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getPendingAmount()));
+        assertEquals(0, summary.getTotalCount());
     }
 }
@@ -0,0 +1,115 @@
+package com.relix.servicebooking.settlement.service;
+
+import com.relix.servicebooking.settlement.dto.SettlementSummaryResponse;
+import com.relix.servicebooking.settlement.event.SettlementTotalsChangedEvent;
+import com.relix.servicebooking.settlement.repository.ProviderBalanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SettlementTotalsTest {
+
+    private final ProviderBalanceRepository providerBalanceRepository = mock(ProviderBalanceRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SettlementTotals totals = new SettlementTotals(providerBalanceRepository, registry);
+
+    private static ProviderBalanceRepository.TotalsView view(String pending, long pendingCount,
+                                                             String completed, long completedCount,
+                                                             long failedCount) {
+        return new ProviderBalanceRepository.TotalsView() {
+            public BigDecimal getPendingAmount() { return new BigDecimal(pending); }
+            public BigDecimal getCompletedAmount() { return new BigDecimal(completed); }
+            public Long getPendingCount() { return pendingCount; }
+            public Long getCompletedCount() { return completedCount; }
+            public Long getFailedCount() { return failedCount; }
+        };
+    }
+
+    @Test
+    @DisplayName("loads from provider balances on first use and then follows committed deltas")
+    void firstUse_loadsThenAppliesDeltas() {
+        when(providerBalanceRepository.sumTotals()).thenReturn(view("100.00", 2, "50.00", 1, 0));
+
+        totals.onTotalsChanged(SettlementTotalsChangedEvent.created(new BigDecimal("45.50")));
+        SettlementSummaryResponse loaded = totals.getSummary();
+        assertEquals(0, new BigDecimal("100.00").compareTo(loaded.getPendingAmount()));
+
+        totals.onTotalsChanged(SettlementTotalsChangedEvent.created(new BigDecimal("45.50")));
+        totals.onTotalsChanged(SettlementTotalsChangedEvent.settled(new BigDecimal("80.00"), 2));
+        totals.onTotalsChanged(SettlementTotalsChangedEvent.failed(new BigDecimal("10.00"), 1));
+
+        SettlementSummaryResponse summary = totals.getSummary();
+        assertEquals(0, new BigDecimal("55.50").compareTo(summary.getPendingAmount()));
+        assertEquals(0, new BigDecimal("130.00").compareTo(summary.getCompletedAmount()));
+        assertEquals(0, new BigDecimal("185.50").compareTo(summary.getTotalEarnings()));
+        assertEquals(0, summary.getPendingCount());
+        assertEquals(3, summary.getCompletedCount());
+        assertEquals(1, summary.getFailedCount());
+        assertEquals(4, summary.getTotalCount());
+        verify(providerBalanceRepository, times(1)).sumTotals();
+    }
+
+    @Test
+    @DisplayName("reconciliation replaces drifted counters and counts the correction")
+    void reconcile_correctsDrift() {
+        when(providerBalanceRepository.sumTotals())
+                .thenReturn(view("10.00", 1, "0.00", 0, 0))
+                .thenReturn(view("10.00", 1, "0.00", 0, 0))
+                .thenReturn(view("20.00", 2, "0.00", 0, 0));
+
+        totals.reconcile();
+        totals.reconcile();
+        assertEquals(0, registry.get("settlement.totals.corrections").counter().count());
+
+        totals.reconcile();
+        assertEquals(1, registry.get("settlement.totals.corrections").counter().count());
+        assertEquals(2, totals.getSummary().getPendingCount());
+    }
+
+    @Test
+    @DisplayName("a delta applied while the balances are read makes reconciliation read again instead of dropping it")
+    void reconcile_retriesWhenDeltaLandsDuringRead() {
+        when(providerBalanceRepository.sumTotals())
+                .thenReturn(view("10.00", 1, "0.00", 0, 0))
+                .thenAnswer(inv -> {
+                    // Committed before this read and applied by its listener while the query ran
+                    totals.onTotalsChanged(SettlementTotalsChangedEvent.created(new BigDecimal("5.00")));
+                    return view("15.00", 2, "0.00", 0, 0);
+                })
+                .thenReturn(view("15.00", 2, "0.00", 0, 0));
+        totals.reconcile();
+
+        totals.reconcile();
+
+        SettlementSummaryResponse summary = totals.getSummary();
+        assertEquals(2, summary.getPendingCount());
+        assertEquals(0, new BigDecimal("15.00").compareTo(summary.getPendingAmount()));
+        assertEquals(0, registry.get("settlement.totals.corrections").counter().count());
+        verify(providerBalanceRepository, times(3)).sumTotals();
+    }
+
+    @Test
+    @DisplayName("concurrent deltas are all counted")
+    void concurrentDeltas() throws Exception {
+        when(providerBalanceRepository.sumTotals()).thenReturn(view("0.00", 0, "0.00", 0, 0));
+        totals.reconcile();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8000; i++) {
+            pool.submit(() -> totals.onTotalsChanged(SettlementTotalsChangedEvent.created(new BigDecimal("1.25"))));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8000, totals.getSummary().getPendingCount());
+        assertEquals(0, new BigDecimal("10000.00").compareTo(totals.getSummary().getPendingAmount()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.relix.servicebooking.timeslot.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.timeslot.dto.ScheduleException;
+import com.relix.servicebooking.timeslot.dto.ScheduleTemplateRequest;
+import com.relix.servicebooking.timeslot.dto.WeeklyAvailabilityRule;
+import com.relix.servicebooking.timeslot.repository.TimeSlotJdbcRepository.SlotWindow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleExpanderTest {
+
+    // A Monday
+    private static final LocalDate WEEK_START = LocalDate.of(2030, 1, 7);
+
+    private static WeeklyAvailabilityRule rule(DayOfWeek day, String start, String end, int minutes) {
+        return WeeklyAvailabilityRule.builder().dayOfWeek(day)
+                .startTime(LocalTime.parse(start)).endTime(LocalTime.parse(end)).slotMinutes(minutes).build();
+    }
+
+    private static ScheduleTemplateRequest template(LocalDate to, List<WeeklyAvailabilityRule> rules,
+                                                    List<ScheduleException> exceptions) {
+        return ScheduleTemplateRequest.builder()
+                .fromDate(WEEK_START).toDate(to).timeZone("UTC")
+                .rules(rules).exceptions(exceptions).build();
+    }
+
+    @Test
+    @DisplayName("cuts each rule window into whole slots on matching weekdays")
+    void expand_weeklyRules() {
+        List<SlotWindow> windows = ScheduleExpander.expand(template(WEEK_START.plusDays(13),
+                List.of(rule(DayOfWeek.MONDAY, "09:00", "11:30", 60), rule(DayOfWeek.WEDNESDAY, "14:00", "15:00", 30)),
+                null), Instant.EPOCH);
+
+        // Two Mondays x 2 whole hours + two Wednesdays x 2 half hours
+        assertEquals(8, windows.size());
+        assertEquals(Instant.parse("2030-01-07T09:00:00Z"), windows.get(0).startTime());
+        assertEquals(Instant.parse("2030-01-07T10:00:00Z"), windows.get(0).endTime());
+        assertEquals(Instant.parse("2030-01-16T14:30:00Z"), windows.get(7).startTime());
+    }
+
+    @Test
+    @DisplayName("drops whole-day and partial exceptions")
+    void expand_exceptions() {
+        List<SlotWindow> windows = ScheduleExpander.expand(template(WEEK_START.plusDays(8),
+                List.of(rule(DayOfWeek.MONDAY, "09:00", "12:00", 60), rule(DayOfWeek.TUESDAY, "09:00", "12:00", 60)),
+                List.of(ScheduleException.builder().date(WEEK_START).build(),
+                        ScheduleException.builder().date(WEEK_START.plusDays(1))
+                                .startTime(LocalTime.parse("10:30")).endTime(LocalTime.parse("11:00")).build())),
+                Instant.EPOCH);
+
+        // Tuesday loses 10:00-11:00, the following Monday and Tuesday are untouched
+        assertEquals(2 + 3 + 3, windows.size());
+        assertEquals(Instant.parse("2030-01-08T09:00:00Z"), windows.get(0).startTime());
+        assertEquals(Instant.parse("2030-01-08T11:00:00Z"), windows.get(1).startTime());
+    }
+
+    @Test
+    @DisplayName("converts local rule times through the template time zone")
+    void expand_timeZone() {
+        ScheduleTemplateRequest request = template(WEEK_START,
+                List.of(rule(DayOfWeek.MONDAY, "09:00", "10:00", 60)), null);
+        request.setTimeZone("Europe/Berlin");
+
+        List<SlotWindow> windows = ScheduleExpander.expand(request, Instant.EPOCH);
+
+        assertEquals(Instant.parse("2030-01-07T08:00:00Z"), windows.get(0).startTime());
+    }
+
+    @Test
+    @DisplayName("keeps the first of two overlapping rule windows and skips past starts")
+    void expand_overlapAndPast() {
+        List<SlotWindow> windows = ScheduleExpander.expand(template(WEEK_START,
+                List.of(rule(DayOfWeek.MONDAY, "09:00", "11:00", 60), rule(DayOfWeek.MONDAY, "09:30", "10:30", 60)),
+                null), Instant.parse("2030-01-07T09:15:00Z"));
+
+        // 09:00 is in the past; 09:30-10:30 wins over 10:00-11:00
+        assertEquals(1, windows.size());
+        assertEquals(Instant.parse("2030-01-07T09:30:00Z"), windows.get(0).startTime());
+    }
+
+    @Test
+    @DisplayName("rejects reversed ranges, bad zones and oversized templates")
+    void expand_validation() {
+        ScheduleTemplateRequest reversed = template(WEEK_START.minusDays(1),
+                List.of(rule(DayOfWeek.MONDAY, "09:00", "10:00", 60)), null);
+        ScheduleTemplateRequest badZone = template(WEEK_START,
+                List.of(rule(DayOfWeek.MONDAY, "09:00", "10:00", 60)), null);
+        badZone.setTimeZone("Mars/Olympus");
+        ScheduleTemplateRequest tooMany = template(WEEK_START.plusDays(300),
+                List.of(DayOfWeek.values()).stream().map(day -> rule(day, "00:00", "23:55", 5)).toList(), null);
+
+        assertEquals("INVALID_DATE_RANGE", assertThrows(BusinessException.class,
+                () -> ScheduleExpander.expand(reversed, Instant.EPOCH)).getCode());
+        assertEquals("INVALID_TIME_ZONE", assertThrows(BusinessException.class,
+                () -> ScheduleExpander.expand(badZone, Instant.EPOCH)).getCode());
+        assertEquals("TOO_MANY_SLOTS", assertThrows(BusinessException.class,
+                () -> ScheduleExpander.expand(tooMany, Instant.EPOCH)).getCode());
+    }
+}
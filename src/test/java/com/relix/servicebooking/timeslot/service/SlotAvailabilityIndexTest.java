@@ -0,0 +1,136 @@
+package com.relix.servicebooking.timeslot.service;
+
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotAvailabilityIndexTest {
+
+    @Mock private TimeSlotRepository timeSlotRepository;
+
+    @InjectMocks private SlotAvailabilityIndex index;
+
+    private TimeSlotRepository.SlotStatusView view(Long id, TimeSlot.SlotStatus status) {
+        return new TimeSlotRepository.SlotStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public TimeSlot.SlotStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("untracked slots are reported as UNKNOWN")
+    void tryReserve_untracked_unknown() {
+        assertEquals(SlotAvailabilityIndex.Reservation.UNKNOWN, index.tryReserve(42L));
+    }
+
+    @Test
+    @DisplayName("reload tracks available and booked slots")
+    void reload_tracksStatuses() {
+        when(timeSlotRepository.findStatusesEndingAfter(any())).thenReturn(List.of(
+                view(1L, TimeSlot.SlotStatus.AVAILABLE),
+                view(2L, TimeSlot.SlotStatus.BOOKED),
+                view(5000L, TimeSlot.SlotStatus.BLOCKED)));
+
+        index.reload();
+
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(1L));
+        assertEquals(SlotAvailabilityIndex.Reservation.CONTENDED, index.tryReserve(1L));
+        assertEquals(SlotAvailabilityIndex.Reservation.REJECTED, index.tryReserve(2L));
+        assertEquals(SlotAvailabilityIndex.Reservation.REJECTED, index.tryReserve(5000L));
+    }
+
+    @Test
+    @DisplayName("markAvailable and remove update neighbouring slots independently")
+    void mark_updatesSingleSlot() {
+        index.markAvailable(31L);
+        index.markAvailable(32L);
+        index.remove(32L);
+
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(31L));
+        assertEquals(SlotAvailabilityIndex.Reservation.UNKNOWN, index.tryReserve(32L));
+
+        index.markAvailable(31L);
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(31L));
+    }
+
+    @Test
+    @DisplayName("exactly one concurrent caller wins the reservation")
+    void tryReserve_concurrent_singleWinner() throws InterruptedException {
+        index.markAvailable(7L);
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (index.tryReserve(7L) == SlotAvailabilityIndex.Reservation.RESERVED) {
+                    winners.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    @DisplayName("writes made while the index is rebuilt survive the swap")
+    void reload_replaysConcurrentWrites() {
+        index.markAvailable(1L);
+        when(timeSlotRepository.findStatusesEndingAfter(any())).thenAnswer(invocation -> {
+            // Committed after the snapshot was read: released 2, booked 1
+            index.markAvailable(2L);
+            assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(1L));
+            return List.of(view(1L, TimeSlot.SlotStatus.AVAILABLE), view(2L, TimeSlot.SlotStatus.BOOKED));
+        });
+
+        index.reload();
+
+        assertEquals(SlotAvailabilityIndex.Reservation.CONTENDED, index.tryReserve(1L));
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(2L));
+    }
+
+    @Test
+    @DisplayName("a hold becomes a rejection once booked, or is freed again on release")
+    void hold_endsBookedOrAvailable() {
+        index.markAvailable(1L);
+        index.markAvailable(2L);
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(1L));
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(2L));
+
+        index.markBooked(1L);
+        index.markAvailable(2L);
+
+        assertEquals(SlotAvailabilityIndex.Reservation.REJECTED, index.tryReserve(1L));
+        assertEquals(SlotAvailabilityIndex.Reservation.RESERVED, index.tryReserve(2L));
+    }
+}
@@ -0,0 +1,134 @@
+package com.relix.servicebooking.timeslot.service;
+
+import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotJdbcRepository.SlotWindow;
+import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlotDiscoveryIndexTest {
+
+    private static final Instant BASE = Instant.parse("2030-01-05T08:00:00.123456Z");
+
+    @Mock private TimeSlotRepository timeSlotRepository;
+
+    @InjectMocks private SlotDiscoveryIndex index;
+
+    private static Instant at(int minutes) {
+        return BASE.plus(minutes, ChronoUnit.MINUTES);
+    }
+
+    private TimeSlotRepository.SlotIntervalView view(Long id, Long providerId, Instant start, Instant end) {
+        return new TimeSlotRepository.SlotIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getProviderId() {
+                return providerId;
+            }
+
+            @Override
+            public Instant getStartTime() {
+                return start;
+            }
+
+            @Override
+            public Instant getEndTime() {
+                return end;
+            }
+        };
+    }
+
+    private List<Long> slotIds(List<SlotDiscoveryIndex.SlotMatch> matches) {
+        return matches.stream().map(SlotDiscoveryIndex.SlotMatch::slotId).toList();
+    }
+
+    @Test
+    @DisplayName("merges providers into one list ordered by start time and cut at the limit")
+    void findEarliest_mergesAcrossProviders() {
+        index.addAll(1L, List.of(10L, 11L, 12L), List.of(
+                new SlotWindow(at(0), at(60)), new SlotWindow(at(120), at(180)), new SlotWindow(at(240), at(300))));
+        index.addAll(2L, List.of(20L, 21L), List.of(
+                new SlotWindow(at(30), at(90)), new SlotWindow(at(150), at(210))));
+        index.add(3L, 30L, at(60), at(120));
+
+        Map<Long, Duration> providers = Map.of(1L, Duration.ZERO, 2L, Duration.ZERO, 3L, Duration.ZERO);
+
+        List<SlotDiscoveryIndex.SlotMatch> matches = index.findEarliest(providers, at(0), at(600), 4);
+
+        assertEquals(List.of(10L, 20L, 30L, 11L), slotIds(matches));
+        assertEquals(2L, matches.get(1).providerId());
+        assertEquals(at(30), matches.get(1).startTime());
+        assertEquals(at(90), matches.get(1).endTime());
+    }
+
+    @Test
+    @DisplayName("skips slots outside the window, too short, or of providers not asked for")
+    void findEarliest_filters() {
+        index.addAll(1L, List.of(10L, 11L, 12L, 13L), List.of(
+                new SlotWindow(at(-30), at(30)),
+                new SlotWindow(at(30), at(45)),
+                new SlotWindow(at(60), at(120)),
+                new SlotWindow(at(150), at(210))));
+        index.add(2L, 20L, at(60), at(120));
+
+        List<SlotDiscoveryIndex.SlotMatch> matches =
+                index.findEarliest(Map.of(1L, Duration.ofMinutes(30)), at(0), at(180), 10);
+
+        assertEquals(List.of(12L), slotIds(matches));
+    }
+
+    @Test
+    @DisplayName("removed slots disappear and reload replaces the whole index")
+    void removeAndReload() {
+        index.add(1L, 10L, at(0), at(60));
+        index.add(1L, 11L, at(60), at(120));
+        index.remove(10L);
+        index.remove(99L);
+
+        Map<Long, Duration> provider1 = Map.of(1L, Duration.ZERO);
+        assertEquals(List.of(11L), slotIds(index.findEarliest(provider1, at(0), at(600), 10)));
+
+        when(timeSlotRepository.findIntervalsByStatusEndingAfter(eq(TimeSlot.SlotStatus.AVAILABLE), any()))
+                .thenReturn(List.of(view(12L, 1L, at(200), at(260))));
+        index.reload();
+
+        assertEquals(List.of(12L), slotIds(index.findEarliest(provider1, at(0), at(600), 10)));
+    }
+
+    @Test
+    @DisplayName("reload keeps slots added and removed while it reads the database")
+    void reload_replaysConcurrentWrites() {
+        index.add(1L, 10L, at(0), at(60));
+        when(timeSlotRepository.findIntervalsByStatusEndingAfter(eq(TimeSlot.SlotStatus.AVAILABLE), any()))
+                .thenAnswer(invocation -> {
+                    // Committed after the query's snapshot: slot 11 opened, slot 10 was booked
+                    index.add(1L, 11L, at(60), at(120));
+                    index.remove(10L);
+                    return List.of(view(10L, 1L, at(0), at(60)));
+                });
+
+        index.reload();
+
+        assertEquals(List.of(11L), slotIds(index.findEarliest(Map.of(1L, Duration.ZERO), at(0), at(600), 10)));
+    }
+}
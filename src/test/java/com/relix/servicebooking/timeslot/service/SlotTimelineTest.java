@@ -0,0 +1,90 @@
+package com.relix.servicebooking.timeslot.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotTimelineTest {
+
+    private static SlotTimeline.Interval interval(long id, long start, long end) {
+        return new SlotTimeline.Interval(id, start, end);
+    }
+
+    private static List<Long> startingWithin(SlotTimeline timeline, long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<SlotTimeline.Interval> it = timeline.startingWithin(from, to); it.hasNext(); ) {
+            ids.add(it.next().slotId());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("yields intervals starting in the window in (start, id) order")
+    void startingWithin_inStartOrder() {
+        SlotTimeline timeline = new SlotTimeline();
+        for (SlotTimeline.Interval interval : List.of(interval(4, 40, 50), interval(1, 0, 10),
+                interval(3, 25, 35), interval(6, 25, 30), interval(5, 60, 70))) {
+            timeline.put(interval);
+        }
+
+        assertEquals(List.of(3L, 6L, 4L), startingWithin(timeline, 20, 60));
+        assertEquals(List.of(1L), startingWithin(timeline, 0, 25));
+        assertEquals(List.of(), startingWithin(timeline, 60, 60));
+    }
+
+    @Test
+    @DisplayName("put replaces by slot id and remove drops a single slot")
+    void put_replacesAndRemoveDrops() {
+        SlotTimeline timeline = new SlotTimeline();
+        timeline.put(interval(1, 0, 10));
+        timeline.put(interval(2, 20, 30));
+
+        timeline.put(interval(1, 40, 50));
+        assertEquals(List.of(2L, 1L), startingWithin(timeline, 0, 100));
+
+        assertTrue(timeline.remove(2));
+        assertFalse(timeline.remove(99));
+        assertEquals(List.of(1L), startingWithin(timeline, 0, 100));
+        assertEquals(1, timeline.size());
+    }
+
+    @Test
+    @DisplayName("matches a linear scan after random puts and removes")
+    void startingWithin_matchesLinearScan() {
+        Random random = new Random(11);
+        SlotTimeline timeline = new SlotTimeline();
+        Map<Long, SlotTimeline.Interval> expectedById = new HashMap<>();
+        for (int op = 0; op < 2_000; op++) {
+            long id = 1 + random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                timeline.remove(id);
+                expectedById.remove(id);
+            } else {
+                long start = random.nextInt(10_000);
+                SlotTimeline.Interval interval = interval(id, start, start + 1 + random.nextInt(300));
+                timeline.put(interval);
+                expectedById.put(id, interval);
+            }
+        }
+
+        for (int query = 0; query < 200; query++) {
+            long from = random.nextInt(10_000);
+            long to = from + 1 + random.nextInt(500);
+            List<Long> expected = expectedById.values().stream()
+                    .filter(i -> i.start() >= from && i.start() < to)
+                    .sorted((a, b) -> a.start() != b.start()
+                            ? Long.compare(a.start(), b.start()) : Long.compare(a.slotId(), b.slotId()))
+                    .map(SlotTimeline.Interval::slotId)
+                    .toList();
+            assertEquals(expected, startingWithin(timeline, from, to));
+        }
+    }
+}
@@ -6,32 +6,59 @@ import com.relix.servicebooking.common.exception.ResourceNotFoundException;
 import com.relix.servicebooking.order.repository.OrderRepository;
 import com.relix.servicebooking.provider.entity.Provider;
 import com.relix.servicebooking.provider.repository.ProviderRepository;
+import com.relix.servicebooking.service.entity.Service;
+import com.relix.servicebooking.service.repository.ServiceRepository;
+import com.relix.servicebooking.timeslot.dto.ScheduleTemplateRequest;
+import com.relix.servicebooking.timeslot.dto.SlotDiscoveryResponse;
+import com.relix.servicebooking.timeslot.dto.SlotGenerationResponse;
 import com.relix.servicebooking.timeslot.dto.TimeSlotCreateRequest;
+import com.relix.servicebooking.timeslot.dto.WeeklyAvailabilityRule;
 import com.relix.servicebooking.timeslot.dto.TimeSlotResponse;
 import com.relix.servicebooking.timeslot.entity.TimeSlot;
+import com.relix.servicebooking.timeslot.repository.TimeSlotJdbcRepository;
 import com.relix.servicebooking.timeslot.repository.TimeSlotRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TimeSlotServiceTest {
 
     @Mock private TimeSlotRepository timeSlotRepository;
+    @Mock private TimeSlotJdbcRepository timeSlotJdbcRepository;
     @Mock private ProviderRepository providerRepository;
     @Mock private OrderRepository orderRepository;
+    @Mock private ServiceRepository serviceRepository;
+    @Mock private SlotAvailabilityIndex slotAvailabilityIndex;
+    @Mock private SlotDiscoveryIndex slotDiscoveryIndex;
 
     @InjectMocks private TimeSlotService timeSlotService;
 
@@ -116,7 +143,7 @@ class TimeSlotServiceTest {
     class BookSlot {
 
         @Test
-        @DisplayName("books an available slot")
+        @DisplayName("books an available slot with a conditional update")
         void bookSlot_success() {
             TimeSlot slot = TimeSlot.builder()
                     .provider(createProvider(1L))
@@ -124,28 +151,111 @@ class TimeSlotServiceTest {
                     .status(TimeSlot.SlotStatus.AVAILABLE).build();
             slot.setId(1L);
 
-            when(timeSlotRepository.findByIdWithLock(1L)).thenReturn(Optional.of(slot));
-            when(timeSlotRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(slotAvailabilityIndex.tryReserve(1L)).thenReturn(SlotAvailabilityIndex.Reservation.RESERVED);
+            when(timeSlotRepository.updateStatusIfMatches(1L, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED))
+                    .thenReturn(1);
+            when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(slot));
 
             TimeSlot result = timeSlotService.bookSlot(1L);
 
             assertEquals(TimeSlot.SlotStatus.BOOKED, result.getStatus());
+            verify(timeSlotRepository, never()).findByIdWithLock(any());
+            verify(slotDiscoveryIndex).remove(1L);
         }
 
         @Test
-        @DisplayName("rejects booking an already-booked slot")
-        void bookSlot_alreadyBooked_throws() {
+        @DisplayName("refuses a slot the index knows is booked without touching the database")
+        void bookSlot_rejectedByIndex_shortCircuits() {
+            when(slotAvailabilityIndex.tryReserve(1L)).thenReturn(SlotAvailabilityIndex.Reservation.REJECTED);
+
+            BusinessException ex = assertThrows(BusinessException.class,
+                    () -> timeSlotService.bookSlot(1L));
+            assertEquals("SLOT_NOT_AVAILABLE", ex.getCode());
+            verifyNoInteractions(timeSlotRepository);
+        }
+
+        @Test
+        @DisplayName("a slot held by another booking in flight is decided by the conditional update")
+        void bookSlot_contended_decidedByUpdate() {
             TimeSlot slot = TimeSlot.builder()
                     .provider(createProvider(1L))
                     .startTime(Instant.now()).endTime(Instant.now().plus(1, ChronoUnit.HOURS))
-                    .status(TimeSlot.SlotStatus.BOOKED).build();
+                    .status(TimeSlot.SlotStatus.AVAILABLE).build();
             slot.setId(1L);
 
-            when(timeSlotRepository.findByIdWithLock(1L)).thenReturn(Optional.of(slot));
+            when(slotAvailabilityIndex.tryReserve(1L)).thenReturn(SlotAvailabilityIndex.Reservation.CONTENDED);
+            when(timeSlotRepository.updateStatusIfMatches(1L, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED))
+                    .thenReturn(1);
+            when(timeSlotRepository.findById(1L)).thenReturn(Optional.of(slot));
+
+            assertEquals(TimeSlot.SlotStatus.BOOKED, timeSlotService.bookSlot(1L).getStatus());
+            verify(slotAvailabilityIndex).markBooked(1L);
+        }
+
+        @Test
+        @DisplayName("releases the hold when the conditional update throws")
+        void bookSlot_updateThrows_releasesHold() {
+            when(slotAvailabilityIndex.tryReserve(1L)).thenReturn(SlotAvailabilityIndex.Reservation.RESERVED);
+            when(timeSlotRepository.updateStatusIfMatches(1L, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED))
+                    .thenThrow(new QueryTimeoutException("statement timeout"));
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                assertThrows(QueryTimeoutException.class, () -> timeSlotService.bookSlot(1L));
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(slotAvailabilityIndex).markAvailable(1L);
+            verify(slotAvailabilityIndex, never()).markBooked(any());
+        }
+
+        @Test
+        @DisplayName("a slot the database refuses stays booked in the index after rollback")
+        void bookSlot_staleAvailable_notReleasedOnRollback() {
+            when(slotAvailabilityIndex.tryReserve(1L)).thenReturn(SlotAvailabilityIndex.Reservation.RESERVED);
+            when(timeSlotRepository.updateStatusIfMatches(1L, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED))
+                    .thenReturn(0);
+            when(timeSlotRepository.existsById(1L)).thenReturn(true);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                assertThrows(BusinessException.class, () -> timeSlotService.bookSlot(1L));
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(slotAvailabilityIndex).markBooked(1L);
+            verify(slotAvailabilityIndex, never()).markAvailable(any());
+        }
+
+        @Test
+        @DisplayName("rejects booking an already-booked slot")
+        void bookSlot_alreadyBooked_throws() {
+            when(slotAvailabilityIndex.tryReserve(1L)).thenReturn(SlotAvailabilityIndex.Reservation.UNKNOWN);
+            when(timeSlotRepository.updateStatusIfMatches(1L, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED))
+                    .thenReturn(0);
+            when(timeSlotRepository.existsById(1L)).thenReturn(true);
 
             BusinessException ex = assertThrows(BusinessException.class,
                     () -> timeSlotService.bookSlot(1L));
             assertEquals("SLOT_NOT_AVAILABLE", ex.getCode());
+            verify(slotAvailabilityIndex).markBooked(1L);
+        }
+
+        @Test
+        @DisplayName("throws when slot does not exist")
+        void bookSlot_notFound_throws() {
+            when(slotAvailabilityIndex.tryReserve(999L)).thenReturn(SlotAvailabilityIndex.Reservation.UNKNOWN);
+            when(timeSlotRepository.updateStatusIfMatches(999L, TimeSlot.SlotStatus.AVAILABLE, TimeSlot.SlotStatus.BOOKED))
+                    .thenReturn(0);
+            when(timeSlotRepository.existsById(999L)).thenReturn(false);
+
+            assertThrows(ResourceNotFoundException.class, () -> timeSlotService.bookSlot(999L));
         }
     }
 
@@ -258,4 +368,185 @@ class TimeSlotServiceTest {
                     () -> timeSlotService.verifyProviderOwnership(10L, 999L));
         }
     }
+
+    @Nested
+    @DisplayName("generateTimeSlots")
+    class GenerateTimeSlots {
+
+        private ScheduleTemplateRequest template() {
+            LocalDate nextMonday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+            return ScheduleTemplateRequest.builder()
+                    .providerId(1L).fromDate(nextMonday).toDate(nextMonday.plusDays(6))
+                    .rules(List.of(WeeklyAvailabilityRule.builder().dayOfWeek(DayOfWeek.MONDAY)
+                            .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(12, 0)).slotMinutes(60).build()))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("inserts only the candidates that do not overlap existing slots")
+        @SuppressWarnings("unchecked")
+        void generateTimeSlots_skipsOverlaps() {
+            when(providerRepository.findByIdWithLock(1L)).thenReturn(Optional.of(createProvider(1L)));
+            when(timeSlotJdbcRepository.findOverlapping(eq(1L), anyList())).thenReturn(Set.of(1));
+            when(timeSlotJdbcRepository.insertAvailable(eq(1L), anyList())).thenReturn(List.of(100L, 101L));
+
+            SlotGenerationResponse response = timeSlotService.generateTimeSlots(template());
+
+            assertEquals(2, response.getCreated());
+            assertEquals(1, response.getSkippedOverlapping());
+            ArgumentCaptor<List<TimeSlotJdbcRepository.SlotWindow>> inserted =
+                    ArgumentCaptor.forClass(List.class);
+            verify(timeSlotJdbcRepository).insertAvailable(eq(1L), inserted.capture());
+            assertEquals(List.of(9, 11), inserted.getValue().stream()
+                    .map(window -> window.startTime().atZone(ZoneOffset.UTC).getHour()).toList());
+            verify(slotAvailabilityIndex).markAvailable(100L);
+            verify(slotAvailabilityIndex).markAvailable(101L);
+            verify(slotDiscoveryIndex).addAll(eq(1L), eq(List.of(100L, 101L)), anyList());
+            verify(timeSlotRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("throws ResourceNotFoundException for an unknown provider")
+        void generateTimeSlots_unknownProvider() {
+            when(providerRepository.findByIdWithLock(1L)).thenReturn(Optional.empty());
+
+            assertThrows(ResourceNotFoundException.class, () -> timeSlotService.generateTimeSlots(template()));
+            verifyNoInteractions(timeSlotJdbcRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("discoverSlots")
+    class DiscoverSlots {
+
+        private final Instant from = Instant.now().plus(1, ChronoUnit.DAYS);
+        private final Instant to = from.plus(4, ChronoUnit.HOURS);
+
+        private Service service(Long id, Long providerId, int durationMinutes) {
+            Service service = Service.builder().provider(createProvider(providerId)).name("Haircut")
+                    .durationMinutes(durationMinutes).price(new BigDecimal("30.00")).build();
+            service.setId(id);
+            return service;
+        }
+
+        @Test
+        @DisplayName("asks the index for every provider offering the service, with its duration")
+        void discoverSlots_mapsMatchesToServices() {
+            when(serviceRepository.findByNameIgnoreCaseAndStatus("Haircut", Service.ServiceStatus.ACTIVE))
+                    .thenReturn(List.of(service(5L, 1L, 30), service(6L, 2L, 45), service(7L, 2L, 60)));
+            when(slotDiscoveryIndex.findEarliest(any(), eq(from), eq(to), eq(10))).thenReturn(List.of(
+                    new SlotDiscoveryIndex.SlotMatch(100L, 2L, from, from.plus(1, ChronoUnit.HOURS))));
+
+            List<SlotDiscoveryResponse> slots = timeSlotService.discoverSlots(" Haircut ", from, to, 40, 10);
+
+            assertEquals(1, slots.size());
+            assertEquals(100L, slots.get(0).getSlotId());
+            assertEquals(6L, slots.get(0).getServiceId());
+            verify(slotDiscoveryIndex).findEarliest(
+                    Map.of(1L, Duration.ofMinutes(40), 2L, Duration.ofMinutes(45)), from, to, 10);
+        }
+
+        @Test
+        @DisplayName("clamps the start to now and the limit to the maximum")
+        void discoverSlots_clampsWindowAndLimit() {
+            when(serviceRepository.findByNameIgnoreCaseAndStatus("Haircut", Service.ServiceStatus.ACTIVE))
+                    .thenReturn(List.of(service(5L, 1L, 30)));
+
+            Instant past = Instant.now().minus(1, ChronoUnit.DAYS);
+            timeSlotService.discoverSlots("Haircut", past, to, null, 1000);
+
+            ArgumentCaptor<Instant> start = ArgumentCaptor.forClass(Instant.class);
+            verify(slotDiscoveryIndex).findEarliest(any(), start.capture(), eq(to),
+                    eq(TimeSlotService.MAX_DISCOVERY_LIMIT));
+            assertTrue(start.getValue().isAfter(past.plus(23, ChronoUnit.HOURS)));
+        }
+
+        @Test
+        @DisplayName("returns nothing without touching the index when no provider offers the service")
+        void discoverSlots_unknownService() {
+            when(serviceRepository.findByNameIgnoreCaseAndStatus("Massage", Service.ServiceStatus.ACTIVE))
+                    .thenReturn(List.of());
+
+            assertTrue(timeSlotService.discoverSlots("Massage", from, to, null, 10).isEmpty());
+            verify(slotDiscoveryIndex, never()).findEarliest(any(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("rejects an empty window")
+        void discoverSlots_invalidWindow() {
+            BusinessException ex = assertThrows(BusinessException.class,
+                    () -> timeSlotService.discoverSlots("Haircut", to, from, null, 10));
+            assertEquals("INVALID_TIME_RANGE", ex.getCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("getAvailableSlotsByProvider")
+    class GetAvailableSlotsByProvider {
+
+        private TimeSlotRepository.AvailableSlotView view(Long id, Instant start) {
+            return new TimeSlotRepository.AvailableSlotView() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public Instant getStartTime() {
+                    return start;
+                }
+
+                @Override
+                public Instant getEndTime() {
+                    return start.plus(1, ChronoUnit.HOURS);
+                }
+
+                @Override
+                public Instant getCreatedAt() {
+                    return start.minus(1, ChronoUnit.DAYS);
+                }
+            };
+        }
+
+        @Test
+        @DisplayName("reads the requested window from the covering query")
+        void getAvailableSlots_window() {
+            Instant from = Instant.now().plus(1, ChronoUnit.DAYS);
+            Instant to = from.plus(7, ChronoUnit.DAYS);
+            when(timeSlotRepository.findAvailableSlots(1L, from, to)).thenReturn(List.of(view(10L, from)));
+
+            List<TimeSlotResponse> slots = timeSlotService.getAvailableSlotsByProvider(1L, from, to);
+
+            assertEquals(1, slots.size());
+            assertEquals(10L, slots.get(0).getId());
+            assertEquals(1L, slots.get(0).getProviderId());
+            assertEquals("AVAILABLE", slots.get(0).getStatus());
+        }
+
+        @Test
+        @DisplayName("starts at now and spans the default window when no bounds are given")
+        void getAvailableSlots_defaults() {
+            Instant before = Instant.now();
+
+            timeSlotService.getAvailableSlotsByProvider(1L, before.minus(30, ChronoUnit.DAYS), null);
+
+            ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+            ArgumentCaptor<Instant> to = ArgumentCaptor.forClass(Instant.class);
+            verify(timeSlotRepository).findAvailableSlots(eq(1L), from.capture(), to.capture());
+            assertFalse(from.getValue().isBefore(before));
+            assertEquals(TimeSlotService.DEFAULT_SLOT_WINDOW, Duration.between(from.getValue(), to.getValue()));
+        }
+
+        @Test
+        @DisplayName("rejects windows longer than the maximum and skips empty ones")
+        void getAvailableSlots_bounds() {
+            Instant from = Instant.now().plus(1, ChronoUnit.DAYS);
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> timeSlotService
+                    .getAvailableSlotsByProvider(1L, from, from.plus(TimeSlotService.MAX_SLOT_WINDOW).plusSeconds(1)));
+            assertEquals("INVALID_TIME_RANGE", ex.getCode());
+            assertTrue(timeSlotService.getAvailableSlotsByProvider(1L, from, from).isEmpty());
+            verifyNoInteractions(timeSlotRepository);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package com.relix.servicebooking.user.service;
+
+import com.relix.servicebooking.common.exception.BusinessException;
+import com.relix.servicebooking.user.dto.UserResponse;
+import com.relix.servicebooking.user.entity.User;
+import com.relix.servicebooking.user.event.UserStatusChangedEvent;
+import com.relix.servicebooking.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks private UserService userService;
+
+    private User user(User.UserStatus status) {
+        User user = User.builder().name("Alice").email("alice@test.com")
+                .role(User.UserRole.CUSTOMER).status(status).build();
+        user.setId(1L);
+        return user;
+    }
+
+    @Nested
+    @DisplayName("updateStatus")
+    class UpdateStatus {
+
+        @Test
+        @DisplayName("suspends the user and publishes a status change event")
+        void updateStatus_publishesEvent() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user(User.UserStatus.ACTIVE)));
+
+            UserResponse response = userService.updateStatus(1L, "suspended");
+
+            assertEquals("SUSPENDED", response.getStatus());
+            verify(eventPublisher).publishEvent(new UserStatusChangedEvent(1L, User.UserStatus.SUSPENDED));
+        }
+
+        @Test
+        @DisplayName("unchanged status publishes nothing")
+        void updateStatus_noop() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user(User.UserStatus.ACTIVE)));
+
+            userService.updateStatus(1L, "ACTIVE");
+
+            verify(userRepository, never()).save(any());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("rejects unknown status values")
+        void updateStatus_invalid() {
+            BusinessException ex = assertThrows(BusinessException.class, () -> userService.updateStatus(1L, "BANNED"));
+            assertEquals("INVALID_STATUS", ex.getCode());
+        }
+    }
+}